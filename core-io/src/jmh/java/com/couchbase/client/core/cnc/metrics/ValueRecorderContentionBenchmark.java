@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.deps.org.LatencyUtils.LatencyStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures recording response latencies from 64 threads into a single recorder: the shared latency stats
+ * the aggregating meter used before, its sharded recorder, and the sharded meter wrapping a shared recorder.
+ * <p>
+ * Run with {@code mvn -Djmh=true test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class ValueRecorderContentionBenchmark {
+
+  @Param({ "shared", "sharded", "sharded_meter" })
+  public String mode;
+
+  private ValueRecorder recorder;
+
+  @Setup
+  public void setup() {
+    switch (mode) {
+      case "shared":
+        recorder = new LatencyStats()::recordLatency;
+        break;
+      case "sharded":
+        recorder = new AggregatingValueRecorder("cb.responses", Collections.emptyMap());
+        break;
+      case "sharded_meter":
+        LatencyStats shared = new LatencyStats();
+        Meter delegate = new Meter() {
+          @Override
+          public Counter counter(String name, Map<String, String> tags) {
+            return value -> { };
+          }
+
+          @Override
+          public ValueRecorder valueRecorder(String name, Map<String, String> tags) {
+            return shared::recordLatency;
+          }
+        };
+        recorder = ShardedMeter.wrap(delegate).valueRecorder("cb.responses", Collections.emptyMap());
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown mode " + mode);
+    }
+  }
+
+  @Benchmark
+  public void recordValue() {
+    recorder.recordValue(ThreadLocalRandom.current().nextLong(10_000, 5_000_000));
+  }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io;
+
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
+import com.couchbase.client.core.env.CompressionConfig;
+import com.couchbase.client.core.io.netty.kv.KeyValueChannelContext;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import com.couchbase.client.core.util.UnsignedLEB128;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures resolving the collection id of a non-default collection and encoding a get request against it,
+ * once through the identifier held by a collection (resolved id cached) and once through a new, equal
+ * identifier (full map lookup).
+ * <p>
+ * Run with {@code mvn -Djmh=true test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollectionResolutionBenchmark {
+
+  private static final int NUM_COLLECTIONS = 1000;
+  private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+  private final ByteBufAllocator allocator = UnpooledByteBufAllocator.DEFAULT;
+
+  private CollectionMap collectionMap;
+  private CollectionIdentifier handle;
+  private KeyValueChannelContext channelContext;
+  private CoreContext coreContext;
+
+  @Setup
+  public void setup() {
+    collectionMap = new CollectionMap();
+    for (int i = 0; i < NUM_COLLECTIONS; i++) {
+      collectionMap.put(identifier("collection-" + i), UnsignedLEB128.encode(i + 8));
+    }
+    handle = identifier("collection-42");
+    coreContext = new CoreContext(null, 1, null, null);
+    channelContext = new KeyValueChannelContext(
+      CompressionConfig.builder().enable(false).build(),
+      true,
+      false,
+      Optional.of("travel-sample"),
+      false,
+      false,
+      false,
+      collectionMap,
+      null,
+      false
+    );
+  }
+
+  @Benchmark
+  public byte[] lookupWithHandle() {
+    return collectionMap.get(handle);
+  }
+
+  @Benchmark
+  public byte[] lookupWithNewIdentifier() {
+    return collectionMap.get(identifier("collection-42"));
+  }
+
+  @Benchmark
+  public int encodeWithHandle() {
+    return encode(handle);
+  }
+
+  @Benchmark
+  public int encodeWithNewIdentifier() {
+    return encode(identifier("collection-42"));
+  }
+
+  private int encode(final CollectionIdentifier identifier) {
+    GetRequest request = new GetRequest(
+      "airline_10123", TIMEOUT, coreContext, identifier, BestEffortRetryStrategy.INSTANCE, null
+    );
+    ByteBuf encoded = request.encode(allocator, 0, channelContext);
+    int size = encoded.readableBytes();
+    encoded.release();
+    return size;
+  }
+
+  private static CollectionIdentifier identifier(final String collection) {
+    return new CollectionIdentifier("travel-sample", Optional.of("inventory"), Optional.of(collection));
+  }
+
+}
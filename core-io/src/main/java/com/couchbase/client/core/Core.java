@@ -39,6 +39,7 @@ import com.couchbase.client.core.config.GlobalConfig;
 import com.couchbase.client.core.diagnostics.EndpointDiagnostics;
 import com.couchbase.client.core.env.Authenticator;
 import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.env.NodeSelectionStrategy;
 import com.couchbase.client.core.env.SeedNode;
 import com.couchbase.client.core.error.ConfigException;
 import com.couchbase.client.core.error.GlobalConfigNotFoundException;
@@ -50,15 +51,16 @@ import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.msg.Response;
 import com.couchbase.client.core.node.KeyValueLocator;
+import com.couchbase.client.core.node.LeastLoadedLocator;
 import com.couchbase.client.core.node.Locator;
 import com.couchbase.client.core.node.Node;
 import com.couchbase.client.core.node.NodeIdentifier;
 import com.couchbase.client.core.node.RoundRobinLocator;
 import com.couchbase.client.core.node.ViewLocator;
+import com.couchbase.client.core.retry.RetryParking;
 import com.couchbase.client.core.service.ServiceScope;
 import com.couchbase.client.core.service.ServiceState;
 import com.couchbase.client.core.service.ServiceType;
-import com.couchbase.client.core.util.HostAndPort;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -68,7 +70,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
@@ -114,28 +115,25 @@ public class Core {
     new RoundRobinLocator(ServiceType.MANAGER);
 
   /**
-   * Locates the right node for the query service.
+   * Locates the right node for the view service.
    */
-  private static final RoundRobinLocator QUERY_LOCATOR =
-    new RoundRobinLocator(ServiceType.QUERY);
+  private static final RoundRobinLocator VIEWS_LOCATOR =
+    new ViewLocator();
 
   /**
-   * Locates the right node for the analytics service.
+   * Locates the right node for the query service, depending on the configured {@link NodeSelectionStrategy}.
    */
-  private static final RoundRobinLocator ANALYTICS_LOCATOR =
-    new RoundRobinLocator(ServiceType.ANALYTICS);
+  private final RoundRobinLocator queryLocator;
 
   /**
-   * Locates the right node for the search service.
+   * Locates the right node for the analytics service, depending on the configured {@link NodeSelectionStrategy}.
    */
-  private static final RoundRobinLocator SEARCH_LOCATOR =
-    new RoundRobinLocator(ServiceType.SEARCH);
+  private final RoundRobinLocator analyticsLocator;
 
   /**
-   * Locates the right node for the view service.
+   * Locates the right node for the search service, depending on the configured {@link NodeSelectionStrategy}.
    */
-  private static final RoundRobinLocator VIEWS_LOCATOR =
-    new ViewLocator();
+  private final RoundRobinLocator searchLocator;
 
   /**
    * Holds the current core context.
@@ -183,12 +181,19 @@ public class Core {
    */
   private final Timer timer;
 
+  /**
+   * Holds requests which wait for a retry until the topology changes.
+   */
+  private final RetryParking retryParking;
+
   private final Set<SeedNode> seedNodes;
 
   /**
-   * Holds the response metrics per
+   * Holds the response metrics per service, remote hostname and request name.
+   * <p>
+   * The recorders are nested by their tag values so that looking up an existing one does not allocate a key.
    */
-  private final Map<ResponseMetricIdentifier, ValueRecorder> responseMetrics = new ConcurrentHashMap<>();
+  private final Map<ServiceType, Map<String, Map<String, ValueRecorder>>> responseMetrics = new ConcurrentHashMap<>();
 
   /**
    * Creates a new {@link Core} with the given environment.
@@ -218,6 +223,10 @@ public class Core {
     this.nodes = new CopyOnWriteArrayList<>();
     this.eventBus = environment.eventBus();
     this.timer = environment.timer();
+    this.retryParking = new RetryParking(this);
+    this.queryLocator = httpLocator(environment, ServiceType.QUERY);
+    this.analyticsLocator = httpLocator(environment, ServiceType.ANALYTICS);
+    this.searchLocator = httpLocator(environment, ServiceType.SEARCH);
     this.currentConfig = configurationProvider.config();
     this.configurationProvider.configs().subscribe(c -> {
       currentConfig = c;
@@ -301,6 +310,14 @@ public class Core {
     return coreContext;
   }
 
+  /**
+   * Returns the parking area for requests which wait for a retry until the topology changes.
+   */
+  @Stability.Internal
+  public RetryParking retryParking() {
+    return retryParking;
+  }
+
   @Stability.Internal
   public Stream<EndpointDiagnostics> diagnostics() {
     return nodes.stream().flatMap(Node::diagnostics);
@@ -445,15 +462,30 @@ public class Core {
 
   @Stability.Internal
   public ValueRecorder responseMetric(final Request<?> request) {
-    return responseMetrics.computeIfAbsent(new ResponseMetricIdentifier(request), key -> {
-      Map<String, String> tags = new HashMap<>(4);
-      tags.put("cb.service", key.serviceType.ident());
-      tags.put("cb.remote_hostname", key.lastDispatchedTo.hostname());
-      tags.put("cb.request_type", key.requestName);
-      return coreContext.environment().meter().valueRecorder("cb.responses", tags);
-    });
-  }
+    final ServiceType serviceType = request.serviceType();
+    final String hostname = request.context().lastDispatchedTo().hostname();
+    final String requestName = request.name();
 
+    Map<String, Map<String, ValueRecorder>> byHostname = responseMetrics.get(serviceType);
+    if (byHostname == null) {
+      byHostname = responseMetrics.computeIfAbsent(serviceType, k -> new ConcurrentHashMap<>());
+    }
+    Map<String, ValueRecorder> byName = byHostname.get(hostname);
+    if (byName == null) {
+      byName = byHostname.computeIfAbsent(hostname, k -> new ConcurrentHashMap<>());
+    }
+    ValueRecorder recorder = byName.get(requestName);
+    if (recorder == null) {
+      recorder = byName.computeIfAbsent(requestName, k -> {
+        Map<String, String> tags = new HashMap<>(4);
+        tags.put("cb.service", serviceType.ident());
+        tags.put("cb.remote_hostname", hostname);
+        tags.put("cb.request_type", requestName);
+        return coreContext.environment().meter().valueRecorder("cb.responses", tags);
+      });
+    }
+    return recorder;
+  }
 
   /**
    * Create a {@link Node} from the given identifier.
@@ -592,6 +624,7 @@ public class Core {
         },
         () -> {
           clearReconfigureInProgress();
+          retryParking.configApplied(configForThisAttempt);
           eventBus.publish(new ReconfigurationCompletedEvent(
             Duration.ofNanos(System.nanoTime() - start),
             coreContext
@@ -804,18 +837,18 @@ public class Core {
    * @param serviceType the service type for which a locator should be returned.
    * @return the locator for the service type, or an exception if unknown.
    */
-  private static Locator locator(final ServiceType serviceType) {
+  private Locator locator(final ServiceType serviceType) {
     switch (serviceType) {
       case KV:
         return KEY_VALUE_LOCATOR;
       case MANAGER:
         return MANAGER_LOCATOR;
       case QUERY:
-        return QUERY_LOCATOR;
+        return queryLocator;
       case ANALYTICS:
-        return ANALYTICS_LOCATOR;
+        return analyticsLocator;
       case SEARCH:
-        return SEARCH_LOCATOR;
+        return searchLocator;
       case VIEWS:
         return VIEWS_LOCATOR;
       default:
@@ -823,32 +856,19 @@ public class Core {
     }
   }
 
-  private static class ResponseMetricIdentifier {
-
-    private final ServiceType serviceType;
-    private final HostAndPort lastDispatchedTo;
-    private final String requestName;
-
-    ResponseMetricIdentifier(final Request<?> request) {
-      this.serviceType = request.serviceType();
-      this.lastDispatchedTo = request.context().lastDispatchedTo();
-      this.requestName = request.name();
-    }
-
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) return true;
-      if (o == null || getClass() != o.getClass()) return false;
-      ResponseMetricIdentifier that = (ResponseMetricIdentifier) o;
-      return serviceType == that.serviceType &&
-        Objects.equals(lastDispatchedTo, that.lastDispatchedTo) &&
-        Objects.equals(requestName, that.requestName);
-    }
-
-    @Override
-    public int hashCode() {
-      return Objects.hash(serviceType, lastDispatchedTo, requestName);
+  /**
+   * Creates the locator for one of the services which do not need a specific node, based on the configured
+   * {@link NodeSelectionStrategy}.
+   *
+   * @param environment the environment holding the io config.
+   * @param serviceType the service type the locator is used for.
+   * @return the created locator.
+   */
+  private static RoundRobinLocator httpLocator(final CoreEnvironment environment, final ServiceType serviceType) {
+    if (environment.ioConfig().nodeSelectionStrategy() == NodeSelectionStrategy.LEAST_LOADED) {
+      return new LeastLoadedLocator(serviceType, environment.meter());
     }
+    return new RoundRobinLocator(serviceType);
   }
 
 }
@@ -113,25 +113,55 @@ public class Timer {
    * @param runAfter the duration after which to retry.
    */
   public void scheduleForRetry(final Core core, final Request<? extends Response> request, final Duration runAfter) {
+    scheduleForRetry(request, runAfter, () -> {
+      if (!request.completed()) {
+        core.send(request, false);
+      }
+    });
+  }
+
+  /**
+   * Schedules a custom retry callback for a request after the given duration.
+   * <p>
+   * Like {@link #scheduleForRetry(Core, Request, Duration)} this accounts towards the maximum outstanding request
+   * limit, but leaves it up to the callback to send the request again. If the retry happens through other means
+   * before the duration elapsed, the returned timeout should be handed to {@link #cancelRetry(Timeout)}.
+   *
+   * @param request the request to retry.
+   * @param runAfter the duration after which to run the callback.
+   * @param callback the callback to run.
+   * @return the timeout of the scheduled callback, or null if the request has been cancelled instead.
+   */
+  public Timeout scheduleForRetry(final Request<? extends Response> request, final Duration runAfter,
+                                  final Runnable callback) {
     if (stopped) {
       request.cancel(CancellationReason.SHUTDOWN);
-      return;
+      return null;
     }
 
     if (outstandingForRetry.get() >= maxNumRequestsInRetry) {
       request.cancel(CancellationReason.TOO_MANY_REQUESTS_IN_RETRY);
-      return;
+      return null;
     }
 
     outstandingForRetry.incrementAndGet();
-    schedule(() -> {
+    return schedule(() -> {
       outstandingForRetry.decrementAndGet();
-      if (!request.completed()) {
-        core.send(request, false);
-      }
+      callback.run();
     }, runAfter);
   }
 
+  /**
+   * Cancels a retry callback scheduled through {@link #scheduleForRetry(Request, Duration, Runnable)}.
+   *
+   * @param timeout the timeout returned when scheduling the callback.
+   */
+  public void cancelRetry(final Timeout timeout) {
+    if (timeout != null && timeout.cancel()) {
+      outstandingForRetry.decrementAndGet();
+    }
+  }
+
   /**
    * Schedule an arbitrary task for this timer.
    */
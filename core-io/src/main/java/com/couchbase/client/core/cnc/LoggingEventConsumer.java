@@ -17,15 +17,24 @@
 package com.couchbase.client.core.cnc;
 
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.org.jctools.queues.MpscArrayQueue;
 import com.couchbase.client.core.env.LoggerConfig;
+import com.couchbase.client.core.json.Mapper;
 import com.couchbase.client.core.msg.RequestContext;
 import org.slf4j.MDC;
 
 import java.io.PrintStream;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
@@ -51,13 +60,42 @@ public class LoggingEventConsumer implements Consumer<Event> {
    */
   private static final boolean SLF4J_AVAILABLE = slf4JOnClasspath();
 
+  private static final AtomicInteger WRITER_ID = new AtomicInteger();
+
+  /**
+   * The maximum number of events waiting to be written when logging asynchronously.
+   */
+  private static final int ASYNC_QUEUE_SIZE = 8192;
+
+  /**
+   * The maximum number of events written before checking the repeated events windows again.
+   */
+  private static final int ASYNC_BATCH_SIZE = 256;
+
+  private static final long ASYNC_IDLE_SLEEP_MS = 10;
+
+  private static final long ASYNC_MIN_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * How long shutdown waits at most for the background thread to write the pending events.
+   */
+  private static final long ASYNC_SHUTDOWN_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(5);
+
   /**
    * Contains the selected loggers that should be used for logging.
+   * <p>
+   * With asynchronous logging it is read from the event bus thread and the background thread, so it needs
+   * to be concurrent.
    */
-  private final Map<String, Logger> loggers = new HashMap<>(Event.Category.values().length);
+  private final Map<String, Logger> loggers = new ConcurrentHashMap<>(Event.Category.values().length);
 
   private final LoggerConfig loggerConfig;
 
+  /**
+   * Writes the events from a background thread, only present if asynchronous logging is enabled.
+   */
+  private final AsyncWriter asyncWriter;
+
   /**
    * Creates a new {@link LoggingEventConsumer} with all defaults.
    *
@@ -73,6 +111,7 @@ public class LoggingEventConsumer implements Consumer<Event> {
 
   private LoggingEventConsumer(final LoggerConfig loggerConfig) {
     this.loggerConfig = loggerConfig;
+    this.asyncWriter = loggerConfig.asyncLoggingEnabled() ? new AsyncWriter() : null;
   }
 
   private Logger createLogger(final String name) {
@@ -97,6 +136,57 @@ public class LoggingEventConsumer implements Consumer<Event> {
       return;
     }
 
+    if (asyncWriter != null) {
+      asyncWriter.enqueue(event);
+    } else {
+      log(event);
+    }
+  }
+
+  /**
+   * Stops the background thread if asynchronous logging is enabled, after it has written the pending events.
+   * <p>
+   * Blocks until the pending events are written, but no longer than a couple of seconds.
+   */
+  @Stability.Internal
+  public void shutdown() {
+    if (asyncWriter != null) {
+      asyncWriter.shutdown();
+    }
+  }
+
+  private Logger logger(final String category) {
+    Logger logger = loggers.get(category);
+    if (logger == null) {
+      logger = loggers.computeIfAbsent(category, this::createLogger);
+    }
+    return logger;
+  }
+
+  /**
+   * Formats the event and writes it to the logger of its category.
+   *
+   * @param event the event to log.
+   */
+  private void log(final Event event) {
+    String logLine = loggerConfig.jsonOutputEnabled() ? formatJson(event) : formatText(event);
+
+    Logger logger = logger(event.category());
+
+    boolean diagnosticContext = loggerConfig.diagnosticContextEnabled() && event.context() instanceof RequestContext;
+
+    if (diagnosticContext) {
+      logger.attachContext(((RequestContext) event.context()).clientContext());
+    }
+
+    write(logger, event.severity(), logLine, event.cause());
+
+    if (diagnosticContext) {
+      logger.clearContext();
+    }
+  }
+
+  private static String formatText(final Event event) {
     StringBuilder logLineBuilder = new StringBuilder();
 
     logLineBuilder.append("[").append(event.category()).append("]");
@@ -118,60 +208,277 @@ public class LoggingEventConsumer implements Consumer<Event> {
       logLineBuilder.append(" ").append(event.context().exportAsString(Context.ExportFormat.JSON));
     }
 
-    String logLine = logLineBuilder.toString();
+    return logLineBuilder.toString();
+  }
 
-    Logger logger = loggers.get(event.category());
-    if (logger == null) {
-      logger = createLogger(event.category());
-      loggers.put(event.category(), logger);
+  private static String formatJson(final Event event) {
+    Map<String, Object> record = new LinkedHashMap<>();
+    record.put("category", event.category());
+    record.put("event", event.getClass().getSimpleName());
+    record.put("severity", event.severity().name());
+    if (!event.duration().isZero()) {
+      record.put("duration_us", TimeUnit.NANOSECONDS.toMicros(event.duration().toNanos()));
     }
-
-    boolean diagnosticContext = loggerConfig.diagnosticContextEnabled() && event.context() instanceof RequestContext;
-
-    if (diagnosticContext) {
-      logger.attachContext(((RequestContext) event.context()).clientContext());
+    String description = event.description();
+    if (description != null && !description.isEmpty()) {
+      record.put("description", description);
     }
+    if (event.context() != null) {
+      // the export format receives the exportable params, which are embedded as a nested object
+      event.context().exportAsString(params -> {
+        record.put("context", params);
+        return "";
+      });
+    }
+    return Mapper.encodeAsString(record);
+  }
 
-    switch (event.severity()) {
+  private static void write(final Logger logger, final Event.Severity severity, final String logLine,
+                            final Throwable cause) {
+    switch (severity) {
       case VERBOSE:
-        if (event.cause() != null) {
-          logger.trace(logLine, event.cause());
+        if (cause != null) {
+          logger.trace(logLine, cause);
         } else {
           logger.trace(logLine);
         }
         break;
       case DEBUG:
-        if (event.cause() != null) {
-          logger.debug(logLine, event.cause());
+        if (cause != null) {
+          logger.debug(logLine, cause);
         } else {
           logger.debug(logLine);
         }
         break;
       case INFO:
-        if (event.cause() != null) {
-          logger.info(logLine, event.cause());
+        if (cause != null) {
+          logger.info(logLine, cause);
         } else {
           logger.info(logLine);
         }
         break;
       case WARN:
-        if (event.cause() != null) {
-          logger.warn(logLine, event.cause());
+        if (cause != null) {
+          logger.warn(logLine, cause);
         } else {
           logger.warn(logLine);
         }
         break;
       case ERROR:
-        if (event.cause() != null) {
-          logger.error(logLine, event.cause());
+        if (cause != null) {
+          logger.error(logLine, cause);
         } else {
           logger.error(logLine);
         }
       default:
     }
+  }
 
-    if (diagnosticContext) {
-      logger.clearContext();
+  private static boolean isEnabled(final Logger logger, final Event.Severity severity) {
+    switch (severity) {
+      case VERBOSE:
+        return logger.isTraceEnabled();
+      case DEBUG:
+        return logger.isDebugEnabled();
+      case INFO:
+        return logger.isInfoEnabled();
+      case WARN:
+        return logger.isWarnEnabled();
+      case ERROR:
+        return logger.isErrorEnabled();
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Logs events from a background thread, so that formatting and slow appenders do not hold up the event bus.
+   * <p>
+   * Events are only queued if their level is enabled and are then formatted and written in batches. Identical
+   * events (same type, severity and description) are only written once per window and then counted, the counts
+   * are written once the window is over. Events which do not fit into the queue are counted and reported as well.
+   */
+  private class AsyncWriter implements Runnable {
+
+    private final Queue<Event> queue = new MpscArrayQueue<>(ASYNC_QUEUE_SIZE);
+    private final LongAdder dropped = new LongAdder();
+    private final Map<RepeatedEventKey, RepeatedEvents> repeated = new HashMap<>();
+    private final long windowNanos;
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long lastWindowCheck = System.nanoTime();
+
+    AsyncWriter() {
+      this.windowNanos = loggerConfig.repeatedEventsWindow().toNanos();
+      worker = new Thread(this, "cb-logging-" + WRITER_ID.incrementAndGet());
+      worker.setDaemon(true);
+      worker.start();
+    }
+
+    void enqueue(final Event event) {
+      if (!isEnabled(logger(event.category()), event.severity())) {
+        return;
+      }
+      if (!queue.offer(event)) {
+        dropped.increment();
+      }
+    }
+
+    void shutdown() {
+      running = false;
+      worker.interrupt();
+      if (Thread.currentThread() == worker) {
+        return;
+      }
+      try {
+        worker.join(ASYNC_SHUTDOWN_TIMEOUT_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public void run() {
+      while (running) {
+        int written = drain(ASYNC_BATCH_SIZE);
+        long now = System.nanoTime();
+        if (now - lastWindowCheck >= Math.max(windowNanos, ASYNC_MIN_REPORT_INTERVAL_NANOS)) {
+          reportSuppressed(now, false);
+          lastWindowCheck = now;
+        }
+        if (written == 0) {
+          try {
+            Thread.sleep(ASYNC_IDLE_SLEEP_MS);
+          } catch (InterruptedException e) {
+            // woken up on shutdown, the loop condition decides
+          }
+        }
+      }
+
+      drain(Integer.MAX_VALUE);
+      reportSuppressed(System.nanoTime(), true);
+    }
+
+    private int drain(final int limit) {
+      int written = 0;
+      Event event;
+      while (written < limit && (event = queue.poll()) != null) {
+        try {
+          if (windowNanos > 0) {
+            RepeatedEventKey key = new RepeatedEventKey(event);
+            RepeatedEvents events = repeated.get(key);
+            if (events != null) {
+              events.suppressed++;
+              continue;
+            }
+            repeated.put(key, new RepeatedEvents(event));
+          }
+          log(event);
+        } catch (Exception ex) {
+          // a failing logger must not stop the writer, the event is lost
+        }
+        written++;
+      }
+      return written;
+    }
+
+    private void reportSuppressed(final long now, final boolean all) {
+      for (Iterator<RepeatedEvents> iterator = repeated.values().iterator(); iterator.hasNext(); ) {
+        RepeatedEvents events = iterator.next();
+        if (!all && now - events.firstSeen < windowNanos) {
+          continue;
+        }
+        iterator.remove();
+        if (events.suppressed > 0) {
+          Event event = events.first;
+          write(logger(event.category()), event.severity(), formatSuppressed(event, events.suppressed, now - events.firstSeen), null);
+        }
+      }
+
+      long droppedEvents = dropped.sumThenReset();
+      if (droppedEvents > 0) {
+        String line = "Dropped " + droppedEvents + " events because the logging queue was full";
+        if (loggerConfig.jsonOutputEnabled()) {
+          Map<String, Object> record = new LinkedHashMap<>();
+          record.put("category", Event.Category.CORE.path());
+          record.put("severity", Event.Severity.WARN.name());
+          record.put("dropped", droppedEvents);
+          record.put("description", line);
+          line = Mapper.encodeAsString(record);
+        } else {
+          line = "[" + Event.Category.CORE.path() + "] " + line;
+        }
+        logger(Event.Category.CORE.path()).warn(line);
+      }
+    }
+
+    private String formatSuppressed(final Event event, final long suppressed, final long elapsedNanos) {
+      String description = event.description();
+      if (loggerConfig.jsonOutputEnabled()) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("category", event.category());
+        record.put("event", event.getClass().getSimpleName());
+        record.put("severity", event.severity().name());
+        record.put("suppressed", suppressed);
+        record.put("window_ms", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        if (description != null && !description.isEmpty()) {
+          record.put("description", description);
+        }
+        return Mapper.encodeAsString(record);
+      }
+
+      StringBuilder line = new StringBuilder()
+        .append("[").append(event.category()).append("]")
+        .append("[").append(event.getClass().getSimpleName()).append("]")
+        .append(" Suppressed ").append(suppressed).append(" repeated events in the last ")
+        .append(convertEventDuration(Duration.ofNanos(elapsedNanos)));
+      if (description != null && !description.isEmpty()) {
+        line.append(": ").append(description);
+      }
+      return line.toString();
+    }
+  }
+
+  /**
+   * Identifies events which are considered repetitions of each other.
+   */
+  private static class RepeatedEventKey {
+
+    private final Class<?> type;
+    private final Event.Severity severity;
+    private final String description;
+
+    RepeatedEventKey(final Event event) {
+      this.type = event.getClass();
+      this.severity = event.severity();
+      this.description = event.description();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      RepeatedEventKey that = (RepeatedEventKey) o;
+      return type == that.type && severity == that.severity && Objects.equals(description, that.description);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(type, severity, description);
+    }
+  }
+
+  /**
+   * Tracks the first occurrence of an event in the current window and how many repetitions were suppressed.
+   */
+  private static class RepeatedEvents {
+
+    private final Event first;
+    private final long firstSeen = System.nanoTime();
+    private long suppressed;
+
+    RepeatedEvents(final Event first) {
+      this.first = first;
     }
   }
 
@@ -24,6 +24,10 @@ import java.util.Map;
 
 /**
  * The generic interface for all metric implementations in the client.
+ * <p>
+ * The counters and value recorders returned are bound to their name and tags. Since resolving them is comparatively
+ * expensive, the client resolves each one once (i.e. per endpoint and request type) and keeps the returned instance
+ * around, so that recording a value is a plain update of the underlying instrument.
  */
 @Stability.Volatile
 public interface Meter {
@@ -20,23 +20,21 @@ import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.events.tracing.OrphanRecordDroppedEvent;
 import com.couchbase.client.core.cnc.events.tracing.OrphanReporterFailureDetectedEvent;
 import com.couchbase.client.core.cnc.events.tracing.OrphansRecordedEvent;
-import com.couchbase.client.core.deps.org.jctools.queues.MpscUnboundedArrayQueue;
+import com.couchbase.client.core.cnc.tracing.RequestRecord;
+import com.couchbase.client.core.cnc.tracing.TopRequestRecords;
+import com.couchbase.client.core.deps.org.jctools.queues.MpscArrayQueue;
 import com.couchbase.client.core.env.OrphanReporterConfig;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.UnmonitoredRequest;
-import com.couchbase.client.core.msg.kv.KeyValueRequest;
-import com.couchbase.client.core.msg.view.ViewRequest;
 import com.couchbase.client.core.service.ServiceType;
 import com.couchbase.client.core.util.HostAndPort;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -62,7 +60,7 @@ public class OrphanReporter {
 
   private final AtomicBoolean running = new AtomicBoolean(false);
   private final Thread worker;
-  private final Queue<Request<?>> orphanQueue;
+  private final Queue<RequestRecord> orphanQueue;
   private final long emitIntervalNanos;
   private final int sampleSize;
   private final EventBus eventBus;
@@ -79,7 +77,7 @@ public class OrphanReporter {
   @Stability.Internal
   public OrphanReporter(final EventBus eventBus, final OrphanReporterConfig config) {
     this.eventBus = eventBus;
-    this.orphanQueue = new MpscUnboundedArrayQueue<>(config.queueLength());
+    this.orphanQueue = new MpscArrayQueue<>(config.queueLength());
     this.emitIntervalNanos = config.emitInterval().toNanos();
     this.sampleSize = config.sampleSize();
 
@@ -118,8 +116,8 @@ public class OrphanReporter {
   /**
    * Reports an orphaned {@link Request}.
    * <p>
-   * If the orphan could not be recorded because the buffer is full, a {@link OrphanRecordDroppedEvent} will
-   * be raised on the event bus.
+   * Only a compact {@link RequestRecord} of the request is kept until the next emit interval. If the orphan could
+   * not be recorded because the buffer is full, a {@link OrphanRecordDroppedEvent} will be raised on the event bus.
    * <p>
    * If you wish to ignore certain requests as being considered in the orphan reporting, make sure they implement
    * the {@link UnmonitoredRequest} marker interface.
@@ -131,7 +129,7 @@ public class OrphanReporter {
         return;
       }
 
-      if (!orphanQueue.offer(request)) {
+      if (!orphanQueue.offer(RequestRecord.of(request))) {
         eventBus.publish(new OrphanRecordDroppedEvent(request.getClass()));
       }
   }
@@ -154,27 +152,14 @@ public class OrphanReporter {
       System.getProperty("com.couchbase.orphanReporterNewOutputFormat", "false")
     );
 
-    /**
-     * Compares request by their logical request latency for the priority threshold queues.
-     */
-    private final Comparator<Request<?>> THRESHOLD_COMPARATOR = Comparator.comparingLong(
-      o -> o.context().logicalRequestLatency()
-    );
-
     private long lastThresholdLog;
     private boolean hasThresholdWritten;
 
-    private final Queue<Request<?>> kvOrphans = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> queryOrphans = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> viewOrphans = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> searchOrphans = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> analyticsOrphans = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-
-    private long kvOrphanCount = 0;
-    private long queryOrphanCount = 0;
-    private long viewOrphanCount = 0;
-    private long searchOrphanCount = 0;
-    private long analyticsOrphanCount = 0;
+    private final TopRequestRecords kvOrphans = new TopRequestRecords(sampleSize);
+    private final TopRequestRecords queryOrphans = new TopRequestRecords(sampleSize);
+    private final TopRequestRecords viewOrphans = new TopRequestRecords(sampleSize);
+    private final TopRequestRecords searchOrphans = new TopRequestRecords(sampleSize);
+    private final TopRequestRecords analyticsOrphans = new TopRequestRecords(sampleSize);
 
     @Override
     public void run() {
@@ -205,40 +190,31 @@ public class OrphanReporter {
       }
 
       while (true) {
-        Request<?> request = orphanQueue.poll();
-        if (request == null) {
+        RequestRecord record = orphanQueue.poll();
+        if (record == null) {
           return;
         }
-        final ServiceType serviceType = request.serviceType();
+        final ServiceType serviceType = record.serviceType();
         if (serviceType == ServiceType.KV) {
-          updateSet(kvOrphans, request);
-          kvOrphanCount += 1;
+          updateSet(kvOrphans, record);
         } else if (serviceType == ServiceType.QUERY) {
-          updateSet(queryOrphans, request);
-          queryOrphanCount += 1;
+          updateSet(queryOrphans, record);
         } else if (serviceType == ServiceType.VIEWS) {
-          updateSet(viewOrphans, request);
-          viewOrphanCount += 1;
+          updateSet(viewOrphans, record);
         } else if (serviceType == ServiceType.SEARCH) {
-          updateSet(searchOrphans, request);
-          searchOrphanCount += 1;
+          updateSet(searchOrphans, record);
         } else if (serviceType == ServiceType.ANALYTICS) {
-          updateSet(analyticsOrphans, request);
-          analyticsOrphanCount += 1;
+          updateSet(analyticsOrphans, record);
         }
       }
     }
 
     /**
-     * Helper method which updates the list with the span and ensures that the sample
-     * size is respected.
+     * Helper method which adds the record to the top records (which only keep the highest ones
+     * up to the sample size).
      */
-    private void updateSet(final Queue<Request<?>> set, final Request<?> request) {
-      set.add(request);
-      // Remove the element with the lowest duration, so we only keep the highest ones consistently
-      while(set.size() > sampleSize) {
-        set.remove();
-      }
+    private void updateSet(final TopRequestRecords set, final RequestRecord record) {
+      set.add(record);
       hasThresholdWritten = true;
     }
 
@@ -250,29 +226,19 @@ public class OrphanReporter {
 
       Map<String, Object> output = new HashMap<>();
       if (!kvOrphans.isEmpty()) {
-        output.put(TracingIdentifiers.SERVICE_KV, convertOrphanMetadataNew(kvOrphans, kvOrphanCount));
-        kvOrphans.clear();
-        kvOrphanCount = 0;
+        output.put(TracingIdentifiers.SERVICE_KV, convertOrphanMetadataNew(kvOrphans));
       }
       if (!queryOrphans.isEmpty()) {
-        output.put(TracingIdentifiers.SERVICE_QUERY, convertOrphanMetadataNew(queryOrphans, queryOrphanCount));
-        queryOrphans.clear();
-        queryOrphanCount = 0;
+        output.put(TracingIdentifiers.SERVICE_QUERY, convertOrphanMetadataNew(queryOrphans));
       }
       if (!viewOrphans.isEmpty()) {
-        output.put(TracingIdentifiers.SERVICE_VIEWS, convertOrphanMetadataNew(viewOrphans, viewOrphanCount));
-        viewOrphans.clear();
-        viewOrphanCount = 0;
+        output.put(TracingIdentifiers.SERVICE_VIEWS, convertOrphanMetadataNew(viewOrphans));
       }
       if (!searchOrphans.isEmpty()) {
-        output.put(TracingIdentifiers.SERVICE_SEARCH, convertOrphanMetadataNew(searchOrphans, searchOrphanCount));
-        searchOrphans.clear();
-        searchOrphanCount = 0;
+        output.put(TracingIdentifiers.SERVICE_SEARCH, convertOrphanMetadataNew(searchOrphans));
       }
       if (!analyticsOrphans.isEmpty()) {
-        output.put(TracingIdentifiers.SERVICE_ANALYTICS, convertOrphanMetadataNew(analyticsOrphans, analyticsOrphanCount));
-        analyticsOrphans.clear();
-        analyticsOrphanCount = 0;
+        output.put(TracingIdentifiers.SERVICE_ANALYTICS, convertOrphanMetadataNew(analyticsOrphans));
       }
       logOrphans(output, null);
     }
@@ -285,66 +251,57 @@ public class OrphanReporter {
 
       List<Map<String, Object>> output = new ArrayList<>();
       if (!kvOrphans.isEmpty()) {
-        output.add(convertOrphanMetadataOld(kvOrphans, kvOrphanCount, TracingIdentifiers.SERVICE_KV));
-        kvOrphans.clear();
-        kvOrphanCount = 0;
+        output.add(convertOrphanMetadataOld(kvOrphans, TracingIdentifiers.SERVICE_KV));
       }
       if (!queryOrphans.isEmpty()) {
-        output.add(convertOrphanMetadataOld(queryOrphans, queryOrphanCount, TracingIdentifiers.SERVICE_QUERY));
-        queryOrphans.clear();
-        queryOrphanCount = 0;
+        output.add(convertOrphanMetadataOld(queryOrphans, TracingIdentifiers.SERVICE_QUERY));
       }
       if (!viewOrphans.isEmpty()) {
-        output.add(convertOrphanMetadataOld(viewOrphans, viewOrphanCount, TracingIdentifiers.SERVICE_VIEWS));
-        viewOrphans.clear();
-        viewOrphanCount = 0;
+        output.add(convertOrphanMetadataOld(viewOrphans, TracingIdentifiers.SERVICE_VIEWS));
       }
       if (!searchOrphans.isEmpty()) {
-        output.add(convertOrphanMetadataOld(searchOrphans, searchOrphanCount, TracingIdentifiers.SERVICE_SEARCH));
-        searchOrphans.clear();
-        searchOrphanCount = 0;
+        output.add(convertOrphanMetadataOld(searchOrphans, TracingIdentifiers.SERVICE_SEARCH));
       }
       if (!analyticsOrphans.isEmpty()) {
-        output.add(convertOrphanMetadataOld(analyticsOrphans, analyticsOrphanCount, TracingIdentifiers.SERVICE_ANALYTICS));
-        analyticsOrphans.clear();
-        analyticsOrphanCount = 0;
+        output.add(convertOrphanMetadataOld(analyticsOrphans, TracingIdentifiers.SERVICE_ANALYTICS));
       }
       logOrphans(null,  output);
     }
 
-    private Map<String, Object> convertOrphanMetadataNew(Queue<Request<?>> requests, long count) {
+    private Map<String, Object> convertOrphanMetadataNew(TopRequestRecords records) {
       Map<String, Object> output = new HashMap<>();
       List<Map<String, Object>> top = new ArrayList<>();
-      for (Request<?> request : requests) {
+      long count = records.count();
+      for (RequestRecord record : records.drain()) {
         HashMap<String, Object> fieldMap = new HashMap<>();
 
-        if (request != null) {
-          fieldMap.put(KEY_TOTAL_MICROS, TimeUnit.NANOSECONDS.toMicros(request.context().logicalRequestLatency()));
+        if (record != null) {
+          fieldMap.put(KEY_TOTAL_MICROS, TimeUnit.NANOSECONDS.toMicros(record.totalLatency()));
 
-          fieldMap.put(KEY_OPERATION_NAME, request.name());
+          fieldMap.put(KEY_OPERATION_NAME, record.name());
 
-          String operationId = request.operationId();
+          String operationId = record.operationId();
           if (operationId != null) {
             fieldMap.put(KEY_OPERATION_ID, operationId);
           }
 
-          String localId = request.context().lastChannelId();
+          String localId = record.lastChannelId();
           if (localId != null) {
             fieldMap.put(KEY_LAST_LOCAL_ID, redactSystem(localId));
           }
 
-          long encodeDuration = request.context().encodeLatency();
+          long encodeDuration = record.encodeLatency();
           if (encodeDuration > 0) {
             fieldMap.put(KEY_ENCODE_MICROS, encodeDuration);
           }
 
-          long dispatchDuration = request.context().dispatchLatency();
+          long dispatchDuration = record.dispatchLatency();
           if (dispatchDuration > 0) {
             fieldMap.put(KEY_DISPATCH_MICROS, TimeUnit.NANOSECONDS.toMicros(dispatchDuration));
           }
 
-          HostAndPort local = request.context().lastDispatchedFrom();
-          HostAndPort peer = request.context().lastDispatchedTo();
+          HostAndPort local = record.lastDispatchedFrom();
+          HostAndPort peer = record.lastDispatchedTo();
           if (local != null) {
             fieldMap.put(KEY_LAST_LOCAL_SOCKET, redactSystem(local.toString()));
           }
@@ -352,12 +309,12 @@ public class OrphanReporter {
             fieldMap.put(KEY_LAST_REMOTE_SOCKET, redactSystem(peer.toString()));
           }
 
-          long serverDuration = request.context().serverLatency();
+          long serverDuration = record.serverLatency();
           if (serverDuration > 0) {
             fieldMap.put(KEY_SERVER_MICROS, serverDuration);
           }
 
-          fieldMap.put(KEY_TIMEOUT, request.timeout().toMillis());
+          fieldMap.put(KEY_TIMEOUT, record.timeoutMillis());
         }
 
         top.add(fieldMap);
@@ -367,32 +324,31 @@ public class OrphanReporter {
       return output;
     }
 
-    private Map<String, Object> convertOrphanMetadataOld(Queue<Request<?>> requests, long count, String serviceType) {
+    private Map<String, Object> convertOrphanMetadataOld(TopRequestRecords records, String serviceType) {
       Map<String, Object> output = new HashMap<>();
       List<Map<String, Object>> top = new ArrayList<>();
-      for (Request<?> request : requests) {
+      long count = records.count();
+      for (RequestRecord record : records.drain()) {
         HashMap<String, Object> fieldMap = new HashMap<>();
 
-        if (request != null) {
-          String name = request.getClass().getSimpleName().replace("Request", "").toLowerCase();
+        if (record != null) {
+          String name = record.className().replace("Request", "").toLowerCase();
           fieldMap.put("s", name);
 
-          String operationId = request.operationId();
+          String operationId = record.operationId();
           if (operationId != null) {
             fieldMap.put("i", operationId);
           }
-          if (request instanceof KeyValueRequest) {
-            fieldMap.put("b", ((KeyValueRequest<?>) request).bucket());
-          } else if (request instanceof ViewRequest) {
-            fieldMap.put("b", ((ViewRequest) request).bucket());
+          if (record.bucket() != null) {
+            fieldMap.put("b", record.bucket());
           }
-          String localId = request.context().lastChannelId();
+          String localId = record.lastChannelId();
           if (localId != null) {
             fieldMap.put("c", redactSystem(localId));
           }
 
-          HostAndPort local = request.context().lastDispatchedFrom();
-          HostAndPort peer = request.context().lastDispatchedTo();
+          HostAndPort local = record.lastDispatchedFrom();
+          HostAndPort peer = record.lastDispatchedTo();
           if (local != null) {
             fieldMap.put("l", redactSystem(local.toString()));
           }
@@ -400,12 +356,12 @@ public class OrphanReporter {
             fieldMap.put("r", redactSystem(peer.toString()));
           }
 
-          long serverDuration = request.context().serverLatency();
+          long serverDuration = record.serverLatency();
           if (serverDuration > 0) {
             fieldMap.put("d", serverDuration);
           }
 
-          long timeout = request.timeout().toMillis();
+          long timeout = record.timeoutMillis();
           fieldMap.put("t", timeout);
         }
 
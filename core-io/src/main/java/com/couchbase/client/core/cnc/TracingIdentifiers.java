@@ -105,6 +105,8 @@ public class TracingIdentifiers {
 
   public static final String SPAN_REQUEST_KV_OBSERVE = "cb.observe";
 
+  public static final String SPAN_REQUEST_KV_SCAN = "cb.scan";
+
   public static final String SPAN_REQUEST_MANAGER_ANALYTICS = "cb.manager_analytics";
 
   public static final String SPAN_REQUEST_MANAGER_QUERY = "cb.manager_query";
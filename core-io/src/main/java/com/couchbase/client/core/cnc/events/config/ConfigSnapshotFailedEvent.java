@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.events.config;
+
+import com.couchbase.client.core.cnc.AbstractEvent;
+import com.couchbase.client.core.cnc.Context;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * This event is raised if the persisted config snapshot could not be read or written.
+ * <p>
+ * Failing to use the snapshot is not fatal, the bootstrap just falls back to loading all configs from the
+ * cluster as if no snapshot was configured.
+ */
+public class ConfigSnapshotFailedEvent extends AbstractEvent {
+
+  private final Reason reason;
+  private final Path file;
+  private final Throwable cause;
+
+  public ConfigSnapshotFailedEvent(final Context context, final Reason reason, final Path file, final Throwable cause) {
+    super(Severity.WARN, Category.CONFIG, Duration.ZERO, context);
+    this.reason = reason;
+    this.file = file;
+    this.cause = cause;
+  }
+
+  public Reason reason() {
+    return reason;
+  }
+
+  public Path file() {
+    return file;
+  }
+
+  @Override
+  public Throwable cause() {
+    return cause;
+  }
+
+  @Override
+  public String description() {
+    return "Config snapshot " + file + " could not be used (" + reason + "): " + cause;
+  }
+
+  public enum Reason {
+    /**
+     * The snapshot file could not be read or decoded.
+     */
+    READ,
+    /**
+     * A config stored in the snapshot could not be parsed.
+     */
+    PARSE,
+    /**
+     * The snapshot file could not be written.
+     */
+    WRITE
+  }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.events.metrics;
+
+import com.couchbase.client.core.cnc.AbstractEvent;
+
+import java.time.Duration;
+
+/**
+ * Raised when the recorded values could not be flushed into the wrapped meter.
+ * <p>
+ * Only the first failure of a streak is raised, subsequent failures are not reported until a flush succeeded again.
+ */
+public class MeterFlushFailedEvent extends AbstractEvent {
+
+  private final Throwable cause;
+
+  public MeterFlushFailedEvent(final Throwable cause) {
+    super(Severity.WARN, Category.METRICS, Duration.ZERO, null);
+    this.cause = cause;
+  }
+
+  @Override
+  public String description() {
+    return "Detected an error while flushing recorded values into the wrapped meter - see cause.";
+  }
+
+  @Override
+  public Throwable cause() {
+    return cause;
+  }
+
+}
@@ -27,9 +27,13 @@ import com.couchbase.client.core.env.AggregatingMeterConfig;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -43,6 +47,26 @@ public class AggregatingMeter implements Meter {
 
   private static final AtomicInteger METER_ID = new AtomicInteger();
 
+  /**
+   * The name of the value recorder for response latencies, which is reported by service and remote host.
+   */
+  private static final String RESPONSES_METRIC = "cb.responses";
+
+  /**
+   * The section of the report holding all value recorders but the response latencies.
+   */
+  private static final String METRICS_SECTION = "metrics";
+
+  /**
+   * The key reported in place of missing tags.
+   */
+  private static final String NO_TAGS = "_none";
+
+  /**
+   * The value recorders which record counts instead of latencies in nanoseconds.
+   */
+  private static final Set<String> COUNT_METRICS = Collections.singleton("cb.service_queue_depth");
+
   private final EventBus eventBus;
   private final Thread worker;
   private final AtomicBoolean running = new AtomicBoolean(false);
@@ -77,7 +101,7 @@ public class AggregatingMeter implements Meter {
   }
 
   @Override
-  public synchronized ValueRecorder valueRecorder(String name, Map<String, String> tags) {
+  public ValueRecorder valueRecorder(String name, Map<String, String> tags) {
     return valueRecorders.computeIfAbsent(
       new NameAndTags(name, tags),
       key -> new AggregatingValueRecorder(name, tags)
@@ -104,6 +128,91 @@ public class AggregatingMeter implements Meter {
     });
   }
 
+  /**
+   * Emits the stats recorded since the last call and resets them.
+   * <p>
+   * Response latencies are reported by service and remote host at the top level. All other value recorders
+   * (i.e. connect timings) are reported in a separate "metrics" section by their name and then all of their tags,
+   * since not all of them carry a service or remote host.
+   */
+  @Stability.Internal
+  public void dumpMetrics() {
+    Map<String,  Map<String, Object>> output = new HashMap<>();
+
+    Map<String, Object> meta = new HashMap<>();
+    meta.put("emit_interval_s", TimeUnit.MILLISECONDS.toSeconds(emitIntervalMs));
+    output.put("meta", meta);
+
+    Map<String, Map<String, Map<String, Object>>> metrics = new TreeMap<>();
+    boolean wroteRow = false;
+    for (AggregatingValueRecorder avr : valueRecorders.values()) {
+      Histogram histogram = avr.clearStats();
+      if (histogram.getTotalCount() == 0) {
+        continue;
+      }
+      wroteRow = true;
+
+      if (RESPONSES_METRIC.equals(avr.name())) {
+        String service = tagOrNone(avr.tags(), "cb.service");
+        String hostname = tagOrNone(avr.tags(), "cb.remote_hostname");
+        output.computeIfAbsent(service, k -> new HashMap<>()).put(hostname, row(histogram, true));
+      } else {
+        metrics
+          .computeIfAbsent(avr.name(), k -> new TreeMap<>())
+          .put(joinTags(avr.tags()), row(histogram, !COUNT_METRICS.contains(avr.name())));
+      }
+    }
+
+    if (!metrics.isEmpty()) {
+      output.put(METRICS_SECTION, new TreeMap<>(metrics));
+    }
+
+    if (wroteRow) {
+      eventBus.publish(new LatencyMetricsAggregatedEvent(Duration.ofMillis(emitIntervalMs), output));
+    }
+  }
+
+  /**
+   * Creates the reported row for one histogram.
+   *
+   * @param histogram the histogram of the interval.
+   * @param latency if the values are latencies in nanoseconds, which are reported in microseconds.
+   * @return the row with the count and percentiles.
+   */
+  private static Map<String, Object> row(final Histogram histogram, final boolean latency) {
+    double divisor = latency ? 1000.0 : 1.0;
+    Map<String, Object> percentiles = new LinkedHashMap<>();
+    percentiles.put("50.0", histogram.getValueAtPercentile(50.0) / divisor);
+    percentiles.put("90.0", histogram.getValueAtPercentile(90.0) / divisor);
+    percentiles.put("99.0", histogram.getValueAtPercentile(99.0) / divisor);
+    percentiles.put("99.9", histogram.getValueAtPercentile(99.9) / divisor);
+    percentiles.put("100.0", histogram.getMaxValue() / divisor);
+
+    Map<String, Object> row = new HashMap<>();
+    row.put("total_count", histogram.getTotalCount());
+    row.put(latency ? "percentiles_us" : "percentiles", percentiles);
+    return row;
+  }
+
+  private static String tagOrNone(final Map<String, String> tags, final String name) {
+    String value = tags == null ? null : tags.get(name);
+    return value == null ? NO_TAGS : value;
+  }
+
+  /**
+   * Joins all tags in order, i.e. "cb.connect_phase=total,cb.remote_hostname=127.0.0.1,cb.service=kv".
+   */
+  private static String joinTags(final Map<String, String> tags) {
+    if (tags == null || tags.isEmpty()) {
+      return NO_TAGS;
+    }
+    StringJoiner joiner = new StringJoiner(",");
+    for (Map.Entry<String, String> tag : new TreeMap<>(tags).entrySet()) {
+      joiner.add(tag.getKey() + "=" + tag.getValue());
+    }
+    return joiner.toString();
+  }
+
   private class Worker implements Runnable {
 
     @Override
@@ -126,45 +235,6 @@ public class AggregatingMeter implements Meter {
         }
       }
     }
-
-    private synchronized void dumpMetrics() {
-      Map<String,  Map<String, Object>> output = new HashMap<>();
-
-      Map<String, Object> meta = new HashMap<>();
-      meta.put("emit_interval_s", TimeUnit.MILLISECONDS.toSeconds(emitIntervalMs));
-      output.put("meta", meta);
-
-      boolean wroteRow = false;
-      for (AggregatingValueRecorder avr : valueRecorders.values()) {
-        Histogram histogram = avr.clearStats();
-        if (histogram.getTotalCount() == 0) {
-          continue;
-        }
-        wroteRow = true;
-
-        String service = avr.tags().get("cb.service");
-        String hostname = avr.tags().get("cb.remote_hostname");
-
-        Map<String, Object> serviceMap = output.computeIfAbsent(service, k -> new HashMap<>());
-        Map<String, Object> hostMap = (Map<String, Object>) serviceMap.computeIfAbsent(hostname, k -> new HashMap<>());
-
-        hostMap.put("total_count", histogram.getTotalCount());
-
-        Map<String, Object> percentiles = new LinkedHashMap<>();
-        percentiles.put("50.0", histogram.getValueAtPercentile(50.0) / 1000.0);
-        percentiles.put("90.0", histogram.getValueAtPercentile(90.0) / 1000.0);
-        percentiles.put("99.0", histogram.getValueAtPercentile(99.0) / 1000.0);
-        percentiles.put("99.9", histogram.getValueAtPercentile(99.9) / 1000.0);
-        percentiles.put("100.0", histogram.getMaxValue() / 1000.0);
-
-        hostMap.put("percentiles_us", percentiles);
-      }
-
-      if (wroteRow) {
-        eventBus.publish(new LatencyMetricsAggregatedEvent(Duration.ofMillis(emitIntervalMs), output));
-      }
-    }
   }
 
-
 }
@@ -19,13 +19,15 @@ package com.couchbase.client.core.cnc.metrics;
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.ValueRecorder;
 import com.couchbase.client.core.deps.org.HdrHistogram.Histogram;
-import com.couchbase.client.core.deps.org.LatencyUtils.LatencyStats;
 
 import java.util.Map;
 import java.util.Objects;
 
 /**
  * Aggregates value information in a histogram.
+ * <p>
+ * Values are recorded into per-thread shards which are only merged when the stats are cleared at the end
+ * of each emit interval, so concurrent recording threads do not contend on a shared histogram.
  */
 @Stability.Volatile
 public class AggregatingValueRecorder implements ValueRecorder {
@@ -34,7 +36,7 @@ public class AggregatingValueRecorder implements ValueRecorder {
 
   private final Map<String, String> tags;
 
-  private final LatencyStats recorderStats = new LatencyStats();
+  private final ShardedHistogram recorderStats = new ShardedHistogram();
 
   public AggregatingValueRecorder(final String name, final Map<String, String> tags) {
     this.name = name;
@@ -43,11 +45,15 @@ public class AggregatingValueRecorder implements ValueRecorder {
 
   @Override
   public void recordValue(long value) {
-    recorderStats.recordLatency(value);
+    recorderStats.recordValue(value);
   }
 
   Histogram clearStats() {
-    return recorderStats.getIntervalHistogram();
+    return recorderStats.intervalHistogram();
+  }
+
+  String name() {
+    return name;
   }
 
   Map<String, String> tags() {
@@ -29,10 +29,12 @@ public class NameAndTags {
 
   private final String name;
   private final Map<String, String> tags;
+  private final int hashCode;
 
   public NameAndTags(String name, Map<String, String> tags) {
     this.name = name;
     this.tags = tags;
+    this.hashCode = Objects.hash(name, tags);
   }
 
   @Override
@@ -45,7 +47,7 @@ public class NameAndTags {
 
   @Override
   public int hashCode() {
-    return Objects.hash(name, tags);
+    return hashCode;
   }
 
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.deps.org.HdrHistogram.Histogram;
+import com.couchbase.client.core.deps.org.HdrHistogram.SingleWriterRecorder;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A histogram which is recorded into through one shard per recording thread and merged on demand.
+ * <p>
+ * Each thread (in practice mostly the event loops completing the responses) gets its own single writer recorder,
+ * so recording a value never contends with other threads nor with the reader. The shards are only touched
+ * together when the interval histogram is requested, which happens once per emit interval.
+ */
+class ShardedHistogram {
+
+  /**
+   * The number of significant value digits, the histograms resize automatically to the recorded range.
+   */
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  private final Queue<Shard> shards = new ConcurrentLinkedQueue<>();
+
+  private final ThreadLocal<Shard> localShard = ThreadLocal.withInitial(() -> {
+    Shard shard = new Shard(Thread.currentThread());
+    shards.add(shard);
+    return shard;
+  });
+
+  /**
+   * Records the value into the shard of the current thread.
+   *
+   * @param value the value to record.
+   */
+  void recordValue(final long value) {
+    localShard.get().recorder.recordValue(value);
+  }
+
+  /**
+   * Merges and resets the values recorded by all shards since the last call.
+   * <p>
+   * Shards of threads which have terminated are dropped once their last values have been merged.
+   *
+   * @return a histogram holding all values recorded in the interval.
+   */
+  synchronized Histogram intervalHistogram() {
+    Histogram merged = new Histogram(SIGNIFICANT_DIGITS);
+    for (Iterator<Shard> iterator = shards.iterator(); iterator.hasNext(); ) {
+      Shard shard = iterator.next();
+      boolean terminated = shard.terminated();
+      shard.recycled = shard.recorder.getIntervalHistogram(shard.recycled);
+      merged.add(shard.recycled);
+      if (terminated) {
+        iterator.remove();
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Returns the number of shards currently tracked.
+   */
+  int shards() {
+    return shards.size();
+  }
+
+  private static class Shard {
+
+    private final SingleWriterRecorder recorder = new SingleWriterRecorder(SIGNIFICANT_DIGITS);
+    private final WeakReference<Thread> owner;
+    private Histogram recycled;
+
+    Shard(final Thread owner) {
+      this.owner = new WeakReference<>(owner);
+    }
+
+    boolean terminated() {
+      Thread thread = owner.get();
+      return thread == null || !thread.isAlive();
+    }
+  }
+
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.Event;
+import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.LoggingEventConsumer;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.cnc.events.metrics.MeterFlushFailedEvent;
+import com.couchbase.client.core.deps.org.HdrHistogram.Histogram;
+import com.couchbase.client.core.deps.org.HdrHistogram.HistogramIterationValue;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static com.couchbase.client.core.util.Validators.notNull;
+
+/**
+ * Wraps any {@link Meter} so that values are recorded into thread-local shards first and handed to the
+ * wrapped meter in bulk at a regular flush interval.
+ * <p>
+ * This takes the recording threads out of contention on the shared instruments of the wrapped meter, at the
+ * cost of the values arriving there delayed by up to one flush interval. Recorded values are forwarded with
+ * the precision of the shard histograms (two significant digits), counters are forwarded as their sum.
+ * <p>
+ * If flushing into the wrapped meter fails, a {@link MeterFlushFailedEvent} is published on the event bus passed
+ * in or, since the meter is usually created before the environment and its event bus, logged directly otherwise.
+ */
+@Stability.Volatile
+public class ShardedMeter implements Meter {
+
+  private static final AtomicInteger METER_ID = new AtomicInteger();
+
+  /**
+   * The default interval at which the shards are flushed into the wrapped meter.
+   */
+  public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+  private final Meter delegate;
+  private final long flushIntervalMs;
+  private final Consumer<Event> eventSink;
+  private final Thread worker;
+  private final AtomicBoolean running = new AtomicBoolean(false);
+
+  private final Map<NameAndTags, ShardedCounter> counters = new ConcurrentHashMap<>();
+  private final Map<NameAndTags, ShardedValueRecorder> valueRecorders = new ConcurrentHashMap<>();
+
+  /**
+   * Wraps the given meter with the default flush interval.
+   *
+   * @param delegate the meter to which the merged values are flushed.
+   * @return the wrapped meter ready to be used.
+   */
+  public static ShardedMeter wrap(final Meter delegate) {
+    return wrap(delegate, DEFAULT_FLUSH_INTERVAL);
+  }
+
+  /**
+   * Wraps the given meter with a custom flush interval.
+   *
+   * @param delegate the meter to which the merged values are flushed.
+   * @param flushInterval the interval at which the shards are flushed.
+   * @return the wrapped meter ready to be used.
+   */
+  public static ShardedMeter wrap(final Meter delegate, final Duration flushInterval) {
+    return new ShardedMeter(delegate, flushInterval, LoggingEventConsumer.create());
+  }
+
+  /**
+   * Wraps the given meter with a custom flush interval and publishes flush failures on the event bus.
+   *
+   * @param delegate the meter to which the merged values are flushed.
+   * @param flushInterval the interval at which the shards are flushed.
+   * @param eventBus the event bus on which flush failures are published.
+   * @return the wrapped meter ready to be used.
+   */
+  public static ShardedMeter wrap(final Meter delegate, final Duration flushInterval, final EventBus eventBus) {
+    return new ShardedMeter(delegate, flushInterval, notNull(eventBus, "EventBus")::publish);
+  }
+
+  private ShardedMeter(final Meter delegate, final Duration flushInterval, final Consumer<Event> eventSink) {
+    this.delegate = notNull(delegate, "Meter");
+    this.flushIntervalMs = notNull(flushInterval, "FlushInterval").toMillis();
+    this.eventSink = eventSink;
+
+    worker = new Thread(new Worker());
+    worker.setDaemon(true);
+  }
+
+  @Override
+  public Counter counter(final String name, final Map<String, String> tags) {
+    NameAndTags key = new NameAndTags(name, tags);
+    ShardedCounter counter = counters.get(key);
+    if (counter == null) {
+      counter = counters.computeIfAbsent(key, k -> new ShardedCounter(delegate.counter(name, tags)));
+    }
+    return counter;
+  }
+
+  @Override
+  public ValueRecorder valueRecorder(final String name, final Map<String, String> tags) {
+    NameAndTags key = new NameAndTags(name, tags);
+    ShardedValueRecorder recorder = valueRecorders.get(key);
+    if (recorder == null) {
+      recorder = valueRecorders.computeIfAbsent(key, k -> new ShardedValueRecorder(delegate.valueRecorder(name, tags)));
+    }
+    return recorder;
+  }
+
+  /**
+   * Hands all values recorded since the last flush to the wrapped meter.
+   */
+  @Stability.Internal
+  public synchronized void flush() {
+    for (ShardedCounter counter : counters.values()) {
+      counter.flush();
+    }
+    for (ShardedValueRecorder recorder : valueRecorders.values()) {
+      recorder.flush();
+    }
+  }
+
+  @Override
+  public Mono<Void> start() {
+    return delegate.start().then(Mono.defer(() -> {
+      if (running.compareAndSet(false, true)) {
+        worker.start();
+      }
+      return Mono.empty();
+    }));
+  }
+
+  @Override
+  public Mono<Void> stop(final Duration timeout) {
+    return Mono.defer(() -> {
+      if (running.compareAndSet(true, false)) {
+        worker.interrupt();
+      }
+      flush();
+      return Mono.<Void>empty();
+    }).then(delegate.stop(timeout));
+  }
+
+  private class Worker implements Runnable {
+
+    @Override
+    public void run() {
+      Thread.currentThread().setName("cb-metrics-flush-" + METER_ID.incrementAndGet());
+
+      boolean failing = false;
+      while (running.get()) {
+        try {
+          Thread.sleep(flushIntervalMs);
+          flush();
+          failing = false;
+        } catch (final InterruptedException ex) {
+          if (!running.get()) {
+            return;
+          } else {
+            Thread.currentThread().interrupt();
+          }
+        } catch (final Exception ex) {
+          // a failing wrapped meter must not stop the flushing of subsequent intervals
+          if (!failing) {
+            eventSink.accept(new MeterFlushFailedEvent(ex));
+            failing = true;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Sums up increments in a striped adder and forwards the sum on flush.
+   */
+  static class ShardedCounter implements Counter {
+
+    private final Counter delegate;
+    private final LongAdder sum = new LongAdder();
+
+    ShardedCounter(final Counter delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void incrementBy(final long number) {
+      sum.add(number);
+    }
+
+    void flush() {
+      long value = sum.sumThenReset();
+      if (value != 0) {
+        delegate.incrementBy(value);
+      }
+    }
+  }
+
+  /**
+   * Records values into a sharded histogram and replays them on flush.
+   */
+  static class ShardedValueRecorder implements ValueRecorder {
+
+    private final ValueRecorder delegate;
+    private final ShardedHistogram histogram = new ShardedHistogram();
+
+    ShardedValueRecorder(final ValueRecorder delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void recordValue(final long value) {
+      histogram.recordValue(value);
+    }
+
+    void flush() {
+      Histogram interval = histogram.intervalHistogram();
+      if (interval.getTotalCount() == 0) {
+        return;
+      }
+      for (HistogramIterationValue value : interval.recordedValues()) {
+        long recorded = interval.medianEquivalentValue(value.getValueIteratedTo());
+        for (long i = 0; i < value.getCountAddedInThisIterationStep(); i++) {
+          delegate.recordValue(recorded);
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.tracing;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
+import com.couchbase.client.core.msg.view.ViewRequest;
+import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.util.HostAndPort;
+
+/**
+ * A compact snapshot of the properties of a completed {@link Request} that are reported by the
+ * {@link ThresholdRequestTracer} and the {@link com.couchbase.client.core.cnc.OrphanReporter}.
+ * <p>
+ * The record is taken at the time the request is reported, so that the request itself (including its
+ * payload, context and future) does not need to be retained until the next emit interval.
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class RequestRecord {
+
+  private final ServiceType serviceType;
+  private final String name;
+  private final String className;
+  private final String operationId;
+  private final String bucket;
+  private final long totalLatency;
+  private final long encodeLatency;
+  private final long dispatchLatency;
+  private final long serverLatency;
+  private final HostAndPort lastDispatchedFrom;
+  private final HostAndPort lastDispatchedTo;
+  private final String lastChannelId;
+  private final long timeoutMillis;
+
+  private RequestRecord(final Request<?> request) {
+    RequestContext ctx = request.context();
+    this.serviceType = request.serviceType();
+    this.name = request.name();
+    this.className = request.getClass().getSimpleName();
+    this.operationId = request.operationId();
+    if (request instanceof KeyValueRequest) {
+      this.bucket = ((KeyValueRequest<?>) request).bucket();
+    } else if (request instanceof ViewRequest) {
+      this.bucket = ((ViewRequest) request).bucket();
+    } else {
+      this.bucket = null;
+    }
+    this.totalLatency = ctx.logicalRequestLatency();
+    this.encodeLatency = ctx.encodeLatency();
+    this.dispatchLatency = ctx.dispatchLatency();
+    this.serverLatency = ctx.serverLatency();
+    this.lastDispatchedFrom = ctx.lastDispatchedFrom();
+    this.lastDispatchedTo = ctx.lastDispatchedTo();
+    this.lastChannelId = ctx.lastChannelId();
+    this.timeoutMillis = request.timeout().toMillis();
+  }
+
+  /**
+   * Takes a snapshot of the given request.
+   *
+   * @param request the request to record.
+   * @return the created record.
+   */
+  public static RequestRecord of(final Request<?> request) {
+    return new RequestRecord(request);
+  }
+
+  public ServiceType serviceType() {
+    return serviceType;
+  }
+
+  /**
+   * Returns the name of the operation, as returned by {@link Request#name()}.
+   */
+  public String name() {
+    return name;
+  }
+
+  /**
+   * Returns the simple class name of the recorded request.
+   */
+  public String className() {
+    return className;
+  }
+
+  /**
+   * Returns the operation id, might be null.
+   */
+  public String operationId() {
+    return operationId;
+  }
+
+  /**
+   * Returns the bucket name for bucket-scoped requests, null otherwise.
+   */
+  public String bucket() {
+    return bucket;
+  }
+
+  /**
+   * Returns the logical request latency in nanoseconds.
+   */
+  public long totalLatency() {
+    return totalLatency;
+  }
+
+  public long encodeLatency() {
+    return encodeLatency;
+  }
+
+  public long dispatchLatency() {
+    return dispatchLatency;
+  }
+
+  public long serverLatency() {
+    return serverLatency;
+  }
+
+  public HostAndPort lastDispatchedFrom() {
+    return lastDispatchedFrom;
+  }
+
+  public HostAndPort lastDispatchedTo() {
+    return lastDispatchedTo;
+  }
+
+  public String lastChannelId() {
+    return lastChannelId;
+  }
+
+  public long timeoutMillis() {
+    return timeoutMillis;
+  }
+
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.tracing;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.RequestSpan;
+import com.couchbase.client.core.cnc.RequestTracer;
+import com.couchbase.client.core.env.SamplingRequestTracerConfig;
+import com.couchbase.client.core.msg.RequestContext;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.couchbase.client.core.util.Validators.notNull;
+
+/**
+ * Wraps another {@link RequestTracer} and only hands a sample of the top-level requests to it.
+ * <p>
+ * The sampling decision is made once, when the span without a parent is created. All spans created further
+ * down with an unsampled span as their parent (request encoding, dispatch...) short-circuit to the shared
+ * {@link NoopRequestSpan}, so an unsampled request does not reach the wrapped tracer at all.
+ * <p>
+ * If a tail threshold is configured, unsampled requests get a lightweight span instead which only keeps the
+ * attributes and events. Once it ends and the request took longer than the threshold, it is replayed as a
+ * backdated span into the wrapped tracer. Its child spans are not recorded.
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+public class SamplingRequestTracer implements RequestTracer {
+
+  private final RequestTracer delegate;
+  private final double ratio;
+  private final int maxSampledPerSecond;
+  private final long tailThresholdNanos;
+
+  private final AtomicLong currentSecond = new AtomicLong();
+  private final AtomicInteger sampledInSecond = new AtomicInteger();
+
+  /**
+   * Wraps the given tracer with the default sampling config, which samples everything.
+   *
+   * @param delegate the tracer to which the sampled requests are passed.
+   * @return the wrapped tracer ready to be used.
+   */
+  public static SamplingRequestTracer wrap(final RequestTracer delegate) {
+    return wrap(delegate, SamplingRequestTracerConfig.create());
+  }
+
+  /**
+   * Wraps the given tracer with a custom sampling config.
+   *
+   * @param delegate the tracer to which the sampled requests are passed.
+   * @param config the config which decides which requests are sampled.
+   * @return the wrapped tracer ready to be used.
+   */
+  public static SamplingRequestTracer wrap(final RequestTracer delegate, final SamplingRequestTracerConfig config) {
+    return new SamplingRequestTracer(delegate, config);
+  }
+
+  private SamplingRequestTracer(final RequestTracer delegate, final SamplingRequestTracerConfig config) {
+    this.delegate = notNull(delegate, "RequestTracer");
+    notNull(config, "SamplingRequestTracerConfig");
+    this.ratio = config.ratio();
+    this.maxSampledPerSecond = config.maxSampledPerSecond();
+    this.tailThresholdNanos = config.tailThreshold().map(Duration::toNanos).orElse(-1L);
+  }
+
+  @Override
+  public RequestSpan requestSpan(final String name, final RequestSpan parent) {
+    if (parent == null) {
+      if (sample()) {
+        return delegate.requestSpan(name, null);
+      }
+      return tailThresholdNanos < 0 ? NoopRequestSpan.INSTANCE : new DeferredRequestSpan(name);
+    }
+    if (parent == NoopRequestSpan.INSTANCE || parent instanceof DeferredRequestSpan) {
+      return NoopRequestSpan.INSTANCE;
+    }
+    return delegate.requestSpan(name, parent);
+  }
+
+  @Override
+  public RequestSpan requestSpan(final String name, final RequestSpan parent, final Instant startTime) {
+    if (parent == NoopRequestSpan.INSTANCE || parent instanceof DeferredRequestSpan) {
+      return NoopRequestSpan.INSTANCE;
+    }
+    return delegate.requestSpan(name, parent, startTime);
+  }
+
+  /**
+   * Decides if a top-level request should be sampled based on the ratio first and the rate limit second.
+   */
+  private boolean sample() {
+    if (ratio < 1.0 && ThreadLocalRandom.current().nextDouble() >= ratio) {
+      return false;
+    }
+    if (maxSampledPerSecond == 0) {
+      return true;
+    }
+
+    long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+    long current = currentSecond.get();
+    if (second != current && currentSecond.compareAndSet(current, second)) {
+      sampledInSecond.set(0);
+    }
+    // read first, so requests arriving after the budget is exhausted do not contend on the counter
+    return sampledInSecond.get() < maxSampledPerSecond && sampledInSecond.incrementAndGet() <= maxSampledPerSecond;
+  }
+
+  @Override
+  public Mono<Void> start() {
+    return delegate.start();
+  }
+
+  @Override
+  public Mono<Void> stop(final Duration timeout) {
+    return delegate.stop(timeout);
+  }
+
+  /**
+   * Stands in for an unsampled top-level span and replays it into the wrapped tracer if it took too long.
+   * <p>
+   * Attributes and events may be added from different threads as the request progresses, so all access to
+   * the buffered state is synchronized on the span.
+   */
+  class DeferredRequestSpan implements RequestSpan {
+
+    private final String name;
+    private final long startNanos = System.nanoTime();
+    private List<String> attributes;
+    private List<Object> events;
+    private RequestContext requestContext;
+
+    DeferredRequestSpan(final String name) {
+      this.name = name;
+    }
+
+    @Override
+    public synchronized void setAttribute(final String key, final String value) {
+      if (attributes == null) {
+        attributes = new ArrayList<>(8);
+      }
+      attributes.add(key);
+      attributes.add(value);
+    }
+
+    @Override
+    public synchronized void addEvent(final String name, final Instant timestamp) {
+      if (events == null) {
+        events = new ArrayList<>(4);
+      }
+      events.add(name);
+      events.add(timestamp);
+    }
+
+    @Override
+    public synchronized void end() {
+      long elapsed = System.nanoTime() - startNanos;
+      if (elapsed < tailThresholdNanos) {
+        return;
+      }
+
+      RequestSpan span = delegate.requestSpan(name, null, Instant.now().minusNanos(elapsed));
+      if (attributes != null) {
+        for (int i = 0; i < attributes.size(); i += 2) {
+          span.setAttribute(attributes.get(i), attributes.get(i + 1));
+        }
+      }
+      if (events != null) {
+        for (int i = 0; i < events.size(); i += 2) {
+          span.addEvent((String) events.get(i), (Instant) events.get(i + 1));
+        }
+      }
+      if (requestContext != null) {
+        span.requestContext(requestContext);
+      }
+      span.end();
+    }
+
+    @Override
+    public synchronized void requestContext(final RequestContext requestContext) {
+      this.requestContext = requestContext;
+    }
+
+  }
+
+}
@@ -21,7 +21,7 @@ import com.couchbase.client.core.cnc.RequestSpan;
 import com.couchbase.client.core.cnc.RequestTracer;
 import com.couchbase.client.core.cnc.TracingIdentifiers;
 import com.couchbase.client.core.cnc.events.tracing.OverThresholdRequestsRecordedEvent;
-import com.couchbase.client.core.deps.org.jctools.queues.MpscUnboundedArrayQueue;
+import com.couchbase.client.core.deps.org.jctools.queues.MpscArrayQueue;
 import com.couchbase.client.core.env.ThresholdRequestTracerConfig;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.service.ServiceType;
@@ -30,11 +30,9 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -61,7 +59,7 @@ public class ThresholdRequestTracer implements RequestTracer {
   private static final String KEY_LAST_LOCAL_ID = "last_local_id";
 
   private final AtomicBoolean running = new AtomicBoolean(false);
-  private final Queue<Request<?>> overThresholdQueue;
+  private final Queue<RequestRecord> overThresholdQueue;
   private final EventBus eventBus;
   private final Thread worker;
 
@@ -113,7 +111,7 @@ public class ThresholdRequestTracer implements RequestTracer {
    */
   private ThresholdRequestTracer(final EventBus eventBus, ThresholdRequestTracerConfig config) {
     this.eventBus = eventBus;
-    this.overThresholdQueue = new MpscUnboundedArrayQueue<>(config.queueLength());
+    this.overThresholdQueue = new MpscArrayQueue<>(config.queueLength());
     kvThreshold = config.kvThreshold().toNanos();
     analyticsThreshold = config.analyticsThreshold().toNanos();
     searchThreshold = config.searchThreshold().toNanos();
@@ -132,7 +130,10 @@ public class ThresholdRequestTracer implements RequestTracer {
   }
 
   /**
-   * Finishes the span (sends it off into the queue when over threshold).
+   * Finishes the span (sends a record of it off into the queue when over threshold).
+   * <p>
+   * Only a compact {@link RequestRecord} is queued, so the request and its payload can be collected right
+   * away. The queue is bounded by the configured queue length, records which do not fit are dropped.
    *
    * @param span the finished internal span from the toplevel request.
    */
@@ -140,7 +141,7 @@ public class ThresholdRequestTracer implements RequestTracer {
     if (span.requestContext() != null) {
       final Request<?> request = span.requestContext().request();
       if (isOverThreshold(request)) {
-        if (!overThresholdQueue.offer(request)) {
+        if (!overThresholdQueue.offer(RequestRecord.of(request))) {
           // TODO: what to do if dropped because queue full? raise event?
         }
       }
@@ -207,24 +208,11 @@ public class ThresholdRequestTracer implements RequestTracer {
       System.getProperty("com.couchbase.thresholdRequestTracerNewOutputFormat", "false")
     );
 
-    /**
-     * Compares request by their logical request latency for the priority threshold queues.
-     */
-    private final Comparator<Request<?>> THRESHOLD_COMPARATOR = Comparator.comparingLong(
-      o -> o.context().logicalRequestLatency()
-    );
-
-    private final Queue<Request<?>> kvThresholds = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> n1qlThresholds = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> viewThresholds = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> ftsThresholds = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-    private final Queue<Request<?>> analyticsThresholds = new PriorityQueue<>(THRESHOLD_COMPARATOR);
-
-    private long kvThresholdCount = 0;
-    private long n1qlThresholdCount = 0;
-    private long viewThresholdCount = 0;
-    private long ftsThresholdCount = 0;
-    private long analyticsThresholdCount = 0;
+    private final TopRequestRecords kvThresholds = new TopRequestRecords(sampleSize);
+    private final TopRequestRecords n1qlThresholds = new TopRequestRecords(sampleSize);
+    private final TopRequestRecords viewThresholds = new TopRequestRecords(sampleSize);
+    private final TopRequestRecords ftsThresholds = new TopRequestRecords(sampleSize);
+    private final TopRequestRecords analyticsThresholds = new TopRequestRecords(sampleSize);
 
     private long lastThresholdLog;
     private boolean hasThresholdWritten;
@@ -265,26 +253,21 @@ public class ThresholdRequestTracer implements RequestTracer {
       }
 
       while (true) {
-        Request<?> request = overThresholdQueue.poll();
-        if (request == null) {
+        RequestRecord record = overThresholdQueue.poll();
+        if (record == null) {
           return;
         }
-        final ServiceType serviceType = request.serviceType();
+        final ServiceType serviceType = record.serviceType();
         if (serviceType == ServiceType.KV) {
-          updateThreshold(kvThresholds, request);
-          kvThresholdCount += 1;
+          updateThreshold(kvThresholds, record);
         } else if (serviceType == ServiceType.QUERY) {
-          updateThreshold(n1qlThresholds, request);
-          n1qlThresholdCount += 1;
+          updateThreshold(n1qlThresholds, record);
         } else if (serviceType == ServiceType.VIEWS) {
-          updateThreshold(viewThresholds, request);
-          viewThresholdCount += 1;
+          updateThreshold(viewThresholds, record);
         } else if (serviceType == ServiceType.SEARCH) {
-          updateThreshold(ftsThresholds, request);
-          ftsThresholdCount += 1;
+          updateThreshold(ftsThresholds, record);
         } else if (serviceType == ServiceType.ANALYTICS) {
-          updateThreshold(analyticsThresholds, request);
-          analyticsThresholdCount += 1;
+          updateThreshold(analyticsThresholds, record);
         } else {
           // TODO: log error
           // LOGGER.warn("Unknown service in span {}", service);
@@ -303,44 +286,19 @@ public class ThresholdRequestTracer implements RequestTracer {
 
       Map<String, Object> output = new HashMap<>();
       if (!kvThresholds.isEmpty()) {
-        output.put(
-          TracingIdentifiers.SERVICE_KV,
-          convertThresholdMetadataNew(kvThresholds, kvThresholdCount)
-        );
-        kvThresholds.clear();
-        kvThresholdCount = 0;
+        output.put(TracingIdentifiers.SERVICE_KV, convertThresholdMetadataNew(kvThresholds));
       }
       if (!n1qlThresholds.isEmpty()) {
-        output.put(
-          TracingIdentifiers.SERVICE_QUERY,
-          convertThresholdMetadataNew(n1qlThresholds, n1qlThresholdCount)
-        );
-        n1qlThresholds.clear();
-        n1qlThresholdCount = 0;
+        output.put(TracingIdentifiers.SERVICE_QUERY, convertThresholdMetadataNew(n1qlThresholds));
       }
       if (!viewThresholds.isEmpty()) {
-        output.put(
-          TracingIdentifiers.SERVICE_VIEWS,
-          convertThresholdMetadataNew(viewThresholds, viewThresholdCount)
-        );
-        viewThresholds.clear();
-        viewThresholdCount = 0;
+        output.put(TracingIdentifiers.SERVICE_VIEWS, convertThresholdMetadataNew(viewThresholds));
       }
       if (!ftsThresholds.isEmpty()) {
-        output.put(
-          TracingIdentifiers.SERVICE_SEARCH,
-          convertThresholdMetadataNew(ftsThresholds, ftsThresholdCount)
-        );
-        ftsThresholds.clear();
-        ftsThresholdCount = 0;
+        output.put(TracingIdentifiers.SERVICE_SEARCH, convertThresholdMetadataNew(ftsThresholds));
       }
       if (!analyticsThresholds.isEmpty()) {
-        output.put(
-          TracingIdentifiers.SERVICE_ANALYTICS,
-          convertThresholdMetadataNew(analyticsThresholds, analyticsThresholdCount)
-        );
-        analyticsThresholds.clear();
-        analyticsThresholdCount = 0;
+        output.put(TracingIdentifiers.SERVICE_ANALYTICS, convertThresholdMetadataNew(analyticsThresholds));
       }
       logOverThreshold(output, null);
     }
@@ -353,56 +311,46 @@ public class ThresholdRequestTracer implements RequestTracer {
 
       List<Map<String, Object>> output = new ArrayList<>();
       if (!kvThresholds.isEmpty()) {
-        output.add(convertThresholdMetadataOld(kvThresholds, kvThresholdCount, TracingIdentifiers.SERVICE_KV));
-        kvThresholds.clear();
-        kvThresholdCount = 0;
+        output.add(convertThresholdMetadataOld(kvThresholds, TracingIdentifiers.SERVICE_KV));
       }
       if (!n1qlThresholds.isEmpty()) {
-        output.add(convertThresholdMetadataOld(n1qlThresholds, n1qlThresholdCount, TracingIdentifiers.SERVICE_QUERY));
-        n1qlThresholds.clear();
-        n1qlThresholdCount = 0;
+        output.add(convertThresholdMetadataOld(n1qlThresholds, TracingIdentifiers.SERVICE_QUERY));
       }
       if (!viewThresholds.isEmpty()) {
-        output.add(convertThresholdMetadataOld(viewThresholds, viewThresholdCount, TracingIdentifiers.SERVICE_VIEWS));
-        viewThresholds.clear();
-        viewThresholdCount = 0;
+        output.add(convertThresholdMetadataOld(viewThresholds, TracingIdentifiers.SERVICE_VIEWS));
       }
       if (!ftsThresholds.isEmpty()) {
-        output.add(convertThresholdMetadataOld(ftsThresholds, ftsThresholdCount, TracingIdentifiers.SERVICE_SEARCH));
-        ftsThresholds.clear();
-        ftsThresholdCount = 0;
+        output.add(convertThresholdMetadataOld(ftsThresholds, TracingIdentifiers.SERVICE_SEARCH));
       }
       if (!analyticsThresholds.isEmpty()) {
-        output.add(convertThresholdMetadataOld(analyticsThresholds, analyticsThresholdCount, TracingIdentifiers.SERVICE_ANALYTICS));
-        analyticsThresholds.clear();
-        analyticsThresholdCount = 0;
+        output.add(convertThresholdMetadataOld(analyticsThresholds, TracingIdentifiers.SERVICE_ANALYTICS));
       }
       logOverThreshold(null, output);
     }
 
     /**
-     * Converts the metadata of the requests into the format that is suitable for dumping.
+     * Converts the recorded requests into the format that is suitable for dumping and resets them.
      *
-     * @param requests the request data to convert
-     * @param count the total count
+     * @param records the recorded request data to convert
      * @return the converted map
      */
-    private Map<String, Object> convertThresholdMetadataNew(final Queue<Request<?>> requests, final long count) {
+    private Map<String, Object> convertThresholdMetadataNew(final TopRequestRecords records) {
       Map<String, Object> output = new HashMap<>();
       List<Map<String, Object>> top = new ArrayList<>();
-      for (Request<?> request : requests) {
+      long count = records.count();
+      for (RequestRecord record : records.drain()) {
         Map<String, Object> entry = new HashMap<>();
-        entry.put(KEY_TOTAL_MICROS, TimeUnit.NANOSECONDS.toMicros(request.context().logicalRequestLatency()));
+        entry.put(KEY_TOTAL_MICROS, TimeUnit.NANOSECONDS.toMicros(record.totalLatency()));
 
-        String operationId = request.operationId();
+        String operationId = record.operationId();
         if (operationId != null) {
           entry.put(KEY_OPERATION_ID, operationId);
         }
 
-        entry.put(KEY_OPERATION_NAME, request.name());
+        entry.put(KEY_OPERATION_NAME, record.name());
 
-        HostAndPort local = request.context().lastDispatchedFrom();
-        HostAndPort peer = request.context().lastDispatchedTo();
+        HostAndPort local = record.lastDispatchedFrom();
+        HostAndPort peer = record.lastDispatchedTo();
         if (local != null) {
           entry.put(KEY_LAST_LOCAL_SOCKET, redactSystem(local).toString());
         }
@@ -410,22 +358,22 @@ public class ThresholdRequestTracer implements RequestTracer {
           entry.put(KEY_LAST_REMOTE_SOCKET, redactSystem(peer).toString());
         }
 
-        String localId = request.context().lastChannelId();
+        String localId = record.lastChannelId();
         if (localId != null) {
           entry.put(KEY_LAST_LOCAL_ID, redactSystem(localId).toString());
         }
 
-        long encodeDuration = request.context().encodeLatency();
+        long encodeDuration = record.encodeLatency();
         if (encodeDuration > 0) {
           entry.put(KEY_ENCODE_MICROS, encodeDuration);
         }
 
-        long dispatchDuration = request.context().dispatchLatency();
+        long dispatchDuration = record.dispatchLatency();
         if (dispatchDuration > 0) {
           entry.put(KEY_DISPATCH_MICROS, TimeUnit.NANOSECONDS.toMicros(dispatchDuration));
         }
 
-        long serverDuration = request.context().serverLatency();
+        long serverDuration = record.serverLatency();
         if (serverDuration > 0) {
           entry.put(KEY_SERVER_MICROS, TimeUnit.NANOSECONDS.toMicros(serverDuration));
         }
@@ -433,33 +381,28 @@ public class ThresholdRequestTracer implements RequestTracer {
         top.add(entry);
       }
 
-      // The queue will keep the most expensive at the top, but sorted in ascending order.
-      // this final sort will bring it into descending order as per spec so that the longest
-      // calls will be shown first.
-      top.sort((o1, o2) -> ((Long) o2.get(KEY_TOTAL_MICROS)).compareTo((Long) o1.get(KEY_TOTAL_MICROS)));
-
       output.put("total_count", count);
       output.put("top_requests", top);
       return output;
     }
 
-    private Map<String, Object> convertThresholdMetadataOld(final Queue<Request<?>> requests, final long count,
-                                                            final String ident) {
+    private Map<String, Object> convertThresholdMetadataOld(final TopRequestRecords records, final String ident) {
       Map<String, Object> output = new HashMap<>();
       List<Map<String, Object>> top = new ArrayList<>();
-      for (Request<?> request : requests) {
+      long count = records.count();
+      for (RequestRecord record : records.drain()) {
         Map<String, Object> entry = new HashMap<>();
-        entry.put("total_us", TimeUnit.NANOSECONDS.toMicros(request.context().logicalRequestLatency()));
+        entry.put("total_us", TimeUnit.NANOSECONDS.toMicros(record.totalLatency()));
 
-        String operationId = request.operationId();
+        String operationId = record.operationId();
         if (operationId != null) {
           entry.put("last_operation_id", operationId);
         }
 
-        entry.put("operation_name", request.getClass().getSimpleName());
+        entry.put("operation_name", record.className());
 
-        HostAndPort local = request.context().lastDispatchedFrom();
-        HostAndPort peer = request.context().lastDispatchedTo();
+        HostAndPort local = record.lastDispatchedFrom();
+        HostAndPort peer = record.lastDispatchedTo();
         if (local != null) {
           entry.put("last_local_address", redactSystem(local).toString());
         }
@@ -467,22 +410,22 @@ public class ThresholdRequestTracer implements RequestTracer {
           entry.put("last_remote_address", redactSystem(peer).toString());
         }
 
-        String localId = request.context().lastChannelId();
+        String localId = record.lastChannelId();
         if (localId != null) {
           entry.put("last_local_id", redactSystem(localId).toString());
         }
 
-        long encodeDuration = request.context().encodeLatency();
+        long encodeDuration = record.encodeLatency();
         if (encodeDuration > 0) {
           entry.put("encode_us", encodeDuration);
         }
 
-        long dispatchDuration = request.context().dispatchLatency();
+        long dispatchDuration = record.dispatchLatency();
         if (dispatchDuration > 0) {
           entry.put("last_dispatch_us", TimeUnit.NANOSECONDS.toMicros(dispatchDuration));
         }
 
-        long serverDuration = request.context().serverLatency();
+        long serverDuration = record.serverLatency();
         if (serverDuration > 0) {
           entry.put("server_us", TimeUnit.NANOSECONDS.toMicros(serverDuration));
         }
@@ -490,11 +433,6 @@ public class ThresholdRequestTracer implements RequestTracer {
         top.add(entry);
       }
 
-      // The queue will keep the most expensive at the top, but sorted in ascending order.
-      // this final sort will bring it into descending order as per spec so that the longest
-      // calls will be shown first.
-      top.sort((o1, o2) -> ((Long) o2.get("total_us")).compareTo((Long) o1.get("total_us")));
-
       output.put("service", ident);
       output.put("count", count);
       output.put("top", top);
@@ -510,15 +448,11 @@ public class ThresholdRequestTracer implements RequestTracer {
     }
 
     /**
-     * Helper method which updates the list with the span and ensures that the sample
-     * size is respected.
+     * Helper method which adds the record to the top records (which only keep the highest ones
+     * up to the sample size).
      */
-    private void updateThreshold(final Queue<Request<?>> thresholds, final Request<?> request) {
-      thresholds.add(request);
-      // Remove the element with the lowest duration, so we only keep the highest ones consistently
-      while(thresholds.size() > sampleSize) {
-        thresholds.remove();
-      }
+    private void updateThreshold(final TopRequestRecords thresholds, final RequestRecord record) {
+      thresholds.add(record);
       hasThresholdWritten = true;
     }
   }
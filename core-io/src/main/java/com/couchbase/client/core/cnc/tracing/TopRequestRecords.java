@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.tracing;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps the {@link RequestRecord RequestRecords} with the highest latencies seen, up to a fixed capacity.
+ * <p>
+ * The records are stored in a min-heap preallocated to the capacity, so adding a record is O(log n) and never
+ * grows the retained memory beyond the capacity, no matter how many records are added between two emits.
+ * <p>
+ * This class is not thread-safe, it is meant to be used by a single worker thread.
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class TopRequestRecords {
+
+  private final RequestRecord[] heap;
+  private int size;
+  private long count;
+
+  /**
+   * Creates a new {@link TopRequestRecords}.
+   *
+   * @param capacity the maximum number of records kept.
+   */
+  public TopRequestRecords(final int capacity) {
+    this.heap = new RequestRecord[Math.max(0, capacity)];
+  }
+
+  /**
+   * Adds a record, evicting the one with the lowest latency if the capacity is reached.
+   *
+   * @param record the record to add.
+   */
+  public void add(final RequestRecord record) {
+    count++;
+    if (size < heap.length) {
+      heap[size] = record;
+      siftUp(size++);
+    } else if (size > 0 && record.totalLatency() > heap[0].totalLatency()) {
+      heap[0] = record;
+      siftDown(0);
+    }
+  }
+
+  /**
+   * Returns true if no records are kept.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the number of records added since the last drain, including the evicted ones.
+   */
+  public long count() {
+    return count;
+  }
+
+  /**
+   * Returns the kept records ordered by descending latency and resets this structure.
+   *
+   * @return the slowest records, slowest first.
+   */
+  public List<RequestRecord> drain() {
+    List<RequestRecord> result = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      result.add(heap[i]);
+    }
+    result.sort((o1, o2) -> Long.compare(o2.totalLatency(), o1.totalLatency()));
+    Arrays.fill(heap, 0, size, null);
+    size = 0;
+    count = 0;
+    return result;
+  }
+
+  private void siftUp(int index) {
+    RequestRecord record = heap[index];
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (heap[parent].totalLatency() <= record.totalLatency()) {
+        break;
+      }
+      heap[index] = heap[parent];
+      index = parent;
+    }
+    heap[index] = record;
+  }
+
+  private void siftDown(int index) {
+    RequestRecord record = heap[index];
+    int half = size >>> 1;
+    while (index < half) {
+      int child = 2 * index + 1;
+      int right = child + 1;
+      if (right < size && heap[right].totalLatency() < heap[child].totalLatency()) {
+        child = right;
+      }
+      if (record.totalLatency() <= heap[child].totalLatency()) {
+        break;
+      }
+      heap[index] = heap[child];
+      index = child;
+    }
+    heap[index] = record;
+  }
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.config;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.JsonNode;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.node.ObjectNode;
+import com.couchbase.client.core.json.Mapper;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the last known raw global config, bucket configs and collection manifests and persists them to a file.
+ * <p>
+ * When the SDK is started with the same file again, the stored configs can be applied right away so that
+ * operations can be dispatched before the first fresh config has been loaded from the cluster. The stored
+ * configs are replaced as soon as fresh ones arrive.
+ * <p>
+ * The raw configs are stored as they have been received (with their origin), so they go through the same
+ * parsing as configs loaded from the cluster when applied.
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class ConfigSnapshot {
+
+  /**
+   * The version of the file format, snapshots with a different version are ignored.
+   */
+  static final int VERSION = 1;
+
+  private final Path file;
+  private final Map<String, Entry> buckets = new ConcurrentHashMap<>();
+  private final Map<String, String> manifests = new ConcurrentHashMap<>();
+  private volatile Entry global;
+
+  private ConfigSnapshot(final Path file) {
+    this.file = file;
+  }
+
+  /**
+   * Creates an empty snapshot backed by the given file, ignoring its current content.
+   *
+   * @param file the file to write to.
+   * @return the empty snapshot.
+   */
+  public static ConfigSnapshot empty(final Path file) {
+    return new ConfigSnapshot(file);
+  }
+
+  /**
+   * Creates a snapshot backed by the given file and loads its content if the file exists.
+   *
+   * @param file the file to read from and write to.
+   * @return the loaded snapshot, empty if the file does not exist yet.
+   * @throws IOException if the file exists but cannot be read or decoded.
+   */
+  public static ConfigSnapshot load(final Path file) throws IOException {
+    ConfigSnapshot snapshot = new ConfigSnapshot(file);
+    if (!Files.exists(file)) {
+      return snapshot;
+    }
+
+    JsonNode root = Mapper.reader().readTree(Files.readAllBytes(file));
+    if (root == null || root.path("version").asInt() != VERSION) {
+      return snapshot;
+    }
+
+    JsonNode global = root.path("global");
+    if (global.isObject()) {
+      snapshot.global = Entry.decode(global);
+    }
+    for (Iterator<Map.Entry<String, JsonNode>> it = root.path("buckets").fields(); it.hasNext(); ) {
+      Map.Entry<String, JsonNode> bucket = it.next();
+      snapshot.buckets.put(bucket.getKey(), Entry.decode(bucket.getValue()));
+      JsonNode manifest = bucket.getValue().path("manifest");
+      if (manifest.isTextual()) {
+        snapshot.manifests.put(bucket.getKey(), manifest.asText());
+      }
+    }
+    return snapshot;
+  }
+
+  /**
+   * Returns the file this snapshot is persisted to.
+   */
+  public Path file() {
+    return file;
+  }
+
+  public Optional<ProposedGlobalConfigContext> global() {
+    Entry entry = global;
+    return entry == null
+      ? Optional.empty()
+      : Optional.of(new ProposedGlobalConfigContext(entry.config, entry.origin));
+  }
+
+  public Optional<ProposedBucketConfigContext> bucket(final String name) {
+    Entry entry = buckets.get(name);
+    return entry == null
+      ? Optional.empty()
+      : Optional.of(new ProposedBucketConfigContext(name, entry.config, entry.origin));
+  }
+
+  public Optional<String> manifest(final String bucket) {
+    return Optional.ofNullable(manifests.get(bucket));
+  }
+
+  public void updateGlobal(final ProposedGlobalConfigContext ctx) {
+    global = new Entry(ctx.config(), ctx.origin());
+  }
+
+  public void updateBucket(final ProposedBucketConfigContext ctx) {
+    buckets.put(ctx.bucketName(), new Entry(ctx.config(), ctx.origin()));
+  }
+
+  public void updateManifest(final String bucket, final String manifest) {
+    manifests.put(bucket, manifest);
+  }
+
+  public void removeBucket(final String name) {
+    buckets.remove(name);
+    manifests.remove(name);
+  }
+
+  /**
+   * Writes the current content to the file.
+   * <p>
+   * The content is written to a temporary file next to the target first and then moved over it, so a
+   * concurrently starting process never reads a partially written snapshot.
+   *
+   * @throws IOException if writing the file failed.
+   */
+  public synchronized void write() throws IOException {
+    ObjectNode root = Mapper.createObjectNode();
+    root.put("version", VERSION);
+    Entry g = global;
+    if (g != null) {
+      root.set("global", g.encode());
+    }
+    ObjectNode bucketsNode = root.putObject("buckets");
+    for (Map.Entry<String, Entry> bucket : buckets.entrySet()) {
+      ObjectNode node = bucket.getValue().encode();
+      String manifest = manifests.get(bucket.getKey());
+      if (manifest != null) {
+        node.put("manifest", manifest);
+      }
+      bucketsNode.set(bucket.getKey(), node);
+    }
+
+    Path absolute = file.toAbsolutePath();
+    if (absolute.getParent() != null) {
+      Files.createDirectories(absolute.getParent());
+    }
+    Path tmp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+    Files.write(tmp, Mapper.encodeAsBytes(root));
+    try {
+      Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException ex) {
+      Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * A raw config together with the origin it has been loaded from.
+   */
+  private static class Entry {
+    private final String config;
+    private final String origin;
+
+    Entry(final String config, final String origin) {
+      this.config = config;
+      this.origin = origin;
+    }
+
+    static Entry decode(final JsonNode node) {
+      return new Entry(node.path("config").asText(), node.path("origin").asText());
+    }
+
+    ObjectNode encode() {
+      ObjectNode node = Mapper.createObjectNode();
+      node.put("config", config);
+      node.put("origin", origin);
+      return node;
+    }
+  }
+
+}
@@ -22,6 +22,7 @@ import com.couchbase.client.core.cnc.events.config.BucketConfigUpdatedEvent;
 import com.couchbase.client.core.cnc.events.config.CollectionMapDecodingFailedEvent;
 import com.couchbase.client.core.cnc.events.config.CollectionMapRefreshFailedEvent;
 import com.couchbase.client.core.cnc.events.config.ConfigIgnoredEvent;
+import com.couchbase.client.core.cnc.events.config.ConfigSnapshotFailedEvent;
 import com.couchbase.client.core.cnc.events.config.GlobalConfigUpdatedEvent;
 import com.couchbase.client.core.cnc.events.config.IndividualGlobalConfigLoadFailedEvent;
 import com.couchbase.client.core.cnc.events.config.SeedNodesUpdatedEvent;
@@ -46,6 +47,7 @@ import com.couchbase.client.core.msg.ResponseStatus;
 import com.couchbase.client.core.msg.kv.GetCollectionManifestRequest;
 import com.couchbase.client.core.node.NodeIdentifier;
 import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import com.couchbase.client.core.retry.RetryParking;
 import com.couchbase.client.core.service.ServiceType;
 import com.couchbase.client.core.util.UnsignedLEB128;
 import reactor.core.Exceptions;
@@ -55,12 +57,16 @@ import reactor.core.publisher.Mono;
 import reactor.core.publisher.ReplayProcessor;
 import reactor.util.retry.Retry;
 
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -101,13 +107,36 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
   private static final int DEFAULT_MANAGER_TLS_PORT = 18091;
 
   /**
-   * The number of loaders which will (at maximum) try to load a config in parallel.
+   * The name of the metric under which the duration of the individual bootstrap stages is recorded.
+   */
+  private static final String BOOTSTRAP_METRIC = "cb.bootstrap";
+
+  /**
+   * The delay after a topology change before the config snapshot is written, so that bursts of changes
+   * result in a single write.
    */
-  private static final int MAX_PARALLEL_LOADERS = 5;
+  private static final Duration SNAPSHOT_WRITE_DELAY = Duration.ofMillis(100);
 
   private final Core core;
   private final EventBus eventBus;
 
+  /**
+   * The number of loaders which will (at maximum) try to load a config in parallel.
+   */
+  private final int maxParallelLoaders;
+
+  /**
+   * The persisted topology snapshot, null if not enabled.
+   */
+  private final ConfigSnapshot snapshot;
+  private final Set<String> bucketsFromSnapshot = ConcurrentHashMap.newKeySet();
+  /**
+   * Buckets whose collection map has been populated from the snapshot and not been confirmed by a fetched manifest.
+   */
+  private final Set<String> manifestsFromSnapshot = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean globalFromSnapshot = new AtomicBoolean(false);
+  private final AtomicBoolean snapshotWriteScheduled = new AtomicBoolean(false);
+
   private final KeyValueBucketLoader keyValueLoader;
   private final ClusterManagerBucketLoader clusterManagerLoader;
   private final KeyValueBucketRefresher keyValueRefresher;
@@ -143,6 +172,8 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
   public DefaultConfigurationProvider(final Core core, final Set<SeedNode> seedNodes) {
     this.core = core;
     eventBus = core.context().environment().eventBus();
+    maxParallelLoaders = core.context().environment().ioConfig().maxParallelConfigLoaders();
+    snapshot = core.context().environment().ioConfig().configSnapshotFile().map(this::loadSnapshot).orElse(null);
 
     // Don't publish the initial seed nodes, since they probably came from the user
     // and might not be KV nodes, or might have incomplete port information.
@@ -184,13 +215,15 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
     return Mono.defer(() -> {
       if (!shutdown.get()) {
         bucketConfigLoadInProgress.incrementAndGet();
+        final long start = System.nanoTime();
+        applyBucketSnapshot(name, start);
         boolean tls = core.context().environment().securityConfig().tlsEnabled();
         int kvPort = tls ? DEFAULT_KV_TLS_PORT : DEFAULT_KV_PORT;
         int managerPort = tls ? DEFAULT_MANAGER_TLS_PORT : DEFAULT_MANAGER_PORT;
         final Optional<String> alternate = core.context().alternateAddress();
 
         return Flux
-          .range(1, Math.min(MAX_PARALLEL_LOADERS, currentSeedNodes().size()))
+          .range(1, Math.min(maxParallelLoaders, currentSeedNodes().size()))
           .flatMap(index -> Flux
             .fromIterable(currentSeedNodes())
             .take(Math.min(index, currentSeedNodes().size()))
@@ -229,12 +262,17 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
             new ConfigException("Could not locate a single bucket configuration for bucket: " + name)
           ))
           .map(ctx -> {
+            recordBootstrapStage("bucket_config_load", name, start);
             proposeBucketConfig(ctx);
             return ctx;
           })
           .then(registerRefresher(name))
+          .doOnSuccess(ignored -> recordBootstrapStage("bucket_open", name, start))
           .doOnTerminate(bucketConfigLoadInProgress::decrementAndGet)
-          .onErrorResume(t -> closeBucketIgnoreShutdown(name).then(Mono.error(t)));
+          .onErrorResume(t -> {
+            removeBucketFromSnapshot(name);
+            return closeBucketIgnoreShutdown(name).then(Mono.error(t));
+          });
       } else {
         return Mono.error(new AlreadyShutdownException());
       }
@@ -324,8 +362,10 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
         int kvPort = tls ? DEFAULT_KV_TLS_PORT : DEFAULT_KV_PORT;
 
         final AtomicBoolean hasErrored = new AtomicBoolean();
+        final long loadStart = System.nanoTime();
+        applyGlobalSnapshot(loadStart);
         return Flux
-          .range(1, Math.min(MAX_PARALLEL_LOADERS, currentSeedNodes().size()))
+          .range(1, Math.min(maxParallelLoaders, currentSeedNodes().size()))
           .flatMap(index -> Flux
               .fromIterable(currentSeedNodes())
               .take(Math.min(index, currentSeedNodes().size()))
@@ -362,6 +402,7 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
             new ConfigException("Could not locate a single global configuration")
           ))
           .map(ctx -> {
+            recordBootstrapStage("global_config_load", null, loadStart);
             proposeGlobalConfig(ctx);
             return ctx;
           })
@@ -382,7 +423,10 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
           core.context().environment(),
           ctx.origin()
         );
-        checkAndApplyConfig(config);
+        if (checkAndApplyConfig(config, false) && snapshot != null) {
+          snapshot.updateBucket(ctx);
+          scheduleSnapshotWrite();
+        }
       } catch (Exception ex) {
         eventBus.publish(new ConfigIgnoredEvent(
           core.context(),
@@ -406,7 +450,10 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
     if (!shutdown.get()) {
       try {
         GlobalConfig config = GlobalConfigParser.parse(ctx.config(), ctx.origin());
-        checkAndApplyConfig(config);
+        if (checkAndApplyConfig(config, false) && snapshot != null) {
+          snapshot.updateGlobal(ctx);
+          scheduleSnapshotWrite();
+        }
       } catch (Exception ex) {
         eventBus.publish(new ConfigIgnoredEvent(
           core.context(),
@@ -427,10 +474,13 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
 
   @Override
   public Mono<Void> closeBucket(final String name) {
-    return Mono.defer(() -> shutdown.get()
-      ? Mono.error(new AlreadyShutdownException())
-      : closeBucketIgnoreShutdown(name)
-    );
+    return Mono.defer(() -> {
+      if (shutdown.get()) {
+        return Mono.error(new AlreadyShutdownException());
+      }
+      removeBucketFromSnapshot(name);
+      return closeBucketIgnoreShutdown(name);
+    });
   }
 
   /**
@@ -447,6 +497,8 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
   private Mono<Void> closeBucketIgnoreShutdown(final String name) {
     return Mono
       .defer(() -> {
+        bucketsFromSnapshot.remove(name);
+        manifestsFromSnapshot.remove(name);
         currentConfig.deleteBucketConfig(name);
         pushConfig();
         return Mono.empty();
@@ -459,6 +511,8 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
   public Mono<Void> shutdown() {
     return Mono.defer(() -> {
       if (shutdown.compareAndSet(false, true)) {
+        // persist the latest topology before the configs are removed below
+        writeSnapshot();
         return Flux
           .fromIterable(currentConfig.bucketConfigs().values())
           .flatMap(bucketConfig -> closeBucketIgnoreShutdown(bucketConfig.name()))
@@ -487,8 +541,10 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
 
   @Override
   public void refreshCollectionMap(final String bucket, final boolean force) {
-    if (!collectionMap.hasBucketMap(bucket) || force) {
+    if (!collectionMap.hasBucketMap(bucket) || force || manifestsFromSnapshot.contains(bucket)) {
       collectionMapRefreshInProgress = true;
+      // only the first load is part of the bootstrap, later refreshes happen while the bucket is in use
+      boolean firstLoad = !collectionMap.hasBucketMap(bucket);
       long start = System.nanoTime();
       GetCollectionManifestRequest request = new GetCollectionManifestRequest(
         core.context().environment().timeoutConfig().kvTimeout(),
@@ -506,12 +562,20 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
             throwable,
             CollectionMapRefreshFailedEvent.Reason.FAILED
           ));
-          collectionMapRefreshInProgress = false;
+          collectionMapRefreshCompleted(bucket);
           return;
         }
 
         if (response.status().success() && response.manifest().isPresent()) {
           parseAndStoreCollectionsManifest(bucket, response.manifest().get());
+          manifestsFromSnapshot.remove(bucket);
+          if (snapshot != null) {
+            snapshot.updateManifest(bucket, response.manifest().get());
+            scheduleSnapshotWrite();
+          }
+          if (firstLoad) {
+            recordBootstrapStage("collection_map_load", bucket, start);
+          }
         } else {
           if (response.status() == ResponseStatus.UNKNOWN) {
             eventBus.publish(new CollectionMapRefreshFailedEvent(
@@ -529,11 +593,167 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
             ));
           }
         }
-        collectionMapRefreshInProgress = false;
+        collectionMapRefreshCompleted(bucket);
       });
     }
   }
 
+  /**
+   * Marks the collection map refresh as done and wakes up the requests which have been waiting for it.
+   *
+   * @param bucket the name of the bucket whose collection map has been refreshed.
+   */
+  private void collectionMapRefreshCompleted(final String bucket) {
+    collectionMapRefreshInProgress = false;
+    RetryParking retryParking = core.retryParking();
+    if (retryParking != null) {
+      retryParking.collectionMapRefreshed(bucket);
+    }
+  }
+
+  /**
+   * Loads the topology snapshot from the given file, starting with an empty one if it cannot be read.
+   */
+  private ConfigSnapshot loadSnapshot(final Path file) {
+    try {
+      return ConfigSnapshot.load(file);
+    } catch (Exception ex) {
+      eventBus.publish(new ConfigSnapshotFailedEvent(core.context(), ConfigSnapshotFailedEvent.Reason.READ, file, ex));
+      return ConfigSnapshot.empty(file);
+    }
+  }
+
+  /**
+   * Applies the bucket config and collection manifest from the snapshot, if present and if the bucket has
+   * no config yet.
+   *
+   * @param name the name of the bucket.
+   * @param start the {@link System#nanoTime()} when the bucket open has been started.
+   */
+  private void applyBucketSnapshot(final String name, final long start) {
+    if (snapshot == null || currentConfig.bucketConfig(name) != null) {
+      return;
+    }
+
+    snapshot.bucket(name).ifPresent(ctx -> {
+      try {
+        BucketConfig config = BucketConfigParser.parse(ctx.config(), core.context().environment(), ctx.origin());
+        if (!containsSeedNode(config.nodes().stream().map(NodeInfo::hostname))) {
+          return;
+        }
+        if (!collectionMap.hasBucketMap(name)) {
+          snapshot.manifest(name).ifPresent(manifest -> {
+            // provisional until confirmed by a fetched manifest, see checkAndApplyConfig
+            manifestsFromSnapshot.add(name);
+            parseAndStoreCollectionsManifest(name, manifest);
+          });
+        }
+        if (checkAndApplyConfig(config, true)) {
+          recordBootstrapStage("bucket_snapshot_load", name, start);
+        }
+      } catch (Exception ex) {
+        eventBus.publish(new ConfigSnapshotFailedEvent(
+          core.context(),
+          ConfigSnapshotFailedEvent.Reason.PARSE,
+          snapshot.file(),
+          ex
+        ));
+      }
+    });
+  }
+
+  /**
+   * Applies the global config from the snapshot, if present and if there is no global config yet.
+   *
+   * @param start the {@link System#nanoTime()} when the global config load has been started.
+   */
+  private void applyGlobalSnapshot(final long start) {
+    if (snapshot == null || currentConfig.globalConfig() != null) {
+      return;
+    }
+
+    snapshot.global().ifPresent(ctx -> {
+      try {
+        GlobalConfig config = GlobalConfigParser.parse(ctx.config(), ctx.origin());
+        if (!containsSeedNode(config.portInfos().stream().map(PortInfo::hostname))) {
+          return;
+        }
+        if (checkAndApplyConfig(config, true)) {
+          recordBootstrapStage("global_snapshot_load", null, start);
+        }
+      } catch (Exception ex) {
+        eventBus.publish(new ConfigSnapshotFailedEvent(
+          core.context(),
+          ConfigSnapshotFailedEvent.Reason.PARSE,
+          snapshot.file(),
+          ex
+        ));
+      }
+    });
+  }
+
+  /**
+   * Returns true if at least one of the given hostnames is a current seed node, which is used to make sure
+   * that a snapshot belongs to the cluster we are bootstrapping against.
+   */
+  private boolean containsSeedNode(final Stream<String> hostnames) {
+    Set<String> seeds = currentSeedNodes().stream().map(SeedNode::address).collect(Collectors.toSet());
+    return hostnames.anyMatch(seeds::contains);
+  }
+
+  private void removeBucketFromSnapshot(final String name) {
+    if (snapshot != null) {
+      snapshot.removeBucket(name);
+      scheduleSnapshotWrite();
+    }
+  }
+
+  /**
+   * Schedules a write of the snapshot, unless one is pending already.
+   */
+  private void scheduleSnapshotWrite() {
+    if (snapshot != null && !shutdown.get() && snapshotWriteScheduled.compareAndSet(false, true)) {
+      core.context().environment().scheduler().schedule(() -> {
+        snapshotWriteScheduled.set(false);
+        writeSnapshot();
+      }, SNAPSHOT_WRITE_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void writeSnapshot() {
+    if (snapshot == null) {
+      return;
+    }
+    try {
+      snapshot.write();
+    } catch (Exception ex) {
+      eventBus.publish(new ConfigSnapshotFailedEvent(
+        core.context(),
+        ConfigSnapshotFailedEvent.Reason.WRITE,
+        snapshot.file(),
+        ex
+      ));
+    }
+  }
+
+  /**
+   * Records how long a stage of the bootstrap process took, so that slow stages can be told apart when many
+   * buckets are opened against large clusters.
+   *
+   * @param stage the name of the bootstrap stage.
+   * @param bucket the name of the bucket, or null if the stage is not bound to a bucket.
+   * @param start the {@link System#nanoTime()} when the stage has been started.
+   */
+  private void recordBootstrapStage(final String stage, final String bucket, final long start) {
+    long latency = System.nanoTime() - start;
+    Map<String, String> tags = new HashMap<>(4);
+    tags.put("cb.bootstrap_stage", stage);
+    if (bucket != null) {
+      tags.put("cb.bucket", bucket);
+    }
+    core.context().environment().meter().valueRecorder(BOOTSTRAP_METRIC, tags).recordValue(latency);
+  }
+
   @Override
   public boolean collectionMapRefreshInProgress() {
     return collectionMapRefreshInProgress;
@@ -565,19 +785,24 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
    * Analyzes the given config and decides if to apply it (and does so if needed).
    *
    * @param newConfig the config to apply.
+   * @param fromSnapshot true if the config has been loaded from the persisted snapshot.
+   * @return true if the config has been applied.
    */
-  private void checkAndApplyConfig(final BucketConfig newConfig) {
+  private boolean checkAndApplyConfig(final BucketConfig newConfig, final boolean fromSnapshot) {
     final String name = newConfig.name();
     final BucketConfig oldConfig = currentConfig.bucketConfig(name);
 
-    if (newConfig.rev() > 0 && oldConfig != null && newConfig.rev() <= oldConfig.rev()) {
+    // A config from the snapshot is always replaced by the first fresh one, even if the revision went
+    // backwards in the meantime (i.e. because the bucket has been recreated).
+    final boolean replacesSnapshot = !fromSnapshot && bucketsFromSnapshot.remove(name);
+    if (!replacesSnapshot && newConfig.rev() > 0 && oldConfig != null && newConfig.rev() <= oldConfig.rev()) {
       eventBus.publish(new ConfigIgnoredEvent(
         core.context(),
         ConfigIgnoredEvent.Reason.OLD_OR_SAME_REVISION,
         Optional.empty(),
         Optional.empty()
       ));
-      return;
+      return false;
     }
 
     if (newConfig.tainted()) {
@@ -588,36 +813,58 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
       clusterManagerRefresher.markUntainted(name);
     }
 
+    if (fromSnapshot) {
+      bucketsFromSnapshot.add(name);
+    }
+
     eventBus.publish(new BucketConfigUpdatedEvent(core.context(), newConfig));
     currentConfig.setBucketConfig(newConfig);
     checkAlternateAddress();
-    updateSeedNodeList();
+    if (!fromSnapshot) {
+      // the seed nodes are kept until the topology is confirmed by a fresh config
+      updateSeedNodeList();
+    }
     pushConfig();
+    if (replacesSnapshot && manifestsFromSnapshot.contains(name)) {
+      // the manifest from the snapshot might be outdated as well (i.e. collections dropped and recreated)
+      refreshCollectionMap(name, true);
+    }
+    return true;
   }
 
   /**
    * Analyzes the given config and decides if to apply it (and does so if needed).
    *
    * @param newConfig the config to apply.
+   * @param fromSnapshot true if the config has been loaded from the persisted snapshot.
+   * @return true if the config has been applied.
    */
-  private void checkAndApplyConfig(final GlobalConfig newConfig) {
+  private boolean checkAndApplyConfig(final GlobalConfig newConfig, final boolean fromSnapshot) {
     final GlobalConfig oldConfig = currentConfig.globalConfig();
 
-    if (newConfig.rev() > 0 && oldConfig != null && newConfig.rev() <= oldConfig.rev()) {
+    final boolean replacesSnapshot = !fromSnapshot && globalFromSnapshot.compareAndSet(true, false);
+    if (!replacesSnapshot && newConfig.rev() > 0 && oldConfig != null && newConfig.rev() <= oldConfig.rev()) {
       eventBus.publish(new ConfigIgnoredEvent(
         core.context(),
         ConfigIgnoredEvent.Reason.OLD_OR_SAME_REVISION,
         Optional.empty(),
         Optional.empty()
       ));
-      return;
+      return false;
+    }
+
+    if (fromSnapshot) {
+      globalFromSnapshot.set(true);
     }
 
     eventBus.publish(new GlobalConfigUpdatedEvent(core.context(), newConfig));
     currentConfig.setGlobalConfig(newConfig);
     checkAlternateAddress();
-    updateSeedNodeList();
+    if (!fromSnapshot) {
+      updateSeedNodeList();
+    }
     pushConfig();
+    return true;
   }
 
   /**
@@ -19,6 +19,8 @@ package com.couchbase.client.core.endpoint;
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.Counter;
 import com.couchbase.client.core.cnc.Event;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
 import com.couchbase.client.core.cnc.events.endpoint.EndpointConnectionAbortedEvent;
 import com.couchbase.client.core.cnc.events.endpoint.EndpointConnectionFailedEvent;
 import com.couchbase.client.core.cnc.events.endpoint.EndpointConnectedEvent;
@@ -38,6 +40,7 @@ import com.couchbase.client.core.error.BucketNotFoundException;
 import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.core.io.netty.PipelineErrorHandler;
 import com.couchbase.client.core.io.netty.SslHandlerFactory;
+import com.couchbase.client.core.io.netty.TlsHandshakeTimingHandler;
 import com.couchbase.client.core.io.netty.TrafficCaptureHandler;
 import com.couchbase.client.core.io.netty.kv.ChannelAttributes;
 import com.couchbase.client.core.io.netty.kv.ConnectTimings;
@@ -63,6 +66,7 @@ import com.couchbase.client.core.deps.io.netty.channel.kqueue.KQueueEventLoopGro
 import com.couchbase.client.core.deps.io.netty.channel.kqueue.KQueueSocketChannel;
 import com.couchbase.client.core.deps.io.netty.channel.nio.NioEventLoopGroup;
 import com.couchbase.client.core.deps.io.netty.channel.socket.nio.NioSocketChannel;
+import com.couchbase.client.core.deps.io.netty.handler.ssl.SslHandler;
 import com.couchbase.client.core.diagnostics.EndpointDiagnostics;
 import com.couchbase.client.core.util.SingleStateful;
 import com.couchbase.client.core.util.HostAndPort;
@@ -154,6 +158,7 @@ public abstract class BaseEndpoint implements Endpoint {
   private final String hostname;
 
   private final Map<Class<?>, Counter> requestCounters = new ConcurrentHashMap<>();
+  private final Map<Class<?>, ValueRecorder> responseRecorders = new ConcurrentHashMap<>();
 
   /**
    * Once connected, contains the channel to work with.
@@ -170,6 +175,11 @@ public abstract class BaseEndpoint implements Endpoint {
    */
   private volatile long lastConnectedAt;
 
+  /**
+   * Called every time a request completed, if registered.
+   */
+  private volatile Runnable requestCompletionListener;
+
   /**
    * Constructor to create a new endpoint, usually called by subclasses.
    *
@@ -307,7 +317,9 @@ public abstract class BaseEndpoint implements Endpoint {
               SecurityConfig config = env.securityConfig();
               if (config.tlsEnabled()) {
                 try {
-                  pipeline.addFirst(SslHandlerFactory.get(ch.alloc(), config, endpointContext));
+                  SslHandler sslHandler = SslHandlerFactory.get(ch.alloc(), config, endpointContext);
+                  pipeline.addFirst(sslHandler);
+                  pipeline.addFirst(new TlsHandshakeTimingHandler(sslHandler));
                 } catch (Exception e) {
                   throw new SecurityException("Could not instantiate SSL Handler", e);
                 }
@@ -410,6 +422,7 @@ public abstract class BaseEndpoint implements Endpoint {
               newContext,
               ConnectTimings.toMap(channel)
             ));
+            recordConnectTimings(channel, now - attemptStart.get());
             this.endpointContext.set(newContext);
             this.circuitBreaker.reset();
             lastConnectedAt = now;
@@ -527,7 +540,8 @@ public abstract class BaseEndpoint implements Endpoint {
       request.context()
         .lastDispatchedFrom(ctx.localSocket().orElse(null))
         .lastDispatchedTo(ctx.remoteSocket())
-        .lastChannelId(ctx.channelId().orElse(null));
+        .lastChannelId(ctx.channelId().orElse(null))
+        .responseRecorder(responseRecorder(request));
 
       if (!pipelined) {
         outstandingRequests.incrementAndGet();
@@ -563,16 +577,61 @@ public abstract class BaseEndpoint implements Endpoint {
   }
 
   private <R extends Request<? extends Response>> void incrementRequestCounter(final R request) {
-    final Counter counter = requestCounters.computeIfAbsent(request.getClass(), key -> {
-      Map<String, String> tags = new HashMap<>(4);
-      tags.put("cb.service", serviceType.ident());
-      tags.put("cb.remote_hostname", hostname);
-      tags.put("cb.request_type", request.name());
-      return context().environment().meter().counter("cb.requests", tags);
-    });
+    Counter counter = requestCounters.get(request.getClass());
+    if (counter == null) {
+      counter = requestCounters.computeIfAbsent(request.getClass(), key -> {
+        Map<String, String> tags = new HashMap<>(4);
+        tags.put("cb.service", serviceType.ident());
+        tags.put("cb.remote_hostname", hostname);
+        tags.put("cb.request_type", request.name());
+        return context().environment().meter().counter("cb.requests", tags);
+      });
+    }
     counter.incrementBy(1);
   }
 
+  /**
+   * Returns the recorder for the response latency of the request type against this endpoint.
+   * <p>
+   * It is resolved once per request type and handed to the request context, so that recording the latency
+   * on completion does not need to look up the recorder by its tags again.
+   */
+  private <R extends Request<? extends Response>> ValueRecorder responseRecorder(final R request) {
+    ValueRecorder recorder = responseRecorders.get(request.getClass());
+    if (recorder == null) {
+      recorder = responseRecorders.computeIfAbsent(request.getClass(), key -> {
+        Map<String, String> tags = new HashMap<>(4);
+        tags.put("cb.service", serviceType.ident());
+        tags.put("cb.remote_hostname", hostname);
+        tags.put("cb.request_type", request.name());
+        return context().environment().meter().valueRecorder("cb.responses", tags);
+      });
+    }
+    return recorder;
+  }
+
+  /**
+   * Records the latency of the full connect attempt and each of its phases (i.e. SASL auth) as histograms.
+   *
+   * @param channel the channel which just connected.
+   * @param totalLatency the latency of the full connect attempt in nanoseconds.
+   */
+  private void recordConnectTimings(final Channel channel, final long totalLatency) {
+    final Meter meter = context().environment().meter();
+    connectRecorder(meter, "total").recordValue(totalLatency);
+    for (Map.Entry<String, Duration> timing : ConnectTimings.toMap(channel).entrySet()) {
+      connectRecorder(meter, timing.getKey()).recordValue(timing.getValue().toNanos());
+    }
+  }
+
+  private ValueRecorder connectRecorder(final Meter meter, final String phase) {
+    Map<String, String> tags = new HashMap<>(4);
+    tags.put("cb.service", serviceType.ident());
+    tags.put("cb.remote_hostname", hostname);
+    tags.put("cb.connect_phase", phase);
+    return meter.valueRecorder("cb.connects", tags);
+  }
+
   @Override
   public boolean freeToWrite() {
     return pipelined || outstandingRequests.get() == 0;
@@ -598,6 +657,15 @@ public abstract class BaseEndpoint implements Endpoint {
   public void markRequestCompletion() {
     decrementOutstandingRequests();
     lastResponseTimestamp = System.nanoTime();
+    Runnable listener = requestCompletionListener;
+    if (listener != null) {
+      listener.run();
+    }
+  }
+
+  @Override
+  public void onRequestCompletion(final Runnable listener) {
+    this.requestCompletionListener = listener;
   }
 
   /**
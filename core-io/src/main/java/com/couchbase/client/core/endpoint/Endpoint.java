@@ -110,4 +110,13 @@ public interface Endpoint extends Stateful<EndpointState> {
    */
   EndpointContext context();
 
+  /**
+   * Registers a listener which is called every time a request completed on this endpoint, so that it might
+   * be free to write again.
+   *
+   * @param listener the listener to call, replacing a previously registered one.
+   */
+  default void onRequestCompletion(final Runnable listener) {
+  }
+
 }
@@ -21,6 +21,7 @@ import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.Context;
 import com.couchbase.client.core.cnc.DefaultEventBus;
 import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.EventSubscription;
 import com.couchbase.client.core.cnc.LoggingEventConsumer;
 import com.couchbase.client.core.cnc.Meter;
 import com.couchbase.client.core.cnc.OrphanReporter;
@@ -113,6 +114,8 @@ public class CoreEnvironment {
   private final Supplier<RequestTracer> requestTracer;
   private final Supplier<Meter> meter;
   private final LoggerConfig loggerConfig;
+  private final LoggingEventConsumer loggingEventConsumer;
+  private final EventSubscription loggingEventSubscription;
   private final RetryStrategy retryStrategy;
   private final Supplier<Scheduler> scheduler;
   private final OrphanReporter orphanReporter;
@@ -158,7 +161,8 @@ public class CoreEnvironment {
     if (eventBus instanceof OwnedSupplier) {
       eventBus.get().start().block();
     }
-    eventBus.get().subscribe(LoggingEventConsumer.create(loggerConfig()));
+    this.loggingEventConsumer = LoggingEventConsumer.create(loggerConfig());
+    this.loggingEventSubscription = eventBus.get().subscribe(loggingEventConsumer);
 
     this.requestTracer = Optional.ofNullable(builder.requestTracer).orElse(new OwnedSupplier<RequestTracer>(
       ThresholdRequestTracer.create(eventBus.get(), thresholdRequestTracerConfig)
@@ -419,6 +423,10 @@ public class CoreEnvironment {
   public Mono<Void> shutdownReactive(final Duration timeout) {
     return Mono.defer(() -> eventBus instanceof OwnedSupplier ? eventBus.get().stop(timeout) : Mono.empty())
       .then(Mono.defer(() -> {
+        if (loggingEventSubscription != null) {
+          loggingEventSubscription.unsubscribe();
+        }
+        loggingEventConsumer.shutdown();
         timer.stop();
         return Mono.empty();
       }))
@@ -488,6 +496,7 @@ public class CoreEnvironment {
     input.put("orphanReporterConfig", orphanReporterConfig.exportAsMap());
     input.put("thresholdRequestTracerConfig", thresholdRequestTracerConfig.exportAsMap());
     input.put("aggregatingMeterConfig", aggregatingMeterConfig.exportAsMap());
+    exportAdditionalConfigs(input);
 
     input.put("retryStrategy", retryStrategy.getClass().getSimpleName());
     input.put("requestTracer", requestTracer.get().getClass().getSimpleName());
@@ -496,6 +505,14 @@ public class CoreEnvironment {
     return format.apply(input);
   }
 
+  /**
+   * Allows subclasses to add the configs they own to the exported environment.
+   *
+   * @param input the map the environment is exported into.
+   */
+  protected void exportAdditionalConfigs(final Map<String, Object> input) {
+  }
+
   @Override
   public String toString() {
     return exportAsString(Context.ExportFormat.STRING);
@@ -19,9 +19,11 @@ package com.couchbase.client.core.env;
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.endpoint.CircuitBreaker;
 import com.couchbase.client.core.endpoint.CircuitBreakerConfig;
+import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.core.service.AbstractPooledEndpointServiceConfig;
 import com.couchbase.client.core.service.ServiceType;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
@@ -42,7 +44,10 @@ public class IoConfig {
   public static final int DEFAULT_NUM_KV_CONNECTIONS = 1;
   public static final int DEFAULT_MAX_HTTP_CONNECTIONS = AbstractPooledEndpointServiceConfig.DEFAULT_MAX_ENDPOINTS;
   public static final Duration DEFAULT_IDLE_HTTP_CONNECTION_TIMEOUT = AbstractPooledEndpointServiceConfig.DEFAULT_IDLE_TIME;
+  public static final int DEFAULT_MAX_HTTP_WAIT_QUEUE_SIZE = AbstractPooledEndpointServiceConfig.DEFAULT_MAX_WAIT_QUEUE_SIZE;
   public static final Duration DEFAULT_CONFIG_IDLE_REDIAL_TIMEOUT = Duration.ofMinutes(5);
+  public static final int DEFAULT_MAX_PARALLEL_CONFIG_LOADERS = 5;
+  public static final NodeSelectionStrategy DEFAULT_NODE_SELECTION_STRATEGY = NodeSelectionStrategy.ROUND_ROBIN;
 
   private final boolean mutationTokensEnabled;
   private final Duration configPollInterval;
@@ -60,7 +65,11 @@ public class IoConfig {
   private final int numKvConnections;
   private final int maxHttpConnections;
   private final Duration idleHttpConnectionTimeout;
+  private final int maxHttpWaitQueueSize;
   private final Duration configIdleRedialTimeout;
+  private final int maxParallelConfigLoaders;
+  private final Path configSnapshotFile;
+  private final NodeSelectionStrategy nodeSelectionStrategy;
 
   private IoConfig(Builder builder) {
     mutationTokensEnabled = builder.mutationTokensEnabled;
@@ -83,7 +92,11 @@ public class IoConfig {
     numKvConnections = builder.numKvConnections;
     maxHttpConnections = builder.maxHttpConnections;
     idleHttpConnectionTimeout = builder.idleHttpConnectionTimeout;
+    maxHttpWaitQueueSize = builder.maxHttpWaitQueueSize;
     configIdleRedialTimeout = builder.configIdleRedialTimeout;
+    maxParallelConfigLoaders = builder.maxParallelConfigLoaders;
+    configSnapshotFile = builder.configSnapshotFile;
+    nodeSelectionStrategy = builder.nodeSelectionStrategy;
   }
 
   public static IoConfig create() {
@@ -169,10 +182,26 @@ public class IoConfig {
     return builder().idleHttpConnectionTimeout(idleHttpConnectionTimeout);
   }
 
+  public static Builder maxHttpWaitQueueSize(int maxHttpWaitQueueSize) {
+    return builder().maxHttpWaitQueueSize(maxHttpWaitQueueSize);
+  }
+
   public static Builder configIdleRedialTimeout(Duration configIdleRedialTimeout) {
     return builder().configIdleRedialTimeout(configIdleRedialTimeout);
   }
 
+  public static Builder maxParallelConfigLoaders(int maxParallelConfigLoaders) {
+    return builder().maxParallelConfigLoaders(maxParallelConfigLoaders);
+  }
+
+  public static Builder configSnapshotFile(Path configSnapshotFile) {
+    return builder().configSnapshotFile(configSnapshotFile);
+  }
+
+  public static Builder nodeSelectionStrategy(NodeSelectionStrategy nodeSelectionStrategy) {
+    return builder().nodeSelectionStrategy(nodeSelectionStrategy);
+  }
+
   public CircuitBreakerConfig kvCircuitBreakerConfig() {
     return kvCircuitBreakerConfig;
   }
@@ -242,10 +271,26 @@ public class IoConfig {
     return idleHttpConnectionTimeout;
   }
 
+  public int maxHttpWaitQueueSize() {
+    return maxHttpWaitQueueSize;
+  }
+
   public Duration configIdleRedialTimeout() {
     return configIdleRedialTimeout;
   }
 
+  public int maxParallelConfigLoaders() {
+    return maxParallelConfigLoaders;
+  }
+
+  public Optional<Path> configSnapshotFile() {
+    return Optional.ofNullable(configSnapshotFile);
+  }
+
+  public NodeSelectionStrategy nodeSelectionStrategy() {
+    return nodeSelectionStrategy;
+  }
+
   /**
    * Returns this config as a map so it can be exported into i.e. JSON for display.
    */
@@ -268,7 +313,11 @@ public class IoConfig {
     export.put("numKvConnections", numKvConnections);
     export.put("maxHttpConnections", maxHttpConnections);
     export.put("idleHttpConnectionTimeoutMs", idleHttpConnectionTimeout.toMillis());
+    export.put("maxHttpWaitQueueSize", maxHttpWaitQueueSize);
     export.put("configIdleRedialTimeoutMs", configIdleRedialTimeout.toMillis());
+    export.put("maxParallelConfigLoaders", maxParallelConfigLoaders);
+    export.put("configSnapshotFile", configSnapshotFile == null ? "disabled" : configSnapshotFile.toString());
+    export.put("nodeSelectionStrategy", nodeSelectionStrategy.name());
     return export;
   }
 
@@ -290,7 +339,11 @@ public class IoConfig {
     private int numKvConnections = DEFAULT_NUM_KV_CONNECTIONS;
     private int maxHttpConnections = DEFAULT_MAX_HTTP_CONNECTIONS;
     private Duration idleHttpConnectionTimeout = DEFAULT_IDLE_HTTP_CONNECTION_TIMEOUT;
+    private int maxHttpWaitQueueSize = DEFAULT_MAX_HTTP_WAIT_QUEUE_SIZE;
     private Duration configIdleRedialTimeout = DEFAULT_CONFIG_IDLE_REDIAL_TIMEOUT;
+    private int maxParallelConfigLoaders = DEFAULT_MAX_PARALLEL_CONFIG_LOADERS;
+    private Path configSnapshotFile;
+    private NodeSelectionStrategy nodeSelectionStrategy = DEFAULT_NODE_SELECTION_STRATEGY;
 
     public IoConfig build() {
       return new IoConfig(this);
@@ -458,9 +511,81 @@ public class IoConfig {
       return this;
     }
 
+    /**
+     * Configures how many requests per node and HTTP-based service wait for a connection to become free once
+     * all {@link #maxHttpConnections(int)} connections are busy.
+     * <p>
+     * Waiting requests are dispatched in FIFO order as soon as a connection completed its request, requests
+     * beyond this limit fail fast instead. Setting it to 0 sends such requests into retry with backoff, like
+     * older versions did. It defaults to {@link #DEFAULT_MAX_HTTP_WAIT_QUEUE_SIZE}.
+     *
+     * @param maxHttpWaitQueueSize the maximum number of waiting requests, 0 to disable waiting.
+     * @return this builder for chaining purposes.
+     */
+    public Builder maxHttpWaitQueueSize(final int maxHttpWaitQueueSize) {
+      if (maxHttpWaitQueueSize < 0) {
+        throw InvalidArgumentException.fromMessage("maxHttpWaitQueueSize must be 0 or greater");
+      }
+      this.maxHttpWaitQueueSize = maxHttpWaitQueueSize;
+      return this;
+    }
+
     public Builder configIdleRedialTimeout(final Duration configIdleRedialTimeout) {
       this.configIdleRedialTimeout = configIdleRedialTimeout;
       return this;
     }
+
+    /**
+     * Configures the maximum number of seed nodes which are asked for a config in parallel when a bucket is
+     * opened or the global config is loaded.
+     * <p>
+     * Raising this value reduces the time to the first config when some seed nodes are slow or unavailable,
+     * at the cost of more bootstrap connections opened at the same time. It defaults to
+     * {@link #DEFAULT_MAX_PARALLEL_CONFIG_LOADERS}.
+     *
+     * @param maxParallelConfigLoaders the number of loaders, must be greater than zero.
+     * @return this builder for chaining purposes.
+     */
+    public Builder maxParallelConfigLoaders(final int maxParallelConfigLoaders) {
+      if (maxParallelConfigLoaders < 1) {
+        throw InvalidArgumentException.fromMessage("maxParallelConfigLoaders must be greater than 0");
+      }
+      this.maxParallelConfigLoaders = maxParallelConfigLoaders;
+      return this;
+    }
+
+    /**
+     * Configures a file in which the last known cluster topology (configs and collection manifests) is stored.
+     * <p>
+     * If the file is present when the SDK starts, the stored topology is used to dispatch operations right away
+     * while fresh configs are loaded from the cluster, which shortens the startup of short-lived processes. It
+     * is only used if at least one of the seed nodes is part of the stored topology, and it is replaced as soon
+     * as a fresh config arrives. The file is written whenever the topology changes. Disabled by default.
+     *
+     * @param configSnapshotFile the file to read the snapshot from and write it to, null to disable.
+     * @return this builder for chaining purposes.
+     */
+    public Builder configSnapshotFile(final Path configSnapshotFile) {
+      this.configSnapshotFile = configSnapshotFile;
+      return this;
+    }
+
+    /**
+     * Configures how a node is picked for query, analytics and search requests.
+     * <p>
+     * With {@link NodeSelectionStrategy#LEAST_LOADED}, requests are steered away from nodes which respond slowly
+     * or already have many requests in flight, instead of sending every n-th request to them in rotation. It
+     * defaults to {@link #DEFAULT_NODE_SELECTION_STRATEGY}.
+     *
+     * @param nodeSelectionStrategy the strategy to use.
+     * @return this builder for chaining purposes.
+     */
+    public Builder nodeSelectionStrategy(final NodeSelectionStrategy nodeSelectionStrategy) {
+      if (nodeSelectionStrategy == null) {
+        throw InvalidArgumentException.fromMessage("nodeSelectionStrategy cannot be null");
+      }
+      this.nodeSelectionStrategy = nodeSelectionStrategy;
+      return this;
+    }
   }
 }
@@ -18,17 +18,24 @@ package com.couchbase.client.core.env;
 
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.LoggingEventConsumer;
+import com.couchbase.client.core.error.InvalidArgumentException;
 
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class LoggerConfig {
 
+  private static final Duration DEFAULT_REPEATED_EVENTS_WINDOW = Duration.ofSeconds(10);
+
   private final LoggingEventConsumer.Logger customLogger;
   private final boolean fallbackToConsole;
   private final boolean disableSlf4J;
   private final String loggerName;
   private final boolean diagnosticContextEnabled;
+  private final boolean asyncLoggingEnabled;
+  private final boolean jsonOutputEnabled;
+  private final Duration repeatedEventsWindow;
 
   private LoggerConfig(final Builder builder) {
     customLogger = builder.customLogger;
@@ -36,6 +43,9 @@ public class LoggerConfig {
     loggerName = builder.loggerName;
     fallbackToConsole = builder.fallbackToConsole;
     diagnosticContextEnabled = builder.diagnosticContextEnabled;
+    asyncLoggingEnabled = builder.asyncLoggingEnabled;
+    jsonOutputEnabled = builder.jsonOutputEnabled;
+    repeatedEventsWindow = builder.repeatedEventsWindow;
   }
 
   public static Builder builder() {
@@ -66,6 +76,18 @@ public class LoggerConfig {
     return builder().customLogger(customLogger);
   }
 
+  public static Builder enableAsyncLogging(boolean asyncLoggingEnabled) {
+    return builder().enableAsyncLogging(asyncLoggingEnabled);
+  }
+
+  public static Builder enableJsonOutput(boolean jsonOutputEnabled) {
+    return builder().enableJsonOutput(jsonOutputEnabled);
+  }
+
+  public static Builder repeatedEventsWindow(Duration repeatedEventsWindow) {
+    return builder().repeatedEventsWindow(repeatedEventsWindow);
+  }
+
   public LoggingEventConsumer.Logger customLogger() {
     return customLogger;
   }
@@ -86,6 +108,18 @@ public class LoggerConfig {
     return diagnosticContextEnabled;
   }
 
+  public boolean asyncLoggingEnabled() {
+    return asyncLoggingEnabled;
+  }
+
+  public boolean jsonOutputEnabled() {
+    return jsonOutputEnabled;
+  }
+
+  public Duration repeatedEventsWindow() {
+    return repeatedEventsWindow;
+  }
+
   /**
    * Returns this config as a map so it can be exported into i.e. JSON for display.
    */
@@ -97,6 +131,9 @@ public class LoggerConfig {
     export.put("disableSlf4j", disableSlf4J);
     export.put("loggerName", loggerName);
     export.put("diagnosticContextEnabled", diagnosticContextEnabled);
+    export.put("asyncLoggingEnabled", asyncLoggingEnabled);
+    export.put("jsonOutputEnabled", jsonOutputEnabled);
+    export.put("repeatedEventsWindowMs", repeatedEventsWindow.toMillis());
     return export;
   }
 
@@ -107,6 +144,9 @@ public class LoggerConfig {
     private boolean disableSlf4J = false;
     private String loggerName = "CouchbaseLogger";
     private boolean diagnosticContextEnabled = false;
+    private boolean asyncLoggingEnabled = false;
+    private boolean jsonOutputEnabled = false;
+    private Duration repeatedEventsWindow = DEFAULT_REPEATED_EVENTS_WINDOW;
 
     /**
      * Allows to specify a custom logger. This is used for testing only.
@@ -140,6 +180,49 @@ public class LoggerConfig {
       return this;
     }
 
+    /**
+     * Logs the events from a background thread instead of the event bus thread.
+     * <p>
+     * Events below the enabled level of their logger are discarded right away and the others are only formatted
+     * and written on the background thread, in batches. Identical events repeated within the
+     * {@link #repeatedEventsWindow(Duration)} are logged once and then reported as a count.
+     *
+     * @param asyncLoggingEnabled if the events should be logged asynchronously.
+     * @return the Builder for chaining purposes
+     */
+    public Builder enableAsyncLogging(boolean asyncLoggingEnabled) {
+      this.asyncLoggingEnabled = asyncLoggingEnabled;
+      return this;
+    }
+
+    /**
+     * Writes each event as a single JSON record instead of the bracketed text line.
+     *
+     * @param jsonOutputEnabled if the events should be written as JSON.
+     * @return the Builder for chaining purposes
+     */
+    public Builder enableJsonOutput(boolean jsonOutputEnabled) {
+      this.jsonOutputEnabled = jsonOutputEnabled;
+      return this;
+    }
+
+    /**
+     * Allows to customize the window in which identical events are only logged once when logging asynchronously.
+     * <p>
+     * Further occurrences of the same event type, severity and description are counted and their total is
+     * logged once the window is over. A zero duration disables the aggregation.
+     *
+     * @param repeatedEventsWindow the window in which repeated events are aggregated.
+     * @return the Builder for chaining purposes
+     */
+    public Builder repeatedEventsWindow(Duration repeatedEventsWindow) {
+      if (repeatedEventsWindow == null || repeatedEventsWindow.isNegative()) {
+        throw InvalidArgumentException.fromMessage("Repeated events window must not be null or negative");
+      }
+      this.repeatedEventsWindow = repeatedEventsWindow;
+      return this;
+    }
+
     public LoggerConfig build() {
       return new LoggerConfig(this);
     }
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.env;
+
+/**
+ * Describes how a node is picked for requests against the query, analytics and search services.
+ *
+ * @since 2.1.0
+ */
+public enum NodeSelectionStrategy {
+
+  /**
+   * Picks the nodes in strict rotation, regardless of how busy or slow each of them is.
+   */
+  ROUND_ROBIN,
+
+  /**
+   * Picks the node with the lowest expected latency, based on a moving average of its recent response times
+   * and the number of requests currently in flight against it.
+   */
+  LEAST_LOADED
+
+}
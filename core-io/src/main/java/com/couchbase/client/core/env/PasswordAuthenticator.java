@@ -21,6 +21,7 @@ import com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpRequest;
 import com.couchbase.client.core.endpoint.EndpointContext;
 import com.couchbase.client.core.io.netty.kv.SaslAuthenticationHandler;
 import com.couchbase.client.core.io.netty.kv.SaslListMechanismsHandler;
+import com.couchbase.client.core.io.netty.kv.sasl.ScramKeyCache;
 import com.couchbase.client.core.service.ServiceType;
 
 import java.util.Base64;
@@ -45,6 +46,11 @@ public class PasswordAuthenticator implements Authenticator {
   private final Set<SaslMechanism> allowedSaslMechanisms;
   private final String cachedHttpAuthHeader;
 
+  /**
+   * Shares the keys derived from the salted password across all SCRAM authenticated KV connections.
+   */
+  private final ScramKeyCache scramKeyCache = new ScramKeyCache();
+
   /**
    * Creates a new {@link Builder} which allows to customize this authenticator.
    */
@@ -110,7 +116,8 @@ public class PasswordAuthenticator implements Authenticator {
       ctx,
       username.get(),
       password.get(),
-      tls ? EnumSet.of(SaslMechanism.PLAIN) : allowedSaslMechanisms
+      tls ? EnumSet.of(SaslMechanism.PLAIN) : allowedSaslMechanisms,
+      scramKeyCache
     ));
   }
 
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.env;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.InvalidArgumentException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Configures which top-level requests are handed to the tracer wrapped by the
+ * {@link com.couchbase.client.core.cnc.tracing.SamplingRequestTracer}.
+ * <p>
+ * The decision is made once when the span of a top-level request is created: it is sampled if it passes the
+ * configured ratio and, if set, the per-second rate limit. Unsampled requests use a shared noop span, unless a
+ * tail threshold is configured in which case they are still recorded if they turn out to be slower than it.
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+public class SamplingRequestTracerConfig {
+
+  private static final double DEFAULT_RATIO = 1.0;
+  private static final int DEFAULT_MAX_SAMPLED_PER_SECOND = 0;
+
+  private final double ratio;
+  private final int maxSampledPerSecond;
+  private final Optional<Duration> tailThreshold;
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public static SamplingRequestTracerConfig create() {
+    return builder().build();
+  }
+
+  SamplingRequestTracerConfig(final Builder builder) {
+    ratio = builder.ratio;
+    maxSampledPerSecond = builder.maxSampledPerSecond;
+    tailThreshold = Optional.ofNullable(builder.tailThreshold);
+  }
+
+  /**
+   * Allows to customize the ratio of top-level requests which are sampled.
+   *
+   * @param ratio the ratio between 0.0 (none) and 1.0 (all).
+   * @return this builder for chaining.
+   */
+  public static Builder ratio(final double ratio) {
+    return builder().ratio(ratio);
+  }
+
+  /**
+   * Allows to limit the number of top-level requests which are sampled per second.
+   *
+   * @param maxSampledPerSecond the maximum number of sampled requests per second, 0 for no limit.
+   * @return this builder for chaining.
+   */
+  public static Builder maxSampledPerSecond(final int maxSampledPerSecond) {
+    return builder().maxSampledPerSecond(maxSampledPerSecond);
+  }
+
+  /**
+   * Allows to record unsampled requests nonetheless if they take longer than the threshold.
+   *
+   * @param tailThreshold the latency above which unsampled requests are recorded.
+   * @return this builder for chaining.
+   */
+  public static Builder tailThreshold(final Duration tailThreshold) {
+    return builder().tailThreshold(tailThreshold);
+  }
+
+  public double ratio() {
+    return ratio;
+  }
+
+  public int maxSampledPerSecond() {
+    return maxSampledPerSecond;
+  }
+
+  public Optional<Duration> tailThreshold() {
+    return tailThreshold;
+  }
+
+  public static class Builder {
+
+    private double ratio = DEFAULT_RATIO;
+    private int maxSampledPerSecond = DEFAULT_MAX_SAMPLED_PER_SECOND;
+    private Duration tailThreshold = null;
+
+    /**
+     * Allows to customize the ratio of top-level requests which are sampled.
+     *
+     * @param ratio the ratio between 0.0 (none) and 1.0 (all).
+     * @return this builder for chaining.
+     */
+    public Builder ratio(final double ratio) {
+      if (ratio < 0.0 || ratio > 1.0) {
+        throw InvalidArgumentException.fromMessage("Sampling ratio needs to be between 0.0 and 1.0");
+      }
+
+      this.ratio = ratio;
+      return this;
+    }
+
+    /**
+     * Allows to limit the number of top-level requests which are sampled per second.
+     *
+     * @param maxSampledPerSecond the maximum number of sampled requests per second, 0 for no limit.
+     * @return this builder for chaining.
+     */
+    public Builder maxSampledPerSecond(final int maxSampledPerSecond) {
+      if (maxSampledPerSecond < 0) {
+        throw InvalidArgumentException.fromMessage("Max sampled per second must not be negative");
+      }
+
+      this.maxSampledPerSecond = maxSampledPerSecond;
+      return this;
+    }
+
+    /**
+     * Allows to record unsampled requests nonetheless if they take longer than the threshold.
+     *
+     * @param tailThreshold the latency above which unsampled requests are recorded.
+     * @return this builder for chaining.
+     */
+    public Builder tailThreshold(final Duration tailThreshold) {
+      if (tailThreshold == null) {
+        throw InvalidArgumentException.fromMessage("Tail threshold must not be null");
+      }
+      if (tailThreshold.isNegative()) {
+        throw InvalidArgumentException.fromMessage("Tail threshold must not be negative");
+      }
+
+      this.tailThreshold = tailThreshold;
+      return this;
+    }
+
+    public SamplingRequestTracerConfig build() {
+      return new SamplingRequestTracerConfig(this);
+    }
+
+  }
+
+}
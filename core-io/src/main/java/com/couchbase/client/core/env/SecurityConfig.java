@@ -30,6 +30,7 @@ import java.security.KeyStore;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -60,11 +61,35 @@ public class SecurityConfig {
    */
   private static final boolean DEFAULT_HOSTNAME_VERIFICATION_ENABLED = true;
 
+  /**
+   * By default, TLS sessions are cached and resumed when reconnecting to the same socket.
+   */
+  private static final boolean DEFAULT_TLS_SESSION_RESUMPTION_ENABLED = true;
+
+  /**
+   * By default, the session cache size of the TLS provider is used.
+   */
+  private static final int DEFAULT_TLS_SESSION_CACHE_SIZE = 0;
+
+  /**
+   * By default, the session timeout of the TLS provider is used.
+   */
+  private static final Duration DEFAULT_TLS_SESSION_TIMEOUT = Duration.ZERO;
+
+  /**
+   * By default, the delegated tasks of the TLS handshake run on the event loop.
+   */
+  private static final boolean DEFAULT_TLS_HANDSHAKE_OFFLOAD_ENABLED = false;
+
   private final boolean nativeTlsEnabled;
   private final boolean hostnameVerificationEnabled;
   private final boolean tlsEnabled;
   private final List<X509Certificate> trustCertificates;
   private final TrustManagerFactory trustManagerFactory;
+  private final boolean tlsSessionResumptionEnabled;
+  private final int tlsSessionCacheSize;
+  private final Duration tlsSessionTimeout;
+  private final boolean tlsHandshakeOffloadEnabled;
 
   /**
    * Creates a builder to customize the {@link SecurityConfig} configuration.
@@ -174,12 +199,56 @@ public class SecurityConfig {
     return builder().trustManagerFactory(trustManagerFactory);
   }
 
+  /**
+   * Enables/disables caching and resuming of TLS sessions (enabled by default).
+   *
+   * @param tlsSessionResumptionEnabled true if it should be enabled, false otherwise.
+   * @return this {@link Builder} for chaining purposes.
+   */
+  public static Builder enableTlsSessionResumption(boolean tlsSessionResumptionEnabled) {
+    return builder().enableTlsSessionResumption(tlsSessionResumptionEnabled);
+  }
+
+  /**
+   * Sets the maximum number of cached TLS sessions (0 uses the default of the TLS provider).
+   *
+   * @param tlsSessionCacheSize the maximum number of cached sessions.
+   * @return this {@link Builder} for chaining purposes.
+   */
+  public static Builder tlsSessionCacheSize(int tlsSessionCacheSize) {
+    return builder().tlsSessionCacheSize(tlsSessionCacheSize);
+  }
+
+  /**
+   * Sets how long a cached TLS session can be resumed (zero uses the default of the TLS provider).
+   *
+   * @param tlsSessionTimeout the session timeout.
+   * @return this {@link Builder} for chaining purposes.
+   */
+  public static Builder tlsSessionTimeout(final Duration tlsSessionTimeout) {
+    return builder().tlsSessionTimeout(tlsSessionTimeout);
+  }
+
+  /**
+   * Enables/disables running the delegated tasks of the TLS handshake off the event loop (disabled by default).
+   *
+   * @param tlsHandshakeOffloadEnabled true if it should be enabled, false otherwise.
+   * @return this {@link Builder} for chaining purposes.
+   */
+  public static Builder enableTlsHandshakeOffload(boolean tlsHandshakeOffloadEnabled) {
+    return builder().enableTlsHandshakeOffload(tlsHandshakeOffloadEnabled);
+  }
+
   private SecurityConfig(final Builder builder) {
     tlsEnabled = builder.tlsEnabled;
     nativeTlsEnabled = builder.nativeTlsEnabled;
     trustCertificates = builder.trustCertificates;
     trustManagerFactory = builder.trustManagerFactory;
     hostnameVerificationEnabled = builder.hostnameVerificationEnabled;
+    tlsSessionResumptionEnabled = builder.tlsSessionResumptionEnabled;
+    tlsSessionCacheSize = builder.tlsSessionCacheSize;
+    tlsSessionTimeout = builder.tlsSessionTimeout;
+    tlsHandshakeOffloadEnabled = builder.tlsHandshakeOffloadEnabled;
 
     if (tlsEnabled) {
       if (trustCertificates != null && trustManagerFactory != null) {
@@ -237,6 +306,42 @@ public class SecurityConfig {
     return nativeTlsEnabled;
   }
 
+  /**
+   * Returns whether TLS sessions are cached and resumed when reconnecting.
+   *
+   * @return true if enabled, false otherwise.
+   */
+  public boolean tlsSessionResumptionEnabled() {
+    return tlsSessionResumptionEnabled;
+  }
+
+  /**
+   * Returns the maximum number of cached TLS sessions, 0 if the provider default is used.
+   *
+   * @return the session cache size.
+   */
+  public int tlsSessionCacheSize() {
+    return tlsSessionCacheSize;
+  }
+
+  /**
+   * Returns how long a cached TLS session can be resumed, zero if the provider default is used.
+   *
+   * @return the session timeout.
+   */
+  public Duration tlsSessionTimeout() {
+    return tlsSessionTimeout;
+  }
+
+  /**
+   * Returns whether the delegated tasks of the TLS handshake run off the event loop.
+   *
+   * @return true if enabled, false otherwise.
+   */
+  public boolean tlsHandshakeOffloadEnabled() {
+    return tlsHandshakeOffloadEnabled;
+  }
+
   /**
    * Returns this config as a map so it can be exported into i.e. JSON for display.
    */
@@ -248,6 +353,10 @@ public class SecurityConfig {
     export.put("hostnameVerificationEnabled", hostnameVerificationEnabled);
     export.put("hasTrustCertificates", trustCertificates != null && !trustCertificates.isEmpty());
     export.put("trustManagerFactory", trustManagerFactory != null ? trustManagerFactory.getClass().getSimpleName() : null);
+    export.put("tlsSessionResumptionEnabled", tlsSessionResumptionEnabled);
+    export.put("tlsSessionCacheSize", tlsSessionCacheSize);
+    export.put("tlsSessionTimeoutMs", tlsSessionTimeout.toMillis());
+    export.put("tlsHandshakeOffloadEnabled", tlsHandshakeOffloadEnabled);
     return export;
   }
 
@@ -261,6 +370,10 @@ public class SecurityConfig {
     private boolean hostnameVerificationEnabled = DEFAULT_HOSTNAME_VERIFICATION_ENABLED;
     private List<X509Certificate> trustCertificates = null;
     private TrustManagerFactory trustManagerFactory = null;
+    private boolean tlsSessionResumptionEnabled = DEFAULT_TLS_SESSION_RESUMPTION_ENABLED;
+    private int tlsSessionCacheSize = DEFAULT_TLS_SESSION_CACHE_SIZE;
+    private Duration tlsSessionTimeout = DEFAULT_TLS_SESSION_TIMEOUT;
+    private boolean tlsHandshakeOffloadEnabled = DEFAULT_TLS_HANDSHAKE_OFFLOAD_ENABLED;
 
     /**
      * Builds the {@link SecurityConfig} out of this builder.
@@ -308,6 +421,64 @@ public class SecurityConfig {
       return this;
     }
 
+    /**
+     * Enables/disables caching and resuming of TLS sessions (enabled by default).
+     * <p>
+     * If enabled, the TLS context is built once and shared by all connections, so that reconnects to a socket
+     * which has been connected before can resume the previous session instead of performing a full handshake.
+     *
+     * @param tlsSessionResumptionEnabled true if it should be enabled, false otherwise.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    public Builder enableTlsSessionResumption(boolean tlsSessionResumptionEnabled) {
+      this.tlsSessionResumptionEnabled = tlsSessionResumptionEnabled;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of cached TLS sessions (0 uses the default of the TLS provider).
+     *
+     * @param tlsSessionCacheSize the maximum number of cached sessions.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    public Builder tlsSessionCacheSize(int tlsSessionCacheSize) {
+      if (tlsSessionCacheSize < 0) {
+        throw InvalidArgumentException.fromMessage("TlsSessionCacheSize must not be negative");
+      }
+      this.tlsSessionCacheSize = tlsSessionCacheSize;
+      return this;
+    }
+
+    /**
+     * Sets how long a cached TLS session can be resumed (zero uses the default of the TLS provider).
+     *
+     * @param tlsSessionTimeout the session timeout.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    public Builder tlsSessionTimeout(final Duration tlsSessionTimeout) {
+      notNull(tlsSessionTimeout, "TlsSessionTimeout");
+      if (tlsSessionTimeout.isNegative()) {
+        throw InvalidArgumentException.fromMessage("TlsSessionTimeout must not be negative");
+      }
+      this.tlsSessionTimeout = tlsSessionTimeout;
+      return this;
+    }
+
+    /**
+     * Enables/disables running the delegated tasks of the TLS handshake off the event loop (disabled by default).
+     * <p>
+     * If enabled, the expensive parts of the handshake (like certificate validation) run on the environment
+     * scheduler, so that many concurrent handshakes do not stall the IO of other connections on the same
+     * event loop.
+     *
+     * @param tlsHandshakeOffloadEnabled true if it should be enabled, false otherwise.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    public Builder enableTlsHandshakeOffload(boolean tlsHandshakeOffloadEnabled) {
+      this.tlsHandshakeOffloadEnabled = tlsHandshakeOffloadEnabled;
+      return this;
+    }
+
     /**
      * Loads the given list of X.509 certificates into the trust store.
      *
@@ -19,6 +19,7 @@ package com.couchbase.client.core.io;
 import com.couchbase.client.core.util.UnsignedLEB128;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The {@link CollectionMap} maps a locator to the encoded collection ID representation.
@@ -35,10 +36,18 @@ public class CollectionMap {
    */
   private static final byte[] DEFAULT_ID = UnsignedLEB128.encode(0);
 
+  /**
+   * Incremented on every change, which invalidates the ids cached on the {@link CollectionIdentifier}s.
+   */
+  private final AtomicLong version = new AtomicLong();
+
   /**
    * Retrieves the collection id for the given identifier.
    *
    * Might return null if not found! Also it will return the default id for the default scope/collection.
+   * <p>
+   * Since collections hold on to their identifier, the resolved id is cached on the identifier itself, so
+   * that subsequent lookups with the same instance neither hash nor compare it until the map changes.
    *
    * @param key the key to check
    * @return the collection id.
@@ -47,7 +56,18 @@ public class CollectionMap {
     if (key.isDefault()) {
       return DEFAULT_ID;
     }
-    return inner.get(key);
+
+    final long currentVersion = version.get();
+    ResolvedCollectionId resolved = key.resolved;
+    if (resolved != null && resolved.map == this && resolved.version == currentVersion) {
+      return resolved.id;
+    }
+
+    byte[] id = inner.get(key);
+    if (id != null) {
+      key.resolved = new ResolvedCollectionId(this, currentVersion, id);
+    }
+    return id;
   }
 
   /**
@@ -58,6 +78,7 @@ public class CollectionMap {
    */
   public void put(final CollectionIdentifier key, byte[] value) {
     inner.put(key, value);
+    version.incrementAndGet();
   }
 
   /**
@@ -75,4 +96,19 @@ public class CollectionMap {
     return false;
   }
 
+  /**
+   * A collection id resolved from a specific version of a {@link CollectionMap}.
+   */
+  static class ResolvedCollectionId {
+    private final CollectionMap map;
+    private final long version;
+    private final byte[] id;
+
+    ResolvedCollectionId(final CollectionMap map, final long version, final byte[] id) {
+      this.map = map;
+      this.version = version;
+      this.id = id;
+    }
+  }
+
 }
@@ -17,9 +17,11 @@
 package com.couchbase.client.core.io.netty;
 
 import com.couchbase.client.core.endpoint.EndpointContext;
+import com.couchbase.client.core.env.Authenticator;
 import com.couchbase.client.core.env.SecurityConfig;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
 import com.couchbase.client.core.deps.io.netty.handler.ssl.OpenSsl;
+import com.couchbase.client.core.deps.io.netty.handler.ssl.SslContext;
 import com.couchbase.client.core.deps.io.netty.handler.ssl.SslContextBuilder;
 import com.couchbase.client.core.deps.io.netty.handler.ssl.SslHandler;
 import com.couchbase.client.core.deps.io.netty.handler.ssl.SslProvider;
@@ -27,9 +29,16 @@ import com.couchbase.client.core.deps.io.netty.handler.ssl.SslProvider;
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLParameters;
 import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
 
 /**
  * This factory creates {@link SslHandler} based on a given configuration.
+ * <p>
+ * If TLS session resumption is enabled (the default), the {@link SslContext} is built only once per
+ * authenticator and security config and then shared by all endpoints, so that its session cache allows
+ * reconnects to resume previous sessions instead of performing full handshakes.
  *
  * @since 2.0.0
  */
@@ -40,26 +49,27 @@ public class SslHandlerFactory {
    */
   private static final boolean OPENSSL_AVAILABLE = OpenSsl.isAvailable();
 
+  /**
+   * Holds the shared contexts, weakly keyed by the authenticator (which owns the key material) and then by the
+   * security config, so that environments sharing an authenticator with different configs each keep their own.
+   */
+  private static final Map<Authenticator, Map<SecurityConfig, SslContext>> CONTEXTS = new WeakHashMap<>();
+
   public static SslHandler get(final ByteBufAllocator allocator, final SecurityConfig config,
                                final EndpointContext endpointContext) throws Exception {
-    SslProvider provider =  OPENSSL_AVAILABLE && config.nativeTlsEnabled() ? SslProvider.OPENSSL : SslProvider.JDK;
+    final SslContext context = context(config, endpointContext.authenticator());
 
-    SslContextBuilder context = SslContextBuilder.forClient().sslProvider(provider);
+    final String peerHost = endpointContext.remoteSocket().hostname();
+    final int peerPort = endpointContext.remoteSocket().port();
 
-    if (config.trustManagerFactory() != null) {
-      context.trustManager(config.trustManagerFactory());
-    } else if (config.trustCertificates() != null && !config.trustCertificates().isEmpty()) {
-      context.trustManager(config.trustCertificates().toArray(new X509Certificate[0]));
+    final SslHandler sslHandler;
+    if (config.tlsHandshakeOffloadEnabled()) {
+      final Executor executor = task -> endpointContext.environment().scheduler().schedule(task);
+      sslHandler = context.newHandler(allocator, peerHost, peerPort, executor);
+    } else {
+      sslHandler = context.newHandler(allocator, peerHost, peerPort);
     }
 
-    endpointContext.authenticator().applyTlsProperties(context);
-
-    final SslHandler sslHandler = context.build().newHandler(
-      allocator,
-      endpointContext.remoteSocket().hostname(),
-      endpointContext.remoteSocket().port()
-    );
-
     SSLEngine sslEngine = sslHandler.engine();
     SSLParameters sslParameters = sslEngine.getSSLParameters();
 
@@ -72,4 +82,46 @@ public class SslHandlerFactory {
     return sslHandler;
   }
 
+  /**
+   * Returns the context to create the handler from, shared if session resumption is enabled.
+   */
+  static SslContext context(final SecurityConfig config, final Authenticator authenticator) throws Exception {
+    if (!config.tlsSessionResumptionEnabled()) {
+      return buildContext(config, authenticator);
+    }
+
+    synchronized (CONTEXTS) {
+      Map<SecurityConfig, SslContext> contexts = CONTEXTS.computeIfAbsent(authenticator, a -> new WeakHashMap<>());
+      SslContext context = contexts.get(config);
+      if (context == null) {
+        context = buildContext(config, authenticator);
+        contexts.put(config, context);
+      }
+      return context;
+    }
+  }
+
+  private static SslContext buildContext(final SecurityConfig config, final Authenticator authenticator)
+    throws Exception {
+    SslProvider provider =  OPENSSL_AVAILABLE && config.nativeTlsEnabled() ? SslProvider.OPENSSL : SslProvider.JDK;
+
+    SslContextBuilder context = SslContextBuilder.forClient().sslProvider(provider);
+
+    if (config.trustManagerFactory() != null) {
+      context.trustManager(config.trustManagerFactory());
+    } else if (config.trustCertificates() != null && !config.trustCertificates().isEmpty()) {
+      context.trustManager(config.trustCertificates().toArray(new X509Certificate[0]));
+    }
+
+    if (config.tlsSessionCacheSize() > 0) {
+      context.sessionCacheSize(config.tlsSessionCacheSize());
+    }
+    if (!config.tlsSessionTimeout().isZero()) {
+      context.sessionTimeout(Math.max(1, config.tlsSessionTimeout().getSeconds()));
+    }
+
+    authenticator.applyTlsProperties(context);
+    return context.build();
+  }
+
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty;
+
+import com.couchbase.client.core.deps.io.netty.channel.Channel;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelInboundHandlerAdapter;
+import com.couchbase.client.core.deps.io.netty.handler.ssl.SslHandler;
+import com.couchbase.client.core.io.netty.kv.ConnectTimings;
+
+/**
+ * Records the duration of the TLS handshake into the {@link ConnectTimings} of the channel.
+ * <p>
+ * This handler needs to be placed in front of the {@link SslHandler} so that the timing starts before the
+ * handshake is initiated. It removes itself from the pipeline once the channel is active.
+ *
+ * @since 2.1.0
+ */
+public class TlsHandshakeTimingHandler extends ChannelInboundHandlerAdapter {
+
+  private final SslHandler sslHandler;
+
+  public TlsHandshakeTimingHandler(final SslHandler sslHandler) {
+    this.sslHandler = sslHandler;
+  }
+
+  @Override
+  public void channelActive(final ChannelHandlerContext ctx) {
+    final Channel channel = ctx.channel();
+    ConnectTimings.start(channel, SslHandler.class);
+    sslHandler.handshakeFuture().addListener(f -> ConnectTimings.stop(channel, SslHandler.class, false));
+    ctx.pipeline().remove(this);
+    ctx.fireChannelActive();
+  }
+
+}
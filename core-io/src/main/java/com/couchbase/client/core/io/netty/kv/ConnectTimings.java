@@ -126,7 +126,10 @@ public class ConnectTimings {
     }
 
     for (ConnectTimings.Timing timing : timings(channel)) {
-      timings.put(timing.clazz.getSimpleName(), timing.latency());
+      // i.e. the TLS handshake of http endpoints might still be in progress once the channel is connected
+      if (timing.isComplete()) {
+        timings.put(timing.clazz.getSimpleName(), timing.latency());
+      }
     }
     return timings;
   }
@@ -27,6 +27,7 @@ import com.couchbase.client.core.cnc.events.io.KeyValueErrorMapCodeHandledEvent;
 import com.couchbase.client.core.cnc.events.io.UnknownResponseReceivedEvent;
 import com.couchbase.client.core.cnc.events.io.UnknownResponseStatusReceivedEvent;
 import com.couchbase.client.core.cnc.events.io.UnsupportedResponseTypeReceivedEvent;
+import com.couchbase.client.core.cnc.tracing.NoopRequestSpan;
 import com.couchbase.client.core.config.ProposedBucketConfigContext;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelDuplexHandler;
@@ -204,7 +205,7 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
       try {
         ctx.write(request.encode(ctx.alloc(), opaque, channelContext), promise);
         writtenRequestDispatchTimings.put(opaque, (Long) System.nanoTime());
-        if (request.requestSpan() != null) {
+        if (request.requestSpan() != null && request.requestSpan() != NoopRequestSpan.INSTANCE) {
           RequestSpan dispatchSpan = endpointContext
             .environment()
             .requestTracer()
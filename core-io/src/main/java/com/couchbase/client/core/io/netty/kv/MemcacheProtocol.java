@@ -724,6 +724,17 @@ public enum MemcacheProtocol {
     return Unpooled.wrappedBuffer(compressed);
   }
 
+  /**
+   * Try to compress the readable bytes of the input buffer, without modifying its reader index.
+   *
+   * @param input the input buffer.
+   * @param minRatio the minimum ratio to accept and return the buffer.
+   * @return a {@link ByteBuf} if compressed, or null if below the min ratio.
+   */
+  public static ByteBuf tryCompression(ByteBuf input, double minRatio) {
+    return tryCompression(ByteBufUtil.getBytes(input, input.readerIndex(), input.readableBytes(), false), minRatio);
+  }
+
   /**
    * Try to decompress the input if the datatype has the snappy flag enabled.
    *
@@ -966,7 +977,12 @@ public enum MemcacheProtocol {
     /**
      * Fetches metadata for a document
      */
-    GET_META((byte) 0xa0);
+    GET_META((byte) 0xa0),
+
+    /**
+     * Lists the keys of a vbucket, starting at the given key.
+     */
+    GET_KEYS((byte) 0xb8);
 
     private final byte opcode;
 
@@ -34,6 +34,7 @@ import com.couchbase.client.core.error.AuthenticationFailureException;
 import com.couchbase.client.core.error.context.KeyValueIoErrorContext;
 import com.couchbase.client.core.io.IoContext;
 import com.couchbase.client.core.io.netty.kv.sasl.CouchbaseSaslClientFactory;
+import com.couchbase.client.core.io.netty.kv.sasl.ScramKeyCache;
 import com.couchbase.client.core.json.Mapper;
 import com.couchbase.client.core.msg.kv.BaseKeyValueRequest;
 import com.couchbase.client.core.util.Bytes;
@@ -47,9 +48,11 @@ import javax.security.sasl.SaslClient;
 import javax.security.sasl.SaslException;
 import java.net.SocketAddress;
 import java.time.Duration;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
@@ -101,6 +104,11 @@ public class SaslAuthenticationHandler extends ChannelDuplexHandler implements C
   private final Set<SaslMechanism> allowedMechanisms;
   private final EndpointContext endpointContext;
 
+  /**
+   * If not null, caches the keys derived during SCRAM authentication across connections.
+   */
+  private final ScramKeyCache keyCache;
+
   /**
    * Once connected, holds the io context for more debug information.
    */
@@ -125,6 +133,21 @@ public class SaslAuthenticationHandler extends ChannelDuplexHandler implements C
 
   public SaslAuthenticationHandler(final EndpointContext endpointContext, final String username,
                                    final String password, final Set<SaslMechanism> allowedSaslMechanisms) {
+    this(endpointContext, username, password, allowedSaslMechanisms, null);
+  }
+
+  /**
+   * Creates a new handler which shares the derived SCRAM keys through the given cache.
+   * <p>
+   * If the cache does not hold keys for the selected mechanism and user yet, the (expensive) derivation
+   * is performed on the environment scheduler instead of the event loop.
+   *
+   * @param keyCache the cache for the derived SCRAM keys, can be null.
+   */
+  public SaslAuthenticationHandler(final EndpointContext endpointContext, final String username,
+                                   final String password, final Set<SaslMechanism> allowedSaslMechanisms,
+                                   final ScramKeyCache keyCache) {
+    this.keyCache = keyCache;
     this.endpointContext = endpointContext;
     this.username = username;
     this.password = password;
@@ -353,7 +376,7 @@ public class SaslAuthenticationHandler extends ChannelDuplexHandler implements C
       null,
       "couchbase",
       ioContext.remoteSocket().toString(),
-      null,
+      keyCache == null ? null : Collections.singletonMap(ScramKeyCache.PROPERTY, keyCache),
       this
     );
   }
@@ -373,17 +396,82 @@ public class SaslAuthenticationHandler extends ChannelDuplexHandler implements C
     ByteBuf responseBody = body(response).orElse(Unpooled.EMPTY_BUFFER);
     byte[] payload = new byte[responseBody.readableBytes()];
     responseBody.readBytes(payload);
+    short status = MemcacheProtocol.status(response);
+
+    if (offloadChallengeEvaluation()) {
+      final SaslClient client = saslClient;
+      endpointContext.environment().scheduler().schedule(() -> {
+        try {
+          byte[] evaluatedBytes = client.evaluateChallenge(payload);
+          executeOnEventLoop(ctx, () -> writeStepRequest(ctx, client, evaluatedBytes, null, status));
+        } catch (Exception e) {
+          executeOnEventLoop(ctx, () -> {
+            if (client == saslClient && !interceptedConnectPromise.isDone()) {
+              failConnect(ctx, "Failure while evaluating SASL Auth Response.", null, e, status);
+            }
+          });
+        }
+      });
+      return;
+    }
 
     try {
-      byte[] evaluatedBytes = saslClient.evaluateChallenge(payload);
-      if (evaluatedBytes != null && evaluatedBytes.length > 0) {
-        ctx.writeAndFlush(buildStepRequest(ctx, evaluatedBytes));
-        maybePropagateChannelActive(ctx);
-      } else {
-        throw new SaslException("Evaluation returned empty payload, this is unexpected!");
-      }
+      writeStepRequest(ctx, saslClient, saslClient.evaluateChallenge(payload), response, status);
     } catch (SaslException e) {
-      failConnect(ctx, "Failure while evaluating SASL Auth Response.", response, e, MemcacheProtocol.status(response));
+      failConnect(ctx, "Failure while evaluating SASL Auth Response.", response, e, status);
+    }
+  }
+
+  /**
+   * Checks if the challenge evaluation is likely to derive SCRAM keys, which should not block the event loop.
+   *
+   * @return true if the next challenge evaluation should be performed on the scheduler.
+   */
+  private boolean offloadChallengeEvaluation() {
+    String mech = saslClient.getMechanismName();
+    return keyCache != null
+      && mech.toUpperCase().startsWith("SCRAM")
+      && !keyCache.isWarm(mech, username);
+  }
+
+  /**
+   * Hands the task back to the event loop of the channel after the challenge has been evaluated on the scheduler.
+   * <p>
+   * If the event loop is shutting down in the meantime the task is rejected and dropped, since the channel
+   * is closed with it and the connect attempt fails on its own.
+   *
+   * @param ctx the channel context.
+   * @param task the task to run on the event loop.
+   */
+  private static void executeOnEventLoop(final ChannelHandlerContext ctx, final Runnable task) {
+    try {
+      ctx.executor().execute(task);
+    } catch (RejectedExecutionException e) {
+      // the event loop is shutting down, nothing left to complete
+    }
+  }
+
+  /**
+   * Writes the SASL step request once the challenge of the given client has been evaluated.
+   *
+   * @param ctx the channel context.
+   * @param client the client which evaluated the challenge, ignored if the auth sequence has been restarted.
+   * @param evaluatedBytes the evaluated challenge.
+   * @param lastPacket the auth response if still available, for debugging purposes.
+   * @param status the status of the auth response.
+   */
+  private void writeStepRequest(final ChannelHandlerContext ctx, final SaslClient client,
+                                final byte[] evaluatedBytes, final ByteBuf lastPacket, final short status) {
+    if (client != saslClient || interceptedConnectPromise.isDone()) {
+      return;
+    }
+
+    if (evaluatedBytes != null && evaluatedBytes.length > 0) {
+      ctx.writeAndFlush(buildStepRequest(ctx, evaluatedBytes));
+      maybePropagateChannelActive(ctx);
+    } else {
+      failConnect(ctx, "Failure while evaluating SASL Auth Response.", lastPacket,
+        new SaslException("Evaluation returned empty payload, this is unexpected!"), status);
     }
   }
 
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv.sasl;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Caches the keys derived from the salted password during SCRAM authentication.
+ * <p>
+ * Deriving the salted password runs thousands of PBKDF2 iterations, but its result only depends on the
+ * mechanism, the credentials and the salt and iteration count the server hands out for that user. Since
+ * every KV connection to every node authenticates with the same inputs, the derived keys can be reused
+ * for all but the first connection.
+ * <p>
+ * The password itself is not kept, each entry only stores a digest of it to notice password changes.
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class ScramKeyCache {
+
+  /**
+   * The SASL client property under which a {@link ScramKeyCache} can be passed to the {@link ScramSaslClientFactory}.
+   */
+  public static final String PROPERTY = "com.couchbase.client.core.scramKeyCache";
+
+  /**
+   * Upper bound of cached entries, only reached if salts or credentials keep changing.
+   */
+  static final int MAX_ENTRIES = 64;
+
+  /**
+   * Random secret mixed into the password digests, so they cannot be looked up from precomputed tables.
+   */
+  private static final byte[] PASSWORD_SECRET = new byte[16];
+
+  static {
+    new SecureRandom().nextBytes(PASSWORD_SECRET);
+  }
+
+  private final Map<Key, ScramKeys> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Returns true if keys have been derived for the given mechanism and user already.
+   * <p>
+   * This is used as a hint whether the next authentication likely needs to perform the expensive
+   * derivation, since the salt is only known once the server responded.
+   *
+   * @param mechanism the SASL mechanism name.
+   * @param username the name of the user.
+   * @return true if there is at least one entry for the mechanism and user.
+   */
+  public boolean isWarm(final String mechanism, final String username) {
+    for (Key key : entries.keySet()) {
+      if (key.mechanism.equalsIgnoreCase(mechanism) && key.username.equals(username)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the number of cached entries.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Removes all entries, forcing the keys to be derived again on the next authentication.
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the cached keys or derives (and stores) them if not present or if the password changed.
+   * <p>
+   * The derivation runs outside of any lock, so concurrent misses for the same key may each derive the
+   * keys, but only the first result is stored and shared afterwards.
+   */
+  ScramKeys get(final String mechanism, final String username, final String password, final byte[] salt,
+                final int iterations, final Supplier<ScramKeys> derive) {
+    Key key = new Key(mechanism, username, salt, iterations);
+    ScramKeys found = entries.get(key);
+    if (found != null && found.matches(password)) {
+      return found;
+    }
+
+    ScramKeys derived = derive.get();
+    if (found != null) {
+      entries.replace(key, found, derived);
+      return derived;
+    }
+
+    if (entries.size() >= MAX_ENTRIES) {
+      entries.clear();
+    }
+    ScramKeys existing = entries.putIfAbsent(key, derived);
+    return existing != null && existing.matches(password) ? existing : derived;
+  }
+
+  /**
+   * Digests the password together with the {@link #PASSWORD_SECRET}.
+   */
+  private static byte[] digest(final String password) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(PASSWORD_SECRET);
+      return digest.digest(password.getBytes(UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+    }
+  }
+
+  /**
+   * The derived SCRAM keys for one set of inputs.
+   */
+  static class ScramKeys {
+    private final byte[] passwordDigest;
+    private final byte[] clientKey;
+    private final byte[] storedKey;
+    private final byte[] serverKey;
+
+    ScramKeys(final String password, final byte[] clientKey, final byte[] storedKey, final byte[] serverKey) {
+      this.passwordDigest = digest(password);
+      this.clientKey = clientKey;
+      this.storedKey = storedKey;
+      this.serverKey = serverKey;
+    }
+
+    /**
+     * Returns true if these keys have been derived from the given password.
+     */
+    boolean matches(final String password) {
+      return MessageDigest.isEqual(passwordDigest, digest(password));
+    }
+
+    /**
+     * Returns a copy of the client key, since it is XORed in place into the client proof.
+     */
+    byte[] clientKey() {
+      return clientKey.clone();
+    }
+
+    byte[] storedKey() {
+      return storedKey;
+    }
+
+    byte[] serverKey() {
+      return serverKey;
+    }
+  }
+
+  private static class Key {
+    private final String mechanism;
+    private final String username;
+    private final byte[] salt;
+    private final int iterations;
+    private final int hashCode;
+
+    Key(final String mechanism, final String username, final byte[] salt, final int iterations) {
+      this.mechanism = mechanism;
+      this.username = username;
+      this.salt = salt;
+      this.iterations = iterations;
+      this.hashCode = 31 * Objects.hash(mechanism, username, iterations) + Arrays.hashCode(salt);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key key = (Key) o;
+      return iterations == key.iterations
+        && mechanism.equals(key.mechanism)
+        && username.equals(key.username)
+        && Arrays.equals(salt, key.salt);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+}
@@ -50,10 +50,12 @@ class ScramSaslClient implements SaslClient  {
   private final String hmacAlgorithm;
   private final CallbackHandler callbacks;
   private final MessageDigest digest;
+  private final Mac mac;
+  private final ScramKeyCache keyCache;
 
   private String clientNonce;
   private byte[] salt;
-  private byte[] saltedPassword;
+  private ScramKeyCache.ScramKeys keys;
   private int iterationCount;
   private String clientFirstMessage;
   private String clientFirstMessageBare;
@@ -64,7 +66,20 @@ class ScramSaslClient implements SaslClient  {
 
   ScramSaslClient(final ScramSaslClientFactory.Mode mode, final CallbackHandler callbackHandler)
     throws NoSuchAlgorithmException  {
+    this(mode, callbackHandler, null);
+  }
+
+  /**
+   * Creates a new SCRAM client.
+   *
+   * @param mode the SCRAM mode to use.
+   * @param callbackHandler the callback handler to fetch the credentials from.
+   * @param keyCache if not null, the cache to look up and store the keys derived from the salted password.
+   */
+  ScramSaslClient(final ScramSaslClientFactory.Mode mode, final CallbackHandler callbackHandler,
+                  final ScramKeyCache keyCache) throws NoSuchAlgorithmException  {
     callbacks = callbackHandler;
+    this.keyCache = keyCache;
 
     switch (mode) {
       case SCRAM_SHA512:
@@ -85,6 +100,7 @@ class ScramSaslClient implements SaslClient  {
       default:
         throw new RuntimeException("Unsupported SHA version specified");
     }
+    mac = Mac.getInstance(hmacAlgorithm);
 
 
     SecureRandom random = new SecureRandom();
@@ -145,8 +161,8 @@ class ScramSaslClient implements SaslClient  {
         throw InvalidArgumentException.fromMessage("missing mandatory key in serverFirstMessage");
       }
 
-      // We have the salt, time to generate the salted password
-      generateSaltedPassword();
+      // We have the salt, time to generate (or look up) the keys from the salted password
+      generateKeys();
 
       clientFinalMessageNoProof = "c=biws,r=" + nonce;
       String client_final_message = clientFinalMessageNoProof + ",p=" + Base64.getEncoder().encodeToString(getClientProof());
@@ -225,7 +241,6 @@ class ScramSaslClient implements SaslClient  {
    */
   private byte[] hmac(byte[] key, byte[] data) {
     try {
-      final Mac mac = Mac.getInstance(hmacAlgorithm);
       mac.init(new SecretKeySpec(key, mac.getAlgorithm()));
       return mac.doFinal(data);
     } catch (InvalidKeyException e) {
@@ -253,7 +268,6 @@ class ScramSaslClient implements SaslClient  {
    */
   private byte[] pbkdf2(final String password, final byte[] salt, int iterations) {
     try {
-      Mac mac = Mac.getInstance(hmacAlgorithm);
       Key key;
       if (password == null || password.isEmpty()) {
         key = new EmptySecretKey(hmacAlgorithm);
@@ -300,7 +314,7 @@ class ScramSaslClient implements SaslClient  {
     }
   }
 
-  private void generateSaltedPassword() throws SaslException {
+  private void generateKeys() throws SaslException {
     final PasswordCallback passwordCallback = new PasswordCallback("Password", false);
     try {
       callbacks.handle(new Callback[]{passwordCallback});
@@ -314,8 +328,29 @@ class ScramSaslClient implements SaslClient  {
     }
 
     String password = new String(pw);
-    saltedPassword = pbkdf2(password, salt, iterationCount);
     passwordCallback.clearPassword();
+
+    if (keyCache == null) {
+      keys = deriveKeys(password);
+    } else {
+      keys = keyCache.get(name, getUserName(), password, salt, iterationCount, () -> deriveKeys(password));
+    }
+  }
+
+  /**
+   * Derives the client, stored and server keys from the salted password. Computed as:
+   *
+   * <p>SaltedPassword  := Hi(Normalize(password), salt, i)
+   * ClientKey       := HMAC(SaltedPassword, "Client Key")
+   * StoredKey       := H(ClientKey)
+   * ServerKey       := HMAC(SaltedPassword, "Server Key")</p>
+   */
+  private ScramKeyCache.ScramKeys deriveKeys(final String password) {
+    byte[] saltedPassword = pbkdf2(password, salt, iterationCount);
+    byte[] clientKey = hmac(saltedPassword, CLIENT_KEY);
+    byte[] storedKey = digest.digest(clientKey);
+    byte[] serverKey = hmac(saltedPassword, SERVER_KEY);
+    return new ScramKeyCache.ScramKeys(password, clientKey, storedKey, serverKey);
   }
 
   /**
@@ -326,8 +361,7 @@ class ScramSaslClient implements SaslClient  {
    * ServerSignature := HMAC(ServerKey, AuthMessage)</p>
    */
   private byte[] getServerSignature() {
-    byte[] serverKey = hmac(saltedPassword, SERVER_KEY);
-    return hmac(serverKey, getAuthMessage().getBytes(UTF_8));
+    return hmac(keys.serverKey(), getAuthMessage().getBytes(UTF_8));
   }
 
   /**
@@ -343,9 +377,8 @@ class ScramSaslClient implements SaslClient  {
    * ClientProof     := ClientKey XOR ClientSignature</p>
    */
   private byte[] getClientProof() {
-    byte[] clientKey = hmac(saltedPassword, CLIENT_KEY);
-    byte[] storedKey = digest.digest(clientKey);
-    byte[] clientSignature = hmac(storedKey, getAuthMessage().getBytes(UTF_8));
+    byte[] clientKey = keys.clientKey();
+    byte[] clientSignature = hmac(keys.storedKey(), getAuthMessage().getBytes(UTF_8));
 
     xor(clientKey, clientSignature);
     return clientKey;
@@ -56,7 +56,12 @@ public class ScramSaslClientFactory implements SaslClientFactory {
     }
 
     try {
-      return new ScramSaslClient(mode.get(), cbh);
+      Object keyCache = props == null ? null : props.get(ScramKeyCache.PROPERTY);
+      return new ScramSaslClient(
+        mode.get(),
+        cbh,
+        keyCache instanceof ScramKeyCache ? (ScramKeyCache) keyCache : null
+      );
     } catch (NoSuchAlgorithmException e) {
       throw new SaslException("Selected algorithm not supported.", e);
     }
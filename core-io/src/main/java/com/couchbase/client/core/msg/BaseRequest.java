@@ -144,6 +144,9 @@ public abstract class BaseRequest<R extends Response> implements Request<R> {
   @Override
   public void succeed(R result) {
     if (STATE_UPDATER.compareAndSet(this, State.INCOMPLETE, State.SUCCEEDED)) {
+      if (retryStrategy != null) {
+        retryStrategy.requestSucceeded(this);
+      }
       response.complete(result);
     }
   }
@@ -68,6 +68,12 @@ public class CancellationReason {
   public static final CancellationReason TOO_MANY_REQUESTS_IN_RETRY =
     new CancellationReason("TOO_MANY_REQUESTS_IN_RETRY", null);
 
+  /**
+   * If too many requests are already waiting for a free endpoint of a service whose pool cannot grow anymore.
+   */
+  public static final CancellationReason TOO_MANY_REQUESTS_WAITING =
+    new CancellationReason("TOO_MANY_REQUESTS_WAITING", null);
+
   /**
    * When a {@link TargetedRequest} is dispatched but the list of nodes does not contain the target at all,
    * there is good chance that this request will not be able to make progress anymore so it will be cancelled.
@@ -18,6 +18,7 @@ package com.couchbase.client.core.msg;
 
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.ValueRecorder;
 import com.couchbase.client.core.node.NodeIdentifier;
 import com.couchbase.client.core.retry.RetryReason;
 import com.couchbase.client.core.util.HostAndPort;
@@ -92,6 +93,11 @@ public class RequestContext extends CoreContext {
    */
   private volatile HostAndPort lastDispatchedFrom;
 
+  /**
+   * The response latency recorder resolved by the endpoint this request got last dispatched to.
+   */
+  private volatile ValueRecorder responseRecorder;
+
   /**
    * Holds a set of retry reasons.
    */
@@ -185,7 +191,11 @@ public class RequestContext extends CoreContext {
       request.requestSpan().end();
     }
     if (lastDispatchedTo() != null) {
-      core().responseMetric(request).recordValue(logicalRequestLatency());
+      ValueRecorder recorder = responseRecorder;
+      if (recorder == null) {
+        recorder = core().responseMetric(request);
+      }
+      recorder.recordValue(logicalRequestLatency());
     }
     return this;
   }
@@ -259,6 +269,18 @@ public class RequestContext extends CoreContext {
     return this;
   }
 
+  /**
+   * Sets the pre-resolved recorder for the response latency, matching the endpoint last dispatched to.
+   *
+   * @param responseRecorder the recorder to use once the request is logically complete.
+   * @return this {@link RequestContext} for chaining purposes.
+   */
+  @Stability.Internal
+  public RequestContext responseRecorder(final ValueRecorder responseRecorder) {
+    this.responseRecorder = responseRecorder;
+    return this;
+  }
+
   public HostAndPort lastDispatchedFrom() {
     return lastDispatchedFrom;
   }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.msg.kv;
+
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.RequestSpan;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.io.netty.kv.KeyValueChannelContext;
+import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.retry.RetryStrategy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.body;
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.decodeStatus;
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noBody;
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noCas;
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noDatatype;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Lists a page of document keys of one vbucket, in key order and starting at (and including) the given key.
+ * <p>
+ * Unlike all other key-value requests, this request is not routed by the partition of its key but to the
+ * vbucket given explicitly. Only keys of the collection of this request are returned.
+ *
+ * @since 2.1.0
+ */
+public class GetKeysRequest extends BaseKeyValueRequest<GetKeysResponse> {
+
+  private final short vbucket;
+  private final int limit;
+
+  public GetKeysRequest(final String startKey, final short vbucket, final int limit, final Duration timeout,
+                        final CoreContext ctx, final CollectionIdentifier collectionIdentifier,
+                        final RetryStrategy retryStrategy, final RequestSpan span) {
+    super(timeout, ctx, retryStrategy, startKey, collectionIdentifier, span);
+    this.vbucket = vbucket;
+    this.limit = limit;
+  }
+
+  /**
+   * Returns the vbucket whose keys are listed.
+   */
+  public short vbucket() {
+    return vbucket;
+  }
+
+  /**
+   * Returns the maximum number of keys in the page.
+   */
+  public int limit() {
+    return limit;
+  }
+
+  @Override
+  public ByteBuf encode(final ByteBufAllocator alloc, final int opaque, final KeyValueChannelContext ctx) {
+    ByteBuf key = null;
+    ByteBuf extras = null;
+
+    try {
+      extras = alloc.buffer(Integer.BYTES).writeInt(limit);
+      key = encodedKeyWithCollection(alloc, ctx);
+      return MemcacheProtocol.request(alloc, MemcacheProtocol.Opcode.GET_KEYS, noDatatype(),
+        partition(), opaque, noCas(), extras, key, noBody());
+    } finally {
+      ReferenceCountUtil.release(key);
+      ReferenceCountUtil.release(extras);
+    }
+  }
+
+  @Override
+  public GetKeysResponse decode(final ByteBuf response, final KeyValueChannelContext ctx) {
+    ResponseStatus status = decodeStatus(response);
+    if (!status.success()) {
+      return new GetKeysResponse(status, Collections.emptyList(), true);
+    }
+
+    byte[] prefix = ctx.collectionsEnabled() ? ctx.collectionMap().get(collectionIdentifier()) : null;
+    List<String> keys = new ArrayList<>();
+    boolean last = false;
+    int returned = 0;
+
+    Optional<ByteBuf> maybeBody = body(response);
+    if (maybeBody.isPresent()) {
+      ByteBuf body = maybeBody.get();
+      while (body.isReadable(Short.BYTES)) {
+        int length = body.readUnsignedShort();
+        returned++;
+        int offset = body.readerIndex();
+        body.skipBytes(length);
+
+        if (prefix != null) {
+          // the keys of a vbucket are ordered by collection first, so the first foreign key ends the scan
+          if (length < prefix.length || !hasPrefix(body, offset, prefix)) {
+            last = true;
+            break;
+          }
+          offset += prefix.length;
+          length -= prefix.length;
+        }
+        keys.add(body.toString(offset, length, UTF_8));
+      }
+    }
+
+    return new GetKeysResponse(status, keys, last || returned < limit);
+  }
+
+  private static boolean hasPrefix(final ByteBuf body, final int offset, final byte[] prefix) {
+    for (int i = 0; i < prefix.length; i++) {
+      if (body.getByte(offset + i) != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean idempotent() {
+    return true;
+  }
+
+  @Override
+  public String name() {
+    return "get_keys";
+  }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.msg.kv;
+
+import com.couchbase.client.core.msg.BaseResponse;
+import com.couchbase.client.core.msg.ResponseStatus;
+
+import java.util.List;
+
+/**
+ * Represents the response of a {@link GetKeysRequest}.
+ *
+ * @since 2.1.0
+ */
+public class GetKeysResponse extends BaseResponse {
+
+  private final List<String> keys;
+  private final boolean last;
+
+  GetKeysResponse(final ResponseStatus status, final List<String> keys, final boolean last) {
+    super(status);
+    this.keys = keys;
+    this.last = last;
+  }
+
+  /**
+   * Returns the keys of the page, without the collection prefix.
+   */
+  public List<String> keys() {
+    return keys;
+  }
+
+  /**
+   * Returns true if there are no more keys in the vbucket after this page.
+   */
+  public boolean last() {
+    return last;
+  }
+
+  @Override
+  public String toString() {
+    return "GetKeysResponse{" +
+      "status=" + status() +
+      ", keys=" + keys.size() +
+      ", last=" + last +
+      '}';
+  }
+}
@@ -44,7 +44,7 @@ import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.*;
  */
 public class UpsertRequest extends BaseKeyValueRequest<UpsertResponse> implements SyncDurabilityRequest {
 
-  private final byte[] content;
+  private final ByteBuf content;
   private final long expiration;
   private final int flags;
   private final Optional<DurabilityLevel> syncReplicationType;
@@ -55,10 +55,29 @@ public class UpsertRequest extends BaseKeyValueRequest<UpsertResponse> implement
                        final RetryStrategy retryStrategy,
                        final Optional<DurabilityLevel> syncReplicationType, final RequestSpan span) {
     super(timeout, ctx, retryStrategy, key, collectionIdentifier, span);
+    this.content = Unpooled.wrappedBuffer(content);
+    this.expiration = expiration;
+    this.flags = flags;
+    this.syncReplicationType = syncReplicationType;
+  }
+
+  /**
+   * Creates the request with content that is released once the request completes.
+   * <p>
+   * The request takes ownership of the buffer and only reads its readable bytes, so it must not be modified or
+   * released by the caller afterwards.
+   */
+  public UpsertRequest(final String key, final ByteBuf content,
+                       final long expiration, final int flags, final Duration timeout,
+                       final CoreContext ctx, CollectionIdentifier collectionIdentifier,
+                       final RetryStrategy retryStrategy,
+                       final Optional<DurabilityLevel> syncReplicationType, final RequestSpan span) {
+    super(timeout, ctx, retryStrategy, key, collectionIdentifier, span);
     this.content = content;
     this.expiration = expiration;
     this.flags = flags;
     this.syncReplicationType = syncReplicationType;
+    response().whenComplete((r, t) -> ReferenceCountUtil.release(content));
   }
 
   @Override
@@ -73,16 +92,16 @@ public class UpsertRequest extends BaseKeyValueRequest<UpsertResponse> implement
 
       byte datatype = 0;
       CompressionConfig config = ctx.compressionConfig();
-      if (config != null && config.enabled() && this.content.length >= config.minSize()) {
+      if (config != null && config.enabled() && this.content.readableBytes() >= config.minSize()) {
         ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(this.content, config.minRatio());
         if (maybeCompressed != null) {
           datatype |= MemcacheProtocol.Datatype.SNAPPY.datatype();
           content = maybeCompressed;
         } else {
-          content = Unpooled.wrappedBuffer(this.content);
+          content = this.content.retainedDuplicate();
         }
       } else {
-        content = Unpooled.wrappedBuffer(this.content);
+        content = this.content.retainedDuplicate();
       }
 
       extras = alloc.buffer(Integer.BYTES * 2);
@@ -30,6 +30,7 @@ import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.Response;
 import com.couchbase.client.core.msg.TargetedRequest;
 import com.couchbase.client.core.msg.kv.DurabilityLevel;
+import com.couchbase.client.core.msg.kv.GetKeysRequest;
 import com.couchbase.client.core.msg.kv.KeyValueRequest;
 import com.couchbase.client.core.msg.kv.ObserveViaSeqnoRequest;
 import com.couchbase.client.core.msg.kv.ReplicaGetRequest;
@@ -128,7 +129,9 @@ public class KeyValueLocator implements Locator {
       return;
     }
 
-    int partitionId = partitionForKey(request.key(), config.numberOfPartitions());
+    int partitionId = request instanceof GetKeysRequest
+      ? ((GetKeysRequest) request).vbucket()
+      : partitionForKey(request.key(), config.numberOfPartitions());
     request.partition((short) partitionId);
 
     int nodeId = calculateNodeId(partitionId, request, config);
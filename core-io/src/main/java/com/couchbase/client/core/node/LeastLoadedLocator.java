@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.node;
+
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.service.ServiceType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Locator} which sends each request to the node with the lowest expected latency.
+ * <p>
+ * For every node it keeps an exponentially weighted moving average (EWMA) of the response times and the number
+ * of requests dispatched to it which did not complete yet. Since the in-flight count is tracked from the moment
+ * the request is handed to the node, it also covers requests which are still queued in the service waiting for
+ * a free endpoint. The score of a node is its average latency multiplied by the number of requests in flight
+ * (plus the one about to be sent), and the node with the lowest score wins. Ties, which are common before any
+ * response has been received, are broken in round-robin order.
+ * <p>
+ * The average of an idle node decays over time, so a node which has been avoided because it was slow is probed
+ * again after a while instead of being starved forever.
+ * <p>
+ * Every selection is counted per node on the {@link Meter} as {@code cb.node_selections}.
+ *
+ * @since 2.1.0
+ */
+public class LeastLoadedLocator extends RoundRobinLocator {
+
+  /**
+   * The weight of the most recent response time in the moving average.
+   */
+  static final double EWMA_WEIGHT = 0.3;
+
+  /**
+   * The time constant after which the average of a node without responses has decayed to about a third.
+   */
+  static final long DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  /**
+   * Used to break ties between nodes with the same score.
+   */
+  private final AtomicLong counter;
+
+  private final ServiceType serviceType;
+
+  private final Meter meter;
+
+  private final Map<NodeIdentifier, NodeLoad> loads = new ConcurrentHashMap<>();
+
+  public LeastLoadedLocator(final ServiceType serviceType, final Meter meter) {
+    this(serviceType, meter, new Random().nextInt(1024));
+  }
+
+  LeastLoadedLocator(final ServiceType serviceType, final Meter meter, final long initialValue) {
+    super(serviceType, initialValue);
+    this.serviceType = serviceType;
+    this.meter = meter;
+    this.counter = new AtomicLong(initialValue);
+  }
+
+  @Override
+  protected void dispatchUntargeted(final Request<? extends Response> request, final List<Node> nodes,
+                                    final CoreContext ctx) {
+    NodeLoad load = select(nodes);
+    load.dispatched(request);
+    load.node.send(request);
+  }
+
+  /**
+   * Returns the load of the node with the lowest score.
+   *
+   * @param nodes the nodes to pick from, never empty.
+   * @return the load of the picked node.
+   */
+  private NodeLoad select(final List<Node> nodes) {
+    int size = nodes.size();
+    int offset = (int) Math.floorMod(counter.getAndIncrement(), (long) size);
+    if (size == 1) {
+      return load(nodes.get(0));
+    }
+
+    long now = System.nanoTime();
+    double sampledLatency = 0;
+    int sampled = 0;
+    for (Node node : nodes) {
+      NodeLoad load = load(node);
+      if (load.sampled()) {
+        sampledLatency += load.latency(now);
+        sampled++;
+      }
+    }
+    // Nodes without responses yet are assumed to be as fast as the others, so they neither attract
+    // nor repel all traffic until their first response comes in.
+    double fallbackLatency = sampled == 0 ? 1 : sampledLatency / sampled;
+
+    NodeLoad best = null;
+    double bestScore = Double.MAX_VALUE;
+    for (int i = 0; i < size; i++) {
+      NodeLoad load = load(nodes.get((offset + i) % size));
+      double score = load.score(now, fallbackLatency);
+      if (score < bestScore) {
+        best = load;
+        bestScore = score;
+      }
+    }
+    return best;
+  }
+
+  private NodeLoad load(final Node node) {
+    NodeLoad load = loads.get(node.identifier());
+    if (load == null || load.node != node) {
+      load = loads.compute(node.identifier(), (id, existing) ->
+        existing != null && existing.node == node ? existing : new NodeLoad(node, selectionCounter(node))
+      );
+    }
+    return load;
+  }
+
+  private Counter selectionCounter(final Node node) {
+    Map<String, String> tags = new HashMap<>(4);
+    tags.put("cb.service", serviceType.ident());
+    tags.put("cb.remote_hostname", node.identifier().address());
+    return meter.counter("cb.node_selections", tags);
+  }
+
+  /**
+   * Returns the number of requests in flight against the given node, for testing purposes.
+   */
+  int inFlight(final NodeIdentifier identifier) {
+    NodeLoad load = loads.get(identifier);
+    return load == null ? 0 : load.inFlight.get();
+  }
+
+  /**
+   * Tracks the latency and in-flight requests of a single node.
+   */
+  static class NodeLoad {
+
+    private final Node node;
+    private final Counter selections;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile boolean sampled;
+    private volatile double latency;
+    private volatile long lastSample;
+
+    NodeLoad(final Node node, final Counter selections) {
+      this.node = node;
+      this.selections = selections;
+    }
+
+    /**
+     * Accounts for the request being sent to this node and records its latency once it completes.
+     * <p>
+     * A request which is retried and dispatched again is accounted for on every node it has been sent to,
+     * until it completes.
+     */
+    void dispatched(final Request<? extends Response> request) {
+      selections.incrementBy(1);
+      inFlight.incrementAndGet();
+      long start = System.nanoTime();
+      request.response().whenComplete((response, throwable) -> {
+        inFlight.decrementAndGet();
+        long end = System.nanoTime();
+        record(end - start, end);
+      });
+    }
+
+    synchronized void record(final long latencyNanos, final long now) {
+      double current = latency(now);
+      latency = sampled ? current + EWMA_WEIGHT * (latencyNanos - current) : latencyNanos;
+      lastSample = now;
+      sampled = true;
+    }
+
+    boolean sampled() {
+      return sampled;
+    }
+
+    /**
+     * Returns the average latency, decayed by the time passed since the last response if the node is idle.
+     * <p>
+     * A node with requests in flight is not decayed, since those requests may just be slow to complete.
+     */
+    double latency(final long now) {
+      long elapsed = now - lastSample;
+      if (elapsed <= 0 || inFlight.get() > 0) {
+        return latency;
+      }
+      return latency * Math.exp(-(double) elapsed / DECAY_NANOS);
+    }
+
+    double score(final long now, final double fallbackLatency) {
+      return (sampled ? latency(now) : fallbackLatency) * (inFlight.get() + 1);
+    }
+
+  }
+
+}
@@ -438,6 +438,7 @@ public class Node implements Stateful<NodeState> {
         return new QueryService(QueryServiceConfig
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .maxWaitQueueSize(env.ioConfig().maxHttpWaitQueueSize())
           .build(),
           ctx, address, port
         );
@@ -445,18 +446,21 @@ public class Node implements Stateful<NodeState> {
         return new ViewService(ViewServiceConfig
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .maxWaitQueueSize(env.ioConfig().maxHttpWaitQueueSize())
           .build(),
           ctx, address, port);
       case SEARCH:
         return new SearchService(SearchServiceConfig
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .maxWaitQueueSize(env.ioConfig().maxHttpWaitQueueSize())
           .build(),
           ctx, address, port);
       case ANALYTICS:
         return new AnalyticsService(AnalyticsServiceConfig
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .maxWaitQueueSize(env.ioConfig().maxHttpWaitQueueSize())
           .build(),
           ctx, address, port);
       default:
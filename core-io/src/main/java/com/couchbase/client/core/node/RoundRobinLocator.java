@@ -196,8 +196,17 @@ public class RoundRobinLocator implements Locator {
     ((Request<?>) request).cancel(CancellationReason.TARGET_NODE_REMOVED);
   }
 
-  private void dispatchUntargeted(final Request<? extends Response> request, final List<Node> nodes,
-                                  final CoreContext ctx) {
+  /**
+   * Picks one of the nodes for a request which is not targeted at a specific node and sends it there.
+   * <p>
+   * This method can be overridden to implement a different selection than plain rotation.
+   *
+   * @param request the request to dispatch.
+   * @param nodes the nodes which can serve the request, never empty.
+   * @param ctx the core context.
+   */
+  protected void dispatchUntargeted(final Request<? extends Response> request, final List<Node> nodes,
+                                    final CoreContext ctx) {
     int nodeSize = nodes.size();
     int offset = (int) Math.floorMod(counter.getAndIncrement(), (long) nodeSize);
     Node node = nodes.get(offset);
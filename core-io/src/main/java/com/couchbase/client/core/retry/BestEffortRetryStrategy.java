@@ -43,8 +43,11 @@ public class BestEffortRetryStrategy implements RetryStrategy {
   /**
    * The default backoff is an exponential backoff from 1 to 500 millis with a factor of 2.
    */
+  private static final Duration DEFAULT_LOWER_BACKOFF = Duration.ofMillis(1);
+  private static final Duration DEFAULT_UPPER_BACKOFF = Duration.ofMillis(500);
+  private static final int DEFAULT_BACKOFF_FACTOR = 2;
   private static final Backoff DEFAULT_EXPONENTIAL_BACKOFF = Backoff.exponential(
-    Duration.ofMillis(1), Duration.ofMillis(500), 2, false);
+    DEFAULT_LOWER_BACKOFF, DEFAULT_UPPER_BACKOFF, DEFAULT_BACKOFF_FACTOR, false);
 
   /**
    * Returns the default {@link BestEffortRetryStrategy} instance.
@@ -56,11 +59,23 @@ public class BestEffortRetryStrategy implements RetryStrategy {
    */
   private final Backoff backoff;
 
+  /**
+   * The exponential backoff boundaries in nanoseconds, only set (non-zero) if the backoff is known to be exponential.
+   */
+  private final long lowerBackoffNanos;
+  private final long upperBackoffNanos;
+  private final int backoffFactor;
+
+  /**
+   * True if {@link #shouldRetry(Request, RetryReason)} is not overridden and the synchronous path can be used.
+   */
+  private final boolean syncDecision;
+
   /**
    * Creates a new {@link BestEffortRetryStrategy} with the {@link #DEFAULT_EXPONENTIAL_BACKOFF}.
    */
   protected BestEffortRetryStrategy() {
-    this(DEFAULT_EXPONENTIAL_BACKOFF);
+    this(DEFAULT_EXPONENTIAL_BACKOFF, DEFAULT_LOWER_BACKOFF, DEFAULT_UPPER_BACKOFF, DEFAULT_BACKOFF_FACTOR);
   }
 
   /**
@@ -69,7 +84,16 @@ public class BestEffortRetryStrategy implements RetryStrategy {
    * @param backoff the custom backoff that should be used.
    */
   protected BestEffortRetryStrategy(final Backoff backoff) {
+    this(backoff, null, null, 0);
+  }
+
+  private BestEffortRetryStrategy(final Backoff backoff, final Duration lower, final Duration upper,
+                                  final int factor) {
     this.backoff = backoff;
+    this.lowerBackoffNanos = lower == null ? 0 : lower.toNanos();
+    this.upperBackoffNanos = upper == null ? 0 : upper.toNanos();
+    this.backoffFactor = factor;
+    this.syncDecision = !RetryOrchestrator.overridesShouldRetry(this, BestEffortRetryStrategy.class);
   }
 
   /**
@@ -82,7 +106,7 @@ public class BestEffortRetryStrategy implements RetryStrategy {
    */
   public static BestEffortRetryStrategy withExponentialBackoff(final Duration lower, final Duration upper,
                                                                final int factor) {
-    return new BestEffortRetryStrategy(Backoff.exponential(lower, upper, factor, false));
+    return new BestEffortRetryStrategy(Backoff.exponential(lower, upper, factor, false), lower, upper, factor);
   }
 
   /**
@@ -117,6 +141,39 @@ public class BestEffortRetryStrategy implements RetryStrategy {
     return CompletableFuture.completedFuture(RetryAction.noRetry());
   }
 
+  /**
+   * Makes the same decision as {@link #shouldRetry(Request, RetryReason)} synchronously, unless it is overridden.
+   */
+  @Override
+  public long retryDelayNanos(final Request<? extends Response> request, final RetryReason reason) {
+    if (!syncDecision) {
+      return DECIDE_ASYNC;
+    }
+    if (request.idempotent() || reason.allowsNonIdempotentRetry()) {
+      RequestContext ctx = request.context();
+      long delay = backoffFactor > 0
+        ? exponentialBackoffNanos(ctx)
+        : backoff.apply(new RetryStrategyIterationContext(ctx.retryAttempts(), ctx.lastRetryDuration())).delay().toNanos();
+      return Math.max(1, delay);
+    }
+    return NO_RETRY;
+  }
+
+  /**
+   * Calculates the same delay as the exponential {@link Backoff} without allocating the context and delay.
+   */
+  private long exponentialBackoffNanos(final RequestContext ctx) {
+    Duration last = ctx.lastRetryDuration();
+    if (last != null && last.toNanos() >= upperBackoffNanos) {
+      return upperBackoffNanos;
+    }
+    try {
+      return Math.multiplyExact(lowerBackoffNanos, (long) Math.pow(backoffFactor, ctx.retryAttempts() - 1));
+    } catch (ArithmeticException e) {
+      return upperBackoffNanos;
+    }
+  }
+
   @Override
   public String toString() {
     return "BestEffort{backoff=" + backoff + "}";
@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.retry;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.node.NodeIdentifier;
+import com.couchbase.client.core.service.ServiceType;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.couchbase.client.core.util.Validators.notNull;
+
+/**
+ * Retries operations until they time out, but only as long as the retry budget of the target allows it.
+ * <p>
+ * When a node degrades, retrying every failed operation multiplies the load on it exactly when it can least absorb
+ * it. This strategy keeps a budget per service and node: over a sliding window, the number of retries is limited to
+ * a fixed number per second plus a ratio of the requests which succeeded against the same service and node. Once
+ * the budget is spent, further retries are denied and the operation fails right away, which is counted as
+ * {@code cb.retries_denied} on the {@link com.couchbase.client.core.cnc.Meter} of the environment.
+ * <p>
+ * The time paused between retries uses decorrelated jitter: each delay is picked at random between the lower
+ * boundary and three times the previous delay, capped at the upper boundary. This spreads retries of many
+ * concurrent operations more evenly than a plain exponential backoff.
+ * <p>
+ * Retries while waiting for the topology (i.e. a bucket being opened or a collection map being refreshed) and
+ * retries of requests which have not been dispatched to any node yet are not charged to any budget, since they do
+ * not put load on a node. They are still subject to the backoff.
+ * <p>
+ * Like the {@link BestEffortRetryStrategy}, operations are only retried if they are idempotent or the retry reason
+ * allows non-idempotent retries.
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+public class BudgetedRetryStrategy implements RetryStrategy {
+
+  /**
+   * By default, up to 20% of the successful requests can be retried on top of the minimum.
+   */
+  public static final double DEFAULT_RETRY_RATIO = 0.2;
+
+  /**
+   * By default, 10 retries per second are always allowed, so that retries are possible with little traffic.
+   */
+  public static final int DEFAULT_MIN_RETRIES_PER_SECOND = 10;
+
+  /**
+   * By default, successes and retries are accounted for over the last 10 seconds.
+   */
+  public static final Duration DEFAULT_WINDOW = Duration.ofSeconds(10);
+
+  /**
+   * By default, delays between retries range from 1 millisecond to 500 milliseconds.
+   */
+  public static final Duration DEFAULT_LOWER_BACKOFF = Duration.ofMillis(1);
+  public static final Duration DEFAULT_UPPER_BACKOFF = Duration.ofMillis(500);
+
+  /**
+   * The number of slots the window is split into, the window slides one slot at a time.
+   */
+  static final int WINDOW_SLOTS = 10;
+
+  private final double retryRatio;
+  private final long minRetriesPerWindow;
+  private final long slotNanos;
+  private final long lowerBackoffNanos;
+  private final long upperBackoffNanos;
+
+  /**
+   * Retry reasons which indicate the client is waiting for the topology, not that a node is struggling.
+   */
+  private static final Set<RetryReason> TOPOLOGY_REASONS = Collections.unmodifiableSet(EnumSet.of(
+    RetryReason.BUCKET_OPEN_IN_PROGRESS,
+    RetryReason.BUCKET_NOT_AVAILABLE,
+    RetryReason.GLOBAL_CONFIG_LOAD_IN_PROGRESS,
+    RetryReason.COLLECTION_MAP_REFRESH_IN_PROGRESS
+  ));
+
+  /**
+   * Budgets of nodes which have been idle for a whole window are removed when a new budget is created, so the map
+   * only holds the nodes recently used.
+   */
+  private final Map<BudgetKey, Budget> budgets = new ConcurrentHashMap<>();
+
+  /**
+   * True if {@link #shouldRetry(Request, RetryReason)} is not overridden and the synchronous path can be used.
+   */
+  private final boolean syncDecision;
+
+  /**
+   * Creates a new {@link BudgetedRetryStrategy} with the default budget and backoff.
+   *
+   * @return the created strategy.
+   */
+  public static BudgetedRetryStrategy create() {
+    return new BudgetedRetryStrategy(DEFAULT_RETRY_RATIO, DEFAULT_MIN_RETRIES_PER_SECOND, DEFAULT_WINDOW,
+      DEFAULT_LOWER_BACKOFF, DEFAULT_UPPER_BACKOFF);
+  }
+
+  /**
+   * Creates a new {@link BudgetedRetryStrategy} with a custom budget and the default backoff.
+   *
+   * @param retryRatio the ratio of successful requests which can be retried on top of the minimum, i.e. 0.2 for 20%.
+   * @param minRetriesPerSecond the number of retries per second which are always allowed.
+   * @param window the duration over which successes and retries are accounted for.
+   * @return the created strategy.
+   */
+  public static BudgetedRetryStrategy withBudget(final double retryRatio, final int minRetriesPerSecond,
+                                                 final Duration window) {
+    return new BudgetedRetryStrategy(retryRatio, minRetriesPerSecond, window, DEFAULT_LOWER_BACKOFF,
+      DEFAULT_UPPER_BACKOFF);
+  }
+
+  /**
+   * Creates a new {@link BudgetedRetryStrategy} with a custom budget and custom backoff boundaries.
+   *
+   * @param retryRatio the ratio of successful requests which can be retried on top of the minimum, i.e. 0.2 for 20%.
+   * @param minRetriesPerSecond the number of retries per second which are always allowed.
+   * @param window the duration over which successes and retries are accounted for.
+   * @param lower the lower backoff boundary.
+   * @param upper the upper backoff boundary.
+   * @return the created strategy.
+   */
+  public static BudgetedRetryStrategy withBudget(final double retryRatio, final int minRetriesPerSecond,
+                                                 final Duration window, final Duration lower,
+                                                 final Duration upper) {
+    return new BudgetedRetryStrategy(retryRatio, minRetriesPerSecond, window, lower, upper);
+  }
+
+  protected BudgetedRetryStrategy(final double retryRatio, final int minRetriesPerSecond, final Duration window,
+                                  final Duration lower, final Duration upper) {
+    notNull(window, "Window");
+    notNull(lower, "Lower Backoff");
+    notNull(upper, "Upper Backoff");
+    if (retryRatio < 0 || minRetriesPerSecond < 0) {
+      throw InvalidArgumentException.fromMessage("The retry ratio and minimum retries per second must not be negative");
+    }
+    if (window.toNanos() < WINDOW_SLOTS) {
+      throw InvalidArgumentException.fromMessage("The window must be positive");
+    }
+    if (lower.isNegative() || lower.isZero() || upper.compareTo(lower) < 0) {
+      throw InvalidArgumentException.fromMessage("The lower backoff must be positive and not larger than the upper one");
+    }
+
+    this.retryRatio = retryRatio;
+    this.minRetriesPerWindow = (long) Math.ceil(minRetriesPerSecond * (window.toNanos() / 1e9));
+    this.slotNanos = window.toNanos() / WINDOW_SLOTS;
+    this.lowerBackoffNanos = lower.toNanos();
+    this.upperBackoffNanos = upper.toNanos();
+    this.syncDecision = !RetryOrchestrator.overridesShouldRetry(this, BudgetedRetryStrategy.class);
+  }
+
+  @Override
+  public CompletableFuture<RetryAction> shouldRetry(final Request<? extends Response> request, final RetryReason reason) {
+    long delay = decide(request, reason);
+    return CompletableFuture.completedFuture(
+      delay == NO_RETRY ? RetryAction.noRetry() : RetryAction.withDuration(Duration.ofNanos(delay))
+    );
+  }
+
+  @Override
+  public long retryDelayNanos(final Request<? extends Response> request, final RetryReason reason) {
+    return syncDecision ? decide(request, reason) : DECIDE_ASYNC;
+  }
+
+  /**
+   * Withdraws from the budget if the request can be retried.
+   *
+   * @return the delay in nanoseconds or {@link #NO_RETRY}.
+   */
+  private long decide(final Request<? extends Response> request, final RetryReason reason) {
+    if (!request.idempotent() && !reason.allowsNonIdempotentRetry()) {
+      return NO_RETRY;
+    }
+
+    NodeIdentifier node = request.context().lastDispatchedToNode();
+    if (node == null || TOPOLOGY_REASONS.contains(reason)) {
+      return nextBackoff(request.context());
+    }
+
+    Budget budget = budget(request.serviceType(), node);
+    if (!budget.tryWithdraw(System.nanoTime())) {
+      budget.deniedCounter(request).incrementBy(1);
+      return NO_RETRY;
+    }
+    return nextBackoff(request.context());
+  }
+
+  @Override
+  public void requestSucceeded(final Request<? extends Response> request) {
+    NodeIdentifier node = request.context().lastDispatchedToNode();
+    if (node != null) {
+      budget(request.serviceType(), node).deposit(System.nanoTime());
+    }
+  }
+
+  /**
+   * Calculates the next delay with decorrelated jitter, based on the previous delay of the request.
+   */
+  private long nextBackoff(final RequestContext ctx) {
+    Duration last = ctx.lastRetryDuration();
+    long previous = last == null ? lowerBackoffNanos : Math.max(lowerBackoffNanos, last.toNanos());
+    long upper = Math.min(upperBackoffNanos, previous * 3);
+    if (upper <= lowerBackoffNanos) {
+      return lowerBackoffNanos;
+    }
+    return ThreadLocalRandom.current().nextLong(lowerBackoffNanos, upper + 1);
+  }
+
+  private Budget budget(final ServiceType serviceType, final NodeIdentifier node) {
+    BudgetKey key = new BudgetKey(serviceType, node);
+    Budget budget = budgets.get(key);
+    if (budget == null) {
+      long now = System.nanoTime();
+      budgets.values().removeIf(b -> b.idle(now));
+      budget = budgets.computeIfAbsent(key, Budget::new);
+    }
+    return budget;
+  }
+
+  /**
+   * Returns the number of budgets currently tracked.
+   */
+  int budgets() {
+    return budgets.size();
+  }
+
+  @Override
+  public String toString() {
+    return "Budgeted{" +
+      "retryRatio=" + retryRatio +
+      ", minRetriesPerWindow=" + minRetriesPerWindow +
+      ", window=" + Duration.ofNanos(slotNanos * WINDOW_SLOTS) +
+      ", lowerBackoff=" + Duration.ofNanos(lowerBackoffNanos) +
+      ", upperBackoff=" + Duration.ofNanos(upperBackoffNanos) +
+      '}';
+  }
+
+  /**
+   * Tracks the successes and retries of one service and node over the sliding window.
+   */
+  private class Budget {
+
+    private final BudgetKey key;
+    private final long[] slotIds = new long[WINDOW_SLOTS];
+    private final long[] successes = new long[WINDOW_SLOTS];
+    private final long[] retries = new long[WINDOW_SLOTS];
+    private volatile Counter deniedCounter;
+    private volatile long lastUsed = System.nanoTime();
+
+    Budget(final BudgetKey key) {
+      this.key = key;
+    }
+
+    synchronized void deposit(final long now) {
+      lastUsed = now;
+      successes[slot(now)]++;
+    }
+
+    /**
+     * Returns true if nothing has been accounted for over the whole window, so the budget holds no information.
+     */
+    boolean idle(final long now) {
+      return now - lastUsed > slotNanos * WINDOW_SLOTS;
+    }
+
+    /**
+     * Accounts for a retry if the budget allows it.
+     *
+     * @return true if the retry is allowed.
+     */
+    synchronized boolean tryWithdraw(final long now) {
+      lastUsed = now;
+      int current = slot(now);
+      long windowSuccesses = 0;
+      long windowRetries = 0;
+      for (int i = 0; i < WINDOW_SLOTS; i++) {
+        windowSuccesses += successes[i];
+        windowRetries += retries[i];
+      }
+      if (windowRetries >= minRetriesPerWindow + (long) (windowSuccesses * retryRatio)) {
+        return false;
+      }
+      retries[current]++;
+      return true;
+    }
+
+    /**
+     * Returns the index of the slot for the given time, clearing all slots which fell out of the window.
+     */
+    private int slot(final long now) {
+      long slotId = now / slotNanos;
+      int index = (int) Math.floorMod(slotId, (long) WINDOW_SLOTS);
+      if (slotIds[index] != slotId) {
+        for (int i = 0; i < WINDOW_SLOTS; i++) {
+          if (slotId - slotIds[i] >= WINDOW_SLOTS) {
+            successes[i] = 0;
+            retries[i] = 0;
+          }
+        }
+        successes[index] = 0;
+        retries[index] = 0;
+        slotIds[index] = slotId;
+      }
+      return index;
+    }
+
+    Counter deniedCounter(final Request<? extends Response> request) {
+      Counter counter = deniedCounter;
+      if (counter == null) {
+        Map<String, String> tags = new HashMap<>(4);
+        tags.put("cb.service", key.serviceType.ident());
+        tags.put("cb.remote_hostname", key.node.address());
+        counter = request.context().environment().meter().counter("cb.retries_denied", tags);
+        deniedCounter = counter;
+      }
+      return counter;
+    }
+  }
+
+  /**
+   * Identifies a budget by service and node.
+   */
+  private static class BudgetKey {
+    private final ServiceType serviceType;
+    private final NodeIdentifier node;
+
+    BudgetKey(final ServiceType serviceType, final NodeIdentifier node) {
+      this.serviceType = serviceType;
+      this.node = node;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      BudgetKey that = (BudgetKey) o;
+      return serviceType == that.serviceType && Objects.equals(node, that.node);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(serviceType, node);
+    }
+  }
+
+}
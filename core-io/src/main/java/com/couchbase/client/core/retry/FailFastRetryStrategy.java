@@ -42,6 +42,11 @@ public class FailFastRetryStrategy implements RetryStrategy {
     return CompletableFuture.completedFuture(RetryAction.noRetry());
   }
 
+  @Override
+  public long retryDelayNanos(final Request<? extends Response> request, final RetryReason reason) {
+    return NO_RETRY;
+  }
+
   @Override
   public String toString() {
     return "FailFast";
@@ -41,6 +41,18 @@ import java.util.Optional;
 @Stability.Internal
 public class RetryOrchestrator {
 
+  /**
+   * The delays for the "always retry" handler by retry attempt, the last one applies to all further attempts.
+   */
+  private static final Duration[] CONTROLLED_BACKOFF = new Duration[] {
+    Duration.ofMillis(1),
+    Duration.ofMillis(10),
+    Duration.ofMillis(50),
+    Duration.ofMillis(100),
+    Duration.ofMillis(500),
+    Duration.ofMillis(1000)
+  };
+
   /**
    * Retry or cancel the given request, depending on its state and the configured {@link RetryStrategy}.
    *
@@ -59,6 +71,16 @@ public class RetryOrchestrator {
       return;
     }
 
+    long delayNanos = request.retryStrategy().retryDelayNanos(request, reason);
+    if (delayNanos != RetryStrategy.DECIDE_ASYNC) {
+      if (delayNanos == RetryStrategy.NO_RETRY) {
+        cancelNotRetried(ctx, request, reason);
+      } else {
+        retryWithDuration(ctx, request, Duration.ofNanos(capDurationNanos(delayNanos, request)), reason);
+      }
+      return;
+    }
+
     request.retryStrategy().shouldRetry(request, reason).whenComplete((retryAction, throwable) -> {
       if (throwable != null) {
         ctx.environment().eventBus().publish(
@@ -71,16 +93,28 @@ public class RetryOrchestrator {
         final Duration cappedDuration = capDuration(duration.get(), request);
         retryWithDuration(ctx, request, cappedDuration, reason);
       } else {
-        // unmonitored request's severity is downgraded to debug to not spam the info-level logs
-        Event.Severity severity = request instanceof UnmonitoredRequest ? Event.Severity.DEBUG : Event.Severity.INFO;
-        ctx.environment().eventBus().publish(
-          new RequestNotRetriedEvent(severity, request.getClass(), request.context(), reason, null)
-        );
-        request.cancel(CancellationReason.noMoreRetries(reason));
+        cancelNotRetried(ctx, request, reason);
       }
     });
   }
 
+  /**
+   * Cancels the request since the retry strategy decided not to retry it.
+   *
+   * @param ctx the core context.
+   * @param request the request in question.
+   * @param reason the reason why the request should have been retried.
+   */
+  private static void cancelNotRetried(final CoreContext ctx, final Request<? extends Response> request,
+                                       final RetryReason reason) {
+    // unmonitored request's severity is downgraded to debug to not spam the info-level logs
+    Event.Severity severity = request instanceof UnmonitoredRequest ? Event.Severity.DEBUG : Event.Severity.INFO;
+    ctx.environment().eventBus().publish(
+      new RequestNotRetriedEvent(severity, request.getClass(), request.context(), reason, null)
+    );
+    request.cancel(CancellationReason.noMoreRetries(reason));
+  }
+
   /**
    * Calculates the potentially capped retry duration so we do not schedule a longer retry than the actual
    * total timeout.
@@ -91,18 +125,46 @@ public class RetryOrchestrator {
    */
   @Stability.Internal
   public static Duration capDuration(final Duration uncappedDuration, final Request<? extends Response> request) {
-    long theoreticalTimeout = System.nanoTime() + uncappedDuration.toNanos();
-    long absoluteTimeout = request.absoluteTimeout();
-    long timeoutDelta = theoreticalTimeout - absoluteTimeout;
+    long uncappedNanos = uncappedDuration.toNanos();
+    long cappedNanos = capDurationNanos(uncappedNanos, request);
+    return cappedNanos == uncappedNanos ? uncappedDuration : Duration.ofNanos(cappedNanos);
+  }
+
+  /**
+   * Calculates the potentially capped retry duration in nanoseconds, see {@link #capDuration(Duration, Request)}.
+   *
+   * @param uncappedNanos the uncapped proposed duration in nanoseconds.
+   * @param request the request information.
+   * @return the capped duration if needed, otherwise the uncapped duration.
+   */
+  static long capDurationNanos(final long uncappedNanos, final Request<? extends Response> request) {
+    long timeoutDelta = System.nanoTime() + uncappedNanos - request.absoluteTimeout();
     if (timeoutDelta > 0) {
-      Duration cappedDuration = uncappedDuration.minus(Duration.ofNanos(timeoutDelta));
-      if (cappedDuration.isNegative()) {
-        return uncappedDuration; // something went wrong, return the uncapped one as a safety net
+      long cappedNanos = uncappedNanos - timeoutDelta;
+      if (cappedNanos < 0) {
+        return uncappedNanos; // something went wrong, return the uncapped one as a safety net
       }
-      return cappedDuration;
+      return cappedNanos;
+    }
+    return uncappedNanos;
+  }
 
+  /**
+   * Checks if the given strategy overrides {@link RetryStrategy#shouldRetry(Request, RetryReason)} of the base class.
+   * <p>
+   * Built-in strategies which are designed to be extended use this to only take their synchronous fast path if
+   * the decision has not been customized by a subclass.
+   *
+   * @param strategy the strategy instance to check.
+   * @param base the built-in class which implements the fast path.
+   * @return true if a subclass overrides the method.
+   */
+  static boolean overridesShouldRetry(final RetryStrategy strategy, final Class<? extends RetryStrategy> base) {
+    try {
+      return strategy.getClass().getMethod("shouldRetry", Request.class, RetryReason.class).getDeclaringClass() != base;
+    } catch (NoSuchMethodException e) {
+      return true;
     }
-    return uncappedDuration;
   }
 
   /**
@@ -113,24 +175,17 @@ public class RetryOrchestrator {
    * @return the retry duration.
    */
   private static Duration controlledBackoff(int retryAttempt) {
-    switch (retryAttempt) {
-      case 0:
-        return Duration.ofMillis(1);
-      case 1:
-        return Duration.ofMillis(10);
-      case 2:
-        return Duration.ofMillis(50);
-      case 3:
-        return Duration.ofMillis(100);
-      case 4:
-        return Duration.ofMillis(500);
-      default:
-        return Duration.ofMillis(1000);
+    if (retryAttempt < CONTROLLED_BACKOFF.length) {
+      return CONTROLLED_BACKOFF[retryAttempt];
     }
+    return CONTROLLED_BACKOFF[CONTROLLED_BACKOFF.length - 1];
   }
 
   /**
    * Helper method to perform the actual retry with the given duration.
+   * <p>
+   * Requests which cannot make progress before the topology changes are parked in the {@link RetryParking}
+   * of the core instead, which sends them again as soon as it does and falls back to the duration otherwise.
    *
    * @param ctx the core context into which timer the request is submitted.
    * @param request the request in question.
@@ -143,6 +198,13 @@ public class RetryOrchestrator {
       new RequestRetryScheduledEvent(duration, request.context(), request.getClass(), reason)
     );
     request.context().incrementRetryAttempts(duration, reason);
+    if (RetryParking.parks(reason)) {
+      RetryParking parking = ctx.core().retryParking();
+      if (parking != null) {
+        parking.park(request, reason, duration);
+        return;
+      }
+    }
     ctx.environment().timer().scheduleForRetry(ctx.core(), request, duration);
   }
 
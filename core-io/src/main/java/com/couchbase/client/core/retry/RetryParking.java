@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.retry;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.config.BucketConfig;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.deps.io.netty.util.Timeout;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.ScopedRequest;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds requests which wait for a retry until the topology changes, and sends them again as soon as it does.
+ * <p>
+ * Requests retried because of a not-my-vbucket response, a bucket which is still being opened, a collection map
+ * refresh in progress or a node which is not available yet cannot make progress before a new config has been
+ * applied or the collection map has been refreshed. Instead of blindly waiting for the backoff on the
+ * {@link com.couchbase.client.core.Timer}, they are parked here per retry reason and bucket and sent again once
+ * the {@link Core} reports a relevant change. The backoff is still scheduled as a fallback, whichever comes first
+ * sends the request.
+ * <p>
+ * Every parked request is counted as {@code cb.retry_parked} and the time it has been parked is recorded as
+ * {@code cb.retry_wakeups}, tagged with the retry reason and whether an event or the fallback woke it up.
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class RetryParking {
+
+  /**
+   * The retry reasons for which requests are parked until the topology changes.
+   */
+  private static final Set<RetryReason> PARKED_REASONS = EnumSet.of(
+    RetryReason.KV_NOT_MY_VBUCKET,
+    RetryReason.BUCKET_OPEN_IN_PROGRESS,
+    RetryReason.COLLECTION_MAP_REFRESH_IN_PROGRESS,
+    RetryReason.NODE_NOT_AVAILABLE
+  );
+
+  private static final String PARKED_METRIC = "cb.retry_parked";
+  private static final String WAKEUP_METRIC = "cb.retry_wakeups";
+  private static final String TRIGGER_EVENT = "event";
+  private static final String TRIGGER_TIMER = "timer";
+
+  private final Core core;
+
+  private final Map<Key, Set<Parked>> parked = new ConcurrentHashMap<>();
+
+  /**
+   * The revision of each bucket config seen last, to only wake up requests of buckets whose config changed.
+   */
+  private final Map<String, Long> bucketRevisions = new ConcurrentHashMap<>();
+
+  private final Map<RetryReason, Counter> parkedCounters = new ConcurrentHashMap<>();
+
+  private final Map<String, ValueRecorder> wakeupRecorders = new ConcurrentHashMap<>();
+
+  public RetryParking(final Core core) {
+    this.core = core;
+  }
+
+  /**
+   * Returns true if requests retried for the given reason are parked until the topology changes.
+   *
+   * @param reason the retry reason to check.
+   */
+  public static boolean parks(final RetryReason reason) {
+    return PARKED_REASONS.contains(reason);
+  }
+
+  /**
+   * Parks the request until a relevant topology change happens or the fallback duration elapsed.
+   *
+   * @param request the request to park.
+   * @param reason the reason why the request is retried.
+   * @param fallback the duration after which the request is sent again if no change happened in the meantime.
+   */
+  public void park(final Request<? extends Response> request, final RetryReason reason, final Duration fallback) {
+    Parked entry = new Parked(request, new Key(reason, bucket(request)));
+    Set<Parked> waiting = parked.computeIfAbsent(entry.key, k -> ConcurrentHashMap.newKeySet());
+    waiting.add(entry);
+
+    Timeout timeout = core.context().environment().timer().scheduleForRetry(
+      request,
+      fallback,
+      () -> release(entry, TRIGGER_TIMER)
+    );
+    if (timeout == null) {
+      // the timer cancelled the request right away, i.e. because too many requests are in retry
+      waiting.remove(entry);
+      return;
+    }
+    entry.timeout = timeout;
+    parkedCounter(reason).incrementBy(1);
+  }
+
+  /**
+   * Wakes up the requests waiting for a config change, to be called once a config has been applied.
+   * <p>
+   * Requests waiting on a bucket are only woken up if the config of that bucket changed, requests waiting
+   * for a node to become available are always woken up.
+   *
+   * @param config the config which has been applied.
+   */
+  public void configApplied(final ClusterConfig config) {
+    boolean anyBucketChanged = false;
+    for (BucketConfig bucketConfig : config.bucketConfigs().values()) {
+      Long previous = bucketRevisions.put(bucketConfig.name(), bucketConfig.rev());
+      if (previous == null || previous != bucketConfig.rev()) {
+        anyBucketChanged = true;
+        wakeUp(new Key(RetryReason.KV_NOT_MY_VBUCKET, bucketConfig.name()));
+        wakeUp(new Key(RetryReason.BUCKET_OPEN_IN_PROGRESS, bucketConfig.name()));
+      }
+    }
+    bucketRevisions.keySet().retainAll(config.bucketConfigs().keySet());
+
+    if (anyBucketChanged) {
+      wakeUp(new Key(RetryReason.KV_NOT_MY_VBUCKET, null));
+      wakeUp(new Key(RetryReason.BUCKET_OPEN_IN_PROGRESS, null));
+    }
+    for (Key key : parked.keySet()) {
+      if (key.reason == RetryReason.NODE_NOT_AVAILABLE) {
+        wakeUp(key);
+      }
+    }
+  }
+
+  /**
+   * Wakes up the requests waiting for the collection map of the bucket, to be called once a refresh completed.
+   *
+   * @param bucket the name of the bucket whose collection map has been refreshed.
+   */
+  public void collectionMapRefreshed(final String bucket) {
+    wakeUp(new Key(RetryReason.COLLECTION_MAP_REFRESH_IN_PROGRESS, bucket));
+    wakeUp(new Key(RetryReason.COLLECTION_MAP_REFRESH_IN_PROGRESS, null));
+  }
+
+  /**
+   * Returns the number of requests currently parked.
+   */
+  public int size() {
+    int size = 0;
+    for (Set<Parked> waiting : parked.values()) {
+      size += waiting.size();
+    }
+    return size;
+  }
+
+  private void wakeUp(final Key key) {
+    Set<Parked> waiting = parked.get(key);
+    if (waiting == null) {
+      return;
+    }
+    for (Parked entry : waiting) {
+      release(entry, TRIGGER_EVENT);
+    }
+  }
+
+  /**
+   * Sends the parked request again, unless it has been released already.
+   */
+  private void release(final Parked entry, final String trigger) {
+    if (!entry.released.compareAndSet(false, true)) {
+      return;
+    }
+
+    Set<Parked> waiting = parked.get(entry.key);
+    if (waiting != null) {
+      waiting.remove(entry);
+    }
+    if (TRIGGER_EVENT.equals(trigger)) {
+      core.context().environment().timer().cancelRetry(entry.timeout);
+    }
+    wakeupRecorder(entry.key.reason, trigger).recordValue(System.nanoTime() - entry.parkedAt);
+
+    if (!entry.request.completed()) {
+      core.send(entry.request, false);
+    }
+  }
+
+  private Counter parkedCounter(final RetryReason reason) {
+    return parkedCounters.computeIfAbsent(reason, r -> {
+      Map<String, String> tags = new HashMap<>(2);
+      tags.put("cb.retry_reason", r.name());
+      return core.context().environment().meter().counter(PARKED_METRIC, tags);
+    });
+  }
+
+  private ValueRecorder wakeupRecorder(final RetryReason reason, final String trigger) {
+    return wakeupRecorders.computeIfAbsent(reason.name() + "/" + trigger, k -> {
+      Map<String, String> tags = new HashMap<>(4);
+      tags.put("cb.retry_reason", reason.name());
+      tags.put("cb.wakeup", trigger);
+      return core.context().environment().meter().valueRecorder(WAKEUP_METRIC, tags);
+    });
+  }
+
+  private static String bucket(final Request<? extends Response> request) {
+    return request instanceof ScopedRequest ? ((ScopedRequest) request).bucket() : null;
+  }
+
+  private static class Parked {
+    private final Request<? extends Response> request;
+    private final Key key;
+    private final long parkedAt = System.nanoTime();
+    private final AtomicBoolean released = new AtomicBoolean();
+    private volatile Timeout timeout;
+
+    Parked(final Request<? extends Response> request, final Key key) {
+      this.request = request;
+      this.key = key;
+    }
+  }
+
+  /**
+   * Requests are parked per retry reason and bucket, the bucket is null if the request is not bound to one.
+   */
+  private static class Key {
+    private final RetryReason reason;
+    private final String bucket;
+
+    Key(final RetryReason reason, final String bucket) {
+      this.reason = reason;
+      this.bucket = bucket;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key key = (Key) o;
+      return reason == key.reason && Objects.equals(bucket, key.bucket);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(reason, bucket);
+    }
+  }
+
+}
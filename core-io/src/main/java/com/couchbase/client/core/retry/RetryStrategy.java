@@ -16,6 +16,7 @@
 
 package com.couchbase.client.core.retry;
 
+import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.Response;
 
@@ -25,6 +26,17 @@ import java.util.concurrent.CompletableFuture;
 
 public interface RetryStrategy {
 
+  /**
+   * Returned by {@link #retryDelayNanos(Request, RetryReason)} if the decision has to be made through
+   * {@link #shouldRetry(Request, RetryReason)} instead.
+   */
+  long DECIDE_ASYNC = 0;
+
+  /**
+   * Returned by {@link #retryDelayNanos(Request, RetryReason)} if the request should not be retried.
+   */
+  long NO_RETRY = -1;
+
   /**
    * Checks if the given request should be retried and how long the
    * retry delay should be.
@@ -35,4 +47,35 @@ public interface RetryStrategy {
    */
   CompletableFuture<RetryAction> shouldRetry(Request<? extends Response> request, RetryReason reason);
 
+  /**
+   * Synchronously checks if the given request should be retried and how long the retry delay should be.
+   * <p>
+   * This is a fast path for strategies which can make the decision right away, so that no future, action or
+   * duration needs to be allocated for every retry. It must come to the same decision as
+   * {@link #shouldRetry(Request, RetryReason)} and by default defers to it by returning {@link #DECIDE_ASYNC}.
+   * Since 0 is reserved for that purpose, a delay of zero has to be returned as 1 nanosecond.
+   *
+   * @param request the request to be checked.
+   * @param reason the reason why the request should be retried.
+   * @return the retry delay in nanoseconds, {@link #NO_RETRY} if it should not be retried or {@link #DECIDE_ASYNC}
+   *         if {@link #shouldRetry(Request, RetryReason)} should be used instead.
+   */
+  @Stability.Internal
+  default long retryDelayNanos(final Request<? extends Response> request, final RetryReason reason) {
+    return DECIDE_ASYNC;
+  }
+
+  /**
+   * Called once a request which uses this strategy completed successfully.
+   * <p>
+   * Strategies which base their decision on the overall success of requests (i.e. to limit retries to a
+   * fraction of the successful requests) can override this method, by default it does nothing. Note that it
+   * is called on the IO path, so it MUST NOT block.
+   *
+   * @param request the request which succeeded.
+   */
+  @Stability.Volatile
+  default void requestSucceeded(final Request<? extends Response> request) {
+  }
+
 }
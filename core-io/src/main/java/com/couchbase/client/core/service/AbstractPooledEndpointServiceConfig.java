@@ -40,14 +40,21 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
    */
   public static final Duration DEFAULT_IDLE_TIME = Duration.ofMillis(4500);
 
+  /**
+   * By default, up to 1024 requests per node wait for a free endpoint once all of them are busy.
+   */
+  public static final int DEFAULT_MAX_WAIT_QUEUE_SIZE = 1024;
+
   private final int minEndpoints;
   private final int maxEndpoints;
   private final Duration idleTime;
+  private final int maxWaitQueueSize;
 
   AbstractPooledEndpointServiceConfig(Builder<?> builder) {
     this.minEndpoints = builder.minEndpoints;
     this.maxEndpoints = builder.maxEndpoints;
     this.idleTime = requireNonNull(builder.idleTime);
+    this.maxWaitQueueSize = builder.maxWaitQueueSize;
   }
 
   @Override
@@ -70,12 +77,18 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
     return false;
   }
 
+  @Override
+  public int maxWaitQueueSize() {
+    return maxWaitQueueSize;
+  }
+
   // public so methods can be invoked via reflection without requiring Method.setAccessible(true)
   public abstract static class Builder<SELF extends Builder<?>> {
 
     private int minEndpoints;
     private int maxEndpoints;
     private Duration idleTime;
+    private int maxWaitQueueSize = DEFAULT_MAX_WAIT_QUEUE_SIZE;
 
     public SELF minEndpoints(int minEndpoints) {
       if (minEndpoints < 0) {
@@ -103,6 +116,18 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
       return self();
     }
 
+    /**
+     * Sets the number of requests which wait for a free endpoint once all endpoints are busy and the pool
+     * cannot grow anymore. Requests beyond this limit fail fast, 0 sends them into retry instead.
+     */
+    public SELF maxWaitQueueSize(int maxWaitQueueSize) {
+      if (maxWaitQueueSize < 0) {
+        throw InvalidArgumentException.fromMessage("maxWaitQueueSize must be >= 0 but got " + maxWaitQueueSize);
+      }
+      this.maxWaitQueueSize = maxWaitQueueSize;
+      return self();
+    }
+
     @SuppressWarnings("unchecked")
     private SELF self() {
       return (SELF) this;
@@ -115,6 +140,7 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
       "minEndpoints=" + minEndpoints +
       ", maxEndpoints=" + maxEndpoints +
       ", idleTime=" + idleTime +
+      ", maxWaitQueueSize=" + maxWaitQueueSize +
       '}';
   }
 }
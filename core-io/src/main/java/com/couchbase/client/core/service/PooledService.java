@@ -16,6 +16,9 @@
 
 package com.couchbase.client.core.service;
 
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
 import com.couchbase.client.core.cnc.events.service.IdleEndpointRemovedEvent;
 import com.couchbase.client.core.cnc.events.service.ServiceConnectInitiatedEvent;
 import com.couchbase.client.core.cnc.events.service.ServiceDisconnectInitiatedEvent;
@@ -24,6 +27,7 @@ import com.couchbase.client.core.diagnostics.EndpointDiagnostics;
 import com.couchbase.client.core.endpoint.Endpoint;
 import com.couchbase.client.core.endpoint.EndpointContext;
 import com.couchbase.client.core.endpoint.EndpointState;
+import com.couchbase.client.core.msg.CancellationReason;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.Response;
 import com.couchbase.client.core.retry.RetryOrchestrator;
@@ -32,8 +36,10 @@ import com.couchbase.client.core.util.CompositeStateful;
 import reactor.core.publisher.Flux;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -95,6 +101,33 @@ abstract class PooledService implements Service {
    */
   private final List<Endpoint> reservedEndpoints;
 
+  /**
+   * Requests waiting in FIFO order for an endpoint to become free, once the pool cannot grow anymore.
+   * <p>
+   * All access is guarded by synchronizing on the queue itself.
+   */
+  private final Deque<WaitingRequest> waitQueue = new ArrayDeque<>();
+
+  /**
+   * The maximum number of requests in the {@link #waitQueue}, 0 if requests should be retried instead.
+   */
+  private final int maxWaitQueueSize;
+
+  /**
+   * Records the number of waiting requests every time one is enqueued, only present if waiting is enabled.
+   */
+  private final ValueRecorder waitQueueDepthRecorder;
+
+  /**
+   * Records how long requests waited for an endpoint, only present if waiting is enabled.
+   */
+  private final ValueRecorder waitTimeRecorder;
+
+  /**
+   * Counts the requests which failed fast because the wait queue was full, only present if waiting is enabled.
+   */
+  private final Counter waitQueueRejections;
+
   /**
    * Creates a new {@link PooledService}.
    *
@@ -153,6 +186,20 @@ abstract class PooledService implements Service {
     this.disconnected = new AtomicBoolean(false);
     this.serviceContext = serviceContext;
     this.fixedPool = serviceConfig.minEndpoints() == serviceConfig.maxEndpoints();
+    this.maxWaitQueueSize = serviceConfig.maxWaitQueueSize();
+    if (maxWaitQueueSize > 0) {
+      Meter meter = serviceContext.environment().meter();
+      Map<String, String> tags = new HashMap<>(4);
+      tags.put("cb.service", serviceContext.serviceType().ident());
+      tags.put("cb.remote_hostname", serviceContext.remoteHostname());
+      this.waitQueueDepthRecorder = meter.valueRecorder("cb.service_queue_depth", tags);
+      this.waitTimeRecorder = meter.valueRecorder("cb.service_queue_waits", tags);
+      this.waitQueueRejections = meter.counter("cb.service_queue_rejections", tags);
+    } else {
+      this.waitQueueDepthRecorder = null;
+      this.waitTimeRecorder = null;
+      this.waitQueueRejections = null;
+    }
 
     scheduleCleanIdleConnections();
   }
@@ -266,6 +313,24 @@ abstract class PooledService implements Service {
    */
   protected abstract Endpoint createEndpoint();
 
+  /**
+   * Creates a new endpoint and, if requests may wait for a free endpoint, hooks it up to dispatch them
+   * once it connected or completed a request.
+   *
+   * @return the created endpoint.
+   */
+  private Endpoint createPooledEndpoint() {
+    Endpoint endpoint = createEndpoint();
+    if (maxWaitQueueSize > 0) {
+      endpoint.onRequestCompletion(this::dispatchWaiting);
+      endpoint
+        .states()
+        .filter(s -> s == EndpointState.CONNECTED)
+        .subscribe(s -> dispatchWaiting());
+    }
+    return endpoint;
+  }
+
   /**
    * Subclass implements this method to pick their selection strategy of choice.
    *
@@ -288,11 +353,70 @@ abstract class PooledService implements Service {
 
     if (!fixedPool && (endpoints.size() + reservedEndpoints.size()) < serviceConfig.maxEndpoints()) {
       connectReservedEndpoint(request);
+    } else if (maxWaitQueueSize > 0) {
+      enqueue(request);
     } else {
       RetryOrchestrator.maybeRetry(serviceContext, request, RetryReason.ENDPOINT_NOT_AVAILABLE);
     }
   }
 
+  /**
+   * Adds the request to the wait queue, or fails it fast if the queue is full.
+   * <p>
+   * Right after adding, the queue is dispatched once so that a request cannot get stuck if the last busy
+   * endpoint completed its request between the selection in {@link #send(Request)} and the enqueue.
+   *
+   * @param request the request which did not find a free endpoint.
+   */
+  private void enqueue(final Request<? extends Response> request) {
+    synchronized (waitQueue) {
+      if (waitQueue.size() >= maxWaitQueueSize) {
+        waitQueue.removeIf(waiting -> waiting.request.completed());
+      }
+      if (waitQueue.size() < maxWaitQueueSize) {
+        waitQueue.add(new WaitingRequest(request));
+        waitQueueDepthRecorder.recordValue(waitQueue.size());
+        dispatchWaiting();
+        return;
+      }
+    }
+
+    waitQueueRejections.incrementBy(1);
+    request.cancel(CancellationReason.TOO_MANY_REQUESTS_WAITING);
+  }
+
+  /**
+   * Hands waiting requests in FIFO order to free endpoints, until the queue is empty or no endpoint is free.
+   */
+  private void dispatchWaiting() {
+    synchronized (waitQueue) {
+      WaitingRequest next;
+      while ((next = waitQueue.peek()) != null) {
+        if (next.request.completed()) {
+          waitQueue.poll();
+          continue;
+        }
+
+        Endpoint found = endpoints.isEmpty() ? null : selectionStrategy().select(next.request, endpoints);
+        if (found == null) {
+          return;
+        }
+        waitQueue.poll();
+        waitTimeRecorder.recordValue(System.nanoTime() - next.enqueuedAt);
+        found.send(next.request);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of requests currently waiting for a free endpoint.
+   */
+  int waitQueueSize() {
+    synchronized (waitQueue) {
+      return waitQueue.size();
+    }
+  }
+
   /**
    * Connect the reserved endpoint and dispatch the request into it if possible.
    * <p>
@@ -303,7 +427,7 @@ abstract class PooledService implements Service {
    */
   private synchronized <R extends Request<? extends Response>> void connectReservedEndpoint(final R request) {
     if (!disconnected.get()) {
-      Endpoint endpoint = createEndpoint();
+      Endpoint endpoint = createPooledEndpoint();
       endpointStates.register(endpoint, endpoint);
 
       endpoint
@@ -350,7 +474,7 @@ abstract class PooledService implements Service {
       ));
 
       for (int i = 0; i < serviceConfig.minEndpoints(); i++) {
-        Endpoint endpoint = createEndpoint();
+        Endpoint endpoint = createPooledEndpoint();
         endpointStates.register(endpoint, endpoint);
         endpoint.connect();
         endpoints.add(endpoint);
@@ -376,6 +500,15 @@ abstract class PooledService implements Service {
       }
       endpoints.clear();
       reservedEndpoints.clear();
+
+      List<WaitingRequest> stillWaiting;
+      synchronized (waitQueue) {
+        stillWaiting = new ArrayList<>(waitQueue);
+        waitQueue.clear();
+      }
+      for (WaitingRequest waiting : stillWaiting) {
+        RetryOrchestrator.maybeRetry(serviceContext, waiting.request, RetryReason.ENDPOINT_NOT_AVAILABLE);
+      }
     }
   }
 
@@ -401,4 +534,16 @@ abstract class PooledService implements Service {
       .map(Endpoint::diagnostics);
   }
 
+  /**
+   * A request in the wait queue, together with the time it has been enqueued.
+   */
+  private static class WaitingRequest {
+    private final Request<? extends Response> request;
+    private final long enqueuedAt = System.nanoTime();
+
+    WaitingRequest(final Request<? extends Response> request) {
+      this.request = request;
+    }
+  }
+
 }
@@ -30,6 +30,15 @@ public interface ServiceConfig {
 
   boolean pipelined();
 
+  /**
+   * Returns the maximum number of requests which wait for a free endpoint once the pool cannot grow anymore.
+   * <p>
+   * If 0, requests which do not find a free endpoint are sent into retry instead.
+   */
+  default int maxWaitQueueSize() {
+    return 0;
+  }
+
   default public Map<String, Object> exportAsMap() {
     Map<String, Object> exported = new LinkedHashMap<>();
     exported.put("min", minEndpoints());
@@ -18,6 +18,8 @@ package com.couchbase.client.core.cnc;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.startsWith;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -139,6 +141,74 @@ class LoggingEventConsumerTest {
     verify(logger, times(1)).info("[com.couchbase.io][MyEvent][11s]");
   }
 
+  @Test
+  void formatsAsJsonIfEnabled() {
+    LoggingEventConsumer loggingEventConsumer = LoggingEventConsumer.create(
+      LoggerConfig.enableJsonOutput(true).customLogger(logger).build()
+    );
+
+    Map<String, Object> ctxData = new HashMap<>();
+    ctxData.put("foo", true);
+    Event event = new MyEvent(Event.Severity.INFO, Event.Category.IO, Duration.ofMillis(123),
+      new MyContext(ctxData));
+    loggingEventConsumer.accept(event);
+    verify(logger, times(1)).info("{\"category\":\"com.couchbase.io\",\"event\":\"MyEvent\","
+      + "\"severity\":\"INFO\",\"duration_us\":123000,\"context\":{\"foo\":true}}");
+  }
+
+  @Test
+  void logsAsyncOnlyIfLevelEnabled() {
+    when(logger.isInfoEnabled()).thenReturn(true);
+    LoggingEventConsumer loggingEventConsumer = LoggingEventConsumer.create(
+      LoggerConfig.enableAsyncLogging(true).customLogger(logger).build()
+    );
+
+    try {
+      loggingEventConsumer.accept(new EventWithDescription("not enabled"));
+      loggingEventConsumer.accept(new MyEvent(Event.Severity.INFO, Event.Category.IO, Duration.ZERO, null));
+
+      verify(logger, timeout(5000)).info("[com.couchbase.io][MyEvent]");
+      verify(logger, never()).debug(startsWith("[com.couchbase.io][EventWithDescription]"));
+    } finally {
+      loggingEventConsumer.shutdown();
+    }
+  }
+
+  @Test
+  void aggregatesRepeatedEventsWhenAsync() {
+    when(logger.isDebugEnabled()).thenReturn(true);
+    LoggingEventConsumer loggingEventConsumer = LoggingEventConsumer.create(
+      LoggerConfig.enableAsyncLogging(true).repeatedEventsWindow(Duration.ofMinutes(1)).customLogger(logger).build()
+    );
+
+    for (int i = 0; i < 5; i++) {
+      loggingEventConsumer.accept(new EventWithDescription("repeated"));
+    }
+    loggingEventConsumer.accept(new EventWithDescription("other"));
+
+    verify(logger, timeout(5000)).debug("[com.couchbase.io][EventWithDescription][3600s] other");
+    verify(logger, times(1)).debug("[com.couchbase.io][EventWithDescription][3600s] repeated");
+
+    loggingEventConsumer.shutdown();
+    verify(logger, timeout(5000))
+      .debug(startsWith("[com.couchbase.io][EventWithDescription] Suppressed 4 repeated events in the last "));
+  }
+
+  @Test
+  void writesPendingEventsBeforeShutdownReturns() {
+    when(logger.isDebugEnabled()).thenReturn(true);
+    LoggingEventConsumer loggingEventConsumer = LoggingEventConsumer.create(
+      LoggerConfig.enableAsyncLogging(true).repeatedEventsWindow(Duration.ZERO).customLogger(logger).build()
+    );
+
+    for (int i = 0; i < 1000; i++) {
+      loggingEventConsumer.accept(new EventWithDescription("event " + i));
+    }
+    loggingEventConsumer.shutdown();
+
+    verify(logger, times(1000)).debug(startsWith("[com.couchbase.io][EventWithDescription][3600s] event "));
+  }
+
   static class MyEvent extends AbstractEvent {
     MyEvent(Severity severity, Category category, Duration duration, Context context) {
       super(severity, category, duration, context);
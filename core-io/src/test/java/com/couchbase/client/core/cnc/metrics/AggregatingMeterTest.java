@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.events.metrics.LatencyMetricsAggregatedEvent;
+import com.couchbase.client.core.env.AggregatingMeterConfig;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Verifies the functionality of the {@link AggregatingMeter}.
+ */
+class AggregatingMeterTest {
+
+  @Test
+  void reportsConnectTimingsNextToResponses() {
+    EventBus eventBus = mock(EventBus.class);
+    AggregatingMeter meter = AggregatingMeter.create(eventBus, AggregatingMeterConfig.create());
+
+    Map<String, String> tags = new HashMap<>();
+    tags.put("cb.service", "kv");
+    tags.put("cb.remote_hostname", "127.0.0.1");
+    meter.valueRecorder("cb.responses", tags).recordValue(100);
+
+    Map<String, String> connectTags = new HashMap<>(tags);
+    connectTags.put("cb.connect_phase", "total");
+    meter.valueRecorder("cb.connects", connectTags).recordValue(5000);
+
+    meter.dumpMetrics();
+
+    ArgumentCaptor<LatencyMetricsAggregatedEvent> captor = ArgumentCaptor.forClass(LatencyMetricsAggregatedEvent.class);
+    verify(eventBus).publish(captor.capture());
+    String description = captor.getValue().description();
+    assertTrue(description.contains("\"kv\":{\"127.0.0.1\":{\"total_count\":1"), description);
+    assertTrue(description.contains(
+      "\"metrics\":{\"cb.connects\":{\"cb.connect_phase=total,cb.remote_hostname=127.0.0.1,cb.service=kv\":{"
+    ), description);
+  }
+
+  @Test
+  void reportsRecordersWithoutServiceAndHost() {
+    EventBus eventBus = mock(EventBus.class);
+    AggregatingMeter meter = AggregatingMeter.create(eventBus, AggregatingMeterConfig.create());
+
+    meter.valueRecorder("cb.bootstrap", Collections.singletonMap("cb.bootstrap_stage", "bucket_open"))
+      .recordValue(2000);
+    meter.valueRecorder("cb.retry_wakeups", Collections.emptyMap()).recordValue(3000);
+    meter.valueRecorder("cb.responses", Collections.emptyMap()).recordValue(4000);
+
+    meter.dumpMetrics();
+
+    ArgumentCaptor<LatencyMetricsAggregatedEvent> captor = ArgumentCaptor.forClass(LatencyMetricsAggregatedEvent.class);
+    verify(eventBus).publish(captor.capture());
+    String description = captor.getValue().description();
+    assertTrue(description.contains("\"cb.bootstrap\":{\"cb.bootstrap_stage=bucket_open\":{"), description);
+    assertTrue(description.contains("\"cb.retry_wakeups\":{\"_none\":{"), description);
+    assertTrue(description.contains("\"_none\":{\"_none\":{"), description);
+  }
+
+  @Test
+  void reportsCountsWithoutConversion() {
+    EventBus eventBus = mock(EventBus.class);
+    AggregatingMeter meter = AggregatingMeter.create(eventBus, AggregatingMeterConfig.create());
+
+    Map<String, String> tags = new HashMap<>();
+    tags.put("cb.service", "query");
+    tags.put("cb.remote_hostname", "127.0.0.1");
+    meter.valueRecorder("cb.service_queue_depth", tags).recordValue(12);
+
+    meter.dumpMetrics();
+
+    ArgumentCaptor<LatencyMetricsAggregatedEvent> captor = ArgumentCaptor.forClass(LatencyMetricsAggregatedEvent.class);
+    verify(eventBus).publish(captor.capture());
+    String description = captor.getValue().description();
+    assertTrue(description.contains("\"percentiles\":{\"50.0\":12.0"), description);
+    assertFalse(description.contains("percentiles_us"), description);
+  }
+
+}
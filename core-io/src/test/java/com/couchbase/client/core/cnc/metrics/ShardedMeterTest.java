@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.cnc.events.metrics.MeterFlushFailedEvent;
+import com.couchbase.client.core.deps.org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Verifies the functionality of the {@link ShardedMeter} and its {@link ShardedHistogram}.
+ */
+class ShardedMeterTest {
+
+  @Test
+  void mergesShardsOfAllThreads() throws Exception {
+    ShardedHistogram histogram = new ShardedHistogram();
+
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread thread = new Thread(() -> {
+        for (int j = 0; j < 1000; j++) {
+          histogram.recordValue(100);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    histogram.recordValue(5000);
+
+    assertEquals(5, histogram.shards());
+    Histogram merged = histogram.intervalHistogram();
+    assertEquals(4001, merged.getTotalCount());
+    assertTrue(merged.getMaxValue() >= 5000);
+
+    // shards of terminated threads are dropped once merged, the interval is reset
+    assertEquals(1, histogram.shards());
+    assertEquals(0, histogram.intervalHistogram().getTotalCount());
+  }
+
+  @Test
+  void flushesIntoWrappedMeter() {
+    AtomicLong counted = new AtomicLong();
+    List<Long> recorded = new ArrayList<>();
+    Meter delegate = new Meter() {
+      @Override
+      public Counter counter(String name, Map<String, String> tags) {
+        return counted::addAndGet;
+      }
+
+      @Override
+      public ValueRecorder valueRecorder(String name, Map<String, String> tags) {
+        return recorded::add;
+      }
+    };
+
+    ShardedMeter meter = ShardedMeter.wrap(delegate);
+    Counter counter = meter.counter("cb.requests", Collections.emptyMap());
+    ValueRecorder recorder = meter.valueRecorder("cb.responses", Collections.emptyMap());
+    assertSame(recorder, meter.valueRecorder("cb.responses", Collections.emptyMap()));
+
+    counter.incrementBy(2);
+    counter.incrementBy(3);
+    recorder.recordValue(1000);
+    recorder.recordValue(1000);
+    recorder.recordValue(250000);
+
+    assertEquals(0, counted.get());
+    assertTrue(recorded.isEmpty());
+
+    meter.flush();
+    assertEquals(5, counted.get());
+    assertEquals(3, recorded.size());
+    assertEquals(1000, recorded.get(0), 10);
+    assertEquals(1000, recorded.get(1), 10);
+    assertEquals(250000, recorded.get(2), 2500);
+
+    meter.flush();
+    assertEquals(5, counted.get());
+    assertEquals(3, recorded.size());
+  }
+
+  @Test
+  void publishesFlushFailures() {
+    EventBus eventBus = mock(EventBus.class);
+    Meter delegate = new Meter() {
+      @Override
+      public Counter counter(String name, Map<String, String> tags) {
+        return number -> {
+          throw new IllegalStateException("broken");
+        };
+      }
+
+      @Override
+      public ValueRecorder valueRecorder(String name, Map<String, String> tags) {
+        return value -> { };
+      }
+    };
+
+    ShardedMeter meter = ShardedMeter.wrap(delegate, Duration.ofMillis(10), eventBus);
+    meter.start().block();
+    try {
+      meter.counter("cb.requests", Collections.emptyMap()).incrementBy(1);
+      verify(eventBus, timeout(5000)).publish(any(MeterFlushFailedEvent.class));
+    } finally {
+      meter.stop(Duration.ofSeconds(1)).onErrorResume(e -> Mono.empty()).block();
+    }
+  }
+
+}
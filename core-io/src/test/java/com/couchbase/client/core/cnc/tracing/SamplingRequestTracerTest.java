@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.tracing;
+
+import com.couchbase.client.core.cnc.RequestSpan;
+import com.couchbase.client.core.cnc.RequestTracer;
+import com.couchbase.client.core.env.SamplingRequestTracerConfig;
+import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.core.msg.RequestContext;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link SamplingRequestTracer}.
+ */
+class SamplingRequestTracerTest {
+
+  @Test
+  void samplesEverythingByDefault() {
+    RecordingTracer recording = new RecordingTracer();
+    RequestTracer tracer = SamplingRequestTracer.wrap(recording);
+
+    RequestSpan parent = tracer.requestSpan("cb.get", null);
+    RequestSpan child = tracer.requestSpan("cb.dispatch_to_server", parent);
+    child.end();
+    parent.end();
+
+    assertEquals(2, recording.ended.size());
+    assertSame(parent, recording.ended.get(1));
+  }
+
+  @Test
+  void shortCircuitsUnsampledRequestsAndTheirChildren() {
+    RecordingTracer recording = new RecordingTracer();
+    RequestTracer tracer = SamplingRequestTracer.wrap(recording, SamplingRequestTracerConfig.ratio(0.0).build());
+
+    RequestSpan parent = tracer.requestSpan("cb.get", null);
+    assertSame(NoopRequestSpan.INSTANCE, parent);
+    assertSame(NoopRequestSpan.INSTANCE, tracer.requestSpan("cb.dispatch_to_server", parent));
+    assertEquals(0, recording.created);
+  }
+
+  @Test
+  void limitsSampledRequestsPerSecond() {
+    RecordingTracer recording = new RecordingTracer();
+    RequestTracer tracer = SamplingRequestTracer.wrap(
+      recording,
+      SamplingRequestTracerConfig.maxSampledPerSecond(5).build()
+    );
+
+    int sampled = 0;
+    for (int i = 0; i < 100; i++) {
+      if (tracer.requestSpan("cb.get", null) != NoopRequestSpan.INSTANCE) {
+        sampled++;
+      }
+    }
+
+    // a second boundary could be crossed in the middle, allowing another batch through
+    assertTrue(sampled >= 5 && sampled <= 10, "sampled: " + sampled);
+  }
+
+  @Test
+  void followsSampledParentsPassedIn() {
+    RecordingTracer recording = new RecordingTracer();
+    RequestTracer tracer = SamplingRequestTracer.wrap(recording, SamplingRequestTracerConfig.ratio(0.0).build());
+
+    RequestSpan userParent = recording.requestSpan("user", null);
+    RequestSpan span = tracer.requestSpan("cb.get", userParent);
+    assertNotSame(NoopRequestSpan.INSTANCE, span);
+  }
+
+  @Test
+  void dropsFastUnsampledRequestsWithTailThreshold() {
+    RecordingTracer recording = new RecordingTracer();
+    RequestTracer tracer = SamplingRequestTracer.wrap(
+      recording,
+      SamplingRequestTracerConfig.ratio(0.0).tailThreshold(Duration.ofHours(1)).build()
+    );
+
+    RequestSpan span = tracer.requestSpan("cb.get", null);
+    span.setAttribute("db.system", "couchbase");
+    span.end();
+
+    assertEquals(0, recording.created);
+  }
+
+  @Test
+  void replaysSlowUnsampledRequestsWithTailThreshold() {
+    RecordingTracer recording = new RecordingTracer();
+    RequestTracer tracer = SamplingRequestTracer.wrap(
+      recording,
+      SamplingRequestTracerConfig.ratio(0.0).tailThreshold(Duration.ZERO).build()
+    );
+
+    Instant before = Instant.now();
+    RequestSpan span = tracer.requestSpan("cb.get", null);
+    assertSame(NoopRequestSpan.INSTANCE, tracer.requestSpan("cb.dispatch_to_server", span));
+    span.setAttribute("db.system", "couchbase");
+    span.addEvent("cb.retry", before);
+    span.end();
+
+    assertEquals(1, recording.ended.size());
+    RecordedSpan replayed = recording.ended.get(0);
+    assertEquals("cb.get", replayed.name);
+    assertNull(replayed.parent);
+    assertTrue(!replayed.startTime.isBefore(before.minusMillis(1)));
+    assertEquals("couchbase", replayed.attributes.get("db.system"));
+    assertEquals(before, replayed.events.get("cb.retry"));
+  }
+
+  @Test
+  void buffersAttributesFromConcurrentThreads() throws Exception {
+    RecordingTracer recording = new RecordingTracer();
+    RequestTracer tracer = SamplingRequestTracer.wrap(
+      recording,
+      SamplingRequestTracerConfig.ratio(0.0).tailThreshold(Duration.ZERO).build()
+    );
+
+    RequestSpan span = tracer.requestSpan("cb.get", null);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      int thread = i;
+      threads.add(new Thread(() -> {
+        for (int j = 0; j < 1000; j++) {
+          span.setAttribute("attr-" + thread + "-" + j, "value");
+          span.addEvent("event-" + thread + "-" + j, Instant.now());
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    span.end();
+
+    RecordedSpan replayed = recording.ended.get(0);
+    assertEquals(4000, replayed.attributes.size());
+    assertEquals(4000, replayed.events.size());
+  }
+
+  @Test
+  void rejectsInvalidRatio() {
+    assertThrows(InvalidArgumentException.class, () -> SamplingRequestTracerConfig.ratio(1.5));
+    assertThrows(InvalidArgumentException.class, () -> SamplingRequestTracerConfig.maxSampledPerSecond(-1));
+    assertThrows(InvalidArgumentException.class, () -> SamplingRequestTracerConfig.tailThreshold(null));
+    assertThrows(
+      InvalidArgumentException.class,
+      () -> SamplingRequestTracerConfig.tailThreshold(Duration.ofMillis(-1))
+    );
+  }
+
+  private static class RecordingTracer implements RequestTracer {
+
+    private final List<RecordedSpan> ended = new ArrayList<>();
+    private int created;
+
+    @Override
+    public RequestSpan requestSpan(final String name, final RequestSpan parent) {
+      return requestSpan(name, parent, null);
+    }
+
+    @Override
+    public RequestSpan requestSpan(final String name, final RequestSpan parent, final Instant startTime) {
+      created++;
+      return new RecordedSpan(this, name, parent, startTime);
+    }
+
+    @Override
+    public Mono<Void> start() {
+      return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> stop(final Duration timeout) {
+      return Mono.empty();
+    }
+  }
+
+  private static class RecordedSpan implements RequestSpan {
+
+    private final RecordingTracer tracer;
+    private final String name;
+    private final RequestSpan parent;
+    private final Instant startTime;
+    private final Map<String, String> attributes = new HashMap<>();
+    private final Map<String, Instant> events = new HashMap<>();
+
+    RecordedSpan(final RecordingTracer tracer, final String name, final RequestSpan parent, final Instant startTime) {
+      this.tracer = tracer;
+      this.name = name;
+      this.parent = parent;
+      this.startTime = startTime;
+    }
+
+    @Override
+    public void setAttribute(final String key, final String value) {
+      attributes.put(key, value);
+    }
+
+    @Override
+    public void addEvent(final String name, final Instant timestamp) {
+      events.put(name, timestamp);
+    }
+
+    @Override
+    public void end() {
+      tracer.ended.add(this);
+    }
+
+    @Override
+    public void requestContext(final RequestContext requestContext) {
+    }
+  }
+
+}
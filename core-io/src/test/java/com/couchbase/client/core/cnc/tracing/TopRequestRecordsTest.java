@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.tracing;
+
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.service.ServiceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link TopRequestRecords}.
+ */
+class TopRequestRecordsTest {
+
+  @Test
+  void keepsSlowestRecordsInDescendingOrder() {
+    TopRequestRecords records = new TopRequestRecords(3);
+    for (long latency : new long[] { 5, 1, 9, 3, 7, 2, 8 }) {
+      records.add(record(latency));
+    }
+
+    assertEquals(7, records.count());
+    assertEquals(asList(9L, 8L, 7L), latencies(records.drain()));
+    assertTrue(records.isEmpty());
+    assertEquals(0, records.count());
+  }
+
+  @Test
+  void keepsAllRecordsBelowCapacity() {
+    TopRequestRecords records = new TopRequestRecords(10);
+    records.add(record(2));
+    records.add(record(4));
+
+    assertEquals(asList(4L, 2L), latencies(records.drain()));
+  }
+
+  @Test
+  void onlyCountsWithZeroCapacity() {
+    TopRequestRecords records = new TopRequestRecords(0);
+    records.add(record(2));
+
+    assertTrue(records.isEmpty());
+    assertEquals(1, records.count());
+  }
+
+  @Test
+  void snapshotsRequestProperties() {
+    RequestRecord record = record(1500);
+    assertEquals(ServiceType.KV, record.serviceType());
+    assertEquals(1500, record.totalLatency());
+    assertEquals(2500, record.timeoutMillis());
+    assertEquals("0x1", record.operationId());
+  }
+
+  private static List<Long> latencies(final List<RequestRecord> records) {
+    return records.stream().map(RequestRecord::totalLatency).collect(Collectors.toList());
+  }
+
+  private static RequestRecord record(final long latency) {
+    Request<?> request = mock(Request.class);
+    RequestContext ctx = mock(RequestContext.class);
+    when(ctx.logicalRequestLatency()).thenReturn(latency);
+    when(request.context()).thenReturn(ctx);
+    when(request.serviceType()).thenReturn(ServiceType.KV);
+    when(request.timeout()).thenReturn(Duration.ofMillis(2500));
+    when(request.operationId()).thenReturn("0x1");
+    return RequestRecord.of(request);
+  }
+
+}
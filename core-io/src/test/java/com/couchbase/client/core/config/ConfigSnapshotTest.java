@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link ConfigSnapshot}.
+ */
+class ConfigSnapshotTest {
+
+  @Test
+  void isEmptyIfFileDoesNotExist(@TempDir Path dir) throws Exception {
+    ConfigSnapshot snapshot = ConfigSnapshot.load(dir.resolve("missing.json"));
+    assertFalse(snapshot.global().isPresent());
+    assertFalse(snapshot.bucket("default").isPresent());
+  }
+
+  @Test
+  void roundTripsConfigsAndManifests(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("nested").resolve("topology.json");
+    ConfigSnapshot snapshot = ConfigSnapshot.empty(file);
+    snapshot.updateGlobal(new ProposedGlobalConfigContext("{\"rev\":1,\"host\":\"$HOST\"}", "10.0.0.1"));
+    snapshot.updateBucket(new ProposedBucketConfigContext("a", "{\"rev\":2}", "10.0.0.2"));
+    snapshot.updateBucket(new ProposedBucketConfigContext("b", "{\"rev\":3}", "10.0.0.3"));
+    snapshot.updateManifest("a", "{\"uid\":\"0\"}");
+    snapshot.removeBucket("b");
+    snapshot.write();
+
+    ConfigSnapshot loaded = ConfigSnapshot.load(file);
+    assertEquals("{\"rev\":1,\"host\":\"10.0.0.1\"}", loaded.global().get().config());
+    assertEquals("10.0.0.1", loaded.global().get().origin());
+    assertEquals("{\"rev\":2}", loaded.bucket("a").get().config());
+    assertEquals("10.0.0.2", loaded.bucket("a").get().origin());
+    assertEquals("{\"uid\":\"0\"}", loaded.manifest("a").get());
+    assertFalse(loaded.bucket("b").isPresent());
+    assertFalse(Files.exists(dir.resolve("nested").resolve("topology.json.tmp")));
+  }
+
+  @Test
+  void ignoresSnapshotWithDifferentVersion(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("topology.json");
+    Files.write(file, "{\"version\":0,\"buckets\":{\"a\":{\"config\":\"{}\",\"origin\":\"h\"}}}"
+      .getBytes(StandardCharsets.UTF_8));
+    assertFalse(ConfigSnapshot.load(file).bucket("a").isPresent());
+
+    Files.write(file, ("{\"version\":" + ConfigSnapshot.VERSION + ",\"buckets\":{\"a\":{\"config\":\"{}\",\"origin\":\"h\"}}}")
+      .getBytes(StandardCharsets.UTF_8));
+    assertTrue(ConfigSnapshot.load(file).bucket("a").isPresent());
+  }
+
+}
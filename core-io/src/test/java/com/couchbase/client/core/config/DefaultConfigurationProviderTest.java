@@ -18,23 +18,40 @@ package com.couchbase.client.core.config;
 
 import com.couchbase.client.core.Core;
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.cnc.events.metrics.LatencyMetricsAggregatedEvent;
+import com.couchbase.client.core.cnc.metrics.AggregatingMeter;
+import com.couchbase.client.core.env.AggregatingMeterConfig;
 import com.couchbase.client.core.env.Authenticator;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.env.IoConfig;
 import com.couchbase.client.core.env.NetworkResolution;
 import com.couchbase.client.core.env.PasswordAuthenticator;
 import com.couchbase.client.core.env.SeedNode;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.msg.kv.GetCollectionManifestRequest;
+import com.couchbase.client.core.msg.kv.GetCollectionManifestResponse;
 import com.couchbase.client.core.node.NodeIdentifier;
+import com.couchbase.client.core.util.UnsignedLEB128;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.MonoProcessor;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
@@ -44,11 +61,16 @@ import java.util.function.Consumer;
 
 import static com.couchbase.client.test.Util.readResource;
 import static com.couchbase.client.test.Util.waitUntilCondition;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -355,6 +377,282 @@ class DefaultConfigurationProviderTest {
     latch.await(5, TimeUnit.SECONDS);
   }
 
+  /**
+   * Makes sure that no more seed nodes than configured are asked for a bucket config in parallel.
+   */
+  @Test
+  void limitsParallelBucketConfigLoaders() {
+    Core core = mock(Core.class);
+    CoreEnvironment environment = CoreEnvironment
+      .builder()
+      .ioConfig(IoConfig.maxParallelConfigLoaders(2))
+      .build();
+    CoreContext ctx = new CoreContext(core, 1, environment, mock(Authenticator.class));
+    when(core.context()).thenReturn(ctx);
+
+    Set<SeedNode> seedNodes = new HashSet<>();
+    for (int i = 1; i <= 5; i++) {
+      seedNodes.add(SeedNode.create("10.0.0." + i));
+    }
+
+    Set<String> asked = Collections.synchronizedSet(new HashSet<>());
+    ConfigurationProvider cp = new DefaultConfigurationProvider(core, seedNodes) {
+      @Override
+      protected Mono<ProposedBucketConfigContext> loadBucketConfigForSeed(NodeIdentifier identifier, int mappedKvPort,
+                                                                          int mappedManagerPort, String name,
+                                                                          Optional<String> alternateAddress) {
+        asked.add(identifier.address());
+        return Mono.never();
+      }
+
+      @Override
+      public void proposeBucketConfig(ProposedBucketConfigContext ctx) { }
+
+      @Override
+      protected Mono<Void> registerRefresher(String bucket) {
+        return Mono.empty();
+      }
+    };
+
+    Disposable disposable = cp.openBucket("bucket").subscribe();
+    assertEquals(2, asked.size());
+    disposable.dispose();
+    environment.shutdown();
+  }
+
+  /**
+   * A bucket config from the snapshot is applied right away and replaced by the first fresh one, even if the
+   * fresh one has a lower revision.
+   */
+  @Test
+  void appliesConfigSnapshotUntilFreshConfigArrives(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("topology.json");
+    ConfigSnapshot initial = ConfigSnapshot.empty(file);
+    initial.updateBucket(new ProposedBucketConfigContext(
+      "default",
+      readResource("config_with_external_higher_rev.json", DefaultConfigurationProviderTest.class),
+      ORIGIN
+    ));
+    initial.write();
+
+    Core core = mock(Core.class);
+    CoreEnvironment environment = CoreEnvironment
+      .builder()
+      .ioConfig(IoConfig.configSnapshotFile(file))
+      .build();
+    CoreContext ctx = new CoreContext(core, 1, environment, mock(Authenticator.class));
+    when(core.context()).thenReturn(ctx);
+    Set<SeedNode> seedNodes = new HashSet<>(Collections.singletonList(SeedNode.create("172.17.0.2")));
+
+    MonoProcessor<ProposedBucketConfigContext> barrier = MonoProcessor.create();
+    ConfigurationProvider cp = new DefaultConfigurationProvider(core, seedNodes) {
+      @Override
+      protected Mono<ProposedBucketConfigContext> loadBucketConfigForSeed(NodeIdentifier identifier, int mappedKvPort,
+                                                                          int mappedManagerPort, String name,
+                                                                          Optional<String> alternateAddress) {
+        return barrier;
+      }
+
+      @Override
+      protected Mono<Void> registerRefresher(String bucket) {
+        return Mono.empty();
+      }
+    };
+
+    cp.openBucket("default").subscribe();
+    assertEquals(1888, cp.config().bucketConfig("default").rev());
+
+    ProposedBucketConfigContext fresh = new ProposedBucketConfigContext(
+      "default",
+      readResource("config_with_external.json", DefaultConfigurationProviderTest.class),
+      ORIGIN
+    );
+    barrier.onNext(fresh);
+    assertEquals(1073, cp.config().bucketConfig("default").rev());
+
+    cp.shutdown().block();
+    assertEquals(fresh.config(), ConfigSnapshot.load(file).bucket("default").get().config());
+    environment.shutdown();
+  }
+
+  /**
+   * A collection manifest from the snapshot is used right away, but fetched again once a fresh bucket config
+   * arrives since the collections might have changed in the meantime.
+   */
+  @Test
+  void refreshesCollectionManifestFromSnapshot(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("topology.json");
+    ConfigSnapshot initial = ConfigSnapshot.empty(file);
+    initial.updateBucket(new ProposedBucketConfigContext(
+      "default",
+      readResource("config_with_external_higher_rev.json", DefaultConfigurationProviderTest.class),
+      ORIGIN
+    ));
+    initial.updateManifest("default", manifest("8"));
+    initial.write();
+
+    Core core = mock(Core.class);
+    CoreEnvironment environment = CoreEnvironment
+      .builder()
+      .ioConfig(IoConfig.configSnapshotFile(file))
+      .build();
+    CoreContext ctx = new CoreContext(core, 1, environment, mock(Authenticator.class));
+    when(core.context()).thenReturn(ctx);
+    Set<SeedNode> seedNodes = new HashSet<>(Collections.singletonList(SeedNode.create("172.17.0.2")));
+
+    MonoProcessor<ProposedBucketConfigContext> barrier = MonoProcessor.create();
+    ConfigurationProvider cp = new DefaultConfigurationProvider(core, seedNodes) {
+      @Override
+      protected Mono<ProposedBucketConfigContext> loadBucketConfigForSeed(NodeIdentifier identifier, int mappedKvPort,
+                                                                          int mappedManagerPort, String name,
+                                                                          Optional<String> alternateAddress) {
+        return barrier;
+      }
+
+      @Override
+      protected Mono<Void> registerRefresher(String bucket) {
+        return Mono.empty();
+      }
+    };
+
+    CollectionIdentifier collection = new CollectionIdentifier("default", Optional.of("_default"), Optional.of("c1"));
+    cp.openBucket("default").subscribe();
+    assertArrayEquals(UnsignedLEB128.encode(8), cp.collectionMap().get(collection));
+    verify(core, never()).send(any(GetCollectionManifestRequest.class));
+
+    barrier.onNext(new ProposedBucketConfigContext(
+      "default",
+      readResource("config_with_external.json", DefaultConfigurationProviderTest.class),
+      ORIGIN
+    ));
+    ArgumentCaptor<GetCollectionManifestRequest> captor = ArgumentCaptor.forClass(GetCollectionManifestRequest.class);
+    verify(core, times(1)).send(captor.capture());
+    captor.getValue().succeed(new GetCollectionManifestResponse(ResponseStatus.SUCCESS, Optional.of(manifest("9"))));
+    assertArrayEquals(UnsignedLEB128.encode(9), cp.collectionMap().get(collection));
+
+    // confirmed now, so only fetched again if forced
+    cp.refreshCollectionMap("default", false);
+    verify(core, times(1)).send(any(GetCollectionManifestRequest.class));
+
+    cp.shutdown().block();
+    environment.shutdown();
+  }
+
+  /**
+   * Makes sure that only the first collection manifest load of a bucket is recorded as a bootstrap stage.
+   */
+  @Test
+  void recordsOnlyFirstCollectionMapLoad() {
+    AtomicInteger recorded = new AtomicInteger();
+    Meter meter = new Meter() {
+      @Override
+      public Counter counter(String name, Map<String, String> tags) {
+        return number -> { };
+      }
+
+      @Override
+      public ValueRecorder valueRecorder(String name, Map<String, String> tags) {
+        if ("collection_map_load".equals(tags.get("cb.bootstrap_stage"))) {
+          return value -> recorded.incrementAndGet();
+        }
+        return value -> { };
+      }
+    };
+
+    Core core = mock(Core.class);
+    CoreEnvironment environment = CoreEnvironment.builder().meter(meter).build();
+    CoreContext ctx = new CoreContext(core, 1, environment, mock(Authenticator.class));
+    when(core.context()).thenReturn(ctx);
+    ConfigurationProvider cp = new DefaultConfigurationProvider(core, SeedNode.LOCALHOST);
+
+    cp.refreshCollectionMap("default", false);
+    ArgumentCaptor<GetCollectionManifestRequest> captor = ArgumentCaptor.forClass(GetCollectionManifestRequest.class);
+    verify(core, times(1)).send(captor.capture());
+    captor.getValue().succeed(new GetCollectionManifestResponse(ResponseStatus.SUCCESS, Optional.of(manifest("8"))));
+    assertEquals(1, recorded.get());
+
+    cp.refreshCollectionMap("default", true);
+    verify(core, times(2)).send(captor.capture());
+    captor.getValue().succeed(new GetCollectionManifestResponse(ResponseStatus.SUCCESS, Optional.of(manifest("9"))));
+    assertEquals(1, recorded.get());
+
+    environment.shutdown();
+  }
+
+  /**
+   * Makes sure that the bootstrap stages, which carry no service or host, can be reported by the default meter.
+   */
+  @Test
+  void reportsBootstrapStagesThroughAggregatingMeter() {
+    EventBus eventBus = mock(EventBus.class);
+    AggregatingMeter meter = AggregatingMeter.create(eventBus, AggregatingMeterConfig.create());
+
+    Core core = mock(Core.class);
+    CoreEnvironment environment = CoreEnvironment.builder().meter(meter).build();
+    CoreContext ctx = new CoreContext(core, 1, environment, mock(Authenticator.class));
+    when(core.context()).thenReturn(ctx);
+    ConfigurationProvider cp = new DefaultConfigurationProvider(core, SeedNode.LOCALHOST);
+
+    cp.refreshCollectionMap("default", false);
+    ArgumentCaptor<GetCollectionManifestRequest> request = ArgumentCaptor.forClass(GetCollectionManifestRequest.class);
+    verify(core).send(request.capture());
+    request.getValue().succeed(new GetCollectionManifestResponse(ResponseStatus.SUCCESS, Optional.of(manifest("8"))));
+
+    meter.dumpMetrics();
+    ArgumentCaptor<LatencyMetricsAggregatedEvent> event = ArgumentCaptor.forClass(LatencyMetricsAggregatedEvent.class);
+    verify(eventBus).publish(event.capture());
+    String description = event.getValue().description();
+    assertTrue(
+      description.contains("\"cb.bootstrap\":{\"cb.bootstrap_stage=collection_map_load,cb.bucket=default\":{"),
+      description
+    );
+
+    environment.shutdown();
+  }
+
+  private static String manifest(final String collectionUid) {
+    return "{\"uid\":\"1\",\"scopes\":[{\"name\":\"_default\",\"uid\":\"0\",\"collections\":"
+      + "[{\"name\":\"c1\",\"uid\":\"" + collectionUid + "\"}]}]}";
+  }
+
+  /**
+   * A snapshot which does not contain any of the seed nodes belongs to a different cluster and must be ignored.
+   */
+  @Test
+  void ignoresConfigSnapshotOfOtherCluster(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("topology.json");
+    ConfigSnapshot initial = ConfigSnapshot.empty(file);
+    initial.updateBucket(new ProposedBucketConfigContext(
+      "default",
+      readResource("config_with_external.json", DefaultConfigurationProviderTest.class),
+      ORIGIN
+    ));
+    initial.write();
+
+    Core core = mock(Core.class);
+    CoreEnvironment environment = CoreEnvironment
+      .builder()
+      .ioConfig(IoConfig.configSnapshotFile(file))
+      .build();
+    CoreContext ctx = new CoreContext(core, 1, environment, mock(Authenticator.class));
+    when(core.context()).thenReturn(ctx);
+    Set<SeedNode> seedNodes = new HashSet<>(Collections.singletonList(SeedNode.create("10.0.0.1")));
+
+    ConfigurationProvider cp = new DefaultConfigurationProvider(core, seedNodes) {
+      @Override
+      protected Mono<ProposedBucketConfigContext> loadBucketConfigForSeed(NodeIdentifier identifier, int mappedKvPort,
+                                                                          int mappedManagerPort, String name,
+                                                                          Optional<String> alternateAddress) {
+        return Mono.never();
+      }
+    };
+
+    Disposable disposable = cp.openBucket("default").subscribe();
+    assertTrue(cp.config().bucketConfigs().isEmpty());
+    disposable.dispose();
+    environment.shutdown();
+  }
+
   private static Set<SeedNode> getSeedNodesFromConfig(ConfigurationProvider provider) {
     return provider.seedNodes().blockFirst(Duration.ZERO);
   }
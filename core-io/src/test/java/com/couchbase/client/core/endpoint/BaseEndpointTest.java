@@ -18,7 +18,10 @@ package com.couchbase.client.core.endpoint;
 
 import com.couchbase.client.core.Core;
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.Counter;
 import com.couchbase.client.core.cnc.Event;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
 import com.couchbase.client.core.cnc.events.endpoint.EndpointConnectionAbortedEvent;
 import com.couchbase.client.core.cnc.events.endpoint.EndpointConnectionFailedEvent;
 import com.couchbase.client.core.cnc.events.endpoint.EndpointConnectedEvent;
@@ -49,6 +52,7 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -366,6 +370,60 @@ class BaseEndpointTest {
     assertEquals(0, endpoint.outstandingRequests());
   }
 
+  /**
+   * The response latency recorder is resolved once per request type and endpoint, and then handed to each
+   * request dispatched so that completing it does not need to look it up again.
+   */
+  @Test
+  @SuppressWarnings({"unchecked"})
+  void resolvesResponseRecorderOncePerRequestType() {
+    AtomicInteger resolved = new AtomicInteger();
+    AtomicInteger recorded = new AtomicInteger();
+    Meter meter = new Meter() {
+      @Override
+      public Counter counter(String name, Map<String, String> tags) {
+        return value -> { };
+      }
+
+      @Override
+      public ValueRecorder valueRecorder(String name, Map<String, String> tags) {
+        if (!"cb.responses".equals(name)) {
+          return value -> { };
+        }
+        assertEquals(LOCALHOST, tags.get("cb.remote_hostname"));
+        resolved.incrementAndGet();
+        return value -> recorded.incrementAndGet();
+      }
+    };
+    CoreEnvironment env = CoreEnvironment.builder().eventBus(eventBus).meter(meter).build();
+    CoreContext coreContext = new CoreContext(mock(Core.class), 1, env, authenticator);
+    ServiceContext ctx = new ServiceContext(coreContext, LOCALHOST, 1234, ServiceType.KV, Optional.empty());
+
+    try {
+      final CompletableFuture<Channel> cf = CompletableFuture.completedFuture(new EmbeddedChannel());
+      InstrumentedEndpoint endpoint = InstrumentedEndpoint.create(eventLoopGroup, ctx, () -> Mono.fromFuture(cf));
+      endpoint.connect();
+      waitUntilCondition(() -> endpoint.state() == EndpointState.CONNECTED);
+
+      for (int i = 0; i < 3; i++) {
+        Request<Response> request = mock(Request.class);
+        when(request.name()).thenReturn("get");
+        when(request.response()).thenReturn(new CompletableFuture<>());
+        RequestContext requestContext = new RequestContext(ctx, request);
+        when(request.context()).thenReturn(requestContext);
+
+        endpoint.send(request);
+        requestContext.logicallyComplete();
+        endpoint.markRequestCompletion();
+      }
+
+      assertEquals(1, resolved.get());
+      assertEquals(3, recorded.get());
+    } finally {
+      env.shutdown();
+    }
+  }
+
   /**
    * Helper method to DRY up the case where we just need to connect properly.
    *
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.env;
+
+import com.couchbase.client.core.error.InvalidArgumentException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link SecurityConfig}.
+ */
+class SecurityConfigTest {
+
+  @Test
+  void hasTlsSessionDefaults() {
+    SecurityConfig config = SecurityConfig.create();
+
+    assertTrue(config.tlsSessionResumptionEnabled());
+    assertEquals(0, config.tlsSessionCacheSize());
+    assertEquals(Duration.ZERO, config.tlsSessionTimeout());
+    assertFalse(config.tlsHandshakeOffloadEnabled());
+  }
+
+  @Test
+  void customizesTlsSessionOptions() {
+    SecurityConfig config = SecurityConfig
+      .enableTlsSessionResumption(false)
+      .tlsSessionCacheSize(128)
+      .tlsSessionTimeout(Duration.ofMinutes(5))
+      .enableTlsHandshakeOffload(true)
+      .build();
+
+    assertFalse(config.tlsSessionResumptionEnabled());
+    assertEquals(128, config.tlsSessionCacheSize());
+    assertEquals(Duration.ofMinutes(5), config.tlsSessionTimeout());
+    assertTrue(config.tlsHandshakeOffloadEnabled());
+  }
+
+  @Test
+  void rejectsInvalidTlsSessionOptions() {
+    assertThrows(InvalidArgumentException.class, () -> SecurityConfig.tlsSessionCacheSize(-1));
+    assertThrows(InvalidArgumentException.class, () -> SecurityConfig.tlsSessionTimeout(Duration.ofSeconds(-1)));
+    assertThrows(InvalidArgumentException.class, () -> SecurityConfig.tlsSessionTimeout(null));
+  }
+
+  @Test
+  void exportsTlsSessionOptions() {
+    Map<String, Object> export = SecurityConfig
+      .tlsSessionTimeout(Duration.ofSeconds(2))
+      .tlsSessionCacheSize(16)
+      .build()
+      .exportAsMap();
+
+    assertEquals(true, export.get("tlsSessionResumptionEnabled"));
+    assertEquals(16, export.get("tlsSessionCacheSize"));
+    assertEquals(2000L, export.get("tlsSessionTimeoutMs"));
+    assertEquals(false, export.get("tlsHandshakeOffloadEnabled"));
+  }
+
+}
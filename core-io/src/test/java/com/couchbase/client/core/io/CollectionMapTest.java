@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io;
+
+import com.couchbase.client.core.util.UnsignedLEB128;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Verifies the functionality of the {@link CollectionMap}.
+ */
+class CollectionMapTest {
+
+  @Test
+  void returnsDefaultIdForDefaultCollection() {
+    CollectionMap map = new CollectionMap();
+    assertArrayEquals(UnsignedLEB128.encode(0), map.get(CollectionIdentifier.fromDefault("bucket")));
+  }
+
+  @Test
+  void resolvesWithEqualIdentifiers() {
+    CollectionMap map = new CollectionMap();
+    map.put(identifier("c"), UnsignedLEB128.encode(8));
+
+    assertArrayEquals(UnsignedLEB128.encode(8), map.get(identifier("c")));
+    assertNull(map.get(identifier("other")));
+    assertEquals(identifier("c").hashCode(), identifier("c").hashCode());
+  }
+
+  @Test
+  void invalidatesResolvedIdOnChange() {
+    CollectionMap map = new CollectionMap();
+    CollectionIdentifier handle = identifier("c");
+
+    map.put(identifier("c"), UnsignedLEB128.encode(8));
+    assertArrayEquals(UnsignedLEB128.encode(8), map.get(handle));
+    assertArrayEquals(UnsignedLEB128.encode(8), map.get(handle));
+
+    map.put(identifier("c"), UnsignedLEB128.encode(9));
+    assertArrayEquals(UnsignedLEB128.encode(9), map.get(handle));
+  }
+
+  @Test
+  void doesNotShareResolvedIdAcrossMaps() {
+    CollectionMap first = new CollectionMap();
+    CollectionMap second = new CollectionMap();
+    CollectionIdentifier handle = identifier("c");
+
+    first.put(identifier("c"), UnsignedLEB128.encode(8));
+    second.put(identifier("c"), UnsignedLEB128.encode(9));
+    assertArrayEquals(UnsignedLEB128.encode(8), first.get(handle));
+    assertArrayEquals(UnsignedLEB128.encode(9), second.get(handle));
+  }
+
+  private static CollectionIdentifier identifier(final String collection) {
+    return new CollectionIdentifier("bucket", Optional.of("scope"), Optional.of(collection));
+  }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty;
+
+import com.couchbase.client.core.deps.io.netty.handler.ssl.SslContext;
+import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.env.PasswordAuthenticator;
+import com.couchbase.client.core.env.SecurityConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Verifies the functionality of the {@link SslHandlerFactory}.
+ */
+class SslHandlerFactoryTest {
+
+  @Test
+  void sharesContextForSameAuthenticatorAndConfig() throws Exception {
+    Authenticator authenticator = PasswordAuthenticator.create("user", "pass");
+    SecurityConfig config = SecurityConfig.create();
+
+    assertSame(SslHandlerFactory.context(config, authenticator), SslHandlerFactory.context(config, authenticator));
+    assertNotSame(
+      SslHandlerFactory.context(config, authenticator),
+      SslHandlerFactory.context(config, PasswordAuthenticator.create("user", "pass"))
+    );
+  }
+
+  /**
+   * Environments sharing an authenticator must not keep replacing each others context.
+   */
+  @Test
+  void keepsContextPerConfig() throws Exception {
+    Authenticator authenticator = PasswordAuthenticator.create("user", "pass");
+    SecurityConfig config1 = SecurityConfig.create();
+    SecurityConfig config2 = SecurityConfig.create();
+
+    SslContext context1 = SslHandlerFactory.context(config1, authenticator);
+    SslContext context2 = SslHandlerFactory.context(config2, authenticator);
+
+    assertNotSame(context1, context2);
+    assertSame(context1, SslHandlerFactory.context(config1, authenticator));
+    assertSame(context2, SslHandlerFactory.context(config2, authenticator));
+  }
+
+  @Test
+  void buildsNewContextIfResumptionDisabled() throws Exception {
+    Authenticator authenticator = PasswordAuthenticator.create("user", "pass");
+    SecurityConfig config = SecurityConfig.enableTlsSessionResumption(false).build();
+
+    assertNotSame(SslHandlerFactory.context(config, authenticator), SslHandlerFactory.context(config, authenticator));
+  }
+
+  @Test
+  void appliesSessionCacheSettings() throws Exception {
+    SecurityConfig config = SecurityConfig
+      .tlsSessionCacheSize(42)
+      .tlsSessionTimeout(Duration.ofSeconds(30))
+      .build();
+
+    SslContext context = SslHandlerFactory.context(config, PasswordAuthenticator.create("user", "pass"));
+    assertEquals(42, context.sessionCacheSize());
+    assertEquals(30, context.sessionTimeout());
+  }
+
+}
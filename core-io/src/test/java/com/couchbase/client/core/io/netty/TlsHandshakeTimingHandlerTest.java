@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty;
+
+import com.couchbase.client.core.deps.io.netty.channel.Channel;
+import com.couchbase.client.core.deps.io.netty.channel.embedded.EmbeddedChannel;
+import com.couchbase.client.core.deps.io.netty.handler.ssl.SslHandler;
+import com.couchbase.client.core.deps.io.netty.util.concurrent.ImmediateEventExecutor;
+import com.couchbase.client.core.deps.io.netty.util.concurrent.Promise;
+import com.couchbase.client.core.io.netty.kv.ConnectTimings;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link TlsHandshakeTimingHandler}.
+ */
+class TlsHandshakeTimingHandlerTest {
+
+  @Test
+  void recordsHandshakeOnceComplete() throws Exception {
+    Promise<Channel> handshake = ImmediateEventExecutor.INSTANCE.newPromise();
+    SslHandler sslHandler = mock(SslHandler.class);
+    when(sslHandler.handshakeFuture()).thenReturn(handshake);
+
+    EmbeddedChannel channel = new EmbeddedChannel(false, false, new TlsHandshakeTimingHandler(sslHandler));
+    channel.register();
+
+    assertNull(channel.pipeline().get(TlsHandshakeTimingHandler.class));
+    assertFalse(ConnectTimings.toMap(channel).containsKey("SslHandler"));
+
+    handshake.setSuccess(channel);
+    assertTrue(ConnectTimings.toMap(channel).containsKey("SslHandler"));
+
+    channel.finishAndReleaseAll();
+  }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv.sasl;
+
+import org.junit.jupiter.api.Test;
+
+import javax.security.auth.callback.Callback;
+import javax.security.auth.callback.CallbackHandler;
+import javax.security.auth.callback.NameCallback;
+import javax.security.auth.callback.PasswordCallback;
+import javax.security.sasl.SaslClient;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link ScramKeyCache}.
+ */
+class ScramKeyCacheTest {
+
+  private static final byte[] SALT = new byte[] { 1, 2, 3, 4 };
+
+  @Test
+  void derivesOnlyOnceForSameInputs() {
+    ScramKeyCache cache = new ScramKeyCache();
+    AtomicInteger derivations = new AtomicInteger();
+
+    ScramKeyCache.ScramKeys first = cache.get("SCRAM-SHA512", "user", "pass", SALT, 4096,
+      () -> keys("pass", derivations));
+    ScramKeyCache.ScramKeys second = cache.get("SCRAM-SHA512", "user", "pass", SALT.clone(), 4096,
+      () -> keys("pass", derivations));
+
+    assertSame(first, second);
+    assertEquals(1, derivations.get());
+    assertTrue(cache.isWarm("scram-sha512", "user"));
+    assertFalse(cache.isWarm("SCRAM-SHA256", "user"));
+    assertFalse(cache.isWarm("SCRAM-SHA512", "other"));
+  }
+
+  @Test
+  void derivesAgainIfInputsChange() {
+    ScramKeyCache cache = new ScramKeyCache();
+    AtomicInteger derivations = new AtomicInteger();
+
+    cache.get("SCRAM-SHA512", "user", "pass", SALT, 4096, () -> keys("pass", derivations));
+    cache.get("SCRAM-SHA512", "user", "changed", SALT, 4096, () -> keys("changed", derivations));
+    cache.get("SCRAM-SHA512", "user", "changed", SALT, 8192, () -> keys("changed", derivations));
+    cache.get("SCRAM-SHA512", "user", "changed", new byte[] { 5 }, 8192, () -> keys("changed", derivations));
+
+    assertEquals(4, derivations.get());
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  void clientKeyIsNotModifiedByCallers() {
+    ScramKeyCache cache = new ScramKeyCache();
+    ScramKeyCache.ScramKeys keys = cache.get("SCRAM-SHA1", "user", "pass", SALT, 4096,
+      () -> keys("pass", new AtomicInteger()));
+
+    keys.clientKey()[0] = 42;
+    assertEquals(0, keys.clientKey()[0]);
+  }
+
+  @Test
+  void sharesKeysAcrossClients() throws Exception {
+    ScramKeyCache cache = new ScramKeyCache();
+    ScramSaslClientFactory factory = new ScramSaslClientFactory();
+
+    for (int i = 0; i < 2; i++) {
+      SaslClient client = factory.createSaslClient(
+        new String[] { "SCRAM-SHA512" },
+        null,
+        "couchbase",
+        "127.0.0.1",
+        Collections.singletonMap(ScramKeyCache.PROPERTY, cache),
+        new Credentials()
+      );
+
+      String clientFirst = new String(client.evaluateChallenge(new byte[0]), UTF_8);
+      String clientNonce = clientFirst.substring(clientFirst.indexOf("r=") + 2);
+      String serverFirst = "r=" + clientNonce + "server,s=QSXCR+Q6sek8bf92,i=4096";
+      String clientFinal = new String(client.evaluateChallenge(serverFirst.getBytes(UTF_8)), UTF_8);
+      assertTrue(clientFinal.startsWith("c=biws,r=" + clientNonce + "server,p="));
+    }
+
+    assertEquals(1, cache.size());
+    assertTrue(cache.isWarm("SCRAM-SHA512", "Administrator"));
+  }
+
+  /**
+   * Runs the SCRAM-SHA-1 example from RFC 5802 twice, the second time with the keys coming from the cache.
+   */
+  @Test
+  void producesRfcProofWithCachedKeys() throws Exception {
+    ScramKeyCache cache = new ScramKeyCache();
+    for (int i = 0; i < 2; i++) {
+      ScramSaslClient client = new ScramSaslClient(
+        ScramSaslClientFactory.Mode.SCRAM_SHA1,
+        new Credentials("user", "pencil"),
+        cache
+      );
+      Field nonce = ScramSaslClient.class.getDeclaredField("clientNonce");
+      nonce.setAccessible(true);
+      nonce.set(client, "fyko+d2lbbFgONRv9qkxdawL");
+
+      assertEquals("n,,n=user,r=fyko+d2lbbFgONRv9qkxdawL", new String(client.evaluateChallenge(new byte[0]), UTF_8));
+      byte[] clientFinal = client.evaluateChallenge(
+        "r=fyko+d2lbbFgONRv9qkxdawL3rfcNHYJY1ZVvWVs7j,s=QSXCR+Q6sek8bf92,i=4096".getBytes(UTF_8)
+      );
+      assertEquals(
+        "c=biws,r=fyko+d2lbbFgONRv9qkxdawL3rfcNHYJY1ZVvWVs7j,p=v0X8v3Bz2T0CJGbJQyF0X+HI4Ts=",
+        new String(clientFinal, UTF_8)
+      );
+      client.evaluateChallenge("v=rmF9pqV8S7suAoZWja4dJRkFsKQ=".getBytes(UTF_8));
+      assertTrue(client.isComplete());
+    }
+    assertEquals(1, cache.size());
+  }
+
+  private static ScramKeyCache.ScramKeys keys(final String password, final AtomicInteger derivations) {
+    derivations.incrementAndGet();
+    return new ScramKeyCache.ScramKeys(password, new byte[] { 0 }, new byte[] { 1 }, new byte[] { 2 });
+  }
+
+  private static class Credentials implements CallbackHandler {
+    private final String username;
+    private final String password;
+
+    Credentials() {
+      this("Administrator", "password");
+    }
+
+    Credentials(final String username, final String password) {
+      this.username = username;
+      this.password = password;
+    }
+
+    @Override
+    public void handle(final Callback[] callbacks) {
+      for (Callback callback : callbacks) {
+        if (callback instanceof NameCallback) {
+          ((NameCallback) callback).setName(username);
+        } else if (callback instanceof PasswordCallback) {
+          ((PasswordCallback) callback).setPassword(password.toCharArray());
+        }
+      }
+    }
+  }
+
+}
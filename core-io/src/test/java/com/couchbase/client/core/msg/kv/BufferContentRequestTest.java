@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.msg.kv;
+
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.util.IllegalReferenceCountException;
+import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
+import com.couchbase.client.core.env.CompressionConfig;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.io.CollectionMap;
+import com.couchbase.client.core.io.netty.kv.KeyValueChannelContext;
+import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.body;
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.datatype;
+import static com.couchbase.client.test.Util.readResource;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies that mutations created with buffer content encode it without consuming it and release it once done.
+ */
+class BufferContentRequestTest {
+
+  private final CoreContext coreContext = mock(CoreContext.class);
+  private final ByteBufAllocator allocator = UnpooledByteBufAllocator.DEFAULT;
+  private final CollectionIdentifier cid = CollectionIdentifier.fromDefault("b");
+  private final Optional<DurabilityLevel> durability = Optional.empty();
+
+  private final byte[] content = "{\"foo\":\"bar\"}".getBytes(UTF_8);
+
+  private ByteBuf pooledContent(final byte[] content) {
+    return PooledByteBufAllocator.DEFAULT.heapBuffer().writeBytes(content);
+  }
+
+  private UpsertRequest upsert(final ByteBuf content) {
+    return new UpsertRequest("key", content, 0, 0, Duration.ofSeconds(1), coreContext, cid,
+      BestEffortRetryStrategy.INSTANCE, durability, null);
+  }
+
+  @Test
+  void encodesContentOnEveryAttempt() {
+    ByteBuf buf = pooledContent(content);
+    UpsertRequest request = upsert(buf);
+
+    for (int i = 0; i < 2; i++) {
+      ByteBuf encoded = request.encode(allocator, 0, ctx(false));
+      assertEquals(Unpooled.wrappedBuffer(content), body(encoded).get());
+      ReferenceCountUtil.release(encoded);
+    }
+    assertEquals(1, buf.refCnt());
+    assertEquals(content.length, buf.readableBytes());
+
+    request.fail(new RuntimeException());
+  }
+
+  @Test
+  void releasesContentOnCompletion() {
+    ByteBuf upsertContent = pooledContent(content);
+    upsert(upsertContent).succeed(null);
+    assertEquals(0, upsertContent.refCnt());
+
+    ByteBuf insertContent = pooledContent(content);
+    new InsertRequest("key", insertContent, 0, 0, Duration.ofSeconds(1), coreContext, cid,
+      BestEffortRetryStrategy.INSTANCE, durability, null).fail(new RuntimeException());
+    assertEquals(0, insertContent.refCnt());
+
+    ByteBuf replaceContent = pooledContent(content);
+    new ReplaceRequest("key", replaceContent, 0, 0, Duration.ofSeconds(1), 0, coreContext, cid,
+      BestEffortRetryStrategy.INSTANCE, durability, null).fail(new RuntimeException());
+    assertEquals(0, replaceContent.refCnt());
+  }
+
+  @Test
+  void failsToEncodeOnceCompleted() {
+    UpsertRequest request = upsert(pooledContent(content));
+    request.fail(new RuntimeException());
+    assertThrows(IllegalReferenceCountException.class, () -> request.encode(allocator, 0, ctx(false)));
+  }
+
+  @Test
+  void compressesBufferContent() {
+    byte[] longContent = readResource("dummy.json", CompressionTest.class).getBytes(UTF_8);
+    UpsertRequest request = upsert(pooledContent(longContent));
+
+    ByteBuf encoded = request.encode(allocator, 0, ctx(true));
+    assertEquals(MemcacheProtocol.Datatype.SNAPPY.datatype(), datatype(encoded));
+    assertTrue(body(encoded).get().readableBytes() < longContent.length);
+    ReferenceCountUtil.release(encoded);
+
+    request.fail(new RuntimeException());
+  }
+
+  private KeyValueChannelContext ctx(boolean compression) {
+    return new KeyValueChannelContext(
+      CompressionConfig.builder().enable(compression).build(),
+      false,
+      false,
+      Optional.of(cid.bucket()),
+      false,
+      false,
+      false,
+      new CollectionMap(),
+      null,
+      false
+    );
+  }
+
+}
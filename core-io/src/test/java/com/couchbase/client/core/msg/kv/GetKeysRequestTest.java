@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.msg.kv;
+
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.env.CompressionConfig;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.io.CollectionMap;
+import com.couchbase.client.core.io.netty.kv.KeyValueChannelContext;
+import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.retry.RetryStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies the encoding and decoding of the {@link GetKeysRequest}.
+ */
+class GetKeysRequestTest {
+
+  private static final Duration TIMEOUT = Duration.ZERO;
+  private static final CoreContext CTX = mock(CoreContext.class);
+  private static final RetryStrategy RETRY = mock(RetryStrategy.class);
+  private static final CollectionIdentifier CID = new CollectionIdentifier("bucket", Optional.of("scope"),
+    Optional.of("collection"));
+
+  @Test
+  void decodesKeysWithoutCollections() {
+    GetKeysRequest request = new GetKeysRequest("a", (short) 12, 3, TIMEOUT, CTX, CID, RETRY, null);
+    GetKeysResponse decoded = request.decode(response(new byte[0], "a", "b", "c"), context(false));
+
+    assertEquals(ResponseStatus.SUCCESS, decoded.status());
+    assertEquals(Arrays.asList("a", "b", "c"), decoded.keys());
+    assertFalse(decoded.last());
+  }
+
+  @Test
+  void lastPageIfLessKeysThanRequested() {
+    GetKeysRequest request = new GetKeysRequest("a", (short) 12, 3, TIMEOUT, CTX, CID, RETRY, null);
+    GetKeysResponse decoded = request.decode(response(new byte[0], "a", "b"), context(false));
+
+    assertEquals(Arrays.asList("a", "b"), decoded.keys());
+    assertTrue(decoded.last());
+  }
+
+  @Test
+  void stripsCollectionPrefixAndStopsAtForeignCollection() {
+    GetKeysRequest request = new GetKeysRequest("a", (short) 12, 3, TIMEOUT, CTX, CID, RETRY, null);
+    KeyValueChannelContext ctx = context(true);
+
+    ByteBuf response = response(new byte[] { 0x08 }, "a", "b");
+    GetKeysResponse decoded = request.decode(response, ctx);
+    assertEquals(Arrays.asList("a", "b"), decoded.keys());
+    assertTrue(decoded.last());
+
+    GetKeysRequest foreign = new GetKeysRequest("a", (short) 12, 2, TIMEOUT, CTX, CID, RETRY, null);
+    decoded = foreign.decode(response(new byte[] { 0x09 }, "x", "y"), ctx);
+    assertEquals(Collections.emptyList(), decoded.keys());
+    assertTrue(decoded.last());
+  }
+
+  @Test
+  void encodesLimitInExtras() {
+    GetKeysRequest request = new GetKeysRequest("a", (short) 12, 500, TIMEOUT, CTX,
+      CollectionIdentifier.fromDefault("bucket"), RETRY, null);
+    request.partition(request.vbucket());
+    ByteBuf encoded = request.encode(ByteBufAllocator.DEFAULT, 1, context(false));
+    try {
+      assertEquals(MemcacheProtocol.Opcode.GET_KEYS.opcode(), encoded.getByte(1));
+      assertEquals(12, encoded.getShort(6));
+      assertEquals(500, MemcacheProtocol.extrasAsInt(encoded, 0, 0));
+    } finally {
+      encoded.release();
+    }
+  }
+
+  private static KeyValueChannelContext context(final boolean collections) {
+    CollectionMap collectionMap = new CollectionMap();
+    collectionMap.put(CID, new byte[] { 0x08 });
+    return new KeyValueChannelContext(CompressionConfig.create(), collections, false, Optional.of("bucket"), false,
+      false, false, collectionMap, null, false);
+  }
+
+  private static ByteBuf response(final byte[] prefix, final String... keys) {
+    ByteBuf body = Unpooled.buffer();
+    for (String key : keys) {
+      byte[] encoded = key.getBytes(UTF_8);
+      body.writeShort(prefix.length + encoded.length).writeBytes(prefix).writeBytes(encoded);
+    }
+    return MemcacheProtocol.response(ByteBufAllocator.DEFAULT, MemcacheProtocol.Opcode.GET_KEYS, (byte) 0,
+      (short) 0, 1, 0, Unpooled.EMPTY_BUFFER, Unpooled.EMPTY_BUFFER, body);
+  }
+
+}
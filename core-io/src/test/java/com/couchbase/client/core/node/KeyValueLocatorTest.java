@@ -28,6 +28,7 @@ import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.msg.TargetedRequest;
 import com.couchbase.client.core.msg.kv.CarrierBucketConfigRequest;
+import com.couchbase.client.core.msg.kv.GetKeysRequest;
 import com.couchbase.client.core.msg.kv.GetRequest;
 import com.couchbase.client.core.msg.manager.BucketConfigRequest;
 import org.junit.jupiter.api.Test;
@@ -82,6 +83,43 @@ class KeyValueLocatorTest {
     verify(node2Mock, never()).send(getRequestMock);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  void locateGetKeysRequestByVbucket() {
+    Locator locator = new KeyValueLocator();
+
+    NodeInfo nodeInfo1 = new NodeInfo("http://foo:1234", "192.168.56.101:8091",
+      Collections.EMPTY_MAP, null);
+    NodeInfo nodeInfo2 = new NodeInfo("http://foo:1234", "192.168.56.102:8091",
+      Collections.EMPTY_MAP, null);
+
+    GetKeysRequest getKeysRequestMock = mock(GetKeysRequest.class);
+    ClusterConfig configMock = mock(ClusterConfig.class);
+    Node node1Mock = mock(Node.class);
+    when(node1Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.101", 8091));
+    Node node2Mock = mock(Node.class);
+    when(node2Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.102", 8091));
+    List<Node> nodes = new ArrayList<>(Arrays.asList(node1Mock, node2Mock));
+    CouchbaseBucketConfig bucketMock = mock(CouchbaseBucketConfig.class);
+    when(getKeysRequestMock.bucket()).thenReturn("bucket");
+    when(getKeysRequestMock.key()).thenReturn("key".getBytes(UTF_8));
+    when(getKeysRequestMock.vbucket()).thenReturn((short) 12);
+    CoreContext coreContext = new CoreContext(mock(Core.class), 1, mock(CoreEnvironment.class), mock(Authenticator.class));
+    when(getKeysRequestMock.context()).thenReturn(new RequestContext(coreContext, getKeysRequestMock));
+    when(configMock.bucketConfig("bucket")).thenReturn(bucketMock);
+    when(bucketMock.nodes()).thenReturn(Arrays.asList(nodeInfo1, nodeInfo2));
+    when(bucketMock.numberOfPartitions()).thenReturn(1024);
+    when(bucketMock.nodeIndexForActive(656, false)).thenReturn((short) 0);
+    when(bucketMock.nodeIndexForActive(12, false)).thenReturn((short) 1);
+    when(bucketMock.nodeAtIndex(0)).thenReturn(nodeInfo1);
+    when(bucketMock.nodeAtIndex(1)).thenReturn(nodeInfo2);
+
+    locator.dispatch(getKeysRequestMock, nodes, configMock, null);
+    verify(getKeysRequestMock, times(1)).partition((short) 12);
+    verify(node2Mock, times(1)).send(getKeysRequestMock);
+    verify(node1Mock, never()).send(getKeysRequestMock);
+  }
+
   @Test
   @SuppressWarnings("unchecked")
   void pickFastForwardIfAvailableAndRetry() {
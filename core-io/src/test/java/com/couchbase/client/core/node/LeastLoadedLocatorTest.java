@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.node;
+
+import com.couchbase.client.core.cnc.metrics.NoopMeter;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.msg.query.QueryRequest;
+import com.couchbase.client.core.msg.query.QueryResponse;
+import com.couchbase.client.core.service.ServiceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link LeastLoadedLocator}.
+ */
+class LeastLoadedLocatorTest {
+
+  private static final NodeIdentifier NODE1 = new NodeIdentifier("192.168.56.101", 8091);
+  private static final NodeIdentifier NODE2 = new NodeIdentifier("192.168.56.102", 8091);
+
+  @Test
+  void rotatesWhileNodesAreIdle() {
+    Locator locator = new LeastLoadedLocator(ServiceType.QUERY, new NoopMeter(), 0);
+    Node node1 = node(NODE1);
+    Node node2 = node(NODE2);
+    List<Node> nodes = Arrays.asList(node1, node2);
+
+    QueryRequest first = request(CompletableFuture.completedFuture(null));
+    locator.dispatch(first, nodes, config(), null);
+    verify(node1, times(1)).send(first);
+
+    QueryRequest second = request(CompletableFuture.completedFuture(null));
+    locator.dispatch(second, nodes, config(), null);
+    verify(node2, times(1)).send(second);
+  }
+
+  @Test
+  void avoidsNodeWithRequestsInFlight() {
+    LeastLoadedLocator locator = new LeastLoadedLocator(ServiceType.QUERY, new NoopMeter(), 0);
+    Node node1 = node(NODE1);
+    Node node2 = node(NODE2);
+    List<Node> nodes = Arrays.asList(node1, node2);
+
+    CompletableFuture<QueryResponse> pending = new CompletableFuture<>();
+    QueryRequest stuck = request(pending);
+    locator.dispatch(stuck, nodes, config(), null);
+    verify(node1, times(1)).send(stuck);
+    assertEquals(1, locator.inFlight(NODE1));
+
+    for (int i = 0; i < 4; i++) {
+      QueryRequest request = request(CompletableFuture.completedFuture(null));
+      locator.dispatch(request, nodes, config(), null);
+      verify(node1, never()).send(request);
+      verify(node2, times(1)).send(request);
+    }
+
+    pending.complete(null);
+    assertEquals(0, locator.inFlight(NODE1));
+  }
+
+  @Test
+  void prefersNodeWithLowerLatency() throws Exception {
+    Locator locator = new LeastLoadedLocator(ServiceType.QUERY, new NoopMeter(), 0);
+    Node node1 = node(NODE1);
+    Node node2 = node(NODE2);
+    List<Node> nodes = Arrays.asList(node1, node2);
+
+    CompletableFuture<QueryResponse> slow = new CompletableFuture<>();
+    CompletableFuture<QueryResponse> fast = new CompletableFuture<>();
+    locator.dispatch(request(slow), nodes, config(), null);
+    locator.dispatch(request(fast), nodes, config(), null);
+    fast.complete(null);
+    Thread.sleep(50);
+    slow.complete(null);
+
+    for (int i = 0; i < 4; i++) {
+      QueryRequest request = request(CompletableFuture.completedFuture(null));
+      locator.dispatch(request, nodes, config(), null);
+      verify(node1, never()).send(request);
+      verify(node2, times(1)).send(request);
+    }
+  }
+
+  private static Node node(final NodeIdentifier identifier) {
+    Node node = mock(Node.class);
+    when(node.serviceEnabled(ServiceType.QUERY)).thenReturn(true);
+    when(node.identifier()).thenReturn(identifier);
+    return node;
+  }
+
+  private static QueryRequest request(final CompletableFuture<QueryResponse> response) {
+    QueryRequest request = mock(QueryRequest.class);
+    when(request.response()).thenReturn(response);
+    return request;
+  }
+
+  private static ClusterConfig config() {
+    ClusterConfig config = mock(ClusterConfig.class);
+    when(config.hasClusterOrBucketConfig()).thenReturn(true);
+    return config;
+  }
+
+}
@@ -17,12 +17,16 @@
 package com.couchbase.client.core.retry;
 
 import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.msg.Response;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Verifies the functionality of the {@link BestEffortRetryStrategy}.
@@ -43,6 +47,43 @@ class BestEffortRetryStrategyTest {
 
     RetryAction retryAction = customStrategy.shouldRetry(null, RetryReason.ENDPOINT_CIRCUIT_OPEN).get();
     assertEquals(RetryAction.noRetry(), retryAction);
+    assertEquals(RetryStrategy.DECIDE_ASYNC, customStrategy.retryDelayNanos(null, RetryReason.ENDPOINT_CIRCUIT_OPEN));
+  }
+
+  @Test
+  void synchronousDecisionMatchesAsyncDecision() throws Exception {
+    BestEffortRetryStrategy custom = BestEffortRetryStrategy.withExponentialBackoff(
+      Duration.ofMillis(2), Duration.ofSeconds(1), 3);
+
+    for (BestEffortRetryStrategy strategy : new BestEffortRetryStrategy[] { BestEffortRetryStrategy.INSTANCE, custom }) {
+      Duration last = null;
+      for (int attempt = 0; attempt < 70; attempt++) {
+        Request<?> request = requestWithAttempts(true, attempt, last);
+        Duration expected = strategy.shouldRetry(request, RetryReason.UNKNOWN).get().duration().get();
+        assertEquals(Math.max(1, expected.toNanos()), strategy.retryDelayNanos(request, RetryReason.UNKNOWN));
+        last = expected;
+      }
+    }
+  }
+
+  @Test
+  void synchronouslyDeclinesNonIdempotentRequests() {
+    Request<?> request = requestWithAttempts(false, 1, Duration.ofMillis(1));
+    assertEquals(RetryStrategy.NO_RETRY,
+      BestEffortRetryStrategy.INSTANCE.retryDelayNanos(request, RetryReason.CHANNEL_CLOSED_WHILE_IN_FLIGHT));
+    assertTrue(BestEffortRetryStrategy.INSTANCE.retryDelayNanos(request, RetryReason.ENDPOINT_NOT_AVAILABLE) > 0);
+    assertEquals(RetryStrategy.NO_RETRY,
+      FailFastRetryStrategy.INSTANCE.retryDelayNanos(request, RetryReason.ENDPOINT_NOT_AVAILABLE));
+  }
+
+  private static Request<?> requestWithAttempts(final boolean idempotent, final int attempts, final Duration last) {
+    RequestContext ctx = mock(RequestContext.class);
+    when(ctx.retryAttempts()).thenReturn(attempts);
+    when(ctx.lastRetryDuration()).thenReturn(last);
+    Request<?> request = mock(Request.class);
+    when(request.idempotent()).thenReturn(idempotent);
+    when(request.context()).thenReturn(ctx);
+    return request;
   }
 
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.retry;
+
+import com.couchbase.client.core.cnc.metrics.NoopMeter;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.msg.query.QueryRequest;
+import com.couchbase.client.core.node.NodeIdentifier;
+import com.couchbase.client.core.service.ServiceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link BudgetedRetryStrategy}.
+ */
+class BudgetedRetryStrategyTest {
+
+  private static final NodeIdentifier NODE1 = new NodeIdentifier("192.168.56.101", 8091);
+  private static final NodeIdentifier NODE2 = new NodeIdentifier("192.168.56.102", 8091);
+
+  @Test
+  void deniesRetriesOnceBudgetIsSpent() throws Exception {
+    RetryStrategy strategy = BudgetedRetryStrategy.withBudget(0.5, 1, Duration.ofMinutes(1));
+    QueryRequest request = request(NODE1, true);
+
+    for (int i = 0; i < 60; i++) {
+      assertTrue(strategy.shouldRetry(request, RetryReason.ENDPOINT_NOT_AVAILABLE).get().duration().isPresent());
+    }
+    assertEquals(RetryAction.noRetry(), strategy.shouldRetry(request, RetryReason.ENDPOINT_NOT_AVAILABLE).get());
+
+    for (int i = 0; i < 4; i++) {
+      strategy.requestSucceeded(request);
+    }
+    assertTrue(strategy.shouldRetry(request, RetryReason.ENDPOINT_NOT_AVAILABLE).get().duration().isPresent());
+    assertTrue(strategy.shouldRetry(request, RetryReason.ENDPOINT_NOT_AVAILABLE).get().duration().isPresent());
+    assertEquals(RetryAction.noRetry(), strategy.shouldRetry(request, RetryReason.ENDPOINT_NOT_AVAILABLE).get());
+  }
+
+  @Test
+  void keepsBudgetPerNode() throws Exception {
+    RetryStrategy strategy = BudgetedRetryStrategy.withBudget(0, 1, Duration.ofSeconds(1));
+
+    QueryRequest request1 = request(NODE1, true);
+    assertTrue(strategy.shouldRetry(request1, RetryReason.ENDPOINT_NOT_AVAILABLE).get().duration().isPresent());
+    assertEquals(RetryAction.noRetry(), strategy.shouldRetry(request1, RetryReason.ENDPOINT_NOT_AVAILABLE).get());
+
+    QueryRequest request2 = request(NODE2, true);
+    assertTrue(strategy.shouldRetry(request2, RetryReason.ENDPOINT_NOT_AVAILABLE).get().duration().isPresent());
+  }
+
+  @Test
+  void doesNotRetryNonIdempotentRequests() throws Exception {
+    RetryStrategy strategy = BudgetedRetryStrategy.create();
+    QueryRequest request = request(NODE1, false);
+
+    assertEquals(RetryAction.noRetry(), strategy.shouldRetry(request, RetryReason.CHANNEL_CLOSED_WHILE_IN_FLIGHT).get());
+    assertTrue(strategy.shouldRetry(request, RetryReason.ENDPOINT_NOT_AVAILABLE).get().duration().isPresent());
+  }
+
+  @Test
+  void appliesDecorrelatedJitter() throws Exception {
+    RetryStrategy strategy = BudgetedRetryStrategy.withBudget(0.2, 1000, Duration.ofSeconds(1),
+      Duration.ofMillis(10), Duration.ofMillis(100));
+    QueryRequest request = request(NODE1, true);
+
+    for (int i = 0; i < 100; i++) {
+      Duration delay = strategy.shouldRetry(request, RetryReason.ENDPOINT_NOT_AVAILABLE).get().duration().get();
+      assertTrue(delay.toMillis() >= 10 && delay.toMillis() <= 30, delay.toString());
+    }
+
+    when(request.context().lastRetryDuration()).thenReturn(Duration.ofMillis(80));
+    for (int i = 0; i < 100; i++) {
+      Duration delay = strategy.shouldRetry(request, RetryReason.ENDPOINT_NOT_AVAILABLE).get().duration().get();
+      assertTrue(delay.toMillis() >= 10 && delay.toMillis() <= 100, delay.toString());
+    }
+  }
+
+  @Test
+  void doesNotChargeTopologyRetriesToBudget() throws Exception {
+    RetryStrategy strategy = BudgetedRetryStrategy.withBudget(0, 1, Duration.ofMinutes(1));
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Callable<RetryAction>> retries = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        QueryRequest request = request(null, true);
+        retries.add(() -> strategy.shouldRetry(request, RetryReason.BUCKET_OPEN_IN_PROGRESS).get());
+      }
+      for (Future<RetryAction> action : executor.invokeAll(retries)) {
+        assertTrue(action.get().duration().isPresent());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    QueryRequest dispatched = request(NODE1, true);
+    for (int i = 0; i < 100; i++) {
+      assertTrue(strategy.shouldRetry(dispatched, RetryReason.COLLECTION_MAP_REFRESH_IN_PROGRESS).get().duration().isPresent());
+    }
+    assertTrue(strategy.shouldRetry(dispatched, RetryReason.ENDPOINT_NOT_AVAILABLE).get().duration().isPresent());
+  }
+
+  @Test
+  void doesNotChargeUndispatchedRetriesToBudget() throws Exception {
+    RetryStrategy strategy = BudgetedRetryStrategy.withBudget(0, 1, Duration.ofMinutes(1));
+    QueryRequest request = request(null, true);
+
+    for (int i = 0; i < 100; i++) {
+      assertTrue(strategy.shouldRetry(request, RetryReason.NODE_NOT_AVAILABLE).get().duration().isPresent());
+      assertTrue(strategy.shouldRetry(request, RetryReason.ENDPOINT_NOT_AVAILABLE).get().duration().isPresent());
+    }
+  }
+
+  @Test
+  void removesIdleBudgets() throws Exception {
+    BudgetedRetryStrategy strategy = BudgetedRetryStrategy.withBudget(0, 1, Duration.ofMillis(200));
+    List<QueryRequest> requests = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      requests.add(request(new NodeIdentifier("192.168.56." + i, 8091), true));
+    }
+    QueryRequest later = request(NODE1, true);
+
+    for (QueryRequest request : requests) {
+      strategy.shouldRetry(request, RetryReason.ENDPOINT_NOT_AVAILABLE).get();
+    }
+    assertEquals(10, strategy.budgets());
+
+    Thread.sleep(300);
+    strategy.shouldRetry(later, RetryReason.ENDPOINT_NOT_AVAILABLE).get();
+    assertEquals(1, strategy.budgets());
+  }
+
+  private static QueryRequest request(final NodeIdentifier node, final boolean idempotent) {
+    CoreEnvironment env = mock(CoreEnvironment.class);
+    when(env.meter()).thenReturn(new NoopMeter());
+    RequestContext ctx = mock(RequestContext.class);
+    when(ctx.lastDispatchedToNode()).thenReturn(node);
+    when(ctx.environment()).thenReturn(env);
+
+    QueryRequest request = mock(QueryRequest.class);
+    when(request.idempotent()).thenReturn(idempotent);
+    when(request.serviceType()).thenReturn(ServiceType.QUERY);
+    when(request.context()).thenReturn(ctx);
+    return request;
+  }
+
+}
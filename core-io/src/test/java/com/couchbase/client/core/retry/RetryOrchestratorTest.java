@@ -91,6 +91,28 @@ class RetryOrchestratorTest {
     assertEquals(requestContext, retryEvent.context());
   }
 
+  @Test
+  @SuppressWarnings({"unchecked"})
+  void cancelIfStrategyDeclinesSynchronously() {
+    RetryStrategy retryStrategy = mock(RetryStrategy.class);
+    when(retryStrategy.retryDelayNanos(any(Request.class), any(RetryReason.class))).thenReturn(RetryStrategy.NO_RETRY);
+    Request<?> request = mock(Request.class);
+    when(request.completed()).thenReturn(false);
+    when(request.retryStrategy()).thenReturn(retryStrategy);
+    when(request.context()).thenReturn(mock(RequestContext.class));
+
+    CoreEnvironment env = mock(CoreEnvironment.class);
+    SimpleEventBus eventBus = new SimpleEventBus(true);
+    when(env.eventBus()).thenReturn(eventBus);
+    CoreContext context = new CoreContext(mock(Core.class), 1, env, mock(Authenticator.class));
+    RetryOrchestrator.maybeRetry(context, request, RetryReason.UNKNOWN);
+
+    verify(request, times(1)).cancel(CancellationReason.noMoreRetries(RetryReason.UNKNOWN));
+    verify(retryStrategy, never()).shouldRetry(any(Request.class), any(RetryReason.class));
+    assertEquals(1, eventBus.publishedEvents().size());
+    assertTrue(eventBus.publishedEvents().get(0) instanceof RequestNotRetriedEvent);
+  }
+
   @Test
   @SuppressWarnings({"unchecked"})
   void retryWithDelay() {
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.couchbase.client.core.retry;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.Timer;
+import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.events.metrics.LatencyMetricsAggregatedEvent;
+import com.couchbase.client.core.cnc.metrics.AggregatingMeter;
+import com.couchbase.client.core.cnc.metrics.NoopMeter;
+import com.couchbase.client.core.config.BucketConfig;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.env.AggregatingMeterConfig;
+import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+
+import static com.couchbase.client.test.Util.waitUntilCondition;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link RetryParking}.
+ */
+class RetryParkingTest {
+
+  private static final Duration LONG_FALLBACK = Duration.ofSeconds(30);
+
+  private Timer timer;
+  private Core core;
+  private RetryParking parking;
+
+  @BeforeEach
+  void setup() {
+    timer = Timer.createAndStart(CoreEnvironment.DEFAULT_MAX_NUM_REQUESTS_IN_RETRY);
+    CoreEnvironment env = mock(CoreEnvironment.class);
+    when(env.timer()).thenReturn(timer);
+    when(env.meter()).thenReturn(new NoopMeter());
+    core = mock(Core.class);
+    when(core.context()).thenReturn(new CoreContext(core, 1, env, mock(Authenticator.class)));
+    parking = new RetryParking(core);
+  }
+
+  @AfterEach
+  void teardown() {
+    timer.stop();
+  }
+
+  @Test
+  void onlyParksTopologyRelatedReasons() {
+    assertTrue(RetryParking.parks(RetryReason.KV_NOT_MY_VBUCKET));
+    assertTrue(RetryParking.parks(RetryReason.NODE_NOT_AVAILABLE));
+    assertFalse(RetryParking.parks(RetryReason.KV_TEMPORARY_FAILURE));
+    assertFalse(RetryParking.parks(RetryReason.UNKNOWN));
+  }
+
+  @Test
+  void wakesUpOnConfigChangeOfBucket() {
+    GetRequest request = request("travel-sample");
+    parking.park(request, RetryReason.KV_NOT_MY_VBUCKET, LONG_FALLBACK);
+    assertEquals(1, parking.size());
+    assertEquals(1, timer.outstandingForRetry());
+
+    parking.configApplied(config("travel-sample", 1));
+    verify(core, times(1)).send(request, false);
+    assertEquals(0, parking.size());
+    assertEquals(0, timer.outstandingForRetry());
+  }
+
+  @Test
+  void ignoresConfigChangeOfOtherBucket() {
+    GetRequest request = request("travel-sample");
+    parking.park(request, RetryReason.KV_NOT_MY_VBUCKET, LONG_FALLBACK);
+
+    parking.configApplied(config("beer-sample", 1));
+    verify(core, never()).send(request, false);
+    assertEquals(1, parking.size());
+  }
+
+  @Test
+  void ignoresConfigWithSameRevision() {
+    parking.configApplied(config("travel-sample", 1));
+
+    GetRequest request = request("travel-sample");
+    parking.park(request, RetryReason.KV_NOT_MY_VBUCKET, LONG_FALLBACK);
+
+    parking.configApplied(config("travel-sample", 1));
+    verify(core, never()).send(request, false);
+
+    parking.configApplied(config("travel-sample", 2));
+    verify(core, times(1)).send(request, false);
+  }
+
+  @Test
+  void wakesUpOnCollectionMapRefresh() {
+    GetRequest request = request("travel-sample");
+    parking.park(request, RetryReason.COLLECTION_MAP_REFRESH_IN_PROGRESS, LONG_FALLBACK);
+
+    parking.collectionMapRefreshed("beer-sample");
+    verify(core, never()).send(request, false);
+
+    parking.collectionMapRefreshed("travel-sample");
+    verify(core, times(1)).send(request, false);
+  }
+
+  @Test
+  void fallsBackToTimer() {
+    GetRequest request = request("travel-sample");
+    parking.park(request, RetryReason.NODE_NOT_AVAILABLE, Duration.ofMillis(10));
+
+    waitUntilCondition(() -> parking.size() == 0);
+    // the entry is removed right before the request is sent again
+    verify(core, timeout(5000).times(1)).send(request, false);
+    assertEquals(0, timer.outstandingForRetry());
+  }
+
+  @Test
+  void reportsWakeupsThroughAggregatingMeter() {
+    EventBus eventBus = mock(EventBus.class);
+    AggregatingMeter meter = AggregatingMeter.create(eventBus, AggregatingMeterConfig.create());
+    CoreEnvironment env = mock(CoreEnvironment.class);
+    when(env.timer()).thenReturn(timer);
+    when(env.meter()).thenReturn(meter);
+    Core core = mock(Core.class);
+    when(core.context()).thenReturn(new CoreContext(core, 1, env, mock(Authenticator.class)));
+    RetryParking parking = new RetryParking(core);
+
+    parking.park(request("travel-sample"), RetryReason.KV_NOT_MY_VBUCKET, LONG_FALLBACK);
+    parking.configApplied(config("travel-sample", 1));
+
+    meter.dumpMetrics();
+    ArgumentCaptor<LatencyMetricsAggregatedEvent> captor = ArgumentCaptor.forClass(LatencyMetricsAggregatedEvent.class);
+    verify(eventBus).publish(captor.capture());
+    String description = captor.getValue().description();
+    assertTrue(description.contains("\"cb.retry_wakeups\":{\"cb.retry_reason=KV_NOT_MY_VBUCKET,cb.wakeup="), description);
+  }
+
+  private static GetRequest request(final String bucket) {
+    GetRequest request = mock(GetRequest.class);
+    when(request.bucket()).thenReturn(bucket);
+    return request;
+  }
+
+  private static ClusterConfig config(final String bucket, final long rev) {
+    BucketConfig bucketConfig = mock(BucketConfig.class);
+    when(bucketConfig.name()).thenReturn(bucket);
+    when(bucketConfig.rev()).thenReturn(rev);
+    ClusterConfig config = new ClusterConfig();
+    config.setBucketConfig(bucketConfig);
+    return config;
+  }
+
+}
@@ -26,6 +26,7 @@ import com.couchbase.client.core.endpoint.EndpointState;
 import com.couchbase.client.core.env.Authenticator;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.CancellationReason;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.Response;
 import com.couchbase.client.core.msg.kv.NoopRequest;
@@ -34,6 +35,8 @@ import com.couchbase.client.core.cnc.SimpleEventBus;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.mockito.invocation.Invocation;
 import reactor.core.publisher.DirectProcessor;
@@ -47,6 +50,7 @@ import static com.couchbase.client.test.Util.waitUntilCondition;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -428,6 +432,80 @@ class PooledServiceTest {
     verify(mock1, never()).send(request);
   }
 
+  /**
+   * With a wait queue, requests which do not find a free endpoint wait for the next completion instead
+   * of being retried, and are dispatched in FIFO order.
+   */
+  @Test
+  void waitsForFreeEndpointIfPoolExhausted() {
+    Endpoint mock1 = mock(Endpoint.class);
+    when(mock1.state()).thenReturn(EndpointState.CONNECTED);
+    when(mock1.states()).thenReturn(DirectProcessor.create());
+    when(mock1.outstandingRequests()).thenReturn(1L);
+
+    MockedService service = new MockedService(
+      new MockedServiceConfig(1, 1, Duration.ofMillis(500), false, 2),
+      () -> mock1,
+      new FirstEndpointSelectionStrategy()
+    );
+    service.connect();
+
+    ArgumentCaptor<Runnable> completionListener = ArgumentCaptor.forClass(Runnable.class);
+    verify(mock1, times(1)).onRequestCompletion(completionListener.capture());
+
+    NoopRequest request1 = noopRequest();
+    NoopRequest request2 = noopRequest();
+    service.send(request1);
+    service.send(request2);
+    assertEquals(2, service.waitQueueSize());
+    assertEquals(0, request1.context().retryAttempts());
+    verify(mock1, never()).send(request1);
+
+    when(mock1.outstandingRequests()).thenReturn(0L);
+    completionListener.getValue().run();
+    assertEquals(0, service.waitQueueSize());
+    InOrder inOrder = inOrder(mock1);
+    inOrder.verify(mock1).send(request1);
+    inOrder.verify(mock1).send(request2);
+  }
+
+  /**
+   * Once the wait queue is full, further requests fail fast.
+   */
+  @Test
+  void failsFastIfWaitQueueFull() {
+    Endpoint mock1 = mock(Endpoint.class);
+    when(mock1.state()).thenReturn(EndpointState.CONNECTED);
+    when(mock1.states()).thenReturn(DirectProcessor.create());
+    when(mock1.outstandingRequests()).thenReturn(1L);
+
+    MockedService service = new MockedService(
+      new MockedServiceConfig(1, 1, Duration.ofMillis(500), false, 1),
+      () -> mock1,
+      new FirstEndpointSelectionStrategy()
+    );
+    service.connect();
+
+    NoopRequest request1 = noopRequest();
+    NoopRequest request2 = noopRequest();
+    service.send(request1);
+    service.send(request2);
+
+    assertEquals(1, service.waitQueueSize());
+    assertFalse(request1.completed());
+    assertTrue(request2.completed());
+    assertEquals(CancellationReason.TOO_MANY_REQUESTS_WAITING, request2.cancellationReason());
+  }
+
+  private NoopRequest noopRequest() {
+    return new NoopRequest(
+      Duration.ofSeconds(1),
+      serviceContext,
+      BestEffortRetryStrategy.INSTANCE,
+      CollectionIdentifier.fromDefault("bucket")
+    );
+  }
+
   @Test
   void cleansIdleConnections() throws Exception {
     int minEndpoints = 0;
@@ -777,16 +855,22 @@ class PooledServiceTest {
     private final int max;
     private final Duration idle;
     private final boolean pipelined;
+    private final int maxWaitQueueSize;
 
     MockedServiceConfig(int min, int max) {
       this(min, max, Duration.ofSeconds(30), false);
     }
 
     MockedServiceConfig(int min, int max, Duration idle, boolean pipelined) {
+      this(min, max, idle, pipelined, 0);
+    }
+
+    MockedServiceConfig(int min, int max, Duration idle, boolean pipelined, int maxWaitQueueSize) {
       this.max = max;
       this.min = min;
       this.idle = idle;
       this.pipelined = pipelined;
+      this.maxWaitQueueSize = maxWaitQueueSize;
     }
 
     @Override
@@ -809,6 +893,11 @@ class PooledServiceTest {
       return pipelined;
     }
 
+    @Override
+    public int maxWaitQueueSize() {
+      return maxWaitQueueSize;
+    }
+
   }
 
   static class FirstEndpointSelectionStrategy implements EndpointSelectionStrategy {
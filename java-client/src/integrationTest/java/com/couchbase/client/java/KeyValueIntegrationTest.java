@@ -34,8 +34,12 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.couchbase.client.java.kv.DecrementOptions.decrementOptions;
 import static com.couchbase.client.java.kv.GetAndLockOptions.getAndLockOptions;
@@ -95,6 +99,30 @@ class KeyValueIntegrationTest extends JavaIntegrationTest {
     assertFalse(getResult.expiryTime().isPresent());
   }
 
+  /**
+   * Mock does not support listing keys, so we need to ignore it there.
+   */
+  @Test
+  @IgnoreWhen( clusterTypes = ClusterType.MOCKED )
+  void scanReturnsAllDocuments() {
+    String prefix = UUID.randomUUID().toString();
+    Set<String> ids = new HashSet<>();
+    for (int i = 0; i < 20; i++) {
+      String id = prefix + "-" + i;
+      collection.upsert(id, JsonObject.create().put("i", i));
+      ids.add(id);
+    }
+
+    try (Stream<ScanResult> results = collection.scan(ScanOptions.scanOptions().batchSize(3))) {
+      Set<String> found = results
+        .filter(result -> result.id().startsWith(prefix))
+        .peek(result -> assertEquals(prefix + "-" + result.contentAsObject().getInt("i"), result.id()))
+        .map(ScanResult::id)
+        .collect(Collectors.toSet());
+      assertEquals(ids, found);
+    }
+  }
+
   /**
    * Mock does not support Get Meta, so we need to ignore it there.
    */
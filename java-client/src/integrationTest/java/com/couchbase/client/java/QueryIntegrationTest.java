@@ -28,6 +28,7 @@ import com.couchbase.client.java.kv.MutationResult;
 import com.couchbase.client.java.kv.MutationState;
 import com.couchbase.client.java.query.QueryMetrics;
 import com.couchbase.client.java.query.QueryOptions;
+import com.couchbase.client.java.query.QueryPartitions;
 import com.couchbase.client.java.query.QueryProfile;
 import com.couchbase.client.java.query.QueryResult;
 import com.couchbase.client.java.query.QueryStatus;
@@ -42,9 +43,13 @@ import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.couchbase.client.java.manager.query.QueryIndexManagerIntegrationTest.DISABLE_QUERY_TESTS_FOR_CLUSTER;
 import static com.couchbase.client.java.query.QueryOptions.queryOptions;
@@ -196,6 +201,67 @@ class QueryIntegrationTest extends JavaIntegrationTest {
         assertEquals(1, rows.size());
     }
 
+    @Test
+    void streamingSelect() {
+        String id = insertDoc();
+
+        QueryOptions options = queryOptions().scanConsistency(QueryScanConsistency.REQUEST_PLUS);
+        try (Stream<JsonObject> rows = cluster.queryStream(
+          "select * from " + bucketName + " where meta().id=\"" + id + "\"",
+          options
+        )) {
+            assertEquals(1, rows.count());
+        }
+    }
+
+    @Test
+    void streamingSelectCanBeClosedEarly() {
+        QueryOptions options = queryOptions().scanConsistency(QueryScanConsistency.REQUEST_PLUS);
+        try (Stream<Integer> rows = cluster.queryStream(
+          "select raw i from array_range(0, 10000) as i",
+          options,
+          Integer.class
+        )) {
+            assertEquals(Arrays.asList(0, 1, 2), rows.limit(3).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void streamingSelectFailsOnSyntaxError() {
+        assertThrows(ParsingFailureException.class, () -> cluster.queryStream("invalid n1ql").count());
+    }
+
+    @Test
+    void partitionedSelect() {
+        String prefix = UUID.randomUUID().toString();
+        MutationState state = MutationState.from(
+          collection.insert(prefix + "-a", FOO_CONTENT).mutationToken().get(),
+          collection.insert(prefix + "-m", FOO_CONTENT).mutationToken().get(),
+          collection.insert(prefix + "-z", FOO_CONTENT).mutationToken().get()
+        );
+
+        String statement = "select raw meta().id from " + bucketName + " where meta().id like \"" + prefix + "%\""
+          + " and meta().id >= $partitionStart and meta().id < $partitionEnd order by meta().id";
+        QueryPartitions partitions = QueryPartitions.splitAt(prefix + "-c", prefix + "-n").maxConcurrency(2);
+        QueryOptions options = queryOptions().consistentWith(state);
+
+        List<String> unordered = cluster
+          .reactive()
+          .partitionedQuery(statement, partitions, options, String.class)
+          .collectList()
+          .block();
+        assertEquals(3, unordered.size());
+
+        try (Stream<String> ordered = cluster.partitionedQueryStream(
+          statement, partitions, options, String.class, Comparator.naturalOrder()
+        )) {
+            assertEquals(
+              Arrays.asList(prefix + "-a", prefix + "-m", prefix + "-z"),
+              ordered.collect(Collectors.toList())
+            );
+        }
+    }
+
     @Test
     void noProfileRequestedGivesEmptyProfile() {
         String id = insertDoc();
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.codec;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link DefaultJsonSerializer} against the {@link AfterburnerJsonSerializer} on a typical POJO.
+ * <p>
+ * Run with {@code mvn -Djmh=true test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializerBenchmark {
+
+  @Param({"default", "afterburner"})
+  public String serializerType;
+
+  private JsonSerializer serializer;
+  private Order order;
+  private byte[] encoded;
+  private ByteBuf encodedBuf;
+
+  @Setup
+  public void setup() {
+    serializer = serializerType.equals("afterburner")
+      ? AfterburnerJsonSerializer.create()
+      : DefaultJsonSerializer.create();
+
+    order = new Order();
+    order.setId("order::1234567");
+    order.setCustomer("customer::42");
+    order.setPaid(true);
+    order.setTotal(1234.56);
+    for (int i = 0; i < 10; i++) {
+      Line line = new Line();
+      line.setSku("sku-" + i);
+      line.setDescription("lorem ipsum dolor sit amet " + i);
+      line.setQuantity(i + 1);
+      line.setPrice(9.99 * i);
+      order.getLines().add(line);
+    }
+    encoded = serializer.serialize(order);
+    encodedBuf = PooledByteBufAllocator.DEFAULT.heapBuffer().writeBytes(encoded);
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return serializer.serialize(order);
+  }
+
+  @Benchmark
+  public int serializeIntoByteBuf() {
+    ByteBuf out = PooledByteBufAllocator.DEFAULT.buffer();
+    try {
+      serializer.serialize(order, out);
+      return out.readableBytes();
+    } finally {
+      out.release();
+    }
+  }
+
+  @Benchmark
+  public Order deserialize() {
+    return serializer.deserialize(Order.class, encoded);
+  }
+
+  @Benchmark
+  public Order deserializeFromByteBuf() {
+    return serializer.deserialize(Order.class, encodedBuf);
+  }
+
+  public static class Order {
+    private String id;
+    private String customer;
+    private boolean paid;
+    private double total;
+    private List<Line> lines = new ArrayList<>();
+
+    public String getId() {
+      return id;
+    }
+
+    public void setId(String id) {
+      this.id = id;
+    }
+
+    public String getCustomer() {
+      return customer;
+    }
+
+    public void setCustomer(String customer) {
+      this.customer = customer;
+    }
+
+    public boolean isPaid() {
+      return paid;
+    }
+
+    public void setPaid(boolean paid) {
+      this.paid = paid;
+    }
+
+    public double getTotal() {
+      return total;
+    }
+
+    public void setTotal(double total) {
+      this.total = total;
+    }
+
+    public List<Line> getLines() {
+      return lines;
+    }
+
+    public void setLines(List<Line> lines) {
+      this.lines = lines;
+    }
+  }
+
+  public static class Line {
+    private String sku;
+    private String description;
+    private int quantity;
+    private double price;
+
+    public String getSku() {
+      return sku;
+    }
+
+    public void setSku(String sku) {
+      this.sku = sku;
+    }
+
+    public String getDescription() {
+      return description;
+    }
+
+    public void setDescription(String description) {
+      this.description = description;
+    }
+
+    public int getQuantity() {
+      return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+      this.quantity = quantity;
+    }
+
+    public double getPrice() {
+      return price;
+    }
+
+    public void setPrice(double price) {
+      this.price = price;
+    }
+  }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.codec;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.java.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding documents of different sizes into byte arrays against encoding them into pooled buffers
+ * (which are released again, like the request does once completed).
+ * <p>
+ * Run with {@code mvn -Djmh=true test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main
+ * -Dexec.args="JsonTranscoderBenchmark -prof gc"} to see the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonTranscoderBenchmark {
+
+  @Param({"1024", "65536"})
+  public int documentSize;
+
+  private Transcoder arrayTranscoder;
+  private Transcoder pooledTranscoder;
+  private JsonObject document;
+
+  @Setup
+  public void setup() {
+    arrayTranscoder = JsonTranscoder.create(AfterburnerJsonSerializer.create());
+    pooledTranscoder = JsonTranscoder.createPooled(AfterburnerJsonSerializer.create());
+
+    document = JsonObject.create();
+    for (int i = 0; document.toBytes().length < documentSize; i++) {
+      document.put("field" + i, "lorem ipsum dolor sit amet " + i);
+    }
+  }
+
+  @Benchmark
+  public byte[] encodeToArray() {
+    return arrayTranscoder.encode(document).encoded();
+  }
+
+  @Benchmark
+  public int encodeToPooledBuffer() {
+    ByteBuf encoded = pooledTranscoder.encode(document).encodedBuffer();
+    try {
+      return encoded.readableBytes();
+    } finally {
+      encoded.release();
+    }
+  }
+
+}
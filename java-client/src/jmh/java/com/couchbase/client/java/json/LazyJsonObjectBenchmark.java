@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares updating a single field of a document with many nested objects through an eagerly decoded
+ * {@link JsonObject} against one created through {@link JsonObject#fromJsonLazy(byte[])}.
+ * <p>
+ * Run with {@code mvn -Djmh=true test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LazyJsonObjectBenchmark {
+
+  @Param({"16", "256"})
+  public int fields;
+
+  private byte[] document;
+
+  @Setup
+  public void setup() {
+    JsonObject root = JsonObject.create();
+    for (int i = 0; i < fields; i++) {
+      root.put("field" + i, JsonObject.create()
+        .put("id", i)
+        .put("name", "lorem ipsum dolor sit amet")
+        .put("tags", JsonArray.from("a", "b", "c"))
+        .put("nested", JsonObject.create().put("ratio", i / 3.0)));
+    }
+    document = root.toBytes();
+  }
+
+  @Benchmark
+  public byte[] eagerUpdate() {
+    JsonObject doc = JsonObject.fromJson(document);
+    doc.getObject("field0").put("id", -1);
+    return doc.toBytes();
+  }
+
+  @Benchmark
+  public byte[] lazyUpdate() {
+    JsonObject doc = JsonObject.fromJsonLazy(document);
+    doc.getObject("field0").put("id", -1);
+    return doc.toBytes();
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.msg.kv.SubDocumentField;
+import com.couchbase.client.core.msg.kv.SubDocumentOpResponseStatus;
+import com.couchbase.client.core.msg.kv.SubdocCommandType;
+import com.couchbase.client.java.codec.DefaultJsonSerializer;
+import com.couchbase.client.java.codec.JsonSerializer;
+import com.couchbase.client.java.codec.TypeRef;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.projections.ProjectionsApplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding a 16-path lookup of a ~50KB document field by field against binding the
+ * projection with a single deserialization pass.
+ * <p>
+ * Run with {@code mvn -Djmh=true test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LookupInProjectionBenchmark {
+
+  private static final int NUM_PATHS = 16;
+  private static final int DOCUMENT_SIZE = 50 * 1024;
+
+  private static final TypeRef<Map<String, Entry>> TARGET = new TypeRef<Map<String, Entry>>() {};
+
+  private JsonSerializer serializer;
+  private SubDocumentField[] fields;
+  private LookupInResult result;
+
+  @Setup
+  public void setup() {
+    serializer = DefaultJsonSerializer.create();
+
+    StringBuilder payload = new StringBuilder();
+    while (payload.length() < DOCUMENT_SIZE / NUM_PATHS) {
+      payload.append("lorem ipsum dolor sit amet ");
+    }
+
+    fields = new SubDocumentField[NUM_PATHS];
+    for (int i = 0; i < NUM_PATHS; i++) {
+      byte[] value = JsonObject.create()
+        .put("id", i)
+        .put("active", i % 2 == 0)
+        .put("payload", payload.toString())
+        .toBytes();
+      fields[i] = new SubDocumentField(SubDocumentOpResponseStatus.SUCCESS, Optional.empty(), value,
+        "field" + i, SubdocCommandType.GET);
+    }
+    result = new LookupInResult(fields, 0, serializer, null, false);
+  }
+
+  @Benchmark
+  public Map<String, Entry> perFieldDecode() {
+    JsonObject out = JsonObject.create();
+    for (SubDocumentField field : fields) {
+      ProjectionsApplier.parse(out, field.path(), field.value());
+    }
+    return serializer.deserialize(TARGET, out.toBytes());
+  }
+
+  @Benchmark
+  public Map<String, Entry> singlePassDecode() {
+    return result.contentAsProjection(TARGET);
+  }
+
+  public static class Entry {
+    public int id;
+    public boolean active;
+    public String payload;
+  }
+
+}
@@ -39,15 +39,20 @@ import com.couchbase.client.java.kv.CounterResult;
 import com.couchbase.client.java.kv.DecrementOptions;
 import com.couchbase.client.java.kv.IncrementOptions;
 import com.couchbase.client.java.kv.MutationResult;
+import com.couchbase.client.java.kv.GetResult;
+import com.couchbase.client.java.kv.NearCache;
 import com.couchbase.client.java.kv.PrependAccessor;
 import com.couchbase.client.java.kv.PrependOptions;
+import com.couchbase.client.java.kv.SingleFlight;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import static com.couchbase.client.core.util.Validators.notNull;
 import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
 import static com.couchbase.client.java.AsyncCollection.decideKvTimeout;
+import static com.couchbase.client.java.AsyncCollection.invalidate;
 import static com.couchbase.client.java.kv.AppendOptions.appendOptions;
 import static com.couchbase.client.java.kv.DecrementOptions.decrementOptions;
 import static com.couchbase.client.java.kv.IncrementOptions.incrementOptions;
@@ -67,13 +72,18 @@ public class AsyncBinaryCollection {
   private final CoreContext coreContext;
   private final CoreEnvironment environment;
   private final CollectionIdentifier collectionIdentifier;
+  private final NearCache nearCache;
+  private final SingleFlight<List<Object>, GetResult> singleFlight;
 
   AsyncBinaryCollection(final Core core, final CoreEnvironment environment,
-                        final CollectionIdentifier collectionIdentifier) {
+                        final CollectionIdentifier collectionIdentifier, final NearCache nearCache,
+                        final SingleFlight<List<Object>, GetResult> singleFlight) {
     this.core = core;
     this.coreContext = core.context();
     this.environment = environment;
     this.collectionIdentifier = collectionIdentifier;
+    this.nearCache = nearCache;
+    this.singleFlight = singleFlight;
   }
 
   /**
@@ -119,6 +129,7 @@ public class AsyncBinaryCollection {
     AppendRequest request = new AppendRequest(timeout, coreContext, collectionIdentifier, retryStrategy, id, content,
       opts.cas(), opts.durabilityLevel(), span);
     request.context().clientContext(opts.clientContext());
+    invalidate(nearCache, singleFlight, id, request);
     return request;
   }
 
@@ -165,6 +176,7 @@ public class AsyncBinaryCollection {
     PrependRequest request = new PrependRequest(timeout, coreContext, collectionIdentifier, retryStrategy, id, content,
       opts.cas(), opts.durabilityLevel(), span);
     request.context().clientContext(opts.clientContext());
+    invalidate(nearCache, singleFlight, id, request);
     return request;
   }
 
@@ -207,6 +219,7 @@ public class AsyncBinaryCollection {
     IncrementRequest request = new IncrementRequest(timeout, coreContext, collectionIdentifier, retryStrategy, id,
       opts.delta(), opts.initial(), expiry, opts.durabilityLevel(), span);
     request.context().clientContext(opts.clientContext());
+    invalidate(nearCache, singleFlight, id, request);
     return request;
   }
 
@@ -249,6 +262,7 @@ public class AsyncBinaryCollection {
     DecrementRequest request = new DecrementRequest(timeout, coreContext, collectionIdentifier, retryStrategy, id,
       opts.delta(), opts.initial(), expiry, opts.durabilityLevel(), span);
     request.context().clientContext(opts.clientContext());
+    invalidate(nearCache, singleFlight, id, request);
     return request;
   }
 
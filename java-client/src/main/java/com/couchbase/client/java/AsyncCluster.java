@@ -31,6 +31,7 @@ import com.couchbase.client.core.env.ConnectionStringPropertyLoader;
 import com.couchbase.client.core.env.OwnedSupplier;
 import com.couchbase.client.core.env.PasswordAuthenticator;
 import com.couchbase.client.core.env.SeedNode;
+import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.core.error.context.ReducedAnalyticsErrorContext;
 import com.couchbase.client.core.error.context.ReducedQueryErrorContext;
 import com.couchbase.client.core.error.context.ReducedSearchErrorContext;
@@ -333,6 +334,19 @@ public class AsyncCluster {
    * @return the constructed query request.
    */
   QueryRequest queryRequest(final String statement, final QueryOptions.Built options) {
+    return queryRequest(statement, options, null);
+  }
+
+  /**
+   * Helper method to construct the query request with additional named parameters.
+   *
+   * @param statement the statement of the query.
+   * @param options the options.
+   * @param additionalParameters named parameters added to the ones from the options, may be null.
+   * @return the constructed query request.
+   */
+  QueryRequest queryRequest(final String statement, final QueryOptions.Built options,
+                            final JsonObject additionalParameters) {
     notNullOrEmpty(statement, "Statement", () -> new ReducedQueryErrorContext(statement));
     Duration timeout = options.timeout().orElse(environment.get().timeoutConfig().queryTimeout());
     RetryStrategy retryStrategy = options.retryStrategy().orElse(environment.get().retryStrategy());
@@ -341,6 +355,9 @@ public class AsyncCluster {
     query.put("statement", statement);
     query.put("timeout", encodeDurationToMs(timeout));
     options.injectParams(query);
+    if (additionalParameters != null) {
+      injectAdditionalParameters(query, additionalParameters);
+    }
 
     final byte[] queryBytes = query.toString().getBytes(StandardCharsets.UTF_8);
     final String clientContextId = query.getString("client_context_id");
@@ -354,6 +371,25 @@ public class AsyncCluster {
     return request;
   }
 
+  /**
+   * Adds the additional named parameters to the query, which must not be set through the options already.
+   *
+   * @param query the query with the options already injected.
+   * @param additionalParameters the named parameters to add.
+   */
+  static void injectAdditionalParameters(final JsonObject query, final JsonObject additionalParameters) {
+    if (query.containsKey("args")) {
+      throw InvalidArgumentException.fromMessage("Positional parameters cannot be combined with named parameters");
+    }
+    for (String name : additionalParameters.getNames()) {
+      String key = '$' + name;
+      if (query.containsKey(key)) {
+        throw InvalidArgumentException.fromMessage("The named parameter " + key + " is reserved and cannot be set");
+      }
+      query.put(key, additionalParameters.get(name));
+    }
+  }
+
   /**
    * Performs an Analytics query with default {@link AnalyticsOptions}.
    *
@@ -29,9 +29,11 @@ import com.couchbase.client.core.error.context.AggregateErrorContext;
 import com.couchbase.client.core.error.context.ErrorContext;
 import com.couchbase.client.core.error.context.ReducedKeyValueErrorContext;
 import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.kv.DurabilityLevel;
 import com.couchbase.client.core.msg.kv.GetAndLockRequest;
 import com.couchbase.client.core.msg.kv.GetAndTouchRequest;
+import com.couchbase.client.core.msg.kv.GetKeysRequest;
 import com.couchbase.client.core.msg.kv.GetMetaRequest;
 import com.couchbase.client.core.msg.kv.GetRequest;
 import com.couchbase.client.core.msg.kv.InsertRequest;
@@ -55,6 +57,8 @@ import com.couchbase.client.java.kv.ExistsOptions;
 import com.couchbase.client.java.kv.ExistsResult;
 import com.couchbase.client.java.kv.Expiry;
 import com.couchbase.client.java.kv.GetAccessor;
+import com.couchbase.client.java.kv.NearCache;
+import com.couchbase.client.java.kv.SingleFlight;
 import com.couchbase.client.java.kv.GetAllReplicasOptions;
 import com.couchbase.client.java.kv.GetAndLockOptions;
 import com.couchbase.client.java.kv.GetAndTouchOptions;
@@ -79,6 +83,7 @@ import com.couchbase.client.java.kv.RemoveAccessor;
 import com.couchbase.client.java.kv.RemoveOptions;
 import com.couchbase.client.java.kv.ReplaceAccessor;
 import com.couchbase.client.java.kv.ReplaceOptions;
+import com.couchbase.client.java.kv.ScanOptions;
 import com.couchbase.client.java.kv.StoreSemantics;
 import com.couchbase.client.java.kv.TouchAccessor;
 import com.couchbase.client.java.kv.TouchOptions;
@@ -89,6 +94,7 @@ import com.couchbase.client.java.kv.UpsertOptions;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -173,6 +179,16 @@ public class AsyncCollection {
    */
   private final CollectionIdentifier collectionIdentifier;
 
+  /**
+   * Holds the documents fetched by gets which opted into the near cache.
+   */
+  private final NearCache nearCache;
+
+  /**
+   * Coalesces identical gets which opted into it while they are in flight.
+   */
+  private final SingleFlight<List<Object>, GetResult> singleFlight;
+
   /**
    * Creates a new {@link AsyncCollection}.
    *
@@ -190,7 +206,11 @@ public class AsyncCollection {
     this.environment = environment;
     this.bucket = bucket;
     this.collectionIdentifier = new CollectionIdentifier(bucket, Optional.of(scopeName), Optional.of(name));
-    this.asyncBinaryCollection = new AsyncBinaryCollection(core, environment, collectionIdentifier);
+    this.nearCache = new NearCache(core, environment.nearCacheConfig(), collectionIdentifier);
+    this.singleFlight = new SingleFlight<>(core, collectionIdentifier);
+    this.asyncBinaryCollection = new AsyncBinaryCollection(
+      core, environment, collectionIdentifier, nearCache, singleFlight
+    );
   }
 
   /**
@@ -262,13 +282,35 @@ public class AsyncCollection {
     final GetOptions.Built opts = options.build();
 
     final Transcoder transcoder = opts.transcoder() == null ? environment.transcoder() : opts.transcoder();
+    if (opts.singleFlight()) {
+      return singleFlight.execute(singleFlightKey(id, opts, transcoder), () -> get(id, opts, transcoder));
+    }
+    return get(id, opts, transcoder);
+  }
+
+  /**
+   * Fetches the document once the options are resolved, possibly shared between single-flight callers.
+   */
+  private CompletableFuture<GetResult> get(final String id, final GetOptions.Built opts, final Transcoder transcoder) {
     if (opts.projections().isEmpty() && !opts.withExpiry()) {
+      if (opts.nearCache()) {
+        return nearCache.get(id, () -> fullGetRequest(id, opts), () -> revalidateRequest(id, opts), transcoder);
+      }
       return GetAccessor.get(core, fullGetRequest(id, opts), transcoder);
     } else {
       return GetAccessor.subdocGet(core, subdocGetRequest(id, opts), transcoder);
     }
   }
 
+  /**
+   * Returns the key under which gets are coalesced, made up of everything which affects the request and its result.
+   */
+  private static List<Object> singleFlightKey(final String id, final GetOptions.Built opts,
+                                              final Transcoder transcoder) {
+    return Arrays.asList(id, opts.projections(), opts.withExpiry(), opts.nearCache(), transcoder,
+      opts.timeout(), opts.retryStrategy());
+  }
+
   /**
    * Helper method to create a get request for a full doc fetch.
    *
@@ -288,6 +330,85 @@ public class AsyncCollection {
     return request;
   }
 
+  /**
+   * Helper method to create the request which checks if a document in the near cache is still current.
+   *
+   * @param id the document id which is used to uniquely identify it.
+   * @param opts custom options to change the default behavior.
+   * @return the get meta request.
+   */
+  @Stability.Internal
+  GetMetaRequest revalidateRequest(final String id, final GetOptions.Built opts) {
+    Duration timeout = opts.timeout().orElse(environment.timeoutConfig().kvTimeout());
+    RetryStrategy retryStrategy = opts.retryStrategy().orElse(environment.retryStrategy());
+
+    RequestSpan span = environment.requestTracer().requestSpan(TracingIdentifiers.SPAN_REQUEST_KV_EXISTS, opts.parentSpan().orElse(null));
+    GetMetaRequest request = new GetMetaRequest(id, timeout, coreContext, collectionIdentifier, retryStrategy, span);
+    request.context().clientContext(opts.clientContext());
+    return request;
+  }
+
+  /**
+   * Invalidates the document in the near cache and releases the coalesced gets of it, once now and once more when
+   * the mutation completes, so that later gets never see the document from before the mutation.
+   *
+   * @param nearCache the near cache of the collection.
+   * @param singleFlight the coalesced gets of the collection.
+   * @param id the id of the mutated document.
+   * @param request the request mutating the document.
+   */
+  static void invalidate(final NearCache nearCache, final SingleFlight<List<Object>, GetResult> singleFlight,
+                         final String id, final Request<?> request) {
+    nearCache.invalidate(id, request);
+    singleFlight.release(key -> id.equals(key.get(0)), request);
+  }
+
+  /**
+   * Returns the near cache of this collection.
+   */
+  @Stability.Internal
+  NearCache nearCache() {
+    return nearCache;
+  }
+
+  /**
+   * Helper method to create a request listing the keys of a vbucket for a collection scan.
+   *
+   * @param startKey the key to start listing at.
+   * @param vbucket the vbucket whose keys are listed.
+   * @param opts the scan options.
+   * @return the get keys request.
+   */
+  @Stability.Internal
+  GetKeysRequest getKeysRequest(final String startKey, final short vbucket, final ScanOptions.Built opts) {
+    Duration timeout = opts.timeout().orElse(environment.timeoutConfig().kvTimeout());
+    RetryStrategy retryStrategy = opts.retryStrategy().orElse(environment.retryStrategy());
+
+    RequestSpan span = environment.requestTracer().requestSpan(TracingIdentifiers.SPAN_REQUEST_KV_SCAN, opts.parentSpan().orElse(null));
+    GetKeysRequest request = new GetKeysRequest(startKey, vbucket, opts.batchSize(), timeout, coreContext,
+      collectionIdentifier, retryStrategy, span);
+    request.context().clientContext(opts.clientContext());
+    return request;
+  }
+
+  /**
+   * Helper method to create a request fetching a document found by a collection scan.
+   *
+   * @param id the document id which is used to uniquely identify it.
+   * @param opts the scan options.
+   * @return the get request.
+   */
+  @Stability.Internal
+  GetRequest scanGetRequest(final String id, final ScanOptions.Built opts) {
+    Duration timeout = opts.timeout().orElse(environment.timeoutConfig().kvTimeout());
+    RetryStrategy retryStrategy = opts.retryStrategy().orElse(environment.retryStrategy());
+
+    RequestSpan span = environment.requestTracer().requestSpan(TracingIdentifiers.SPAN_REQUEST_KV_GET, opts.parentSpan().orElse(null));
+    GetRequest request = new GetRequest(id, timeout, coreContext, collectionIdentifier, retryStrategy, span);
+    request.context().clientContext(opts.clientContext());
+    return request;
+  }
+
   /**
    * Helper method to create a get request for a subdoc fetch.
    *
@@ -431,6 +552,7 @@ public class AsyncCollection {
       id, timeout, coreContext, collectionIdentifier, retryStrategy, lockTime, span
     );
     request.context().clientContext(opts.clientContext());
+    invalidate(nearCache, singleFlight, id, request);
     return request;
   }
 
@@ -485,6 +607,7 @@ public class AsyncCollection {
       id, timeout, coreContext, collectionIdentifier, retryStrategy, encodedExpiry, span
     );
     request.context().clientContext(opts.clientContext());
+    invalidate(nearCache, singleFlight, id, request);
     return request;
   }
 
@@ -730,6 +853,7 @@ public class AsyncCollection {
     RemoveRequest request = new RemoveRequest(id, opts.cas(), timeout,
       coreContext, collectionIdentifier, retryStrategy, opts.durabilityLevel(), span);
     request.context().clientContext(opts.clientContext());
+    invalidate(nearCache, singleFlight, id, request);
     return request;
   }
 
@@ -778,6 +902,8 @@ public class AsyncCollection {
       .requestTracer()
       .requestSpan(TracingIdentifiers.SPAN_REQUEST_KV_INSERT, opts.parentSpan().orElse(null));
 
+    long expiry = opts.expiry().encode(environment.eventBus());
+
     final RequestSpan encodeSpan = environment
       .requestTracer()
       .requestSpan(TracingIdentifiers.SPAN_REQUEST_ENCODING, span);
@@ -790,12 +916,15 @@ public class AsyncCollection {
     }
     long end = System.nanoTime();
 
-    long expiry = opts.expiry().encode(environment.eventBus());
-    InsertRequest request = new InsertRequest(id, encoded.encoded(), expiry, encoded.flags(),
-      timeout, coreContext, collectionIdentifier, retryStrategy, opts.durabilityLevel(), span);
+    InsertRequest request = encoded.encodedBuffer() != null
+      ? new InsertRequest(id, encoded.encodedBuffer(), expiry, encoded.flags(),
+          timeout, coreContext, collectionIdentifier, retryStrategy, opts.durabilityLevel(), span)
+      : new InsertRequest(id, encoded.encoded(), expiry, encoded.flags(),
+          timeout, coreContext, collectionIdentifier, retryStrategy, opts.durabilityLevel(), span);
     request.context()
       .clientContext(opts.clientContext())
       .encodeLatency(end - start);
+    invalidate(nearCache, singleFlight, id, request);
     return request;
   }
 
@@ -844,6 +973,8 @@ public class AsyncCollection {
       .requestTracer()
       .requestSpan(TracingIdentifiers.SPAN_REQUEST_KV_UPSERT, opts.parentSpan().orElse(null));
 
+    long expiry = opts.expiry().encode(environment.eventBus());
+
     final RequestSpan encodeSpan = environment
       .requestTracer()
       .requestSpan(TracingIdentifiers.SPAN_REQUEST_ENCODING, span);
@@ -856,12 +987,15 @@ public class AsyncCollection {
     }
     long end = System.nanoTime();
 
-    long expiry = opts.expiry().encode(environment.eventBus());
-    final UpsertRequest request = new UpsertRequest(id, encoded.encoded(), expiry, encoded.flags(),
-      timeout, coreContext, collectionIdentifier, retryStrategy, opts.durabilityLevel(), span);
+    final UpsertRequest request = encoded.encodedBuffer() != null
+      ? new UpsertRequest(id, encoded.encodedBuffer(), expiry, encoded.flags(),
+          timeout, coreContext, collectionIdentifier, retryStrategy, opts.durabilityLevel(), span)
+      : new UpsertRequest(id, encoded.encoded(), expiry, encoded.flags(),
+          timeout, coreContext, collectionIdentifier, retryStrategy, opts.durabilityLevel(), span);
     request.context()
       .clientContext(opts.clientContext())
       .encodeLatency(end - start);
+    invalidate(nearCache, singleFlight, id, request);
     return request;
   }
 
@@ -910,6 +1044,8 @@ public class AsyncCollection {
       .requestTracer()
       .requestSpan(TracingIdentifiers.SPAN_REQUEST_KV_REPLACE, opts.parentSpan().orElse(null));
 
+    long expiry = opts.expiry().encode(environment.eventBus());
+
     final RequestSpan encodeSpan = environment
       .requestTracer()
       .requestSpan(TracingIdentifiers.SPAN_REQUEST_ENCODING, span);
@@ -922,12 +1058,15 @@ public class AsyncCollection {
     }
     long end = System.nanoTime();
 
-    long expiry = opts.expiry().encode(environment.eventBus());
-    ReplaceRequest request = new ReplaceRequest(id, encoded.encoded(), expiry, encoded.flags(),
-      timeout, opts.cas(), coreContext, collectionIdentifier, retryStrategy, opts.durabilityLevel(), span);
+    ReplaceRequest request = encoded.encodedBuffer() != null
+      ? new ReplaceRequest(id, encoded.encodedBuffer(), expiry, encoded.flags(),
+          timeout, opts.cas(), coreContext, collectionIdentifier, retryStrategy, opts.durabilityLevel(), span)
+      : new ReplaceRequest(id, encoded.encoded(), expiry, encoded.flags(),
+          timeout, opts.cas(), coreContext, collectionIdentifier, retryStrategy, opts.durabilityLevel(), span);
     request.context()
       .clientContext(opts.clientContext())
       .encodeLatency(end - start);
+    invalidate(nearCache, singleFlight, id, request);
     return request;
   }
 
@@ -976,6 +1115,7 @@ public class AsyncCollection {
     TouchRequest request = new TouchRequest(timeout, coreContext, collectionIdentifier, retryStrategy, id,
         encodedExpiry, span);
     request.context().clientContext(opts.clientContext());
+    invalidate(nearCache, singleFlight, id, request);
     return request;
   }
 
@@ -1023,6 +1163,7 @@ public class AsyncCollection {
     RequestSpan span = environment.requestTracer().requestSpan(TracingIdentifiers.SPAN_REQUEST_KV_UNLOCK, opts.parentSpan().orElse(null));
     UnlockRequest request = new UnlockRequest(timeout, coreContext, collectionIdentifier, retryStrategy, id, cas, span);
     request.context().clientContext(opts.clientContext());
+    invalidate(nearCache, singleFlight, id, request);
     return request;
   }
 
@@ -1195,6 +1336,7 @@ public class AsyncCollection {
         request.context()
           .clientContext(opts.clientContext())
           .encodeLatency(end - start);
+        invalidate(nearCache, singleFlight, id, request);
         final CompletableFuture<SubdocMutateRequest> future = new CompletableFuture<>();
         future.complete(request);
         return future;
@@ -33,22 +33,27 @@ import com.couchbase.client.java.diagnostics.DiagnosticsOptions;
 import com.couchbase.client.java.diagnostics.PingOptions;
 import com.couchbase.client.java.diagnostics.WaitUntilReadyOptions;
 import com.couchbase.client.java.env.ClusterEnvironment;
+import com.couchbase.client.java.json.JsonObject;
 import com.couchbase.client.java.manager.analytics.AnalyticsIndexManager;
 import com.couchbase.client.java.manager.bucket.BucketManager;
 import com.couchbase.client.java.manager.query.QueryIndexManager;
 import com.couchbase.client.java.manager.search.SearchIndexManager;
 import com.couchbase.client.java.manager.user.UserManager;
 import com.couchbase.client.java.query.QueryOptions;
+import com.couchbase.client.java.query.QueryPartitions;
 import com.couchbase.client.java.query.QueryResult;
+import com.couchbase.client.java.query.ReactiveQueryResult;
 import com.couchbase.client.java.search.SearchOptions;
 import com.couchbase.client.java.search.SearchQuery;
 import com.couchbase.client.java.search.result.SearchResult;
 
 import java.time.Duration;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static com.couchbase.client.core.util.Validators.notNull;
 import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
@@ -103,6 +108,11 @@ import static com.couchbase.client.java.ReactiveCluster.DEFAULT_SEARCH_OPTIONS;
  */
 public class Cluster {
 
+  /**
+   * The number of decoded rows buffered ahead of the consumer of {@link #queryStream(String, QueryOptions, Class)}.
+   */
+  static final int QUERY_STREAM_BUFFER_SIZE = 256;
+
   /**
    * Holds the underlying async cluster reference.
    */
@@ -393,6 +403,108 @@ public class Cluster {
     return block(async().query(statement, options));
   }
 
+  /**
+   * Performs a query against the query (N1QL) services and streams the rows as {@link JsonObject JsonObjects}.
+   *
+   * @param statement the N1QL query statement.
+   * @return a {@link Stream} of the rows, which must be closed if not consumed completely.
+   * @throws TimeoutException if the operation times out before getting a result.
+   * @throws CouchbaseException for all other error reasons (acts as a base type and catch-all).
+   * @see #queryStream(String, QueryOptions, Class)
+   */
+  @Stability.Volatile
+  public Stream<JsonObject> queryStream(final String statement) {
+    return queryStream(statement, DEFAULT_QUERY_OPTIONS);
+  }
+
+  /**
+   * Performs a query against the query (N1QL) services with custom options and streams the rows as
+   * {@link JsonObject JsonObjects}.
+   *
+   * @param statement the N1QL query statement as a raw string.
+   * @param options the custom options for this query.
+   * @return a {@link Stream} of the rows, which must be closed if not consumed completely.
+   * @throws TimeoutException if the operation times out before getting a result.
+   * @throws CouchbaseException for all other error reasons (acts as a base type and catch-all).
+   * @see #queryStream(String, QueryOptions, Class)
+   */
+  @Stability.Volatile
+  public Stream<JsonObject> queryStream(final String statement, final QueryOptions options) {
+    return queryStream(statement, options, JsonObject.class);
+  }
+
+  /**
+   * Performs a query against the query (N1QL) services with custom options and streams the rows decoded
+   * into the target class.
+   * <p>
+   * Unlike {@link #query(String, QueryOptions)}, the rows are not collected into memory: at most
+   * {@value #QUERY_STREAM_BUFFER_SIZE} decoded rows are buffered ahead of the consumer, and once the buffer is full
+   * the SDK stops reading from the socket until more rows are consumed. This allows to iterate over very large
+   * results in constant memory.
+   * <p>
+   * The returned stream must be consumed from a thread that is allowed to block, and closed if it is not consumed
+   * completely (for example with try-with-resources), since closing it cancels the query. Errors which occur while
+   * streaming are thrown from the stream operations. If the query metadata is needed as well, use the
+   * {@link #reactive()} API instead.
+   *
+   * @param statement the N1QL query statement as a raw string.
+   * @param options the custom options for this query.
+   * @param target the target class to decode each row into.
+   * @return a {@link Stream} of the rows, which must be closed if not consumed completely.
+   * @throws TimeoutException if the operation times out before getting a result.
+   * @throws CouchbaseException for all other error reasons (acts as a base type and catch-all).
+   */
+  @Stability.Volatile
+  public <T> Stream<T> queryStream(final String statement, final QueryOptions options, final Class<T> target) {
+    notNull(target, "Target");
+    ReactiveQueryResult result = block(reactive().query(statement, options).toFuture());
+    return result.rowsAs(target).toStream(QUERY_STREAM_BUFFER_SIZE);
+  }
+
+  /**
+   * Performs a N1QL query split into partitions over document key ranges and streams the rows of all partitions.
+   * <p>
+   * The rows are consumed with the same bounded buffering as {@link #queryStream(String, QueryOptions, Class)},
+   * see {@link ReactiveCluster#partitionedQuery(String, QueryPartitions, QueryOptions, Class)} for how the
+   * partitions are executed and merged.
+   *
+   * @param statement the N1QL query statement, restricting the keys through the partition parameters.
+   * @param partitions the key ranges to split the statement into.
+   * @param options the custom options applied to every partition.
+   * @param target the target class to decode each row into.
+   * @return a {@link Stream} of the rows, which must be closed if not consumed completely.
+   * @throws CouchbaseException for all error reasons (acts as a base type and catch-all).
+   */
+  @Stability.Volatile
+  public <T> Stream<T> partitionedQueryStream(final String statement, final QueryPartitions partitions,
+                                              final QueryOptions options, final Class<T> target) {
+    return reactiveCluster.partitionedQuery(statement, partitions, options, target).toStream(QUERY_STREAM_BUFFER_SIZE);
+  }
+
+  /**
+   * Performs a N1QL query split into partitions over document key ranges and streams the ordered rows of all
+   * partitions.
+   * <p>
+   * See {@link ReactiveCluster#partitionedQuery(String, QueryPartitions, QueryOptions, Class, Comparator)} for how
+   * the partitions are executed and merged.
+   *
+   * @param statement the N1QL query statement, restricting the keys through the partition parameters.
+   * @param partitions the key ranges to split the statement into.
+   * @param options the custom options applied to every partition.
+   * @param target the target class to decode each row into.
+   * @param order the order of the rows returned by every partition.
+   * @return a {@link Stream} of the rows in the given order, which must be closed if not consumed completely.
+   * @throws CouchbaseException for all error reasons (acts as a base type and catch-all).
+   */
+  @Stability.Volatile
+  public <T> Stream<T> partitionedQueryStream(final String statement, final QueryPartitions partitions,
+                                              final QueryOptions options, final Class<T> target,
+                                              final Comparator<? super T> order) {
+    return reactiveCluster
+      .partitionedQuery(statement, partitions, options, target, order)
+      .toStream(QUERY_STREAM_BUFFER_SIZE);
+  }
+
   /**
    * Performs an analytics query with default {@link AnalyticsOptions}.
    *
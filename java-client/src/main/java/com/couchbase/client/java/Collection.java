@@ -52,6 +52,8 @@ import com.couchbase.client.java.kv.MutationResult;
 import com.couchbase.client.java.kv.QueueOptions;
 import com.couchbase.client.java.kv.RemoveOptions;
 import com.couchbase.client.java.kv.ReplaceOptions;
+import com.couchbase.client.java.kv.ScanOptions;
+import com.couchbase.client.java.kv.ScanResult;
 import com.couchbase.client.java.kv.TouchOptions;
 import com.couchbase.client.java.kv.UnlockOptions;
 import com.couchbase.client.java.kv.UpsertOptions;
@@ -65,6 +67,7 @@ import java.util.stream.Stream;
 
 import static com.couchbase.client.java.AsyncUtils.block;
 import static com.couchbase.client.java.ReactiveCollection.DEFAULT_GET_ALL_REPLICAS_OPTIONS;
+import static com.couchbase.client.java.ReactiveCollection.DEFAULT_SCAN_OPTIONS;
 import static com.couchbase.client.java.kv.ArrayListOptions.arrayListOptions;
 import static com.couchbase.client.java.kv.ArraySetOptions.arraySetOptions;
 import static com.couchbase.client.java.kv.MapOptions.mapOptions;
@@ -82,6 +85,11 @@ import static com.couchbase.client.java.kv.QueueOptions.queueOptions;
  */
 public class Collection {
 
+  /**
+   * The number of documents buffered ahead of the consumer of {@link #scan(ScanOptions)}.
+   */
+  static final int SCAN_STREAM_BUFFER_SIZE = 256;
+
   /**
    * Holds the underlying async collection.
    */
@@ -198,6 +206,33 @@ public class Collection {
     return block(async().get(id, options));
   }
 
+  /**
+   * Scans all documents of the collection with default options and returns them as a stream.
+   *
+   * @return a stream of all documents in the collection, which must be closed if not consumed completely.
+   * @throws CouchbaseException for all error reasons (acts as a base type and catch-all).
+   * @see #scan(ScanOptions)
+   */
+  @Stability.Volatile
+  public Stream<ScanResult> scan() {
+    return scan(DEFAULT_SCAN_OPTIONS);
+  }
+
+  /**
+   * Scans all documents of the collection with custom options and returns them as a stream.
+   * <p>
+   * At most {@value #SCAN_STREAM_BUFFER_SIZE} documents are buffered ahead of the consumer, see
+   * {@link ReactiveCollection#scan(ScanOptions)} for how the collection is scanned.
+   *
+   * @param options custom options to change the default behavior.
+   * @return a stream of all documents in the collection, which must be closed if not consumed completely.
+   * @throws CouchbaseException for all error reasons (acts as a base type and catch-all).
+   */
+  @Stability.Volatile
+  public Stream<ScanResult> scan(final ScanOptions options) {
+    return reactiveCollection.scan(options).toStream(SCAN_STREAM_BUFFER_SIZE);
+  }
+
   /**
    * Fetches a full document and write-locks it for the given duration.
    * <p>
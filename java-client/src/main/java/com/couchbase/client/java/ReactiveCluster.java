@@ -42,15 +42,19 @@ import com.couchbase.client.java.manager.query.AsyncQueryIndexManager;
 import com.couchbase.client.java.manager.query.ReactiveQueryIndexManager;
 import com.couchbase.client.java.manager.search.ReactiveSearchIndexManager;
 import com.couchbase.client.java.manager.user.ReactiveUserManager;
+import com.couchbase.client.java.json.JsonObject;
 import com.couchbase.client.java.query.QueryOptions;
+import com.couchbase.client.java.query.QueryPartitions;
 import com.couchbase.client.java.query.ReactiveQueryResult;
 import com.couchbase.client.java.search.SearchAccessor;
 import com.couchbase.client.java.search.SearchOptions;
 import com.couchbase.client.java.search.SearchQuery;
 import com.couchbase.client.java.search.result.ReactiveSearchResult;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -270,6 +274,83 @@ public class ReactiveCluster {
     });
   }
 
+  /**
+   * Performs a N1QL query split into partitions over document key ranges and merges the rows of all partitions.
+   * <p>
+   * Every partition is a separate query request, so the partitions are spread over all query nodes and up to
+   * {@link QueryPartitions#maxConcurrency()} of them are executed at the same time. The rows are emitted in the
+   * order they arrive, without any ordering across partitions. If one partition fails, the remaining ones are
+   * cancelled and the returned flux fails.
+   * <p>
+   * Each partition runs with its own scan consistency snapshot, so the partitions are not guaranteed to see the
+   * same point in time. To make every partition see at least the mutations in a given state, use
+   * {@link QueryOptions#consistentWith(com.couchbase.client.java.kv.MutationState)}; this is only a lower bound
+   * and partitions may still observe later mutations.
+   *
+   * @param statement the N1QL query statement, restricting the keys through the partition parameters.
+   * @param partitions the key ranges to split the statement into.
+   * @param options the custom options applied to every partition.
+   * @param target the target class to decode each row into.
+   * @return a {@link Flux} of the rows of all partitions.
+   * @see QueryPartitions
+   */
+  @Stability.Volatile
+  public <T> Flux<T> partitionedQuery(final String statement, final QueryPartitions partitions,
+                                      final QueryOptions options, final Class<T> target) {
+    notNull(partitions, "QueryPartitions", () -> new ReducedQueryErrorContext(statement));
+    return Flux
+      .fromIterable(partitions.parameters())
+      .flatMap(p -> queryPartition(statement, p, options, target), partitions.maxConcurrency());
+  }
+
+  /**
+   * Performs a N1QL query split into partitions over document key ranges and merges the ordered rows of all
+   * partitions.
+   * <p>
+   * The statement must return the rows of every partition in the order of the given comparator (usually through
+   * the same {@code ORDER BY} clause), the rows are then merged in that order while they arrive. Note that all
+   * partitions are executed at the same time in this case, regardless of {@link QueryPartitions#maxConcurrency()}.
+   * See {@link #partitionedQuery(String, QueryPartitions, QueryOptions, Class)} for the remaining semantics.
+   *
+   * @param statement the N1QL query statement, restricting the keys through the partition parameters.
+   * @param partitions the key ranges to split the statement into.
+   * @param options the custom options applied to every partition.
+   * @param target the target class to decode each row into.
+   * @param order the order of the rows returned by every partition.
+   * @return a {@link Flux} of the rows of all partitions, in the given order.
+   */
+  @Stability.Volatile
+  public <T> Flux<T> partitionedQuery(final String statement, final QueryPartitions partitions,
+                                      final QueryOptions options, final Class<T> target,
+                                      final Comparator<? super T> order) {
+    notNull(partitions, "QueryPartitions", () -> new ReducedQueryErrorContext(statement));
+    notNull(order, "Order", () -> new ReducedQueryErrorContext(statement));
+    @SuppressWarnings("unchecked")
+    Flux<T>[] sources = partitions
+      .parameters()
+      .stream()
+      .map(p -> queryPartition(statement, p, options, target))
+      .toArray(Flux[]::new);
+    return Flux.mergeOrdered(order, sources);
+  }
+
+  /**
+   * Performs the query for a single partition and returns its rows.
+   */
+  private <T> Flux<T> queryPartition(final String statement, final JsonObject partitionParameters,
+                                     final QueryOptions options, final Class<T> target) {
+    notNull(options, "QueryOptions", () -> new ReducedQueryErrorContext(statement));
+    final QueryOptions.Built opts = options.build();
+    JsonSerializer serializer = opts.serializer() == null ? environment().jsonSerializer() : opts.serializer();
+    return Mono
+      .defer(() -> asyncCluster.queryAccessor().queryReactive(
+        asyncCluster.queryRequest(statement, opts, partitionParameters),
+        opts,
+        serializer
+      ))
+      .flatMapMany(result -> result.rowsAs(target));
+  }
+
   /**
    * Performs an Analytics query with default {@link AnalyticsOptions}.
    *
@@ -65,6 +65,9 @@ import com.couchbase.client.java.kv.RemoveAccessor;
 import com.couchbase.client.java.kv.RemoveOptions;
 import com.couchbase.client.java.kv.ReplaceAccessor;
 import com.couchbase.client.java.kv.ReplaceOptions;
+import com.couchbase.client.java.kv.ScanAccessor;
+import com.couchbase.client.java.kv.ScanOptions;
+import com.couchbase.client.java.kv.ScanResult;
 import com.couchbase.client.java.kv.StoreSemantics;
 import com.couchbase.client.java.kv.TouchAccessor;
 import com.couchbase.client.java.kv.TouchOptions;
@@ -91,6 +94,7 @@ import static com.couchbase.client.java.kv.LookupInOptions.lookupInOptions;
 import static com.couchbase.client.java.kv.MutateInOptions.mutateInOptions;
 import static com.couchbase.client.java.kv.RemoveOptions.removeOptions;
 import static com.couchbase.client.java.kv.ReplaceOptions.replaceOptions;
+import static com.couchbase.client.java.kv.ScanOptions.scanOptions;
 import static com.couchbase.client.java.kv.TouchOptions.touchOptions;
 import static com.couchbase.client.java.kv.UnlockOptions.unlockOptions;
 import static com.couchbase.client.java.kv.UpsertOptions.upsertOptions;
@@ -114,6 +118,7 @@ public class ReactiveCollection {
   static final GetAllReplicasOptions DEFAULT_GET_ALL_REPLICAS_OPTIONS = getAllReplicasOptions();
   static final GetAnyReplicaOptions DEFAULT_GET_ANY_REPLICA_OPTIONS = getAnyReplicaOptions();
   static final GetOptions DEFAULT_GET_OPTIONS = getOptions();
+  static final ScanOptions DEFAULT_SCAN_OPTIONS = scanOptions();
   static final InsertOptions DEFAULT_INSERT_OPTIONS = insertOptions();
   static final LookupInOptions DEFAULT_LOOKUP_IN_OPTIONS = lookupInOptions();
   static final MutateInOptions DEFAULT_MUTATE_IN_OPTIONS = mutateInOptions();
@@ -225,7 +230,19 @@ public class ReactiveCollection {
       GetOptions.Built opts = options.build();
       final Transcoder transcoder = opts.transcoder() == null ? environment().transcoder() : opts.transcoder();
 
+      if (opts.singleFlight()) {
+        // the request is shared, so cancelling one subscription must not cancel it
+        return Reactor.toMono(() -> asyncCollection.get(id, options));
+      }
       if (opts.projections().isEmpty() && !opts.withExpiry()) {
+        if (opts.nearCache()) {
+          return Reactor.toMono(() -> asyncCollection.nearCache().get(
+            id,
+            () -> asyncCollection.fullGetRequest(id, opts),
+            () -> asyncCollection.revalidateRequest(id, opts),
+            transcoder
+          ));
+        }
         GetRequest request = asyncCollection.fullGetRequest(id, opts);
         return Reactor.wrap(request, GetAccessor.get(core, request, transcoder), true);
       } else {
@@ -235,6 +252,50 @@ public class ReactiveCollection {
     });
   }
 
+  /**
+   * Scans all documents of the collection with default options.
+   *
+   * @return a {@link Flux} of all documents in the collection.
+   * @see #scan(ScanOptions)
+   */
+  @Stability.Volatile
+  public Flux<ScanResult> scan() {
+    return scan(DEFAULT_SCAN_OPTIONS);
+  }
+
+  /**
+   * Scans all documents of the collection with custom options.
+   * <p>
+   * The keys of every vbucket are listed page by page and the documents are then fetched, with the vbuckets of
+   * every node scanned in parallel up to {@link ScanOptions#concurrency(int)}. The next page of keys is only listed
+   * once the previous documents have been consumed, so the scan follows the demand of the subscriber. Documents
+   * are returned in no particular order, and documents removed during the scan are skipped.
+   * <p>
+   * Note that the scan is not a snapshot: documents which are created or removed while it is running may or may
+   * not be returned. Listing keys needs server support, the scan fails with a
+   * {@link com.couchbase.client.core.error.FeatureNotAvailableException} otherwise.
+   *
+   * @param options custom options to change the default behavior.
+   * @return a {@link Flux} of all documents in the collection.
+   */
+  @Stability.Volatile
+  public Flux<ScanResult> scan(final ScanOptions options) {
+    return Flux.defer(() -> {
+      notNull(options, "ScanOptions");
+      ScanOptions.Built opts = options.build();
+      final Transcoder transcoder = opts.transcoder() == null ? environment().transcoder() : opts.transcoder();
+      return ScanAccessor.scan(
+        core,
+        bucketName(),
+        opts,
+        opts.timeout().orElse(environment().timeoutConfig().kvTimeout()),
+        (startKey, vbucket) -> asyncCollection.getKeysRequest(startKey, vbucket, opts),
+        id -> asyncCollection.scanGetRequest(id, opts),
+        transcoder
+      );
+    });
+  }
+
   /**
    * Fetches a full document and write-locks it for the given duration with default options.
    * <p>
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.codec;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufInputStream;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufOutputStream;
+import com.couchbase.client.core.encryption.CryptoManager;
+import com.couchbase.client.core.error.DecodingFailureException;
+import com.couchbase.client.core.error.EncodingFailureException;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static com.couchbase.client.core.logging.RedactableArgument.redactUser;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A JSON serializer which replaces reflection with generated bytecode to access the properties of POJOs.
+ * <p>
+ * It otherwise behaves like the {@link DefaultJsonSerializer}, but the accessors and constructors of the classes
+ * it binds are generated on first use, which speeds up serializing and deserializing plain objects. It also encodes
+ * straight into and decodes straight from a {@link ByteBuf} without going through an intermediate byte array.
+ * <p>
+ * Use it by passing it to the environment:
+ * <pre>
+ * ClusterEnvironment env = ClusterEnvironment.builder()
+ *     .jsonSerializer(AfterburnerJsonSerializer.create())
+ *     .build();
+ * </pre>
+ *
+ * @implNote The serializer is backed by a repackaged version of Jackson and its Afterburner module, but this is an
+ * implementation detail that users should not depend on. Properties which are not accessible from generated code
+ * (like private fields without accessors) silently fall back to reflection.
+ * <p>
+ * Be aware that this serializer does not recognize standard Jackson annotations.
+ * @see DefaultJsonSerializer
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public class AfterburnerJsonSerializer extends DefaultJsonSerializer {
+
+  /**
+   * Creates an instance without encryption support.
+   */
+  public static AfterburnerJsonSerializer create() {
+    return create(null);
+  }
+
+  /**
+   * Creates an instance with optional encryption support.
+   *
+   * @param cryptoManager (nullable) The manager to use for activating the
+   * {@code Encrypted} annotation, or null to disable encryption support.
+   */
+  public static AfterburnerJsonSerializer create(CryptoManager cryptoManager) {
+    return new AfterburnerJsonSerializer(cryptoManager);
+  }
+
+  private AfterburnerJsonSerializer(CryptoManager cryptoManager) {
+    super(cryptoManager, new AfterburnerModule());
+  }
+
+  @Override
+  public void serialize(final Object input, final ByteBuf output) {
+    if (input instanceof byte[]) {
+      output.writeBytes((byte[]) input);
+      return;
+    }
+
+    try {
+      // cast needed since ByteBufOutputStream is also a DataOutput
+      mapper().writeValue((OutputStream) new ByteBufOutputStream(output), input);
+    } catch (Throwable t) {
+      throw new EncodingFailureException("Serializing of content " + redactUser(input) + " to JSON failed.", t);
+    }
+  }
+
+  @Override
+  public <T> T deserialize(final Class<T> target, final ByteBuf input) {
+    if (target.isAssignableFrom(byte[].class)) {
+      return super.deserialize(target, input);
+    }
+
+    try {
+      if (input.hasArray()) {
+        return mapper().readValue(input.array(), input.arrayOffset() + input.readerIndex(), input.readableBytes(), target);
+      }
+      return mapper().readValue((InputStream) new ByteBufInputStream(input.duplicate()), target);
+    } catch (Throwable e) {
+      throw new DecodingFailureException("Deserialization of content into target " + target
+          + " failed; encoded = " + redactUser(input.toString(UTF_8)), e);
+    }
+  }
+
+}
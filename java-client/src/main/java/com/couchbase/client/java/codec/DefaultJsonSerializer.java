@@ -17,6 +17,7 @@
 package com.couchbase.client.java.codec;
 
 import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.JavaType;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.Module;
 import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.ObjectMapper;
 import com.couchbase.client.core.error.DecodingFailureException;
 import com.couchbase.client.core.error.EncodingFailureException;
@@ -57,13 +58,24 @@ public class DefaultJsonSerializer implements JsonSerializer {
     return new DefaultJsonSerializer(cryptoManager);
   }
 
-  private DefaultJsonSerializer(CryptoManager cryptoManager) {
+  /**
+   * Creates an instance which registers the given modules in addition to the default ones.
+   */
+  DefaultJsonSerializer(CryptoManager cryptoManager, Module... modules) {
     mapper.registerModule(new RepackagedJsonValueModule());
+    mapper.registerModules(modules);
     if (cryptoManager != null) {
       mapper.registerModule(new RepackagedEncryptionModule(cryptoManager));
     }
   }
 
+  /**
+   * Returns the mapper, so that serializers built on top of this one can provide additional ways to (de)serialize.
+   */
+  ObjectMapper mapper() {
+    return mapper;
+  }
+
   @Override
   public byte[] serialize(final Object input) {
     if (input instanceof byte[]) {
@@ -73,7 +85,7 @@ public class DefaultJsonSerializer implements JsonSerializer {
     try {
       return mapper.writeValueAsBytes(input);
     } catch (Throwable t) {
-      throw new EncodingFailureException("Serializing of content + " + redactUser(input) + " to JSON failed.", t);
+      throw new EncodingFailureException("Serializing of content " + redactUser(input) + " to JSON failed.", t);
     }
   }
 
@@ -16,6 +16,9 @@
 
 package com.couchbase.client.java.codec;
 
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.error.DecodingFailureException;
 
 /**
@@ -52,4 +55,34 @@ public interface JsonSerializer {
   default <T> T deserialize(TypeRef<T> target, byte[] input) {
     throw new DecodingFailureException(getClass().getSimpleName() + " does not support decoding via TypeRef.");
   }
+
+  /**
+   * Serializes the given input and writes the encoded form into the given buffer.
+   * <p>
+   * The default implementation writes the output of {@link #serialize(Object)}, implementations can override it to
+   * encode straight into the buffer.
+   *
+   * @param input the object as input.
+   * @param output the buffer the encoded output is written to, starting at its writer index.
+   */
+  @Stability.Volatile
+  default void serialize(Object input, ByteBuf output) {
+    output.writeBytes(serialize(input));
+  }
+
+  /**
+   * Deserializes the readable bytes of the given buffer into the target class, without modifying its reader index.
+   * <p>
+   * The default implementation copies the content and calls {@link #deserialize(Class, byte[])}, implementations
+   * can override it to decode straight from the buffer.
+   *
+   * @param target the target class.
+   * @param input the buffer holding the raw input.
+   * @param <T> the generic type to deserialize into.
+   * @return the deserialized output.
+   */
+  @Stability.Volatile
+  default <T> T deserialize(Class<T> target, ByteBuf input) {
+    return deserialize(target, ByteBufUtil.getBytes(input));
+  }
 }
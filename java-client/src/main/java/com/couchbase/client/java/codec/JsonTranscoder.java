@@ -16,6 +16,9 @@
 
 package com.couchbase.client.java.codec;
 
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
 import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.core.msg.kv.CodecFlags;
 import com.couchbase.client.java.CommonOptions;
@@ -26,12 +29,36 @@ public class JsonTranscoder implements Transcoder {
 
   private final JsonSerializer serializer;
 
+  /**
+   * If true, content is encoded into pooled buffers instead of byte arrays.
+   */
+  private final boolean pooledBuffers;
+
   public static JsonTranscoder create(JsonSerializer serializer) {
-    return new JsonTranscoder(serializer);
+    return new JsonTranscoder(serializer, false);
+  }
+
+  /**
+   * Creates a transcoder which encodes content into pooled buffers instead of freshly allocated byte arrays.
+   * <p>
+   * The buffers come from the pooled allocator (and its per-thread caches), are handed to the mutation request
+   * as-is and returned to the pool once the request completes. This avoids allocating short-lived arrays of the
+   * document size for every mutation, which mostly pays off for write-heavy workloads with larger documents.
+   * <p>
+   * Only encoding is affected, decoding works the same as with {@link #create(JsonSerializer)}. Serializers which
+   * do not override {@link JsonSerializer#serialize(Object, ByteBuf)} still encode into an intermediate byte array.
+   *
+   * @param serializer the serializer to encode and decode with.
+   * @return the created transcoder.
+   */
+  @Stability.Volatile
+  public static JsonTranscoder createPooled(JsonSerializer serializer) {
+    return new JsonTranscoder(serializer, true);
   }
 
-  private JsonTranscoder(final JsonSerializer serializer) {
+  private JsonTranscoder(final JsonSerializer serializer, final boolean pooledBuffers) {
     this.serializer = requireNonNull(serializer);
+    this.pooledBuffers = pooledBuffers;
   }
 
   @Override
@@ -47,6 +74,17 @@ public class JsonTranscoder implements Transcoder {
         "with the RawBinaryTranscoder!");
     }
 
+    if (pooledBuffers) {
+      ByteBuf encoded = PooledByteBufAllocator.DEFAULT.heapBuffer();
+      try {
+        serializer.serialize(input, encoded);
+      } catch (Throwable t) {
+        encoded.release();
+        throw t;
+      }
+      return new EncodedValue(encoded, CodecFlags.JSON_COMPAT_FLAGS);
+    }
+
     return new EncodedValue(serializer.serialize(input), CodecFlags.JSON_COMPAT_FLAGS);
   }
 
@@ -16,6 +16,9 @@
 
 package com.couchbase.client.java.codec;
 
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.error.DecodingFailureException;
 
 /**
@@ -60,15 +63,46 @@ public interface Transcoder {
   class EncodedValue {
 
     private final byte[] encoded;
+    private final ByteBuf encodedBuffer;
     private final int flags;
 
     public EncodedValue(final byte[] encoded, final int flags) {
       this.encoded = encoded;
+      this.encodedBuffer = null;
       this.flags = flags;
     }
 
+    /**
+     * Creates an encoded value held in a (usually pooled) buffer.
+     * <p>
+     * Ownership of the buffer passes on to the request which writes it, and it is released once that request
+     * completes.
+     *
+     * @param encodedBuffer the buffer holding the encoded value in its readable bytes.
+     * @param flags the flags on the wire.
+     */
+    @Stability.Volatile
+    public EncodedValue(final ByteBuf encodedBuffer, final int flags) {
+      this.encoded = null;
+      this.encodedBuffer = encodedBuffer;
+      this.flags = flags;
+    }
+
+    /**
+     * Returns the encoded value.
+     * <p>
+     * If the value is held in a buffer, this returns a copy of its readable bytes.
+     */
     public byte[] encoded() {
-      return encoded;
+      return encoded != null ? encoded : ByteBufUtil.getBytes(encodedBuffer);
+    }
+
+    /**
+     * Returns the buffer holding the encoded value, or null if it is held in a byte array.
+     */
+    @Stability.Internal
+    public ByteBuf encodedBuffer() {
+      return encodedBuffer;
     }
 
     public int flags() {
@@ -16,6 +16,7 @@
 
 package com.couchbase.client.java.env;
 
+import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.encryption.CryptoManager;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.java.ClusterOptions;
@@ -26,6 +27,7 @@ import com.couchbase.client.java.codec.JsonTranscoder;
 import com.couchbase.client.java.codec.Transcoder;
 import com.couchbase.client.java.json.JsonObjectCrypto;
 
+import java.util.Map;
 import java.util.Optional;
 
 import static com.couchbase.client.core.util.CbObjects.defaultIfNull;
@@ -47,12 +49,14 @@ public class ClusterEnvironment extends CoreEnvironment {
   private final JsonSerializer jsonSerializer;
   private final Transcoder transcoder;
   private final Optional<CryptoManager> cryptoManager;
+  private final NearCacheConfig nearCacheConfig;
 
   private ClusterEnvironment(Builder builder) {
     super(builder);
     this.jsonSerializer = defaultIfNull(builder.jsonSerializer, () -> newDefaultSerializer(builder.cryptoManager));
     this.transcoder = defaultIfNull(builder.transcoder, () -> JsonTranscoder.create(jsonSerializer));
     this.cryptoManager = Optional.ofNullable(builder.cryptoManager);
+    this.nearCacheConfig = defaultIfNull(builder.nearCacheConfig, NearCacheConfig::create);
   }
 
   /**
@@ -86,6 +90,11 @@ public class ClusterEnvironment extends CoreEnvironment {
     return "java";
   }
 
+  @Override
+  protected void exportAdditionalConfigs(final Map<String, Object> input) {
+    input.put("nearCacheConfig", nearCacheConfig.exportAsMap());
+  }
+
   /**
    * Creates a new {@link ClusterEnvironment} with default settings.
    *
@@ -136,11 +145,20 @@ public class ClusterEnvironment extends CoreEnvironment {
     return cryptoManager;
   }
 
+  /**
+   * Returns the configuration of the near cache used by gets which opt into it.
+   */
+  @Stability.Volatile
+  public NearCacheConfig nearCacheConfig() {
+    return nearCacheConfig;
+  }
+
   public static class Builder extends CoreEnvironment.Builder<Builder> {
 
     private JsonSerializer jsonSerializer;
     private Transcoder transcoder;
     private CryptoManager cryptoManager;
+    private NearCacheConfig nearCacheConfig;
 
     Builder() {
       super();
@@ -203,6 +221,18 @@ public class ClusterEnvironment extends CoreEnvironment {
       return this;
     }
 
+    /**
+     * Customizes the near cache used by gets which opt into it through {@code GetOptions#nearCache(boolean)}.
+     *
+     * @param nearCacheConfig the near cache configuration.
+     * @return this builder for chaining purposes.
+     */
+    @Stability.Volatile
+    public Builder nearCacheConfig(final NearCacheConfig nearCacheConfig) {
+      this.nearCacheConfig = notNull(nearCacheConfig, "NearCacheConfig");
+      return this;
+    }
+
     /**
      * Turns this builder into a real {@link ClusterEnvironment}.
      *
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.env;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.InvalidArgumentException;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.couchbase.client.core.util.Validators.notNull;
+
+/**
+ * Allows configuring the near cache which keeps recently fetched documents of a collection on the client.
+ * <p>
+ * The near cache is only consulted for gets which opt into it through {@code GetOptions#nearCache(boolean)}. Each
+ * collection keeps its own cache, bounded by both the number of entries and their total weight (the document size).
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public class NearCacheConfig {
+
+  public static final int DEFAULT_MAX_ENTRIES = 10_000;
+  public static final long DEFAULT_MAX_WEIGHT = 32 * 1024 * 1024;
+  public static final Duration DEFAULT_EXPIRY = Duration.ofSeconds(10);
+  public static final Duration DEFAULT_REVALIDATE_AFTER = Duration.ZERO;
+
+  /**
+   * The maximum number of documents cached per collection.
+   */
+  private final int maxEntries;
+
+  /**
+   * The maximum total size of the documents cached per collection, in bytes.
+   */
+  private final long maxWeight;
+
+  /**
+   * How long a document is served from the cache at most before it is fetched again.
+   */
+  private final Duration expiry;
+
+  /**
+   * How long a document is served from the cache before its CAS is checked against the server.
+   */
+  private final Duration revalidateAfter;
+
+  /**
+   * Creates a {@link NearCacheConfig} with default arguments.
+   *
+   * @return a new {@link NearCacheConfig}.
+   */
+  public static NearCacheConfig create() {
+    return builder().build();
+  }
+
+  /**
+   * This builder allows to customize a {@link NearCacheConfig}.
+   *
+   * @return a builder to configure {@link NearCacheConfig}.
+   */
+  public static Builder builder() {
+    return new NearCacheConfig.Builder();
+  }
+
+  private NearCacheConfig(final Builder builder) {
+    this.maxEntries = builder.maxEntries;
+    this.maxWeight = builder.maxWeight;
+    this.expiry = builder.expiry;
+    this.revalidateAfter = builder.revalidateAfter;
+  }
+
+  /**
+   * Returns the maximum number of documents cached per collection.
+   */
+  public int maxEntries() {
+    return maxEntries;
+  }
+
+  /**
+   * Returns the maximum total size of the documents cached per collection, in bytes.
+   */
+  public long maxWeight() {
+    return maxWeight;
+  }
+
+  /**
+   * Returns how long a document is served from the cache at most, zero if it does not expire.
+   */
+  public Duration expiry() {
+    return expiry;
+  }
+
+  /**
+   * Returns how long a document is served before it is revalidated, zero if it is never revalidated.
+   */
+  public Duration revalidateAfter() {
+    return revalidateAfter;
+  }
+
+  /**
+   * Returns this config as a map so it can be exported into i.e. JSON for display.
+   */
+  @Stability.Volatile
+  Map<String, Object> exportAsMap() {
+    Map<String, Object> export = new LinkedHashMap<>();
+
+    export.put("maxEntries", maxEntries);
+    export.put("maxWeight", maxWeight);
+    export.put("expiryMs", expiry.toMillis());
+    export.put("revalidateAfterMs", revalidateAfter.toMillis());
+
+    return export;
+  }
+
+  /**
+   * This builder allows to customize the {@link NearCacheConfig}.
+   */
+  public static class Builder {
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private long maxWeight = DEFAULT_MAX_WEIGHT;
+    private Duration expiry = DEFAULT_EXPIRY;
+    private Duration revalidateAfter = DEFAULT_REVALIDATE_AFTER;
+
+    public NearCacheConfig build() {
+      return new NearCacheConfig(this);
+    }
+
+    /**
+     * The maximum number of documents cached per collection.
+     *
+     * <p>The default is 10000.</p>
+     *
+     * @param maxEntries the maximum number of documents.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    public Builder maxEntries(int maxEntries) {
+      if (maxEntries < 0) {
+        throw InvalidArgumentException.fromMessage("maxEntries must not be negative");
+      }
+      this.maxEntries = maxEntries;
+      return this;
+    }
+
+    /**
+     * The maximum total size of the documents cached per collection. Documents larger than this are never cached.
+     *
+     * <p>The default is 32MiB.</p>
+     *
+     * @param maxWeight the maximum total size in bytes.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    public Builder maxWeight(long maxWeight) {
+      if (maxWeight < 0) {
+        throw InvalidArgumentException.fromMessage("maxWeight must not be negative");
+      }
+      this.maxWeight = maxWeight;
+      return this;
+    }
+
+    /**
+     * How long a document is served from the cache at most before it is fetched again.
+     * <p>
+     * Mutations through the same collection invalidate the cached document right away, but changes made by other
+     * clients are only picked up once it expires (or is revalidated).
+     *
+     * <p>The default is 10 seconds, {@link Duration#ZERO} disables expiry.</p>
+     *
+     * @param expiry the maximum time to serve a document from the cache.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    public Builder expiry(Duration expiry) {
+      if (notNull(expiry, "Expiry").isNegative()) {
+        throw InvalidArgumentException.fromMessage("Expiry must not be negative");
+      }
+      this.expiry = expiry;
+      return this;
+    }
+
+    /**
+     * How long a document is served from the cache before its CAS is checked against the server.
+     * <p>
+     * Revalidating only fetches the metadata of the document, and if it did not change the cached content is served
+     * for another interval (but never beyond the {@link #expiry(Duration)}). Otherwise the document is fetched again.
+     *
+     * <p>The default is {@link Duration#ZERO}, which disables revalidation.</p>
+     *
+     * @param revalidateAfter the time after which a cached document is revalidated.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    public Builder revalidateAfter(Duration revalidateAfter) {
+      if (notNull(revalidateAfter, "RevalidateAfter").isNegative()) {
+        throw InvalidArgumentException.fromMessage("RevalidateAfter must not be negative");
+      }
+      this.revalidateAfter = revalidateAfter;
+      return this;
+    }
+
+  }
+
+}
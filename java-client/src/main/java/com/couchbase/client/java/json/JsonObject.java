@@ -26,6 +26,7 @@ import com.couchbase.client.java.env.ClusterEnvironment;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -70,6 +71,13 @@ public class JsonObject extends JsonValue implements Serializable {
         content = new HashMap<>(initialCapacity);
     }
 
+    /**
+     * Package private constructor to create the object on top of an existing backing map.
+     */
+    JsonObject(Map<String, Object> content) {
+        this.content = content;
+    }
+
     /**
      * Creates a empty {@link JsonObject}.
      *
@@ -154,6 +162,48 @@ public class JsonObject extends JsonValue implements Serializable {
         }
     }
 
+    /**
+     * Creates a {@link JsonObject} from a JSON byte array which is only decoded as far as it is accessed.
+     * <p>
+     * The first access scans the document once to locate its fields, but values (including nested objects) are only
+     * decoded once they are read. When the object is encoded again, all fields which have not been touched are copied
+     * over byte-for-byte, so reading or modifying a few fields of a large document does not pay for decoding and
+     * encoding all of it.
+     * <p>
+     * The given array is not copied and must not be modified afterwards. Since the document is only validated as far as
+     * it is accessed, malformed input may only be detected on first access, raising an {@link InvalidArgumentException}.
+     * <p>
+     * Even though reading fields decodes them, the object can be read from multiple threads at the same time just like
+     * one created through {@link #fromJson(byte[])}. Modifying it while other threads access it is not safe.
+     *
+     * @param s the JSON byte array to convert to a {@link JsonObject}.
+     * @return the corresponding {@link JsonObject}.
+     * @throws InvalidArgumentException if the byte array does not contain a JSON object.
+     */
+    @Stability.Volatile
+    public static JsonObject fromJsonLazy(final byte[] s) {
+        requireNonNull(s, "The byte array is not allowed to be null");
+        int start = 0;
+        int end = s.length;
+        while (start < end && Character.isWhitespace(s[start])) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(s[end - 1])) {
+            end--;
+        }
+        if (start == end || s[start] != '{' || s[end - 1] != '}') {
+            throw InvalidArgumentException.fromMessage("Cannot convert byte array to JsonObject");
+        }
+        return new JsonObject(new LazyJsonContent(s, start, end - start));
+    }
+
+    /**
+     * Returns the backing map if this object has been created through {@link #fromJsonLazy(byte[])}, null otherwise.
+     */
+    LazyJsonContent lazyContent() {
+        return content instanceof LazyJsonContent ? (LazyJsonContent) content : null;
+    }
+
     /**
      * Returns a view of the object for reading and writing encrypted fields.
      * <p>
@@ -593,6 +643,9 @@ public class JsonObject extends JsonValue implements Serializable {
      */
     @Override
     public String toString() {
+        if (content instanceof LazyJsonContent) {
+            return new String(((LazyJsonContent) content).toBytes(), StandardCharsets.UTF_8);
+        }
         try {
             return JacksonTransformers.MAPPER.writeValueAsString(this);
         } catch (JsonProcessingException e) {
@@ -606,6 +659,9 @@ public class JsonObject extends JsonValue implements Serializable {
      * @return the byte array representing this {@link JsonObject}.
      */
     public byte[] toBytes() {
+        if (content instanceof LazyJsonContent) {
+            return ((LazyJsonContent) content).toBytes();
+        }
         try {
             return JacksonTransformers.MAPPER.writeValueAsBytes(this);
         } catch (JsonProcessingException e) {
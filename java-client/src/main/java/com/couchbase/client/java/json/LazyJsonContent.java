@@ -0,0 +1,454 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.json;
+
+import com.couchbase.client.core.deps.com.fasterxml.jackson.core.JsonParser;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.core.JsonToken;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.couchbase.client.core.error.InvalidArgumentException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The backing map of a {@link JsonObject} created through {@link JsonObject#fromJsonLazy(byte[])}.
+ * <p>
+ * It keeps the encoded object and only on first access scans it once to record where each field is located,
+ * without decoding any of the values. A value is only decoded once it is read, nested objects are again backed by
+ * a lazy map over the same bytes.
+ * <p>
+ * When encoded, fields which have not been read or written are copied over byte-for-byte, and if the object has
+ * not been modified at all, the original bytes are returned as-is.
+ * <p>
+ * Like a {@link java.util.HashMap}, it can be read from multiple threads at the same time even though reads build
+ * the index and decode values: both happen at most once and are safely published. Modifications need to be
+ * synchronized externally.
+ */
+class LazyJsonContent extends AbstractMap<String, Object> implements Serializable {
+
+  private static final long serialVersionUID = -3307512963318549022L;
+
+  private static final boolean DECIMAL_FOR_FLOAT = Boolean.parseBoolean(
+    System.getProperty("com.couchbase.json.decimalForFloat", "false"));
+
+  private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+
+  private final byte[] raw;
+  private final int offset;
+  private final int length;
+
+  /**
+   * The fields in document order, built on first access.
+   */
+  private volatile LinkedHashMap<String, Field> index;
+
+  /**
+   * True once a field has been added, replaced or removed.
+   */
+  private boolean modified;
+
+  LazyJsonContent(final byte[] raw, final int offset, final int length) {
+    this.raw = raw;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  private LinkedHashMap<String, Field> index() {
+    LinkedHashMap<String, Field> fields = index;
+    if (fields == null) {
+      synchronized (this) {
+        fields = index;
+        if (fields == null) {
+          try {
+            fields = buildIndex();
+          } catch (IOException e) {
+            throw InvalidArgumentException.fromMessage("Cannot convert byte array to JsonObject", e);
+          }
+          index = fields;
+        }
+      }
+    }
+    return fields;
+  }
+
+  /**
+   * Scans the object once, skipping over the values and only recording their location.
+   */
+  private LinkedHashMap<String, Field> buildIndex() throws IOException {
+    LinkedHashMap<String, Field> fields = new LinkedHashMap<>();
+    try (JsonParser parser = JacksonTransformers.MAPPER.getFactory().createParser(raw, offset, length)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Expected START_OBJECT but got " + parser.currentToken());
+      }
+      JsonToken token;
+      while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+        String name = parser.getCurrentName();
+        int fieldStart = offset + (int) parser.getTokenLocation().getByteOffset();
+        JsonToken value = parser.nextToken();
+        int valueStart = offset + (int) parser.getTokenLocation().getByteOffset();
+        if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+          parser.skipChildren();
+        } else {
+          parser.finishToken();
+        }
+        int valueEnd = offset + (int) parser.getCurrentLocation().getByteOffset();
+        fields.put(name, new Field(fieldStart, valueStart, valueEnd));
+      }
+      if (token != JsonToken.END_OBJECT) {
+        throw new IOException("Expected END_OBJECT but got " + token);
+      }
+    }
+    return fields;
+  }
+
+  /**
+   * Decodes the value at the given location.
+   */
+  private Object decode(final int start, final int end) {
+    try {
+      if (raw[start] == '{') {
+        return new JsonObject(new LazyJsonContent(raw, start, end - start));
+      } else if (raw[start] == '[') {
+        return JacksonTransformers.MAPPER.readValue(raw, start, end - start, JsonArray.class);
+      }
+
+      try (JsonParser parser = JacksonTransformers.MAPPER.getFactory().createParser(raw, start, end - start)) {
+        JsonToken token = parser.nextToken();
+        switch (token) {
+          case VALUE_TRUE:
+          case VALUE_FALSE:
+            return parser.getBooleanValue();
+          case VALUE_STRING:
+            return parser.getValueAsString();
+          case VALUE_NUMBER_INT:
+          case VALUE_NUMBER_FLOAT:
+            Number numberValue = parser.getNumberValue();
+            if (numberValue instanceof Double && DECIMAL_FOR_FLOAT) {
+              numberValue = parser.getDecimalValue();
+            }
+            return numberValue;
+          case VALUE_NULL:
+            return null;
+          default:
+            throw new IOException("Unexpected JSON token: " + token);
+        }
+      }
+    } catch (IOException e) {
+      throw InvalidArgumentException.fromMessage("Cannot convert byte array to JsonObject", e);
+    }
+  }
+
+  private Object value(final Field field) {
+    if (!field.decoded) {
+      synchronized (field) {
+        if (!field.decoded) {
+          field.value = decode(field.valueStart, field.valueEnd);
+          field.decoded = true;
+        }
+      }
+    }
+    return field.value;
+  }
+
+  @Override
+  public Object get(final Object key) {
+    Field field = index().get(key);
+    return field == null ? null : value(field);
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return index().containsKey(key);
+  }
+
+  @Override
+  public Object put(final String key, final Object value) {
+    modified = true;
+    Field field = index().get(key);
+    if (field == null) {
+      index.put(key, new Field(value));
+      return null;
+    }
+    Object previous = value(field);
+    field.replace(value);
+    return previous;
+  }
+
+  @Override
+  public Object remove(final Object key) {
+    Field field = index().remove(key);
+    if (field == null) {
+      return null;
+    }
+    modified = true;
+    return value(field);
+  }
+
+  @Override
+  public void clear() {
+    modified = true;
+    index().clear();
+  }
+
+  @Override
+  public int size() {
+    return index().size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return index().isEmpty();
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return new AbstractSet<String>() {
+      @Override
+      public Iterator<String> iterator() {
+        Iterator<String> it = index().keySet().iterator();
+        return new Iterator<String>() {
+          @Override
+          public boolean hasNext() {
+            return it.hasNext();
+          }
+
+          @Override
+          public String next() {
+            return it.next();
+          }
+
+          @Override
+          public void remove() {
+            modified = true;
+            it.remove();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return index().size();
+      }
+
+      @Override
+      public boolean contains(final Object o) {
+        return index().containsKey(o);
+      }
+    };
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return new AbstractSet<Entry<String, Object>>() {
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        Iterator<Entry<String, Field>> it = index().entrySet().iterator();
+        return new Iterator<Entry<String, Object>>() {
+          @Override
+          public boolean hasNext() {
+            return it.hasNext();
+          }
+
+          @Override
+          public Entry<String, Object> next() {
+            return new LazyEntry(it.next());
+          }
+
+          @Override
+          public void remove() {
+            modified = true;
+            it.remove();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return index().size();
+      }
+    };
+  }
+
+  /**
+   * Returns true if neither this object nor any nested value which has been read could have been modified.
+   */
+  private boolean pristine() {
+    LinkedHashMap<String, Field> fields = index;
+    if (fields == null) {
+      return true;
+    }
+    if (modified) {
+      return false;
+    }
+    for (Field field : fields.values()) {
+      if (field.decoded && !pristine(field.value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean pristine(final Object value) {
+    if (value instanceof JsonObject) {
+      LazyJsonContent nested = ((JsonObject) value).lazyContent();
+      return nested != null && nested.pristine();
+    }
+    // arrays are decoded into a mutable JsonArray, so they cannot be assumed to be untouched
+    return !(value instanceof JsonArray);
+  }
+
+  /**
+   * Encodes the object, copying all fields that have not been read or written byte-for-byte.
+   */
+  byte[] toBytes() {
+    if (pristine()) {
+      return Arrays.copyOfRange(raw, offset, offset + length);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream(length + 64);
+    writeTo(out);
+    return out.toByteArray();
+  }
+
+  private void writeTo(final ByteArrayOutputStream out) {
+    if (pristine()) {
+      out.write(raw, offset, length);
+      return;
+    }
+
+    try {
+      out.write('{');
+      boolean first = true;
+      for (Map.Entry<String, Field> entry : index.entrySet()) {
+        if (!first) {
+          out.write(',');
+        }
+        first = false;
+
+        Field field = entry.getValue();
+        if (field.fieldStart >= 0 && pristine(field.decoded ? field.value : null)) {
+          out.write(raw, field.fieldStart, field.valueEnd - field.fieldStart);
+          continue;
+        }
+
+        byte[] name = ENCODER.quoteAsUTF8(entry.getKey());
+        out.write('"');
+        out.write(name, 0, name.length);
+        out.write('"');
+        out.write(':');
+        LazyJsonContent nested = field.value instanceof JsonObject ? ((JsonObject) field.value).lazyContent() : null;
+        if (nested != null) {
+          nested.writeTo(out);
+        } else {
+          out.write(JacksonTransformers.MAPPER.writeValueAsBytes(field.value));
+        }
+      }
+      out.write('}');
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot convert JsonObject to Json byte array", e);
+    }
+  }
+
+  /**
+   * The location of a field in the encoded object, and its value once decoded or replaced.
+   */
+  private static class Field implements Serializable {
+    private static final long serialVersionUID = 5514291856327632017L;
+
+    /**
+     * Where the field name starts, or -1 if the field has been added or replaced.
+     */
+    private int fieldStart;
+    private final int valueStart;
+    private final int valueEnd;
+    private Object value;
+
+    /**
+     * Set once the value has been decoded or replaced, the volatile write publishes the value.
+     */
+    private volatile boolean decoded;
+
+    Field(final int fieldStart, final int valueStart, final int valueEnd) {
+      this.fieldStart = fieldStart;
+      this.valueStart = valueStart;
+      this.valueEnd = valueEnd;
+    }
+
+    Field(final Object value) {
+      this(-1, -1, -1);
+      replace(value);
+    }
+
+    void replace(final Object value) {
+      this.fieldStart = -1;
+      this.value = value;
+      this.decoded = true;
+    }
+  }
+
+  /**
+   * An entry which only decodes the value once it is read.
+   */
+  private class LazyEntry implements Entry<String, Object> {
+    private final Entry<String, Field> entry;
+
+    LazyEntry(final Entry<String, Field> entry) {
+      this.entry = entry;
+    }
+
+    @Override
+    public String getKey() {
+      return entry.getKey();
+    }
+
+    @Override
+    public Object getValue() {
+      return value(entry.getValue());
+    }
+
+    @Override
+    public Object setValue(final Object value) {
+      modified = true;
+      Object previous = getValue();
+      entry.getValue().replace(value);
+      return previous;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      Entry<?, ?> that = (Entry<?, ?>) o;
+      return getKey().equals(that.getKey()) && Objects.equals(getValue(), that.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return getKey().hashCode() ^ Objects.hashCode(getValue());
+    }
+  }
+
+}
@@ -28,6 +28,7 @@ import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.SerializerP
 import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.module.SimpleModule;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 @Stability.Internal
 public class RepackagedJsonValueModule extends SimpleModule {
@@ -49,7 +50,12 @@ public class RepackagedJsonValueModule extends SimpleModule {
     @Override
     public void serialize(JsonObject value, JsonGenerator jgen,
                           SerializerProvider provider) throws IOException {
-      jgen.writeObject(value.toMap());
+      LazyJsonContent lazy = value.lazyContent();
+      if (lazy != null) {
+        jgen.writeRawValue(new String(lazy.toBytes(), StandardCharsets.UTF_8));
+      } else {
+        jgen.writeObject(value.toMap());
+      }
     }
   }
 
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+/**
+ * A probabilistic counter of how often keys have been accessed recently, used to decide cache admission.
+ * <p>
+ * This is a count-min sketch with four 4-bit counters per key, packed sixteen to a long. Once the number of
+ * recorded accesses reaches ten times the cache size all counters are halved, so the frequencies age and keys
+ * which have been popular a while ago do not stay in the cache forever.
+ * <p>
+ * It is not thread safe, the {@link NearCache} only uses it while holding its eviction lock.
+ */
+class FrequencySketch {
+
+  private static final long[] SEEDS = {
+    0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+
+  /**
+   * Masks out the bit which would spill into the neighbouring counter when shifting right by one.
+   */
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private final long[] table;
+  private final int tableMask;
+  private final int sampleSize;
+  private int size;
+
+  FrequencySketch(final int maximumSize) {
+    int capacity = Integer.highestOneBit(Math.max(8, Math.min(maximumSize, 1 << 24)) - 1) << 1;
+    this.table = new long[capacity];
+    this.tableMask = capacity - 1;
+    this.sampleSize = 10 * Math.max(1, maximumSize);
+  }
+
+  /**
+   * Returns the estimated number of recent accesses of the key, capped at 15.
+   */
+  int frequency(final Object key) {
+    int hash = spread(key.hashCode());
+    int frequency = 15;
+    for (int i = 0; i < SEEDS.length; i++) {
+      int count = (int) ((table[indexOf(hash, i)] >>> offsetOf(hash, i)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Records an access of the key, halving all counters once enough accesses have been recorded.
+   */
+  void increment(final Object key) {
+    int hash = spread(key.hashCode());
+    boolean added = false;
+    for (int i = 0; i < SEEDS.length; i++) {
+      added |= incrementAt(indexOf(hash, i), offsetOf(hash, i));
+    }
+    if (added && ++size == sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean incrementAt(final int index, final int offset) {
+    long mask = 0xfL << offset;
+    if ((table[index] & mask) != mask) {
+      table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  private void reset() {
+    for (int i = 0; i < table.length; i++) {
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    size = size >>> 1;
+  }
+
+  private int indexOf(final int hash, final int i) {
+    long h = (hash + SEEDS[i]) * SEEDS[i];
+    h += h >>> 32;
+    return ((int) h) & tableMask;
+  }
+
+  /**
+   * Each hash function picks one of the sixteen counters in its slot from a different byte of the hash.
+   */
+  private static int offsetOf(final int hash, final int i) {
+    return ((hash >>> (i << 3)) & 15) << 2;
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+
+}
@@ -29,8 +29,7 @@ import com.couchbase.client.core.msg.kv.SubDocumentOpResponseStatus;
 import com.couchbase.client.core.msg.kv.SubdocGetRequest;
 import com.couchbase.client.core.msg.kv.SubdocGetResponse;
 import com.couchbase.client.java.codec.Transcoder;
-import com.couchbase.client.java.json.JsonObject;
-import com.couchbase.client.java.kv.projections.ProjectionsApplier;
+import com.couchbase.client.java.kv.projections.ProjectionsWriter;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
@@ -156,12 +155,15 @@ public enum GetAccessor {
 
   /**
    * Helper method to recursively project subdocument fields into a json object structure.
+   * <p>
+   * The field values are spliced into the output without being decoded, so the resulting document only
+   * needs to be parsed once when it is converted into its target type.
    *
    * @param response the raw response from the server.
    * @return the document, encoded as a byte array.
    */
   static byte[] projectRecursive(final SubdocGetResponse response) {
-    JsonObject out = JsonObject.create();
+    ProjectionsWriter out = new ProjectionsWriter();
 
     for (SubDocumentField value : response.values()) {
       if (value == null
@@ -172,7 +174,7 @@ public enum GetAccessor {
         continue;
       }
 
-      ProjectionsApplier.parse(out, value.path(), value.value());
+      out.add(value.path(), value.value());
     }
 
     return out.toBytes();
@@ -64,6 +64,16 @@ public class GetOptions extends CommonOptions<GetOptions> {
    */
   private Transcoder transcoder;
 
+  /**
+   * If the document may be served from (and stored in) the near cache.
+   */
+  private boolean nearCache;
+
+  /**
+   * If concurrent identical gets may share one request.
+   */
+  private boolean singleFlight;
+
   private GetOptions() {
     withExpiry = false;
   }
@@ -130,6 +140,44 @@ public class GetOptions extends CommonOptions<GetOptions> {
     return this;
   }
 
+  /**
+   * If set to true, the document is served from the near cache of the collection if present, and stored in it
+   * otherwise.
+   * <p>
+   * Mutations through the same collection invalidate the cached document, but changes by other clients are only
+   * picked up once it expires or is revalidated, as configured through the
+   * {@link com.couchbase.client.java.env.NearCacheConfig}. Only full document fetches are cached, so this is
+   * ignored if combined with {@link #withExpiry(boolean)} or a projection. The content of results served from the
+   * cache is shared and must not be modified.
+   *
+   * @param nearCache true if the near cache should be used.
+   * @return the {@link GetOptions} to allow method chaining.
+   */
+  @Stability.Volatile
+  public GetOptions nearCache(final boolean nearCache) {
+    this.nearCache = nearCache;
+    return this;
+  }
+
+  /**
+   * If set to true, concurrent gets of the same document with the same options share a single request.
+   * <p>
+   * A get issued while an identical one is in flight does not go over the network, but completes with the same
+   * result (or failure) once the first one completes, which may reflect the document as it was when the first one
+   * was issued. Gets issued after the shared request completed, or after a mutation of the document through this
+   * collection completed, always send a new request, so a caller never reads its own writes from before them.
+   * Because they are shared, the results must not be modified and the request is traced (and subject to the
+   * timeout) of the first caller only.
+   *
+   * @param singleFlight true if identical in-flight gets should be coalesced.
+   * @return the {@link GetOptions} to allow method chaining.
+   */
+  @Stability.Volatile
+  public GetOptions singleFlight(final boolean singleFlight) {
+    this.singleFlight = singleFlight;
+    return this;
+  }
+
   @Stability.Internal
   public Built build() {
     return new Built();
@@ -152,6 +200,14 @@ public class GetOptions extends CommonOptions<GetOptions> {
       return transcoder;
     }
 
+    public boolean nearCache() {
+      return nearCache;
+    }
+
+    public boolean singleFlight() {
+      return singleFlight;
+    }
+
   }
 
 }
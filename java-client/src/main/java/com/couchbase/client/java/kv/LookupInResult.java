@@ -22,10 +22,12 @@ import com.couchbase.client.core.error.context.KeyValueErrorContext;
 import com.couchbase.client.core.error.subdoc.PathInvalidException;
 import com.couchbase.client.core.error.context.SubDocumentErrorContext;
 import com.couchbase.client.core.msg.kv.SubDocumentField;
+import com.couchbase.client.core.msg.kv.SubdocCommandType;
 import com.couchbase.client.java.codec.JsonSerializer;
 import com.couchbase.client.java.codec.TypeRef;
 import com.couchbase.client.java.json.JsonArray;
 import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.projections.ProjectionsWriter;
 
 import java.util.Arrays;
 import java.util.Objects;
@@ -116,6 +118,54 @@ public class LookupInResult {
     return serializer.deserialize(target, getFieldAtIndex(index).value());
   }
 
+  /**
+   * Decodes all successfully fetched values into a single instance of the target class.
+   * <p>
+   * The values are merged by their lookup paths into one JSON document (so that the paths {@code name} and
+   * {@code address.city} become {@code {"name":...,"address":{"city":...}}}), which is then bound into the
+   * target with a single pass of the serializer instead of decoding every value on its own. Paths that
+   * did not return a value (including {@code exists} checks) are left out.
+   *
+   * @param target the target class to decode into.
+   * @return the decoded projection into the generic type requested.
+   */
+  @Stability.Volatile
+  public <T> T contentAsProjection(final Class<T> target) {
+    return serializer.deserialize(target, projectFields());
+  }
+
+  /**
+   * Decodes all successfully fetched values into a single instance of the target type.
+   * <p>
+   * See {@link #contentAsProjection(Class)} for how the individual values are merged.
+   *
+   * @param target the target type to decode into.
+   * @return the decoded projection into the generic type requested.
+   */
+  @Stability.Volatile
+  public <T> T contentAsProjection(final TypeRef<T> target) {
+    return serializer.deserialize(target, projectFields());
+  }
+
+  /**
+   * Merges all fetched values into one encoded JSON document without decoding them individually.
+   */
+  private byte[] projectFields() {
+    ProjectionsWriter writer = new ProjectionsWriter();
+    for (SubDocumentField field : encoded) {
+      if (field == null
+        || !field.status().success()
+        || field.path().isEmpty()
+        || field.value() == null
+        || field.value().length == 0
+        || (field.type() != SubdocCommandType.GET && field.type() != SubdocCommandType.COUNT)) {
+        continue;
+      }
+      writer.add(field.path(), field.value());
+    }
+    return writer.toBytes();
+  }
+
   private SubDocumentField getFieldAtIndex(int index) {
     if (index >= 0 && index < encoded.length) {
       SubDocumentField value = encoded[index];
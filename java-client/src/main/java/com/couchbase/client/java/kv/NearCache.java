@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.kv.GetMetaRequest;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.java.codec.Transcoder;
+import com.couchbase.client.java.env.NearCacheConfig;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Keeps recently fetched documents of a collection on the client, for gets which opt into it.
+ * <p>
+ * Lookups are served from a concurrent map, while the eviction policy is guarded by a lock. It follows the
+ * W-TinyLFU design: new documents enter a small LRU window, and once they fall out of it they only replace the
+ * least recently used document of the main space if they have been requested more often recently, according to a
+ * {@link FrequencySketch}. The main space is split into a probation and a protected segment, so that documents which
+ * are hit again while on probation are protected from being evicted by a burst of new documents. Recording hits is
+ * lossy: if the lock is contended the hit is served without updating the policy.
+ * <p>
+ * Mutations through the collection invalidate the document both when they are sent and once they complete. Every
+ * invalidation bumps a stamp, and a load which started before it does not populate the cache, so a get racing with a
+ * mutation cannot bring back the old content.
+ */
+@Stability.Internal
+public class NearCache {
+
+  private static final int STAMP_STRIPES = 64;
+
+  private final Core core;
+  private final NearCacheConfig config;
+  private final CollectionIdentifier collectionIdentifier;
+
+  private final ConcurrentHashMap<String, Node> data = new ConcurrentHashMap<>();
+  private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  /**
+   * Set on first use, so collections which never use the cache do not pay for invalidating it.
+   */
+  private volatile boolean active;
+
+  private volatile Counter hits;
+  private volatile Counter misses;
+  private volatile Counter evictions;
+
+  // The following fields are set on activation, and published through the volatile write of active.
+  private long expiryNanos;
+  private long revalidateNanos;
+  private long maxWeight;
+  private int maxEntries;
+  private long windowMaxWeight;
+  private long protectedMaxWeight;
+  private int windowMaxEntries;
+  private int protectedMaxEntries;
+
+  // The following fields are only accessed while holding the eviction lock.
+  private FrequencySketch sketch;
+  private final Queue window = new Queue();
+  private final Queue probation = new Queue();
+  private final Queue protectedQueue = new Queue();
+  private long totalWeight;
+
+  public NearCache(final Core core, final NearCacheConfig config, final CollectionIdentifier collectionIdentifier) {
+    this.core = core;
+    this.config = config;
+    this.collectionIdentifier = collectionIdentifier;
+  }
+
+  /**
+   * Serves the full document from the cache if present and still valid, otherwise fetches it and caches the result.
+   *
+   * @param id the document id.
+   * @param getRequest creates the request to fetch the document with.
+   * @param metaRequest creates the request to revalidate a cached document with.
+   * @param transcoder the transcoder to decode the content with.
+   * @return a {@link CompletableFuture} completing with the result.
+   */
+  public CompletableFuture<GetResult> get(final String id, final Supplier<GetRequest> getRequest,
+                                          final Supplier<GetMetaRequest> metaRequest, final Transcoder transcoder) {
+    activate();
+    long now = System.nanoTime();
+    Node node = lookup(id, now);
+    if (node == null) {
+      misses.incrementBy(1);
+      return load(id, getRequest.get(), transcoder);
+    }
+    if (revalidateNanos <= 0 || now - node.validatedAt < revalidateNanos) {
+      hits.incrementBy(1);
+      return CompletableFuture.completedFuture(node.toResult(transcoder));
+    }
+
+    GetMetaRequest request = metaRequest.get();
+    core.send(request);
+    return request
+      .response()
+      .handle((response, throwable) -> {
+        if (throwable == null && response.status().success() && !response.deleted() && response.cas() == node.cas) {
+          node.validatedAt = System.nanoTime();
+          hits.incrementBy(1);
+          return CompletableFuture.completedFuture(node.toResult(transcoder));
+        }
+        // changed, gone or not revalidated at all (i.e. timed out), so fetch the document again
+        invalidate(id);
+        misses.incrementBy(1);
+        return load(id, getRequest.get(), transcoder);
+      })
+      .thenCompose(Function.identity())
+      .whenComplete((r, t) -> request.context().logicallyComplete());
+  }
+
+  private CompletableFuture<GetResult> load(final String id, final GetRequest request, final Transcoder transcoder) {
+    long stamp = stamps.get(stripe(id));
+    request.response().thenAccept(response -> {
+      if (response.status().success()) {
+        fill(id, response.content(), response.flags(), response.cas(), stamp);
+      }
+    });
+    return GetAccessor.get(core, request, transcoder);
+  }
+
+  /**
+   * Invalidates the document once now and once more when the given mutation completes.
+   *
+   * @param id the document id.
+   * @param request the request mutating the document.
+   */
+  public void invalidate(final String id, final Request<?> request) {
+    if (active) {
+      invalidate(id);
+      request.response().whenComplete((r, t) -> invalidate(id));
+    }
+  }
+
+  /**
+   * Removes the document from the cache and prevents loads in progress from adding it again.
+   *
+   * @param id the document id.
+   */
+  public void invalidate(final String id) {
+    if (!active) {
+      return;
+    }
+    stamps.incrementAndGet(stripe(id));
+    evictionLock.lock();
+    try {
+      Node node = data.remove(id);
+      if (node != null) {
+        unlink(node);
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of cached documents.
+   */
+  public int size() {
+    return data.size();
+  }
+
+  /**
+   * Sets up the cache on first use.
+   */
+  void activate() {
+    if (active) {
+      return;
+    }
+    evictionLock.lock();
+    try {
+      if (!active) {
+        Meter meter = core.context().environment().meter();
+        Map<String, String> tags = new HashMap<>(4);
+        tags.put("cb.bucket", collectionIdentifier.bucket());
+        tags.put("cb.scope", collectionIdentifier.scope().orElse(CollectionIdentifier.DEFAULT_SCOPE));
+        tags.put("cb.collection", collectionIdentifier.collection().orElse(CollectionIdentifier.DEFAULT_COLLECTION));
+        hits = meter.counter("cb.near_cache_hits", tags);
+        misses = meter.counter("cb.near_cache_misses", tags);
+        evictions = meter.counter("cb.near_cache_evictions", tags);
+        expiryNanos = config.expiry().toNanos();
+        revalidateNanos = config.revalidateAfter().toNanos();
+        maxWeight = config.maxWeight();
+        maxEntries = config.maxEntries();
+        windowMaxWeight = Math.max(1, maxWeight / 100);
+        protectedMaxWeight = (maxWeight - windowMaxWeight) * 8 / 10;
+        windowMaxEntries = Math.max(1, maxEntries / 100);
+        protectedMaxEntries = (maxEntries - windowMaxEntries) * 8 / 10;
+        sketch = new FrequencySketch(maxEntries);
+        active = true;
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the cached document if present and not expired, recording the access.
+   */
+  Node lookup(final String id, final long now) {
+    Node node = data.get(id);
+    if (node == null) {
+      return null;
+    }
+    if (expiryNanos > 0 && now - node.loadedAt >= expiryNanos) {
+      evictionLock.lock();
+      try {
+        if (data.remove(id, node)) {
+          unlink(node);
+        }
+      } finally {
+        evictionLock.unlock();
+      }
+      return null;
+    }
+    if (evictionLock.tryLock()) {
+      try {
+        onHit(node);
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+    return node;
+  }
+
+  /**
+   * Adds a loaded document, unless it has been invalidated since the load started.
+   */
+  void fill(final String id, final byte[] content, final int flags, final long cas, final long stamp) {
+    activate();
+    long weight = (long) content.length + id.length();
+    if (weight > maxWeight || maxEntries <= 0) {
+      return;
+    }
+
+    evictionLock.lock();
+    try {
+      if (stamps.get(stripe(id)) != stamp) {
+        return;
+      }
+      // copied since the loading caller decodes the same array, which e.g. byte[] transcoders hand out as-is
+      Node node = new Node(id, content.clone(), flags, cas, weight);
+      Node previous = data.put(id, node);
+      if (previous != null) {
+        unlink(previous);
+      }
+      sketch.increment(id);
+      window.addLast(node);
+      totalWeight += weight;
+      evict();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  long stamp(final String id) {
+    return stamps.get(stripe(id));
+  }
+
+  private void onHit(final Node node) {
+    if (node.queue == null) {
+      return;
+    }
+    sketch.increment(node.id);
+    if (node.queue == probation) {
+      probation.remove(node);
+      protectedQueue.addLast(node);
+      while ((protectedQueue.weight > protectedMaxWeight || protectedQueue.count > protectedMaxEntries)
+        && protectedQueue.head != node) {
+        Node demoted = protectedQueue.head;
+        protectedQueue.remove(demoted);
+        probation.addLast(demoted);
+      }
+    } else {
+      Queue queue = node.queue;
+      queue.remove(node);
+      queue.addLast(node);
+    }
+  }
+
+  /**
+   * Moves documents which fell out of the window into probation, and evicts until the cache is within its bounds.
+   * <p>
+   * While over the bounds, the oldest document on probation (the victim) competes against the most recently
+   * admitted one (the candidate) and the one requested less frequently is evicted.
+   */
+  private void evict() {
+    Node firstCandidate = null;
+    while ((window.weight > windowMaxWeight || window.count > windowMaxEntries) && window.head != null) {
+      Node node = window.head;
+      window.remove(node);
+      probation.addLast(node);
+      if (firstCandidate == null) {
+        firstCandidate = node;
+      }
+    }
+
+    Node candidate = firstCandidate == null ? null : probation.tail;
+    while (totalWeight > maxWeight || data.size() > maxEntries) {
+      Node victim = probation.head != null ? probation.head
+        : protectedQueue.head != null ? protectedQueue.head
+        : window.head;
+      if (victim == null) {
+        break;
+      }
+
+      if (candidate != null && candidate != victim && candidate.queue == probation
+        && sketch.frequency(candidate.id) <= sketch.frequency(victim.id)) {
+        Node previous = candidate == firstCandidate ? null : candidate.prev;
+        evict(candidate);
+        candidate = previous;
+      } else {
+        if (candidate == victim) {
+          candidate = null;
+        }
+        evict(victim);
+      }
+    }
+  }
+
+  private void evict(final Node node) {
+    data.remove(node.id, node);
+    unlink(node);
+    evictions.incrementBy(1);
+  }
+
+  private void unlink(final Node node) {
+    if (node.queue != null) {
+      node.queue.remove(node);
+      totalWeight -= node.weight;
+    }
+  }
+
+  private static int stripe(final String id) {
+    return (id.hashCode() & Integer.MAX_VALUE) % STAMP_STRIPES;
+  }
+
+  /**
+   * A cached document.
+   */
+  static class Node {
+    private final String id;
+    private final byte[] content;
+    private final int flags;
+    private final long cas;
+    private final long weight;
+    private final long loadedAt;
+    private volatile long validatedAt;
+
+    // Only accessed while holding the eviction lock.
+    private Queue queue;
+    private Node prev;
+    private Node next;
+
+    Node(final String id, final byte[] content, final int flags, final long cas, final long weight) {
+      this.id = id;
+      this.content = content;
+      this.flags = flags;
+      this.cas = cas;
+      this.weight = weight;
+      this.loadedAt = System.nanoTime();
+      this.validatedAt = loadedAt;
+    }
+
+    long cas() {
+      return cas;
+    }
+
+    /**
+     * Creates the result over a copy of the content, so callers modifying it do not corrupt later hits.
+     */
+    GetResult toResult(final Transcoder transcoder) {
+      return new GetResult(content.clone(), flags, cas, Optional.empty(), transcoder);
+    }
+  }
+
+  /**
+   * A doubly linked list of nodes in access order, from least recently used (head) to most recently used (tail).
+   */
+  private static class Queue {
+    private Node head;
+    private Node tail;
+    private long weight;
+    private int count;
+
+    void addLast(final Node node) {
+      node.queue = this;
+      node.prev = tail;
+      node.next = null;
+      if (tail == null) {
+        head = node;
+      } else {
+        tail.next = node;
+      }
+      tail = node;
+      weight += node.weight;
+      count++;
+    }
+
+    void remove(final Node node) {
+      if (node.prev == null) {
+        head = node.next;
+      } else {
+        node.prev.next = node.next;
+      }
+      if (node.next == null) {
+        tail = node.prev;
+      } else {
+        node.next.prev = node.prev;
+      }
+      node.prev = null;
+      node.next = null;
+      node.queue = null;
+      weight -= node.weight;
+      count--;
+    }
+  }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.Reactor;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.config.BucketConfig;
+import com.couchbase.client.core.config.CouchbaseBucketConfig;
+import com.couchbase.client.core.error.FeatureNotAvailableException;
+import com.couchbase.client.core.error.UnambiguousTimeoutException;
+import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.msg.kv.GetKeysRequest;
+import com.couchbase.client.core.msg.kv.GetKeysResponse;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.java.codec.Transcoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static com.couchbase.client.core.error.DefaultErrorUtil.keyValueStatusToException;
+
+/**
+ * Scans all documents of a collection by listing the keys of every vbucket and fetching the documents.
+ * <p>
+ * The vbuckets are grouped by the node which is active for them at the start of the scan, and every node
+ * scans a bounded number of its vbuckets at the same time. If some vbuckets have no active node (i.e. during a
+ * failover), the scan waits for a configuration in which all of them have one. Within a vbucket the keys are
+ * listed page by page, with the next page only requested once all keys of the previous one have been consumed.
+ */
+@Stability.Internal
+public enum ScanAccessor {
+  ;
+
+  /**
+   * The number of documents fetched at the same time for a single vbucket.
+   */
+  private static final int DOCUMENTS_IN_FLIGHT = 16;
+
+  /**
+   * The smallest possible document key, which is used to start the listing of every vbucket.
+   */
+  private static final String FIRST_KEY = "\u0000";
+
+  /**
+   * Scans the collection.
+   *
+   * @param core the core reference to dispatch into.
+   * @param bucket the name of the bucket the collection belongs to.
+   * @param opts the scan options.
+   * @param configTimeout how long to wait for the bucket configuration if it is not loaded yet.
+   * @param keysRequest creates the request listing the keys of a vbucket, starting at the given key.
+   * @param getRequest creates the request fetching the document with the given key.
+   * @param transcoder the transcoder used to decode the documents.
+   * @return a {@link Flux} of all documents, in no particular order.
+   */
+  public static Flux<ScanResult> scan(final Core core, final String bucket, final ScanOptions.Built opts,
+                                      final Duration configTimeout,
+                                      final BiFunction<String, Short, GetKeysRequest> keysRequest,
+                                      final Function<String, GetRequest> getRequest,
+                                      final Transcoder transcoder) {
+    return core
+      .configurationProvider()
+      .configs()
+      .map(config -> Optional.ofNullable(config.bucketConfig(bucket)))
+      .filter(config -> config.isPresent() && hasActiveNodes(config.get()))
+      .next()
+      .timeout(configTimeout, Mono.error(() -> new UnambiguousTimeoutException(
+        "Timed out waiting for a configuration of bucket " + bucket + " with an active node for every vbucket", null
+      )))
+      .flatMapMany(maybeConfig -> {
+        BucketConfig config = maybeConfig.get();
+        if (!(config instanceof CouchbaseBucketConfig)) {
+          return Flux.error(new FeatureNotAvailableException("Collection scans are only supported on Couchbase buckets"));
+        }
+        return Flux
+          .fromIterable(vbucketsByNode((CouchbaseBucketConfig) config).values())
+          .flatMap(vbuckets -> Flux
+            .fromIterable(vbuckets)
+            .flatMap(vbucket -> scanVbucket(core, vbucket, keysRequest, getRequest, transcoder), opts.concurrency())
+          , Integer.MAX_VALUE);
+      });
+  }
+
+  /**
+   * Returns true if every vbucket has an active node, which is always the case for non-Couchbase buckets.
+   */
+  static boolean hasActiveNodes(final BucketConfig config) {
+    if (!(config instanceof CouchbaseBucketConfig)) {
+      return true;
+    }
+    CouchbaseBucketConfig couchbaseConfig = (CouchbaseBucketConfig) config;
+    for (short vbucket = 0; vbucket < couchbaseConfig.numberOfPartitions(); vbucket++) {
+      if (couchbaseConfig.nodeIndexForActive(vbucket, false) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Groups all vbuckets by the index of the node which is currently active for them.
+   */
+  static Map<Short, List<Short>> vbucketsByNode(final CouchbaseBucketConfig config) {
+    Map<Short, List<Short>> vbuckets = new TreeMap<>();
+    for (short vbucket = 0; vbucket < config.numberOfPartitions(); vbucket++) {
+      vbuckets
+        .computeIfAbsent(config.nodeIndexForActive(vbucket, false), k -> new ArrayList<>())
+        .add(vbucket);
+    }
+    return vbuckets;
+  }
+
+  static Flux<ScanResult> scanVbucket(final Core core, final short vbucket,
+                                              final BiFunction<String, Short, GetKeysRequest> keysRequest,
+                                              final Function<String, GetRequest> getRequest,
+                                              final Transcoder transcoder) {
+    return listKeys(core, keysRequest.apply(FIRST_KEY, vbucket))
+      .expand(page -> page.last() || page.keys().isEmpty()
+        ? Mono.empty()
+        : listKeys(core, keysRequest.apply(nextKey(page.keys().get(page.keys().size() - 1)), vbucket)))
+      // only one page is fetched ahead of the keys consumed
+      .concatMapIterable(GetKeysResponse::keys, 1)
+      .flatMap(key -> get(core, key, getRequest.apply(key), transcoder), DOCUMENTS_IN_FLIGHT);
+  }
+
+  /**
+   * Returns the smallest key which sorts after the given one.
+   */
+  static String nextKey(final String key) {
+    return key + FIRST_KEY;
+  }
+
+  private static Mono<GetKeysResponse> listKeys(final Core core, final GetKeysRequest request) {
+    return Mono.defer(() -> {
+      core.send(request);
+      return Reactor.wrap(request, request.response(), true);
+    })
+      .flatMap(response -> {
+        if (response.status().success()) {
+          return Mono.just(response);
+        } else if (response.status() == ResponseStatus.UNSUPPORTED) {
+          return Mono.error(new FeatureNotAvailableException("Listing the keys of a vbucket is not supported by the cluster"));
+        }
+        return Mono.error(keyValueStatusToException(request, response));
+      })
+      .doFinally(signalType -> request.context().logicallyComplete());
+  }
+
+  /**
+   * Fetches a listed document, which completes empty if it has been removed in the meantime.
+   */
+  private static Mono<ScanResult> get(final Core core, final String key, final GetRequest request,
+                                      final Transcoder transcoder) {
+    return Mono.defer(() -> {
+      core.send(request);
+      return Reactor.wrap(request, request.response(), true);
+    })
+      .flatMap(response -> {
+        if (response.status().success()) {
+          return Mono.just(new ScanResult(key, response.content(), response.flags(), response.cas(), transcoder));
+        } else if (response.status() == ResponseStatus.NOT_FOUND) {
+          return Mono.empty();
+        }
+        return Mono.error(keyValueStatusToException(request, response));
+      })
+      .doFinally(signalType -> request.context().logicallyComplete());
+  }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.java.CommonOptions;
+import com.couchbase.client.java.codec.Transcoder;
+
+import static com.couchbase.client.core.util.Validators.notNull;
+
+/**
+ * Allows to customize a collection scan.
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public class ScanOptions extends CommonOptions<ScanOptions> {
+
+  /**
+   * The number of keys listed per request if not customized.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 500;
+
+  /**
+   * The number of vbuckets scanned at the same time on every node if not customized.
+   */
+  public static final int DEFAULT_CONCURRENCY = 2;
+
+  /**
+   * The number of keys listed per request.
+   */
+  private int batchSize = DEFAULT_BATCH_SIZE;
+
+  /**
+   * The number of vbuckets scanned at the same time on every node.
+   */
+  private int concurrency = DEFAULT_CONCURRENCY;
+
+  /**
+   * Holds the transcoder used for decoding.
+   */
+  private Transcoder transcoder;
+
+  /**
+   * Creates a new set of {@link ScanOptions}.
+   *
+   * @return options to customize.
+   */
+  public static ScanOptions scanOptions() {
+    return new ScanOptions();
+  }
+
+  private ScanOptions() { }
+
+  /**
+   * Customizes how many keys are listed with a single request (500 by default).
+   *
+   * @param batchSize the number of keys per request, at least 1.
+   * @return the {@link ScanOptions} to allow method chaining.
+   */
+  public ScanOptions batchSize(final int batchSize) {
+    if (batchSize < 1) {
+      throw InvalidArgumentException.fromMessage("The batch size must be at least 1");
+    }
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  /**
+   * Customizes how many vbuckets are scanned at the same time on every node (2 by default).
+   *
+   * @param concurrency the number of concurrently scanned vbuckets per node, at least 1.
+   * @return the {@link ScanOptions} to allow method chaining.
+   */
+  public ScanOptions concurrency(final int concurrency) {
+    if (concurrency < 1) {
+      throw InvalidArgumentException.fromMessage("The concurrency must be at least 1");
+    }
+    this.concurrency = concurrency;
+    return this;
+  }
+
+  /**
+   * Allows to specify a custom transcoder that is used to decode the content of the result.
+   *
+   * @param transcoder the custom transcoder that should be used for decoding.
+   * @return the {@link ScanOptions} to allow method chaining.
+   */
+  public ScanOptions transcoder(final Transcoder transcoder) {
+    notNull(transcoder, "Transcoder");
+    this.transcoder = transcoder;
+    return this;
+  }
+
+  @Stability.Internal
+  public Built build() {
+    return new Built();
+  }
+
+  @Stability.Internal
+  public class Built extends BuiltCommonOptions {
+
+    Built() { }
+
+    public int batchSize() {
+      return batchSize;
+    }
+
+    public int concurrency() {
+      return concurrency;
+    }
+
+    public Transcoder transcoder() {
+      return transcoder;
+    }
+
+  }
+
+}
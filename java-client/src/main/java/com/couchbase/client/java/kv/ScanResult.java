@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.java.codec.Transcoder;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.couchbase.client.core.logging.RedactableArgument.redactUser;
+
+/**
+ * A document returned from a collection scan, which in addition to the {@link GetResult} carries its id.
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public class ScanResult extends GetResult {
+
+  /**
+   * The id of the document.
+   */
+  private final String id;
+
+  ScanResult(final String id, final byte[] content, final int flags, final long cas,
+             final Transcoder transcoder) {
+    super(content, flags, cas, Optional.empty(), transcoder);
+    this.id = id;
+  }
+
+  /**
+   * Returns the id of the document.
+   */
+  public String id() {
+    return id;
+  }
+
+  @Override
+  public String toString() {
+    return "ScanResult{" +
+      "id=" + redactUser(id) +
+      ", content=" + redactUser(convertContentToString()) +
+      ", flags=0x" + Integer.toHexString(flags) +
+      ", cas=0x" + Long.toHexString(cas()) +
+      '}';
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    if (!super.equals(o)) return false;
+    ScanResult that = (ScanResult) o;
+    return Objects.equals(id, that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * super.hashCode() + Objects.hashCode(id);
+  }
+
+}
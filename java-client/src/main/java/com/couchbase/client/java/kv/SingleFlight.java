@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.Request;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent operations with the same key into one, handing its result to all callers.
+ * <p>
+ * The first caller for a key performs the operation, every caller arriving while it is in flight gets the same
+ * result (or failure). Once the operation completes the key is released, so later callers perform a new operation.
+ * <p>
+ * A caller joining an operation gets a result which may have been read before its own call, like a concurrent
+ * caller without coalescing would. To keep callers from reading their own writes from before the write, local
+ * mutations {@link #release(Predicate, Request) release} the keys of the document once when they are sent and once
+ * more when they complete, so gets issued after a completed mutation always perform a new operation.
+ * <p>
+ * Every caller gets its own dependent future, so cancelling it does not affect the others.
+ */
+@Stability.Internal
+public class SingleFlight<K, V> {
+
+  private final Core core;
+  private final CollectionIdentifier collectionIdentifier;
+  private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * Created on first coalesced call, so collections which never use it do not register the metric.
+   */
+  private volatile Counter coalesced;
+
+  /**
+   * Set on first use, so mutations of collections which never coalesce do not need to release anything.
+   */
+  private volatile boolean used;
+
+  public SingleFlight(final Core core, final CollectionIdentifier collectionIdentifier) {
+    this.core = core;
+    this.collectionIdentifier = collectionIdentifier;
+  }
+
+  /**
+   * Performs the operation, unless one with the same key is in flight already in which case its result is used.
+   *
+   * @param key identifies operations which are interchangeable.
+   * @param operation starts the operation if none with the same key is in flight.
+   * @return a {@link CompletableFuture} completing with the result of the (possibly shared) operation.
+   */
+  public CompletableFuture<V> execute(final K key, final Supplier<CompletableFuture<V>> operation) {
+    if (!used) {
+      used = true;
+    }
+    CompletableFuture<V> flight = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+    if (existing != null) {
+      coalesced().incrementBy(1);
+      return existing.thenApply(Function.identity());
+    }
+
+    try {
+      operation.get().whenComplete((result, throwable) -> {
+        inFlight.remove(key, flight);
+        if (throwable == null) {
+          flight.complete(result);
+        } else {
+          flight.completeExceptionally(throwable);
+        }
+      });
+    } catch (RuntimeException ex) {
+      // Keep failing synchronously (i.e. on invalid arguments) like without coalescing, but also
+      // release the callers which joined in the meantime.
+      inFlight.remove(key, flight);
+      flight.completeExceptionally(ex);
+      throw ex;
+    }
+    return flight.thenApply(Function.identity());
+  }
+
+  /**
+   * Releases the matching keys once now and once more when the given mutation completes.
+   *
+   * @param matches selects the keys affected by the mutation.
+   * @param request the request mutating the document.
+   */
+  public void release(final Predicate<K> matches, final Request<?> request) {
+    if (used) {
+      release(matches);
+      request.response().whenComplete((r, t) -> release(matches));
+    }
+  }
+
+  /**
+   * Releases the matching keys, so the next caller performs a new operation while callers which joined the
+   * released ones still get their result.
+   *
+   * @param matches selects the keys to release.
+   */
+  public void release(final Predicate<K> matches) {
+    if (!inFlight.isEmpty()) {
+      inFlight.keySet().removeIf(matches);
+    }
+  }
+
+  /**
+   * Returns the number of distinct operations currently in flight.
+   */
+  public int inFlight() {
+    return inFlight.size();
+  }
+
+  private Counter coalesced() {
+    Counter counter = coalesced;
+    if (counter == null) {
+      Map<String, String> tags = new HashMap<>(4);
+      tags.put("cb.bucket", collectionIdentifier.bucket());
+      tags.put("cb.scope", collectionIdentifier.scope().orElse(CollectionIdentifier.DEFAULT_SCOPE));
+      tags.put("cb.collection", collectionIdentifier.collection().orElse(CollectionIdentifier.DEFAULT_COLLECTION));
+      counter = core.context().environment().meter().counter("cb.single_flight_coalesced", tags);
+      coalesced = counter;
+    }
+    return counter;
+  }
+
+}
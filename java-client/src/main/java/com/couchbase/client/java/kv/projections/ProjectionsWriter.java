@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.java.kv.projections;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.couchbase.client.core.projections.JsonPathParser;
+import com.couchbase.client.core.projections.PathArray;
+import com.couchbase.client.core.projections.PathElement;
+import com.couchbase.client.core.projections.PathObjectOrField;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assembles the fields of a multi-spec subdocument lookup into a single JSON document.
+ * <p>
+ * This follows the same path rules as {@link ProjectionsApplier}, but the raw content of each field is never
+ * decoded: it is spliced verbatim into the output. The result can then be bound into the final target type
+ * with a single pass of the {@code JsonSerializer}, instead of decoding every field into a {@code JsonObject},
+ * {@code JsonArray} or boxed scalar and re-encoding the merged tree first.
+ *
+ * @since 3.1.0
+ */
+@Stability.Internal
+public class ProjectionsWriter {
+
+  private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+
+  /**
+   * The root of the projected tree; nested nodes are either maps (objects), lists (arrays) or raw byte arrays.
+   */
+  private final Map<String, Object> root = new HashMap<>();
+
+  /**
+   * Approximation of the output size, used to presize the output buffer.
+   */
+  private int sizeHint = 2;
+
+  /**
+   * Adds the raw content found at the given path to the projected document.
+   *
+   * @param path the subdocument path the content has been fetched from.
+   * @param content the raw JSON content, which is not decoded.
+   * @return this {@link ProjectionsWriter} for chaining purposes.
+   */
+  public ProjectionsWriter add(final String path, final byte[] content) {
+    List<PathElement> parsed = JsonPathParser.parse(path);
+    addRecursive(root, parsed, content);
+    sizeHint += path.length() + content.length + 8;
+    return this;
+  }
+
+  /**
+   * Returns the encoded projected document.
+   */
+  public byte[] toBytes() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(sizeHint);
+    write(out, root);
+    return out.toByteArray();
+  }
+
+  /**
+   * Will follow `path`, constructing nodes as it does into `out`, and inserting `content` at the leaf.
+   *
+   * @param out must be either a map (object) or a list (array) node.
+   */
+  @SuppressWarnings("unchecked")
+  private static void addRecursive(final Object out, final List<PathElement> path, final Object content) {
+    if (path.isEmpty()) {
+      return;
+    }
+
+    PathElement next = path.get(0);
+    if (path.size() == 1) {
+      if (next instanceof PathArray) {
+        List<Object> toInsert = new ArrayList<>(1);
+        toInsert.add(content);
+        if (out instanceof Map) {
+          ((Map<String, Object>) out).put(((PathArray) next).str(), toInsert);
+        } else {
+          ((List<Object>) out).add(toInsert);
+        }
+      } else {
+        String name = ((PathObjectOrField) next).str();
+        if (out instanceof Map) {
+          ((Map<String, Object>) out).put(name, content);
+        } else {
+          Map<String, Object> toInsert = new HashMap<>();
+          toInsert.put(name, content);
+          ((List<Object>) out).add(toInsert);
+        }
+      }
+      return;
+    }
+
+    List<PathElement> remaining = path.subList(1, path.size());
+    if (next instanceof PathArray) {
+      List<Object> toInsert = new ArrayList<>();
+      if (out instanceof Map) {
+        ((Map<String, Object>) out).put(((PathArray) next).str(), toInsert);
+        addRecursive(toInsert, remaining, content);
+      } else {
+        ((List<Object>) out).add(toInsert);
+        addRecursive(out, remaining, content);
+      }
+    } else {
+      String name = ((PathObjectOrField) next).str();
+      if (out instanceof Map) {
+        Map<String, Object> parent = (Map<String, Object>) out;
+        Object existing = parent.get(name);
+        Map<String, Object> createIn = existing instanceof Map ? (Map<String, Object>) existing : new HashMap<>();
+        parent.put(name, createIn);
+        addRecursive(createIn, remaining, content);
+      } else {
+        Map<String, Object> toCreate = new HashMap<>();
+        Map<String, Object> nextToCreate = new HashMap<>();
+        toCreate.put(name, nextToCreate);
+        ((List<Object>) out).add(toCreate);
+        addRecursive(nextToCreate, remaining, content);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void write(final ByteArrayOutputStream out, final Object node) {
+    if (node instanceof byte[]) {
+      byte[] raw = (byte[]) node;
+      out.write(raw, 0, raw.length);
+    } else if (node instanceof Map) {
+      out.write('{');
+      boolean first = true;
+      for (Map.Entry<String, Object> entry : ((Map<String, Object>) node).entrySet()) {
+        if (!first) {
+          out.write(',');
+        }
+        first = false;
+        byte[] name = ENCODER.quoteAsUTF8(entry.getKey());
+        out.write('"');
+        out.write(name, 0, name.length);
+        out.write('"');
+        out.write(':');
+        write(out, entry.getValue());
+      }
+      out.write('}');
+    } else {
+      out.write('[');
+      boolean first = true;
+      for (Object element : (List<Object>) node) {
+        if (!first) {
+          out.write(',');
+        }
+        first = false;
+        write(out, element);
+      }
+      out.write(']');
+    }
+  }
+
+}
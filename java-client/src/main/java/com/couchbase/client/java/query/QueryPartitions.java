@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.query;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes how a N1QL statement is split into sub-queries over document key ranges for a partitioned query.
+ * <p>
+ * The statement is executed once per partition, with the bounds of the partition bound to the named parameters
+ * {@code $partitionStart} (inclusive) and {@code $partitionEnd} (exclusive). The statement must use them to restrict
+ * the keys it scans, so that every document is returned by exactly one partition:
+ * <pre>
+ * SELECT d.* FROM bucket d WHERE META(d).id &gt;= $partitionStart AND META(d).id &lt; $partitionEnd
+ * </pre>
+ * The first partition starts at the empty string and the last one ends at the empty array, which N1QL collates
+ * after every string, so the partitions together cover all document keys.
+ * <p>
+ * Both parameters are reserved: the query fails with an {@link InvalidArgumentException} if the options set them
+ * as well, or if they use positional parameters, which cannot be combined with named ones.
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public class QueryPartitions {
+
+  /**
+   * The name of the parameter holding the inclusive lower bound of the partition.
+   */
+  public static final String START_PARAMETER = "partitionStart";
+
+  /**
+   * The name of the parameter holding the exclusive upper bound of the partition.
+   */
+  public static final String END_PARAMETER = "partitionEnd";
+
+  /**
+   * The maximum number of partitions executed at the same time if not customized.
+   */
+  public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+  private final List<String> splitPoints;
+  private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+  private QueryPartitions(final List<String> splitPoints) {
+    this.splitPoints = splitPoints;
+  }
+
+  /**
+   * Creates partitions split at the given document keys.
+   * <p>
+   * N split points result in N + 1 partitions. Ideally the split points are chosen so that every partition holds
+   * roughly the same number of documents.
+   *
+   * @param splitPoints the keys at which the key space is split, in ascending order.
+   * @return the created {@link QueryPartitions}.
+   */
+  public static QueryPartitions splitAt(final String... splitPoints) {
+    if (splitPoints == null) {
+      throw InvalidArgumentException.fromMessage("Split points cannot be null");
+    }
+
+    List<String> points = Arrays.asList(splitPoints.clone());
+    for (int i = 0; i < points.size(); i++) {
+      String point = points.get(i);
+      if (point == null || point.isEmpty()) {
+        throw InvalidArgumentException.fromMessage("Split points cannot be null or empty");
+      }
+      if (i > 0 && points.get(i - 1).compareTo(point) >= 0) {
+        throw InvalidArgumentException.fromMessage("Split points must be distinct and in ascending order");
+      }
+    }
+    return new QueryPartitions(Collections.unmodifiableList(points));
+  }
+
+  /**
+   * Customizes how many partitions are queried at the same time (4 by default).
+   * <p>
+   * Note that this does not apply if the rows are merged in order, since then all partitions need to be open
+   * at the same time.
+   *
+   * @param maxConcurrency the maximum number of concurrently running partitions, at least 1.
+   * @return this {@link QueryPartitions} for chaining purposes.
+   */
+  public QueryPartitions maxConcurrency(final int maxConcurrency) {
+    if (maxConcurrency < 1) {
+      throw InvalidArgumentException.fromMessage("The maximum concurrency must be at least 1");
+    }
+    this.maxConcurrency = maxConcurrency;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of partitions queried at the same time.
+   */
+  public int maxConcurrency() {
+    return maxConcurrency;
+  }
+
+  /**
+   * Returns the number of partitions.
+   */
+  public int size() {
+    return splitPoints.size() + 1;
+  }
+
+  /**
+   * Returns the named parameters for every partition, in key order.
+   */
+  @Stability.Internal
+  public List<JsonObject> parameters() {
+    List<JsonObject> parameters = new ArrayList<>(size());
+    Object start = "";
+    for (String point : splitPoints) {
+      parameters.add(JsonObject.create().put(START_PARAMETER, start).put(END_PARAMETER, point));
+      start = point;
+    }
+    parameters.add(JsonObject.create().put(START_PARAMETER, start).put(END_PARAMETER, JsonArray.create()));
+    return parameters;
+  }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java;
+
+import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.query.QueryOptions;
+import com.couchbase.client.java.query.QueryPartitions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifies the query request helpers of the {@link AsyncCluster}.
+ */
+class AsyncClusterTest {
+
+  private static final JsonObject PARTITION = QueryPartitions.splitAt("g").parameters().get(0);
+
+  @Test
+  void injectsPartitionParameters() {
+    JsonObject query = JsonObject.create();
+    QueryOptions.queryOptions().parameters(JsonObject.create().put("type", "airline")).build().injectParams(query);
+
+    AsyncCluster.injectAdditionalParameters(query, PARTITION);
+
+    assertEquals("airline", query.get("$type"));
+    assertEquals("", query.get("$" + QueryPartitions.START_PARAMETER));
+    assertEquals("g", query.get("$" + QueryPartitions.END_PARAMETER));
+  }
+
+  @Test
+  void rejectsPositionalParameters() {
+    JsonObject query = JsonObject.create();
+    QueryOptions.queryOptions().parameters(JsonArray.from("airline")).build().injectParams(query);
+
+    assertThrows(InvalidArgumentException.class, () -> AsyncCluster.injectAdditionalParameters(query, PARTITION));
+  }
+
+  @Test
+  void rejectsReservedNamedParameters() {
+    JsonObject query = JsonObject.create();
+    QueryOptions.queryOptions()
+      .parameters(JsonObject.create().put(QueryPartitions.START_PARAMETER, "a"))
+      .build()
+      .injectParams(query);
+
+    assertThrows(InvalidArgumentException.class, () -> AsyncCluster.injectAdditionalParameters(query, PARTITION));
+
+    JsonObject prefixed = JsonObject.create();
+    QueryOptions.queryOptions()
+      .parameters(JsonObject.create().put("$" + QueryPartitions.END_PARAMETER, "z"))
+      .build()
+      .injectParams(prefixed);
+
+    assertThrows(InvalidArgumentException.class, () -> AsyncCluster.injectAdditionalParameters(prefixed, PARTITION));
+  }
+
+}
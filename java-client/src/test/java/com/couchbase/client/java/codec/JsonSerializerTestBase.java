@@ -16,6 +16,8 @@
 
 package com.couchbase.client.java.codec;
 
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.error.DecodingFailureException;
 import com.couchbase.client.java.json.JsonArray;
 import com.couchbase.client.java.json.JsonObject;
@@ -153,4 +155,29 @@ abstract class JsonSerializerTestBase {
     });
   }
 
+  @Test
+  void encodesIntoByteBuf() {
+    ByteBuf output = Unpooled.buffer(4).writeByte('x');
+    try {
+      serializer().serialize(JsonObject.create().put("foo", "bar"), output);
+      assertEquals("x{\"foo\":\"bar\"}", output.toString(UTF_8));
+    } finally {
+      output.release();
+    }
+  }
+
+  @Test
+  void decodesFromByteBuf() {
+    byte[] content = "x{\"foo\":\"bar\"}".getBytes(UTF_8);
+    for (ByteBuf input : listOf(Unpooled.wrappedBuffer(content), Unpooled.directBuffer().writeBytes(content))) {
+      try {
+        input.skipBytes(1);
+        assertEquals(JsonObject.create().put("foo", "bar"), serializer().deserialize(JsonObject.class, input));
+        assertEquals(1, input.readerIndex());
+      } finally {
+        input.release();
+      }
+    }
+  }
+
 }
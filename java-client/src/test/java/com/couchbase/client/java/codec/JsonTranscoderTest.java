@@ -16,6 +16,8 @@
 
 package com.couchbase.client.java.codec;
 
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.error.EncodingFailureException;
 import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.core.msg.kv.CodecFlags;
 import com.couchbase.client.java.json.JsonArray;
@@ -126,4 +128,31 @@ class JsonTranscoderTest {
     assertThrows(InvalidArgumentException.class, () -> JSON_TRANSCODER.decode(byte[].class, new byte[] {}, CodecFlags.JSON_COMPAT_FLAGS));
   }
 
+  @Test
+  void encodesIntoPooledBuffer() {
+    Transcoder transcoder = JsonTranscoder.createPooled(AfterburnerJsonSerializer.create());
+    Transcoder.EncodedValue output = transcoder.encode(JsonObject.create().put("foo", "bar"));
+
+    ByteBuf buffer = output.encodedBuffer();
+    try {
+      assertNotNull(buffer);
+      assertEquals("{\"foo\":\"bar\"}", buffer.toString(StandardCharsets.UTF_8));
+      assertEquals("{\"foo\":\"bar\"}", new String(output.encoded(), StandardCharsets.UTF_8));
+      assertEquals(CodecFlags.JSON_COMPAT_FLAGS, output.flags());
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Test
+  void doesNotUseBufferUnlessPooled() {
+    assertNull(JSON_TRANSCODER.encode(JsonObject.create()).encodedBuffer());
+  }
+
+  @Test
+  void pooledEncodeFailurePropagates() {
+    Transcoder transcoder = JsonTranscoder.createPooled(DefaultJsonSerializer.create());
+    assertThrows(EncodingFailureException.class, () -> transcoder.encode(new Object()));
+  }
+
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.env;
+
+import com.couchbase.client.core.cnc.Context;
+import com.couchbase.client.core.error.InvalidArgumentException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link NearCacheConfig}.
+ */
+class NearCacheConfigTest {
+
+  @Test
+  void rejectsNegativeValues() {
+    NearCacheConfig.Builder builder = NearCacheConfig.builder();
+
+    assertThrows(InvalidArgumentException.class, () -> builder.maxEntries(-1));
+    assertThrows(InvalidArgumentException.class, () -> builder.maxWeight(-1));
+    assertThrows(InvalidArgumentException.class, () -> builder.expiry(Duration.ofSeconds(-1)));
+    assertThrows(InvalidArgumentException.class, () -> builder.revalidateAfter(Duration.ofSeconds(-1)));
+  }
+
+  @Test
+  void exportsAsMap() {
+    Map<String, Object> export = NearCacheConfig
+      .builder()
+      .maxEntries(100)
+      .revalidateAfter(Duration.ofSeconds(1))
+      .build()
+      .exportAsMap();
+
+    assertEquals(100, export.get("maxEntries"));
+    assertEquals(NearCacheConfig.DEFAULT_MAX_WEIGHT, export.get("maxWeight"));
+    assertEquals(NearCacheConfig.DEFAULT_EXPIRY.toMillis(), export.get("expiryMs"));
+    assertEquals(1000L, export.get("revalidateAfterMs"));
+  }
+
+  @Test
+  void isExportedWithEnvironment() {
+    ClusterEnvironment environment = ClusterEnvironment.create();
+    try {
+      assertTrue(environment.exportAsString(Context.ExportFormat.JSON).contains("\"nearCacheConfig\":{\"maxEntries\":"));
+    } finally {
+      environment.shutdown();
+    }
+  }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.json;
+
+import com.couchbase.client.core.error.InvalidArgumentException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyJsonObjectTest {
+
+  private static final String DOC = " {\"name\" : \"Mike\",\"age\":  42, \"big\":12345678901234,\"ratio\":1.5,"
+    + "\"ok\":true,\"nothing\":null,\"tags\":[1, 2,{\"a\":1}],"
+    + "\"address\": {\"city\" : \"Paris\", \"geo\":{\"lat\":48.85 , \"lon\":2.35}},\"emoji\":\"\\u00e9t\\u00e9\"} ";
+
+  private static JsonObject lazy(final String json) {
+    return JsonObject.fromJsonLazy(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void decodesSameAsEagerObject() {
+    JsonObject eager = JsonObject.fromJson(DOC);
+    JsonObject lazy = lazy(DOC);
+
+    assertEquals(eager, lazy);
+    assertEquals(lazy, eager);
+    assertEquals(eager.hashCode(), lazy.hashCode());
+    assertEquals(eager.toMap(), lazy.toMap());
+    assertEquals(eager.getNames(), lazy.getNames());
+    assertEquals(9, lazy.size());
+    assertEquals("Mike", lazy.getString("name"));
+    assertEquals(42, (int) lazy.getInt("age"));
+    assertEquals(12345678901234L, (long) lazy.getLong("big"));
+    assertEquals(1.5, lazy.getDouble("ratio"), 0);
+    assertTrue(lazy.getBoolean("ok"));
+    assertTrue(lazy.containsKey("nothing"));
+    assertNull(lazy.get("nothing"));
+    assertNull(lazy.get("missing"));
+    assertEquals(3, lazy.getArray("tags").size());
+    assertEquals("Paris", lazy.getObject("address").getString("city"));
+    assertEquals("été", lazy.getString("emoji"));
+  }
+
+  @Test
+  void returnsOriginalBytesIfUnmodified() {
+    JsonObject lazy = lazy(DOC);
+    assertEquals(DOC.trim(), new String(lazy.toBytes(), StandardCharsets.UTF_8));
+
+    lazy.getString("name");
+    lazy.getInt("age");
+    lazy.getObject("address").getObject("geo").getDouble("lat");
+    assertEquals(DOC.trim(), new String(lazy.toBytes(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void keepsUntouchedFieldsByteForByte() {
+    JsonObject lazy = lazy(DOC);
+    lazy.put("age", 43);
+    lazy.removeKey("ok");
+    lazy.put("added", "yes");
+
+    String json = lazy.toString();
+    assertEquals("{\"name\" : \"Mike\",\"age\":43,\"big\":12345678901234,\"ratio\":1.5,"
+      + "\"nothing\":null,\"tags\":[1, 2,{\"a\":1}],"
+      + "\"address\": {\"city\" : \"Paris\", \"geo\":{\"lat\":48.85 , \"lon\":2.35}},\"emoji\":\"\\u00e9t\\u00e9\","
+      + "\"added\":\"yes\"}", json);
+    assertEquals(JsonObject.fromJson(json), lazy);
+  }
+
+  @Test
+  void reencodesOnlyModifiedNestedObjects() {
+    JsonObject lazy = lazy(DOC);
+    lazy.getObject("address").getObject("geo").put("lat", 1);
+
+    String json = new String(lazy.toBytes(), StandardCharsets.UTF_8);
+    assertTrue(json.contains("\"address\":{\"city\" : \"Paris\",\"geo\":{\"lat\":1,\"lon\":2.35}}"), json);
+    assertTrue(json.contains("\"tags\":[1, 2,{\"a\":1}]"), json);
+  }
+
+  @Test
+  void reencodesArraysWhichHaveBeenRead() {
+    JsonObject lazy = lazy(DOC);
+    lazy.getArray("tags").add(3);
+
+    JsonObject decoded = JsonObject.fromJson(lazy.toBytes());
+    assertEquals(4, decoded.getArray("tags").size());
+  }
+
+  @Test
+  void canBeNestedInEagerObjects() {
+    JsonObject eager = JsonObject.create().put("inner", lazy("{\"a\": 1}"));
+    assertEquals(JsonObject.fromJson("{\"inner\":{\"a\":1}}"), JsonObject.fromJson(eager.toBytes()));
+  }
+
+  @Test
+  void handlesEmptyObject() {
+    JsonObject lazy = lazy("{ }");
+    assertEquals(0, lazy.size());
+    lazy.put("a", 1);
+    assertEquals("{\"a\":1}", lazy.toString());
+  }
+
+  /**
+   * Reads build the index and decode values, which must be safe when a shared object is only read.
+   */
+  @Test
+  void canBeReadConcurrently() throws Exception {
+    JsonObject expected = JsonObject.fromJson(DOC);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      for (int round = 0; round < 200; round++) {
+        JsonObject lazy = lazy(DOC);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<JsonObject>> readers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+          readers.add(() -> {
+            start.await();
+            assertEquals("Mike", lazy.getString("name"));
+            assertEquals("Paris", lazy.getObject("address").getString("city"));
+            assertEquals(expected, lazy);
+            return lazy.getObject("address");
+          });
+        }
+        List<Future<JsonObject>> results = new ArrayList<>();
+        for (Callable<JsonObject> reader : readers) {
+          results.add(executor.submit(reader));
+        }
+        start.countDown();
+
+        JsonObject address = results.get(0).get();
+        for (Future<JsonObject> result : results) {
+          // every reader sees the same decoded nested object
+          assertSame(address, result.get());
+        }
+        assertEquals(expected, JsonObject.fromJson(lazy.toBytes()));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void rejectsNonObjects() {
+    assertThrows(InvalidArgumentException.class, () -> lazy("[1]"));
+    assertThrows(InvalidArgumentException.class, () -> lazy("  "));
+  }
+
+  @Test
+  void failsOnFirstAccessIfMalformed() {
+    JsonObject lazy = lazy("{\"a\": 1,}");
+    assertThrows(InvalidArgumentException.class, () -> lazy.get("a"));
+    assertThrows(InvalidArgumentException.class, () -> lazy("{\"a\": [1,2}").size());
+  }
+
+}
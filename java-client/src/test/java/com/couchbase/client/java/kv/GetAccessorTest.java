@@ -21,6 +21,7 @@ import com.couchbase.client.core.msg.kv.SubdocCommandType;
 import com.couchbase.client.core.msg.kv.SubDocumentField;
 import com.couchbase.client.core.msg.kv.SubDocumentOpResponseStatus;
 import com.couchbase.client.core.msg.kv.SubdocGetResponse;
+import com.couchbase.client.java.json.JsonArray;
 import com.couchbase.client.java.json.JsonObject;
 import org.junit.jupiter.api.Test;
 
@@ -98,6 +99,25 @@ class GetAccessorTest {
      assertEquals(expected, JsonObject.fromJson(result));
   }
 
+  @Test
+  void arraysAndRawValues() {
+    Map<String, String> paths = new HashMap<>();
+    paths.put("tags[0]", "\"a \\\"quoted\\\" tag\"");
+    paths.put("owner.names[1].first", "\"jane\"");
+    paths.put("ratio", "1.5e3");
+
+    byte[] result = GetAccessor.projectRecursive(response(paths));
+
+    JsonObject expected = JsonObject.create()
+      .put("tags", JsonArray.from("a \"quoted\" tag"))
+      .put("owner", JsonObject.create()
+        .put("names", JsonArray.from(JsonObject.create().put("first", "jane")))
+      )
+      .put("ratio", 1500.0);
+
+    assertEquals(expected, JsonObject.fromJson(result));
+  }
+
   /**
    * Helper method to build the response from a list of paths and values.
    *
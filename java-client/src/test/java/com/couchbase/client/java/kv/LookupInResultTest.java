@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.msg.kv.SubDocumentField;
+import com.couchbase.client.core.msg.kv.SubDocumentOpResponseStatus;
+import com.couchbase.client.core.msg.kv.SubdocCommandType;
+import com.couchbase.client.java.codec.DefaultJsonSerializer;
+import com.couchbase.client.java.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LookupInResultTest {
+
+  @Test
+  void bindsProjectionIntoTargetClass() {
+    LookupInResult result = new LookupInResult(new SubDocumentField[] {
+      field("name", "\"Couchbase\"", SubdocCommandType.GET, SubDocumentOpResponseStatus.SUCCESS),
+      field("address.city", "\"Santa Clara\"", SubdocCommandType.GET, SubDocumentOpResponseStatus.SUCCESS),
+      field("address.zip", "", SubdocCommandType.EXISTS, SubDocumentOpResponseStatus.SUCCESS),
+      field("missing", "", SubdocCommandType.GET, SubDocumentOpResponseStatus.PATH_NOT_FOUND),
+      field("tags", "3", SubdocCommandType.COUNT, SubDocumentOpResponseStatus.SUCCESS),
+    }, 0, DefaultJsonSerializer.create(), null, false);
+
+    Company company = result.contentAsProjection(Company.class);
+    assertEquals("Couchbase", company.name);
+    assertEquals("Santa Clara", company.address.city);
+    assertEquals(3, company.tags);
+
+    JsonObject expected = JsonObject.create()
+      .put("name", "Couchbase")
+      .put("address", JsonObject.create().put("city", "Santa Clara"))
+      .put("tags", 3);
+    assertEquals(expected, result.contentAsProjection(JsonObject.class));
+  }
+
+  private static SubDocumentField field(final String path, final String value, final SubdocCommandType type,
+                                        final SubDocumentOpResponseStatus status) {
+    return new SubDocumentField(status, Optional.empty(), value.getBytes(UTF_8), path, type);
+  }
+
+  static class Company {
+    public String name;
+    public Address address;
+    public int tags;
+  }
+
+  static class Address {
+    public String city;
+  }
+
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.metrics.NoopMeter;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.error.UnambiguousTimeoutException;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.msg.kv.GetMetaRequest;
+import com.couchbase.client.core.msg.kv.GetMetaResponse;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.GetResponse;
+import com.couchbase.client.core.msg.kv.UpsertRequest;
+import com.couchbase.client.core.msg.kv.UpsertResponse;
+import com.couchbase.client.java.codec.DefaultJsonSerializer;
+import com.couchbase.client.java.codec.JsonTranscoder;
+import com.couchbase.client.java.codec.RawJsonTranscoder;
+import com.couchbase.client.java.codec.Transcoder;
+import com.couchbase.client.java.env.NearCacheConfig;
+import com.couchbase.client.java.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NearCacheTest {
+
+  private static final byte[] CONTENT = "{\"foo\":\"bar\"}".getBytes(UTF_8);
+  private static final Transcoder TRANSCODER = JsonTranscoder.create(DefaultJsonSerializer.create());
+
+  private final Core core = mockCore();
+
+  @Test
+  void servesFilledDocuments() {
+    NearCache cache = cache(NearCacheConfig.create());
+
+    assertNull(cache.lookup("id", System.nanoTime()));
+    cache.fill("id", CONTENT, 0, 5, cache.stamp("id"));
+
+    NearCache.Node node = cache.lookup("id", System.nanoTime());
+    assertNotNull(node);
+    assertEquals(5, node.cas());
+    assertEquals("bar", node.toResult(TRANSCODER).contentAsObject().getString("foo"));
+  }
+
+  @Test
+  void loadsOnMissAndServesHitsFromCache() throws Exception {
+    NearCache cache = cache(NearCacheConfig.create());
+    GetRequest request = getRequest(CONTENT, 5);
+
+    GetResult loaded = cache.get("id", () -> request, () -> null, TRANSCODER).get();
+    GetResult cached = cache.get("id", () -> getRequest(CONTENT, 6), () -> null, TRANSCODER).get();
+
+    assertEquals(5, loaded.cas());
+    assertEquals(5, cached.cas());
+    assertEquals(JsonObject.create().put("foo", "bar"), cached.contentAsObject());
+    verify(core, times(1)).send(any());
+  }
+
+  @Test
+  void ignoresLoadsStartedBeforeInvalidation() {
+    NearCache cache = cache(NearCacheConfig.create());
+    cache.activate();
+
+    long stamp = cache.stamp("id");
+    cache.invalidate("id");
+    cache.fill("id", CONTENT, 0, 5, stamp);
+
+    assertNull(cache.lookup("id", System.nanoTime()));
+  }
+
+  @Test
+  void invalidatesOnMutationAndItsCompletion() {
+    NearCache cache = cache(NearCacheConfig.create());
+    cache.fill("id", CONTENT, 0, 5, cache.stamp("id"));
+
+    UpsertRequest mutation = mock(UpsertRequest.class);
+    CompletableFuture<UpsertResponse> response = new CompletableFuture<>();
+    when(mutation.response()).thenReturn(response);
+
+    cache.invalidate("id", mutation);
+    assertNull(cache.lookup("id", System.nanoTime()));
+
+    // a get which was served before the mutation got applied
+    cache.fill("id", CONTENT, 0, 5, cache.stamp("id"));
+    response.complete(mock(UpsertResponse.class));
+    assertNull(cache.lookup("id", System.nanoTime()));
+  }
+
+  @Test
+  void doesNotTrackMutationsWhenUnused() {
+    NearCache cache = cache(NearCacheConfig.create());
+    UpsertRequest mutation = mock(UpsertRequest.class);
+
+    cache.invalidate("id", mutation);
+
+    verify(mutation, never()).response();
+  }
+
+  @Test
+  void expiresDocuments() {
+    NearCache cache = cache(NearCacheConfig.builder().expiry(Duration.ofSeconds(1)).build());
+    cache.fill("id", CONTENT, 0, 5, cache.stamp("id"));
+
+    assertNotNull(cache.lookup("id", System.nanoTime()));
+    assertNull(cache.lookup("id", System.nanoTime() + Duration.ofSeconds(2).toNanos()));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void revalidatesWithCas() throws Exception {
+    NearCache cache = cache(NearCacheConfig.builder().revalidateAfter(Duration.ofNanos(1)).build());
+    cache.fill("id", CONTENT, 0, 5, cache.stamp("id"));
+
+    GetResult unchanged = cache.get("id", () -> getRequest(CONTENT, 6), () -> getMetaRequest(5), TRANSCODER).get();
+    assertEquals(5, unchanged.cas());
+
+    byte[] updated = "{\"foo\":\"baz\"}".getBytes(UTF_8);
+    GetResult changed = cache.get("id", () -> getRequest(updated, 6), () -> getMetaRequest(6), TRANSCODER).get();
+    assertEquals(6, changed.cas());
+    assertEquals("baz", changed.contentAsObject().getString("foo"));
+    verify(core, times(3)).send(any());
+  }
+
+  @Test
+  void loadsWhenRevalidationFails() throws Exception {
+    NearCache cache = cache(NearCacheConfig.builder().revalidateAfter(Duration.ofNanos(1)).build());
+    cache.fill("id", CONTENT, 0, 5, cache.stamp("id"));
+
+    GetMetaRequest revalidation = getMetaRequest(5);
+    CompletableFuture<GetMetaResponse> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new UnambiguousTimeoutException("GetMeta timed out", null));
+    when(revalidation.response()).thenReturn(failed);
+
+    byte[] updated = "{\"foo\":\"baz\"}".getBytes(UTF_8);
+    GetResult loaded = cache.get("id", () -> getRequest(updated, 6), () -> revalidation, TRANSCODER).get();
+    assertEquals(6, loaded.cas());
+    assertEquals("baz", loaded.contentAsObject().getString("foo"));
+    assertEquals(6, cache.lookup("id", System.nanoTime()).cas());
+    verify(core, times(2)).send(any());
+  }
+
+  @Test
+  void doesNotShareContentBetweenHits() throws Exception {
+    NearCache cache = cache(NearCacheConfig.create());
+    byte[] content = CONTENT.clone();
+    Transcoder transcoder = RawJsonTranscoder.INSTANCE;
+
+    byte[] loaded = cache.get("id", () -> getRequest(content, 5), () -> null, transcoder).get().contentAs(byte[].class);
+    loaded[0] = 'x';
+    content[1] = 'x';
+    byte[] hit = cache.get("id", () -> getRequest(CONTENT, 6), () -> null, transcoder).get().contentAs(byte[].class);
+    hit[0] = 'x';
+
+    assertArrayEquals(CONTENT, cache.get("id", () -> null, () -> null, transcoder).get().contentAs(byte[].class));
+    verify(core, times(1)).send(any());
+  }
+
+  @Test
+  void boundsNumberOfEntries() {
+    NearCache cache = cache(NearCacheConfig.builder().maxEntries(100).build());
+    for (int i = 0; i < 1000; i++) {
+      String id = "id-" + i;
+      cache.fill(id, CONTENT, 0, i, cache.stamp(id));
+    }
+    assertEquals(100, cache.size());
+  }
+
+  @Test
+  void boundsWeight() {
+    NearCache cache = cache(NearCacheConfig.builder().maxWeight(1000).build());
+    byte[] content = new byte[96];
+    for (int i = 0; i < 100; i++) {
+      String id = "id-" + i;
+      cache.fill(id, content, 0, i, cache.stamp(id));
+    }
+    assertTrue(cache.size() <= 10, "size: " + cache.size());
+
+    cache.fill("large", new byte[1001], 0, 0, cache.stamp("large"));
+    assertNull(cache.lookup("large", System.nanoTime()));
+  }
+
+  @Test
+  void keepsFrequentlyUsedDocuments() {
+    NearCache cache = cache(NearCacheConfig.builder().maxEntries(100).build());
+    for (int i = 0; i < 50; i++) {
+      String id = "hot-" + i;
+      cache.fill(id, CONTENT, 0, i, cache.stamp(id));
+    }
+    for (int round = 0; round < 5; round++) {
+      for (int i = 0; i < 50; i++) {
+        cache.lookup("hot-" + i, System.nanoTime());
+      }
+    }
+
+    for (int i = 0; i < 1000; i++) {
+      String id = "cold-" + i;
+      cache.fill(id, CONTENT, 0, i, cache.stamp(id));
+    }
+
+    int retained = 0;
+    for (int i = 0; i < 50; i++) {
+      if (cache.lookup("hot-" + i, System.nanoTime()) != null) {
+        retained++;
+      }
+    }
+    assertTrue(retained >= 45, "retained: " + retained);
+  }
+
+  private NearCache cache(final NearCacheConfig config) {
+    return new NearCache(core, config, CollectionIdentifier.fromDefault("bucket"));
+  }
+
+  private static Core mockCore() {
+    CoreEnvironment environment = mock(CoreEnvironment.class);
+    when(environment.meter()).thenReturn(new NoopMeter());
+    CoreContext context = mock(CoreContext.class);
+    when(context.environment()).thenReturn(environment);
+    Core core = mock(Core.class);
+    when(core.context()).thenReturn(context);
+    return core;
+  }
+
+  private static GetRequest getRequest(final byte[] content, final long cas) {
+    GetResponse response = mock(GetResponse.class);
+    when(response.status()).thenReturn(ResponseStatus.SUCCESS);
+    when(response.content()).thenReturn(content);
+    when(response.cas()).thenReturn(cas);
+
+    GetRequest request = mock(GetRequest.class);
+    when(request.response()).thenReturn(CompletableFuture.completedFuture(response));
+    when(request.context()).thenReturn(mock(RequestContext.class));
+    return request;
+  }
+
+  private static GetMetaRequest getMetaRequest(final long cas) {
+    GetMetaResponse response = mock(GetMetaResponse.class);
+    when(response.status()).thenReturn(ResponseStatus.SUCCESS);
+    when(response.cas()).thenReturn(cas);
+
+    GetMetaRequest request = mock(GetMetaRequest.class);
+    when(request.response()).thenReturn(CompletableFuture.completedFuture(response));
+    when(request.context()).thenReturn(mock(RequestContext.class));
+    return request;
+  }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.config.CouchbaseBucketConfig;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.msg.kv.GetKeysRequest;
+import com.couchbase.client.core.msg.kv.GetKeysResponse;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.GetResponse;
+import com.couchbase.client.java.codec.Transcoder;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link ScanAccessor}.
+ */
+class ScanAccessorTest {
+
+  @Test
+  void groupsVbucketsByActiveNode() {
+    CouchbaseBucketConfig config = mock(CouchbaseBucketConfig.class);
+    when(config.numberOfPartitions()).thenReturn(4);
+    when(config.nodeIndexForActive(anyInt(), eq(false))).thenAnswer(i -> (short) ((int) i.getArgument(0) % 2));
+
+    Map<Short, List<Short>> vbuckets = ScanAccessor.vbucketsByNode(config);
+
+    assertEquals(2, vbuckets.size());
+    assertEquals(Arrays.asList((short) 0, (short) 2), vbuckets.get((short) 0));
+    assertEquals(Arrays.asList((short) 1, (short) 3), vbuckets.get((short) 1));
+  }
+
+  @Test
+  void detectsVbucketsWithoutActiveNode() {
+    CouchbaseBucketConfig config = mock(CouchbaseBucketConfig.class);
+    when(config.numberOfPartitions()).thenReturn(4);
+    when(config.nodeIndexForActive(anyInt(), eq(false))).thenReturn((short) 0);
+    assertTrue(ScanAccessor.hasActiveNodes(config));
+
+    when(config.nodeIndexForActive(2, false)).thenReturn((short) -1);
+    assertFalse(ScanAccessor.hasActiveNodes(config));
+  }
+
+  /**
+   * Pages must only be listed as the keys are consumed, not prefetched ahead of the consumer.
+   */
+  @Test
+  void listsPagesOnDemand() {
+    AtomicInteger pages = new AtomicInteger();
+    BiFunction<String, Short, GetKeysRequest> keysRequest = (start, vbucket) -> {
+      int page = pages.getAndIncrement();
+      List<String> keys = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        keys.add(String.format("key-%05d", page * 10 + i));
+      }
+      GetKeysResponse response = mock(GetKeysResponse.class);
+      when(response.status()).thenReturn(ResponseStatus.SUCCESS);
+      when(response.keys()).thenReturn(keys);
+      return request(GetKeysRequest.class, response);
+    };
+    Function<String, GetRequest> getRequest = key -> {
+      GetResponse response = mock(GetResponse.class);
+      when(response.status()).thenReturn(ResponseStatus.SUCCESS);
+      when(response.content()).thenReturn(new byte[0]);
+      return request(GetRequest.class, response);
+    };
+
+    List<ScanResult> consumed = new ArrayList<>();
+    ScanAccessor
+      .scanVbucket(mock(Core.class), (short) 0, keysRequest, getRequest, mock(Transcoder.class))
+      .subscribe(new BaseSubscriber<ScanResult>() {
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+          request(25);
+        }
+
+        @Override
+        protected void hookOnNext(ScanResult value) {
+          consumed.add(value);
+        }
+      });
+
+    assertEquals(25, consumed.size());
+    // 25 consumed plus at most 16 documents in flight, and one page ahead
+    assertTrue(pages.get() <= 6, "pages listed: " + pages.get());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <R extends Request<T>, T extends Response> R request(final Class<R> type, final T response) {
+    R request = mock(type);
+    when(request.response()).thenReturn(CompletableFuture.completedFuture(response));
+    when(request.context()).thenReturn(mock(RequestContext.class));
+    return request;
+  }
+
+  @Test
+  void nextKeySortsDirectlyAfterKey() {
+    String next = ScanAccessor.nextKey("foo");
+
+    assertTrue(next.compareTo("foo") > 0);
+    assertTrue(next.compareTo("foo0") < 0);
+    assertTrue(next.compareTo("foo\u0000a") < 0);
+  }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.kv.UpsertRequest;
+import com.couchbase.client.core.msg.kv.UpsertResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SingleFlightTest {
+
+  private final Counter coalesced = mock(Counter.class);
+  private final SingleFlight<String, String> singleFlight = new SingleFlight<>(
+    mockCore(coalesced),
+    CollectionIdentifier.fromDefault("bucket")
+  );
+
+  @Test
+  void coalescesInFlightOperations() throws Exception {
+    AtomicInteger started = new AtomicInteger();
+    CompletableFuture<String> operation = new CompletableFuture<>();
+
+    CompletableFuture<String> first = singleFlight.execute("a", () -> {
+      started.incrementAndGet();
+      return operation;
+    });
+    CompletableFuture<String> second = singleFlight.execute("a", () -> {
+      started.incrementAndGet();
+      return new CompletableFuture<>();
+    });
+
+    assertEquals(1, started.get());
+    assertEquals(1, singleFlight.inFlight());
+    assertFalse(second.isDone());
+
+    operation.complete("result");
+    assertEquals("result", first.get());
+    assertEquals("result", second.get());
+    assertEquals(0, singleFlight.inFlight());
+    verify(coalesced, times(1)).incrementBy(1);
+  }
+
+  @Test
+  void doesNotCoalesceDifferentKeys() {
+    AtomicInteger started = new AtomicInteger();
+
+    singleFlight.execute("a", () -> {
+      started.incrementAndGet();
+      return new CompletableFuture<>();
+    });
+    singleFlight.execute("b", () -> {
+      started.incrementAndGet();
+      return new CompletableFuture<>();
+    });
+
+    assertEquals(2, started.get());
+    assertEquals(2, singleFlight.inFlight());
+  }
+
+  @Test
+  void startsNewOperationOnceCompleted() throws Exception {
+    assertEquals("first", singleFlight.execute("a", () -> CompletableFuture.completedFuture("first")).get());
+    assertEquals("second", singleFlight.execute("a", () -> CompletableFuture.completedFuture("second")).get());
+    verify(coalesced, times(0)).incrementBy(1);
+  }
+
+  @Test
+  void fansOutFailures() {
+    CompletableFuture<String> operation = new CompletableFuture<>();
+    CompletableFuture<String> first = singleFlight.execute("a", () -> operation);
+    CompletableFuture<String> second = singleFlight.execute("a", CompletableFuture::new);
+
+    IllegalStateException failure = new IllegalStateException();
+    operation.completeExceptionally(failure);
+
+    assertSame(failure, assertThrows(ExecutionException.class, first::get).getCause());
+    assertSame(failure, assertThrows(ExecutionException.class, second::get).getCause());
+    assertEquals(0, singleFlight.inFlight());
+  }
+
+  @Test
+  void cancellingOneCallerDoesNotAffectOthers() throws Exception {
+    CompletableFuture<String> operation = new CompletableFuture<>();
+    CompletableFuture<String> first = singleFlight.execute("a", () -> operation);
+    CompletableFuture<String> second = singleFlight.execute("a", CompletableFuture::new);
+
+    first.cancel(true);
+    operation.complete("result");
+
+    assertTrue(first.isCancelled());
+    assertEquals("result", second.get());
+  }
+
+  @Test
+  void propagatesSynchronousFailures() {
+    IllegalArgumentException failure = new IllegalArgumentException();
+    assertSame(failure, assertThrows(IllegalArgumentException.class, () -> singleFlight.execute("a", () -> {
+      throw failure;
+    })));
+    assertEquals(0, singleFlight.inFlight());
+  }
+
+  @Test
+  void mutationStartsNewOperationForLaterCallers() throws Exception {
+    CompletableFuture<String> beforeWrite = new CompletableFuture<>();
+    CompletableFuture<String> first = singleFlight.execute("a", () -> beforeWrite);
+
+    CompletableFuture<UpsertResponse> mutation = new CompletableFuture<>();
+    UpsertRequest request = mock(UpsertRequest.class);
+    when(request.response()).thenReturn(mutation);
+    singleFlight.release("a"::equals, request);
+    mutation.complete(mock(UpsertResponse.class));
+
+    CompletableFuture<String> afterWrite = new CompletableFuture<>();
+    CompletableFuture<String> second = singleFlight.execute("a", () -> afterWrite);
+
+    beforeWrite.complete("old");
+    afterWrite.complete("new");
+    assertEquals("old", first.get());
+    assertEquals("new", second.get());
+    verify(coalesced, times(0)).incrementBy(1);
+  }
+
+  @Test
+  void releasesOnceMoreWhenMutationCompletes() throws Exception {
+    singleFlight.execute("b", CompletableFuture::new);
+
+    CompletableFuture<UpsertResponse> mutation = new CompletableFuture<>();
+    UpsertRequest request = mock(UpsertRequest.class);
+    when(request.response()).thenReturn(mutation);
+    singleFlight.release("a"::equals, request);
+
+    // started while the mutation is in flight, so it may read the document before the write
+    CompletableFuture<String> duringWrite = new CompletableFuture<>();
+    CompletableFuture<String> first = singleFlight.execute("a", () -> duringWrite);
+    mutation.complete(mock(UpsertResponse.class));
+
+    CompletableFuture<String> afterWrite = new CompletableFuture<>();
+    CompletableFuture<String> second = singleFlight.execute("a", () -> afterWrite);
+    assertEquals(2, singleFlight.inFlight());
+
+    duringWrite.complete("old");
+    afterWrite.complete("new");
+    assertEquals("old", first.get());
+    assertEquals("new", second.get());
+  }
+
+  private static Core mockCore(final Counter counter) {
+    Meter meter = mock(Meter.class);
+    when(meter.counter(eq("cb.single_flight_coalesced"), any())).thenReturn(counter);
+    CoreEnvironment environment = mock(CoreEnvironment.class);
+    when(environment.meter()).thenReturn(meter);
+    CoreContext context = mock(CoreContext.class);
+    when(context.environment()).thenReturn(environment);
+    Core core = mock(Core.class);
+    when(core.context()).thenReturn(context);
+    return core;
+  }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.query;
+
+import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifies the functionality of the {@link QueryPartitions}.
+ */
+class QueryPartitionsTest {
+
+  @Test
+  void coversWholeKeySpace() {
+    List<JsonObject> parameters = QueryPartitions.splitAt("g", "p").parameters();
+
+    assertEquals(3, parameters.size());
+    assertEquals("", parameters.get(0).get(QueryPartitions.START_PARAMETER));
+    assertEquals("g", parameters.get(0).get(QueryPartitions.END_PARAMETER));
+    assertEquals("g", parameters.get(1).get(QueryPartitions.START_PARAMETER));
+    assertEquals("p", parameters.get(1).get(QueryPartitions.END_PARAMETER));
+    assertEquals("p", parameters.get(2).get(QueryPartitions.START_PARAMETER));
+    assertEquals(JsonArray.create(), parameters.get(2).get(QueryPartitions.END_PARAMETER));
+  }
+
+  @Test
+  void singlePartitionWithoutSplitPoints() {
+    QueryPartitions partitions = QueryPartitions.splitAt();
+
+    assertEquals(1, partitions.size());
+    assertEquals("", partitions.parameters().get(0).get(QueryPartitions.START_PARAMETER));
+  }
+
+  @Test
+  void rejectsUnorderedOrDuplicateSplitPoints() {
+    assertThrows(InvalidArgumentException.class, () -> QueryPartitions.splitAt("p", "g"));
+    assertThrows(InvalidArgumentException.class, () -> QueryPartitions.splitAt("g", "g"));
+    assertThrows(InvalidArgumentException.class, () -> QueryPartitions.splitAt("g", ""));
+    assertThrows(InvalidArgumentException.class, () -> QueryPartitions.splitAt("g").maxConcurrency(0));
+  }
+
+}
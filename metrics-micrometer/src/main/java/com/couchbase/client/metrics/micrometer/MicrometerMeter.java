@@ -23,9 +23,10 @@ import com.couchbase.client.core.cnc.metrics.NameAndTags;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 /**
  * Implements the meter interface on top of the Micrometer {@link MeterRegistry}.
@@ -47,18 +48,25 @@ public class MicrometerMeter implements Meter {
 
   @Override
   public Counter counter(final String name, final Map<String, String> tags) {
-    return counters.computeIfAbsent(
-      new NameAndTags(name, tags),
-      key -> new MicrometerCounter(meterRegistry.counter(name, convertTags(tags)))
-    );
+    NameAndTags key = new NameAndTags(name, tags);
+    MicrometerCounter counter = counters.get(key);
+    if (counter == null) {
+      counter = counters.computeIfAbsent(key, k -> new MicrometerCounter(meterRegistry.counter(name, convertTags(tags))));
+    }
+    return counter;
   }
 
   @Override
   public ValueRecorder valueRecorder(final String name, final Map<String, String> tags) {
-    return valueRecorders.computeIfAbsent(
-      new NameAndTags(name, tags),
-      key -> new MicrometerValueRecorder(meterRegistry.summary(name, convertTags(tags)))
-    );
+    NameAndTags key = new NameAndTags(name, tags);
+    MicrometerValueRecorder recorder = valueRecorders.get(key);
+    if (recorder == null) {
+      recorder = valueRecorders.computeIfAbsent(
+        key,
+        k -> new MicrometerValueRecorder(meterRegistry.summary(name, convertTags(tags)))
+      );
+    }
+    return recorder;
   }
 
   /**
@@ -68,11 +76,11 @@ public class MicrometerMeter implements Meter {
    * @return an iterable of micrometer tags.
    */
   private static Iterable<Tag> convertTags(final Map<String, String> tags) {
-    return tags
-      .entrySet()
-      .stream()
-      .map(e -> Tag.of(e.getKey(), e.getValue()))
-      .collect(Collectors.toList());
+    List<Tag> converted = new ArrayList<>(tags.size());
+    for (Map.Entry<String, String> tag : tags.entrySet()) {
+      converted.add(Tag.of(tag.getKey(), tag.getValue()));
+    }
+    return converted;
   }
 
 }
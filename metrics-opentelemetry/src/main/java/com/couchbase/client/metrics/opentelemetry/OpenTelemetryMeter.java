@@ -34,6 +34,12 @@ public class OpenTelemetryMeter implements Meter {
   private final Map<NameAndTags, OpenTelemetryCounter> counters = new ConcurrentHashMap<>();
   private final Map<NameAndTags, OpenTelemetryValueRecorder> valueRecorders = new ConcurrentHashMap<>();
 
+  /**
+   * The instruments per metric name, which are then bound to the individual label sets.
+   */
+  private final Map<String, LongCounter> counterInstruments = new ConcurrentHashMap<>();
+  private final Map<String, LongValueRecorder> valueRecorderInstruments = new ConcurrentHashMap<>();
+
   public static OpenTelemetryMeter wrap(io.opentelemetry.api.metrics.Meter otMeter) {
     return new OpenTelemetryMeter(otMeter);
   }
@@ -44,26 +50,42 @@ public class OpenTelemetryMeter implements Meter {
 
   @Override
   public Counter counter(final String name, final Map<String, String> tags) {
-    return counters.computeIfAbsent(new NameAndTags(name, tags), key -> {
-      LongCounter counter = otMeter.longCounterBuilder(name).build();
-      final LabelsBuilder builder = Labels.builder();
-      for (Map.Entry<String, String> tag : tags.entrySet()) {
-        builder.put(tag.getKey(), tag.getValue());
-      }
-      return new OpenTelemetryCounter(counter.bind(builder.build()));
-    });
+    NameAndTags key = new NameAndTags(name, tags);
+    OpenTelemetryCounter counter = counters.get(key);
+    if (counter == null) {
+      counter = counters.computeIfAbsent(key, k -> {
+        LongCounter instrument = counterInstruments.computeIfAbsent(
+          name,
+          n -> otMeter.longCounterBuilder(n).build()
+        );
+        return new OpenTelemetryCounter(instrument.bind(convertTags(tags)));
+      });
+    }
+    return counter;
   }
 
   @Override
   public ValueRecorder valueRecorder(final String name, final Map<String, String> tags) {
-    return valueRecorders.computeIfAbsent(new NameAndTags(name, tags), key -> {
-      LongValueRecorder vc =  otMeter.longValueRecorderBuilder(name).build();
-      final LabelsBuilder builder = Labels.builder();
-      for (Map.Entry<String, String> tag : tags.entrySet()) {
-        builder.put(tag.getKey(), tag.getValue());
-      }
-      return new OpenTelemetryValueRecorder(vc.bind(builder.build()));
-    });
+    NameAndTags key = new NameAndTags(name, tags);
+    OpenTelemetryValueRecorder recorder = valueRecorders.get(key);
+    if (recorder == null) {
+      recorder = valueRecorders.computeIfAbsent(key, k -> {
+        LongValueRecorder instrument = valueRecorderInstruments.computeIfAbsent(
+          name,
+          n -> otMeter.longValueRecorderBuilder(n).build()
+        );
+        return new OpenTelemetryValueRecorder(instrument.bind(convertTags(tags)));
+      });
+    }
+    return recorder;
+  }
+
+  private static Labels convertTags(final Map<String, String> tags) {
+    final LabelsBuilder builder = Labels.builder();
+    for (Map.Entry<String, String> tag : tags.entrySet()) {
+      builder.put(tag.getKey(), tag.getValue());
+    }
+    return builder.build();
   }
 
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.scala.codec;
+
+import com.couchbase.client.scala.json.JsonArray;
+import com.couchbase.client.scala.json.JsonObject;
+import com.couchbase.client.scala.transformers.JacksonTransformers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding and decoding a {@link JsonObject} through Jackson's data-binding against the jsoniter based
+ * {@link JsonValueCodecs} used by the built-in serializer and deserializer.
+ * <p>
+ * Run with {@code mvn -Djmh=true test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonObjectCodecBenchmark {
+
+  @Param({"1024", "10240", "102400"})
+  public int documentSize;
+
+  private JsonObject document;
+  private byte[] encoded;
+
+  @Setup
+  public void setup() throws Exception {
+    document = JsonObject.create();
+    int i = 0;
+    while (JacksonTransformers.MAPPER.writeValueAsBytes(document).length < documentSize) {
+      document.put("user" + i, JsonObject.create()
+        .put("id", i)
+        .put("balance", i * 1.25)
+        .put("active", i % 2 == 0)
+        .put("name", "user name number " + i)
+        .put("tags", JsonArray.create().add("a").add("b").add(i)));
+      i++;
+    }
+    encoded = JacksonTransformers.MAPPER.writeValueAsBytes(document);
+  }
+
+  @Benchmark
+  public JsonObject decodeJackson() throws Exception {
+    return JacksonTransformers.MAPPER.readValue(encoded, JsonObject.class);
+  }
+
+  @Benchmark
+  public JsonObject decodeJsoniter() {
+    return JsonDeserializer.JsonObjectConvert$.MODULE$.deserialize(encoded).get();
+  }
+
+  @Benchmark
+  public byte[] encodeJackson() throws Exception {
+    return JacksonTransformers.MAPPER.writeValueAsBytes(document);
+  }
+
+  @Benchmark
+  public byte[] encodeJsoniter() {
+    return JsonSerializer.JsonObjectConvert$.MODULE$.serialize(document).get();
+  }
+
+}
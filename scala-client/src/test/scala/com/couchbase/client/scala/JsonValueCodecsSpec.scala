@@ -0,0 +1,68 @@
+package com.couchbase.client.scala
+
+import com.couchbase.client.scala.codec.Conversions
+import com.couchbase.client.scala.json.{JsonArray, JsonArraySafe, JsonObject, JsonObjectSafe}
+import com.couchbase.client.scala.transformers.JacksonTransformers
+import org.junit.jupiter.api.Assertions.{assertEquals, assertNull, assertTrue}
+import org.junit.jupiter.api.Test
+
+class JsonValueCodecsSpec {
+
+  private val raw =
+    """{"str":"hello \"world\" é","int":29,"long":12345678901,"big":123456789012345678901234567890,
+      |"double":29.34,"exp":1e3,"neg":-5,"bool":true,"null":null,"empty":{},"emptyArr":[],
+      |"nested":{"items":[1,"two",3.5,false,null,{"deep":[[]]}]}}""".stripMargin
+
+  @Test
+  def decodesLikeJackson(): Unit = {
+    val viaJackson  = JacksonTransformers.stringToJsonObject(raw)
+    val viaJsoniter = Conversions.decode[JsonObject](raw.getBytes("UTF-8")).get
+
+    assertEquals(viaJackson, viaJsoniter)
+    assertTrue(viaJsoniter.get("int").isInstanceOf[Int])
+    assertTrue(viaJsoniter.get("long").isInstanceOf[Long])
+    assertTrue(viaJsoniter.get("big").isInstanceOf[java.math.BigInteger])
+    assertTrue(viaJsoniter.get("exp").isInstanceOf[Double])
+    assertNull(viaJsoniter.get("null"))
+    assertEquals("deep", viaJsoniter.dyn.nested.items(5).obj.names.head)
+  }
+
+  @Test
+  def roundTrips(): Unit = {
+    val json    = JsonObject.fromJson(raw)
+    val encoded = Conversions.encode(json).get
+    assertEquals(json, Conversions.decode[JsonObject](encoded).get)
+    assertEquals(json, JacksonTransformers.bytesToJsonObject(encoded))
+  }
+
+  @Test
+  def safeVariants(): Unit = {
+    val obj = JsonObjectSafe(JsonObject.create.put("a", JsonArray(1, 2)))
+    val arr = JsonArraySafe(JsonArray(JsonObject.create.put("b", "c").safe))
+
+    val decodedObj = Conversions.decode[JsonObjectSafe](Conversions.encode(obj).get).get
+    assertEquals(2, decodedObj.dyn.a(1).num.get)
+    val decodedArr = Conversions.decode[JsonArraySafe](Conversions.encode(arr).get).get
+    assertEquals("c", decodedArr.obj(0).get.str("b").get)
+  }
+
+  @Test
+  def encodesOtherValuesLikeJackson(): Unit = {
+    val json = JsonObject.create
+      .put("nan", Double.NaN)
+      .put("decimal", new java.math.BigDecimal("1.50"))
+      .put("char", 'x')
+    val encoded = new String(Conversions.encode(json).get, "UTF-8")
+    val nan     = JacksonTransformers.MAPPER.writeValueAsString(Double.NaN)
+    assertTrue(encoded.contains("\"nan\":" + nan))
+    assertTrue(encoded.contains("\"decimal\":1.50"))
+    assertTrue(encoded.contains("\"char\":\"x\""))
+  }
+
+  @Test
+  def rejectsWrongRootType(): Unit = {
+    assertTrue(Conversions.decode[JsonObject]("[1]".getBytes("UTF-8")).isFailure)
+    assertTrue(Conversions.decode[JsonArray]("{}".getBytes("UTF-8")).isFailure)
+    assertEquals(JsonArray(1, "a"), JsonArray.fromJson(""" [1, "a"] """).get)
+  }
+}
@@ -79,7 +79,7 @@ object JsonDeserializer {
   /** `JsonDeserializer` converting a binary representation of a document into a `JsonObject`. */
   implicit object JsonObjectConvert extends JsonDeserializer[JsonObject] {
     override def deserialize(bytes: Array[Byte]): Try[JsonObject] = {
-      val out = Try(JacksonTransformers.MAPPER.readValue(bytes, classOf[JsonObject]))
+      val out = Try(JsonValueCodecs.readObject(bytes))
       out match {
         case Success(_)   => out
         case Failure(err) => Failure(new DecodingFailureException(err))
@@ -90,7 +90,7 @@ object JsonDeserializer {
   /** `JsonDeserializer` converting a binary representation of a document into a `JsonObjectSafe`. */
   implicit object JsonObjectSafeConvert extends JsonDeserializer[JsonObjectSafe] {
     override def deserialize(bytes: Array[Byte]): Try[JsonObjectSafe] = {
-      val out = Try(JacksonTransformers.MAPPER.readValue(bytes, classOf[JsonObject]))
+      val out = Try(JsonValueCodecs.readObject(bytes))
       out match {
         case Success(v)   => Success(v.safe)
         case Failure(err) => Failure(new DecodingFailureException(err))
@@ -101,7 +101,7 @@ object JsonDeserializer {
   /** `JsonDeserializer` converting a binary representation of a document into a `JsonArray`. */
   implicit object JsonArrayConvert extends JsonDeserializer[JsonArray] {
     override def deserialize(bytes: Array[Byte]): Try[JsonArray] = {
-      val out = Try(JacksonTransformers.MAPPER.readValue(bytes, classOf[JsonArray]))
+      val out = Try(JsonValueCodecs.readArray(bytes))
       out match {
         case Success(_)   => out
         case Failure(err) => Failure(new DecodingFailureException(err))
@@ -112,7 +112,7 @@ object JsonDeserializer {
   /** `JsonDeserializer` converting a binary representation of a document into a `JsonArraySafe`. */
   implicit object JsonArraySafeConvert extends JsonDeserializer[JsonArraySafe] {
     override def deserialize(bytes: Array[Byte]): Try[JsonArraySafe] = {
-      val out = Try(JacksonTransformers.MAPPER.readValue(bytes, classOf[JsonArray]))
+      val out = Try(JsonValueCodecs.readArray(bytes))
       out match {
         case Success(v)   => Success(v.safe)
         case Failure(err) => Failure(new DecodingFailureException(err))
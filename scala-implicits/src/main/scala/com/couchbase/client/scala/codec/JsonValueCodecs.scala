@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.scala.codec
+
+import java.math.MathContext
+
+import com.couchbase.client.scala.json.{JsonArray, JsonArraySafe, JsonObject, JsonObjectSafe}
+import com.couchbase.client.scala.transformers.JacksonTransformers
+import com.github.plokhotnyuk.jsoniter_scala.core.{
+  JsonReader,
+  JsonValueCodec,
+  JsonWriter,
+  ReaderConfig,
+  readFromArray,
+  readFromString
+}
+
+/** Jsoniter codecs for the built-in JSON types, [[JsonObject]], [[JsonArray]] and their 'safe' variants.
+  *
+  * These are used by the built-in [[JsonSerializer]] and [[JsonDeserializer]] for these types, so that
+  * documents are read from and written to bytes directly, rather than through Jackson's data-binding.  They can also
+  * be used directly with jsoniter, e.g. to embed a `JsonObject` in a case class encoded with
+  * [[com.couchbase.client.scala.implicits.Codec]].
+  *
+  * Values are decoded the same way as with Jackson: integers into Int, Long or `java.math.BigInteger` depending on
+  * their size, and floating point numbers into Double, or `java.math.BigDecimal` if the system property
+  * `com.couchbase.json.decimalForFloat` is set to true.
+  *
+  * @since 1.1.0
+  */
+object JsonValueCodecs {
+  private val DecimalForFloat =
+    java.lang.Boolean.parseBoolean(System.getProperty("com.couchbase.json.decimalForFloat", "false"))
+
+  /** Like Jackson, ignores any content following the decoded value. */
+  private val DecodeConfig: ReaderConfig = ReaderConfig.withCheckForEndOfInput(false)
+
+  /** Integers with up to this many digits always fit into a Long. */
+  private val MaxLongDigits = 18
+
+  implicit val JsonObjectCodec: JsonValueCodec[JsonObject] = new JsonValueCodec[JsonObject] {
+    override def decodeValue(in: JsonReader, default: JsonObject): JsonObject = {
+      if (in.isNextToken('{')) decodeObject(in)
+      else in.readNullOrTokenError(default, '{')
+    }
+
+    override def encodeValue(x: JsonObject, out: JsonWriter): Unit = encodeObject(x, out)
+
+    override def nullValue: JsonObject = null
+  }
+
+  implicit val JsonArrayCodec: JsonValueCodec[JsonArray] = new JsonValueCodec[JsonArray] {
+    override def decodeValue(in: JsonReader, default: JsonArray): JsonArray = {
+      if (in.isNextToken('[')) decodeArray(in)
+      else in.readNullOrTokenError(default, '[')
+    }
+
+    override def encodeValue(x: JsonArray, out: JsonWriter): Unit = encodeArray(x, out)
+
+    override def nullValue: JsonArray = null
+  }
+
+  implicit val JsonObjectSafeCodec: JsonValueCodec[JsonObjectSafe] =
+    new JsonValueCodec[JsonObjectSafe] {
+      override def decodeValue(in: JsonReader, default: JsonObjectSafe): JsonObjectSafe = {
+        if (in.isNextToken('{')) JsonObjectSafe(decodeObject(in))
+        else in.readNullOrTokenError(default, '{')
+      }
+
+      override def encodeValue(x: JsonObjectSafe, out: JsonWriter): Unit = encodeObject(x.o, out)
+
+      override def nullValue: JsonObjectSafe = null
+    }
+
+  implicit val JsonArraySafeCodec: JsonValueCodec[JsonArraySafe] =
+    new JsonValueCodec[JsonArraySafe] {
+      override def decodeValue(in: JsonReader, default: JsonArraySafe): JsonArraySafe = {
+        if (in.isNextToken('[')) JsonArraySafe(decodeArray(in))
+        else in.readNullOrTokenError(default, '[')
+      }
+
+      override def encodeValue(x: JsonArraySafe, out: JsonWriter): Unit = encodeArray(x.a, out)
+
+      override def nullValue: JsonArraySafe = null
+    }
+
+  private[scala] def readObject(bytes: Array[Byte]): JsonObject =
+    readFromArray(bytes, DecodeConfig)(JsonObjectCodec)
+
+  private[scala] def readObject(json: String): JsonObject =
+    readFromString(json, DecodeConfig)(JsonObjectCodec)
+
+  private[scala] def readArray(bytes: Array[Byte]): JsonArray =
+    readFromArray(bytes, DecodeConfig)(JsonArrayCodec)
+
+  private[scala] def readArray(json: String): JsonArray =
+    readFromString(json, DecodeConfig)(JsonArrayCodec)
+
+  /** Decodes the fields of an object, the opening brace has been consumed already. */
+  private def decodeObject(in: JsonReader): JsonObject = {
+    val out = JsonObject.create
+    if (!in.isNextToken('}')) {
+      in.rollbackToken()
+      do {
+        val name = in.readKeyAsString()
+        out.content.put(name, decodeAny(in, in.nextToken()))
+      } while (in.isNextToken(','))
+      if (!in.isCurrentToken('}')) in.objectEndOrCommaError()
+    }
+    out
+  }
+
+  /** Decodes the elements of an array, the opening bracket has been consumed already. */
+  private def decodeArray(in: JsonReader): JsonArray = {
+    val out = JsonArray.create
+    if (!in.isNextToken(']')) {
+      in.rollbackToken()
+      do {
+        out.values.add(decodeAny(in, in.nextToken()))
+      } while (in.isNextToken(','))
+      if (!in.isCurrentToken(']')) in.arrayEndOrCommaError()
+    }
+    out
+  }
+
+  private def decodeAny(in: JsonReader, token: Byte): Any = {
+    token match {
+      case '"' =>
+        in.rollbackToken()
+        in.readString(null)
+      case '{' => decodeObject(in)
+      case '[' => decodeArray(in)
+      case 't' | 'f' =>
+        in.rollbackToken()
+        in.readBoolean()
+      case 'n' =>
+        // readNullOrError only accepts null if there is a non-null default
+        if (in.nextByte() != 'u' || in.nextByte() != 'l' || in.nextByte() != 'l') {
+          in.decodeError("expected null")
+        }
+        null
+      case _ =>
+        in.rollbackToken()
+        decodeNumber(in)
+    }
+  }
+
+  /** Scans the number first to pick the same representation Jackson would, then parses it. */
+  private def decodeNumber(in: JsonReader): Any = {
+    in.setMark()
+    var digits   = 0
+    var floating = false
+    var b        = in.nextByte()
+    while ((b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E') {
+      if (b >= '0' && b <= '9') digits += 1
+      else if (b != '-' && b != '+') floating = true
+      b = in.nextByte()
+    }
+    in.rollbackToMark()
+
+    if (floating) {
+      if (DecimalForFloat) {
+        val scaleLimit  = JsonReader.bigDecimalScaleLimit
+        val digitsLimit = JsonReader.bigDecimalDigitsLimit
+        in.readBigDecimal(null, MathContext.UNLIMITED, scaleLimit, digitsLimit).bigDecimal
+      } else {
+        in.readDouble()
+      }
+    } else if (digits <= MaxLongDigits) {
+      val v = in.readLong()
+      if (v.isValidInt) v.toInt else v
+    } else {
+      val v = in.readBigInt(null)
+      if (v.isValidLong) v.toLong else v.bigInteger
+    }
+  }
+
+  private def encodeObject(x: JsonObject, out: JsonWriter): Unit = {
+    out.writeObjectStart()
+    val it = x.content.entrySet.iterator
+    while (it.hasNext) {
+      val entry = it.next()
+      out.writeKey(entry.getKey)
+      encodeAny(entry.getValue, out)
+    }
+    out.writeObjectEnd()
+  }
+
+  private def encodeArray(x: JsonArray, out: JsonWriter): Unit = {
+    out.writeArrayStart()
+    val it = x.values.iterator
+    while (it.hasNext) {
+      encodeAny(it.next(), out)
+    }
+    out.writeArrayEnd()
+  }
+
+  private def encodeAny(value: Any, out: JsonWriter): Unit = {
+    value match {
+      case null                    => out.writeNull()
+      case v: String               => out.writeVal(v)
+      case v: Int                  => out.writeVal(v)
+      case v: Long                 => out.writeVal(v)
+      case v: Boolean              => out.writeVal(v)
+      case v: Double if finite(v)  => out.writeVal(v)
+      case v: Float if finite(v)   => out.writeVal(v)
+      case v: Short                => out.writeVal(v)
+      case v: Byte                 => out.writeVal(v)
+      case v: JsonObject           => encodeObject(v, out)
+      case v: JsonArray            => encodeArray(v, out)
+      case v: JsonObjectSafe       => encodeObject(v.o, out)
+      case v: JsonArraySafe        => encodeArray(v.a, out)
+      case v: java.math.BigDecimal => out.writeVal(BigDecimal(v))
+      case v: java.math.BigInteger => out.writeVal(BigInt(v))
+      case v: BigDecimal           => out.writeVal(v)
+      case v: BigInt               => out.writeVal(v)
+      // Anything else, including non-finite numbers, is written the same way Jackson did before
+      case v => out.writeRawVal(JacksonTransformers.MAPPER.writeValueAsBytes(v))
+    }
+  }
+
+  private def finite(v: Double): Boolean = !v.isNaN && !v.isInfinite
+}
@@ -3,6 +3,7 @@ package com.couchbase.client.scala.json
 import java.util
 
 import com.couchbase.client.core.error.InvalidArgumentException
+import com.couchbase.client.scala.codec.JsonValueCodecs
 import com.couchbase.client.scala.transformers.JacksonTransformers
 
 import scala.jdk.CollectionConverters._
@@ -227,7 +228,7 @@ object JsonArray {
     */
   def fromJson(json: String): Try[JsonArray] = {
     try {
-      Success(JacksonTransformers.stringToJsonArray(json))
+      Success(JsonValueCodecs.readArray(json))
     } catch {
       case NonFatal(err) =>
         Failure(new InvalidArgumentException("Failed to decode json", err, null))
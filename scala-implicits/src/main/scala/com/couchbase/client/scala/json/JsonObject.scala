@@ -19,6 +19,7 @@ package com.couchbase.client.scala.json
 import java.util
 
 import com.couchbase.client.core.error.InvalidArgumentException
+import com.couchbase.client.scala.codec.JsonValueCodecs
 import com.couchbase.client.scala.transformers.JacksonTransformers
 
 import scala.collection.{Map => CMap, Set => CSet, mutable}
@@ -340,7 +341,7 @@ object JsonObject {
     */
   def fromJson(json: String): JsonObject = {
     try {
-      JacksonTransformers.stringToJsonObject(json)
+      JsonValueCodecs.readObject(json)
     } catch {
       case NonFatal(err) => throw new InvalidArgumentException("Failed to decode json", err, null)
     }
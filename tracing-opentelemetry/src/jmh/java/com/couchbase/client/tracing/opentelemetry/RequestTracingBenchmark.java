@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.tracing.opentelemetry;
+
+import com.couchbase.client.core.cnc.RequestSpan;
+import com.couchbase.client.core.cnc.RequestTracer;
+import com.couchbase.client.core.cnc.TracingIdentifiers;
+import com.couchbase.client.core.cnc.tracing.NoopRequestTracer;
+import com.couchbase.client.core.cnc.tracing.SamplingRequestTracer;
+import com.couchbase.client.core.env.SamplingRequestTracerConfig;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.TracerSdkProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the span lifecycle of a single KV operation (request span, encoding span, dispatch span) as
+ * performed by the SDK, once untraced, once fully traced through the OpenTelemetry SDK and once with
+ * different sampling configurations in front of it.
+ * <p>
+ * Run with {@code mvn -Djmh=true test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RequestTracingBenchmark {
+
+  @Param({ "untraced", "traced", "ratio", "rate_limited", "tail" })
+  public String mode;
+
+  private TracerSdkProvider provider;
+  private RequestTracer tracer;
+
+  @Setup
+  public void setup() {
+    provider = TracerSdkProvider.builder().build();
+    provider.addSpanProcessor(SimpleSpanProcessor.builder(new DiscardingSpanExporter()).build());
+    RequestTracer traced = OpenTelemetryRequestTracer.wrap(provider.get("benchmark"));
+
+    switch (mode) {
+      case "untraced":
+        tracer = NoopRequestTracer.INSTANCE;
+        break;
+      case "traced":
+        tracer = traced;
+        break;
+      case "ratio":
+        tracer = SamplingRequestTracer.wrap(traced, SamplingRequestTracerConfig.ratio(0.01).build());
+        break;
+      case "rate_limited":
+        tracer = SamplingRequestTracer.wrap(traced, SamplingRequestTracerConfig.maxSampledPerSecond(1000).build());
+        break;
+      case "tail":
+        tracer = SamplingRequestTracer.wrap(
+          traced,
+          SamplingRequestTracerConfig.ratio(0.01).tailThreshold(Duration.ofMillis(500)).build()
+        );
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown mode " + mode);
+    }
+  }
+
+  @TearDown
+  public void teardown() {
+    provider.shutdown();
+  }
+
+  @Benchmark
+  public RequestSpan kvOperation() {
+    RequestSpan span = tracer.requestSpan(TracingIdentifiers.SPAN_REQUEST_KV_GET, null);
+    RequestSpan encoding = tracer.requestSpan(TracingIdentifiers.SPAN_REQUEST_ENCODING, span);
+    encoding.end();
+
+    RequestSpan dispatch = tracer.requestSpan(TracingIdentifiers.SPAN_DISPATCH, span);
+    dispatch.end();
+
+    span.end();
+    return span;
+  }
+
+  private static class DiscardingSpanExporter implements SpanExporter {
+
+    @Override
+    public CompletableResultCode export(final Collection<SpanData> spans) {
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+      return CompletableResultCode.ofSuccess();
+    }
+  }
+
+}
@@ -18,6 +18,7 @@ package com.couchbase.client.tracing.opentelemetry;
 
 import com.couchbase.client.core.cnc.RequestSpan;
 import com.couchbase.client.core.cnc.RequestTracer;
+import com.couchbase.client.core.cnc.tracing.NoopRequestSpan;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanBuilder;
 import io.opentelemetry.api.trace.Tracer;
@@ -25,6 +26,7 @@ import io.opentelemetry.context.Context;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.time.Instant;
 
 /**
  * Wraps the OpenTelemetry tracer so it is suitable to be passed in into the couchbase environment and picked up
@@ -66,15 +68,27 @@ public class OpenTelemetryRequestTracer implements RequestTracer {
 
   @Override
   public RequestSpan requestSpan(String operationName, RequestSpan parent) {
+    return requestSpan(operationName, parent, null);
+  }
+
+  @Override
+  public RequestSpan requestSpan(String operationName, RequestSpan parent, Instant startTime) {
+    if (parent == NoopRequestSpan.INSTANCE) {
+      // the parent has not been sampled, so neither are its children
+      return NoopRequestSpan.INSTANCE;
+    }
+
     SpanBuilder spanBuilder = tracer.spanBuilder(operationName);
     if (parent != null) {
+      // a non-recording parent still yields a (non-recording) child, so its span context is propagated
       spanBuilder.setParent(Context.current().with(castSpan(parent)));
     } else {
       spanBuilder.setNoParent();
     }
-    Span span = spanBuilder.startSpan();
-    span.makeCurrent().close();
-    return OpenTelemetryRequestSpan.wrap(span);
+    if (startTime != null) {
+      spanBuilder.setStartTimestamp(startTime);
+    }
+    return OpenTelemetryRequestSpan.wrap(spanBuilder.startSpan());
   }
 
   @Override
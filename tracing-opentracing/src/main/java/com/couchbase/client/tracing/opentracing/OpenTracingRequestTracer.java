@@ -18,11 +18,14 @@ package com.couchbase.client.tracing.opentracing;
 
 import com.couchbase.client.core.cnc.RequestSpan;
 import com.couchbase.client.core.cnc.RequestTracer;
+import com.couchbase.client.core.cnc.tracing.NoopRequestSpan;
 import io.opentracing.Span;
 import io.opentracing.Tracer;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Wraps the OpenTracing tracer so it is suitable to be passed in into the couchbase environment and picked up
@@ -64,13 +67,26 @@ public class OpenTracingRequestTracer implements RequestTracer {
 
   @Override
   public RequestSpan requestSpan(final String operationName, final RequestSpan parent) {
+    return requestSpan(operationName, parent, null);
+  }
+
+  @Override
+  public RequestSpan requestSpan(final String operationName, final RequestSpan parent, final Instant startTime) {
+    if (parent == NoopRequestSpan.INSTANCE) {
+      // the parent has not been sampled, so neither are its children
+      return NoopRequestSpan.INSTANCE;
+    }
+
     Tracer.SpanBuilder builder = tracer.buildSpan(operationName);
     if (parent != null) {
       builder.asChildOf(castSpan(parent));
     }
-    Span span = builder.start();
-    tracer.activateSpan(span).close();
-    return OpenTracingRequestSpan.wrap(tracer, span);
+    if (startTime != null) {
+      builder.withStartTimestamp(
+        TimeUnit.SECONDS.toMicros(startTime.getEpochSecond()) + TimeUnit.NANOSECONDS.toMicros(startTime.getNano())
+      );
+    }
+    return OpenTracingRequestSpan.wrap(tracer, builder.start());
   }
 
   @Override